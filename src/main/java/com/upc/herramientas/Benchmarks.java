@@ -0,0 +1,132 @@
+package com.upc.herramientas;
+
+import com.upc.logica.ExportadorTickets;
+import com.upc.logica.ImportadorCsv;
+import com.upc.persistencia.CodecFecha;
+import com.upc.persistencia.IndiceTickets;
+import com.upc.persistencia.PasajeroDAO;
+import com.upc.persistencia.TablaColumnarTickets;
+import com.upc.persistencia.TicketDAO;
+import com.upc.persistencia.TipoMotorAlmacenamiento;
+import com.upc.persistencia.TokenizadorCsv;
+
+/**
+ * Clase Benchmarks
+ * Mediciones de rendimiento de los componentes de persistencia, ejecutables
+ * desde la línea de comandos.
+ *
+ * <p>Uso:</p>
+ * <pre>
+ *   java -cp target/classes com.upc.herramientas.Benchmarks &lt;caso&gt; [iteraciones]
+ * </pre>
+ *
+ * <p>Casos disponibles:</p>
+ * <ul>
+ *   <li>{@code tokenizador}: división de líneas de tickets con {@code split} frente a
+ *       {@link TokenizadorCsv} (tiempo y bytes asignados por línea).</li>
+ *   <li>{@code fecha}: escritura y lectura de fechas con ISO_LOCAL_DATE_TIME frente a
+ *       {@link CodecFecha}. Antes de medir verifica que ambos produzcan lo mismo.</li>
+ *   <li>{@code analitica}: ingresos totales recorriendo una lista de tickets frente a
+ *       {@link TablaColumnarTickets}, secuencial y en paralelo. Aquí las iteraciones son
+ *       la cantidad de tickets; el tiempo se reporta por ticket.</li>
+ *   <li>{@code motores}: la misma carga de pasajeros (insertar, buscar, actualizar y
+ *       eliminar) sobre cada {@link TipoMotorAlmacenamiento}, en un directorio temporal.
+ *       Las iteraciones son la cantidad de pasajeros (2000 por defecto); se reportan
+ *       operaciones por segundo y latencias p50/p99 de cada operación.</li>
+ *   <li>{@code importacion}: importación masiva de un CSV de pasajeros con
+ *       {@link ImportadorCsv} sobre cada {@link TipoMotorAlmacenamiento}. Las iteraciones
+ *       son las filas del archivo (1000000 por defecto), con una fila repetida cada 50 y
+ *       una inválida cada 100; se reportan filas por minuto, importadas y rechazadas.</li>
+ *   <li>{@code exportacion}: escritura de tickets en un archivo copiándolos a una lista y
+ *       usando un {@code BufferedWriter}, frente a {@link ExportadorTickets} en CSV y
+ *       JSON Lines. Las iteraciones son la cantidad de tickets; se reportan tiempo y
+ *       bytes asignados por ticket.</li>
+ *   <li>{@code indices}: búsqueda de tickets por cédula y por placa recorriendo el mapa
+ *       de tickets, frente a {@link IndiceTickets}. Las iteraciones son la cantidad de
+ *       tickets; el tiempo se reporta por búsqueda.</li>
+ *   <li>{@code cronologico}: los 50 tickets más recientes, los de un día y una página de
+ *       50 tras un cursor, copiando y ordenando el mapa de tickets frente al índice por
+ *       fecha de {@link IndiceTickets}. Las iteraciones son la cantidad de tickets; el
+ *       tiempo se reporta por consulta.</li>
+ *   <li>{@code rutas}: las 5 rutas más concurridas, los ingresos de una ruta y sus
+ *       tickets, recorriendo la lista de tickets frente a los contadores por ruta de
+ *       {@link TablaColumnarTickets}. Las iteraciones son la cantidad de tickets; el
+ *       tiempo se reporta por consulta.</li>
+ *   <li>{@code consultas}: tres consultas compuestas (los 20 más recientes de un tipo de
+ *       pasajero, los de un pasajero en un mes y los primeros 20 de una ruta en bus)
+ *       copiando y filtrando el historial frente a {@link TicketDAO#consultar}, sobre el DAO
+ *       en modo MEMORIA. Las iteraciones son la cantidad de tickets; el tiempo se reporta
+ *       por consulta.</li>
+ *   <li>{@code nombres}: búsqueda de pasajeros por prefijos del nombre, por el nombre
+ *       con tildes y mayúsculas y con un error de escritura, recorriendo los pasajeros
+ *       frente a {@link PasajeroDAO#buscarPorNombre}, en el motor de memoria. Las
+ *       iteraciones son la cantidad de pasajeros; el tiempo se reporta por búsqueda.</li>
+ * </ul>
+ *
+ * <p>Los casos se agrupan por componente ({@link BenchmarksCodificacion},
+ * {@link BenchmarksPersistencia}, {@link BenchmarksColumnar}, {@link BenchmarksIndices} y
+ * {@link BenchmarksConsultas}) y comparten los datos generados de {@link DatosPrueba} y
+ * el cronometraje de {@link Medicion}. Los bytes asignados se obtienen de la JVM
+ * HotSpot; en otras JVM se reportan como "n/d".</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class Benchmarks {
+
+    /**
+     * Punto de entrada de la herramienta.
+     *
+     * @param args caso a medir e iteraciones opcionales
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: Benchmarks <tokenizador|fecha|analitica|motores|importacion|exportacion|indices|cronologico|rutas|consultas|nombres> [iteraciones]");
+            System.exit(1);
+        }
+        int iteraciones = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        switch (args[0]) {
+            case "tokenizador":
+                BenchmarksCodificacion.medirTokenizador(iteraciones);
+                break;
+            case "fecha":
+                BenchmarksCodificacion.medirFecha(iteraciones);
+                break;
+            case "analitica":
+                BenchmarksColumnar.medirAnalitica(iteraciones);
+                break;
+            case "motores":
+                BenchmarksPersistencia.medirMotores(args.length > 1 ? iteraciones : 2000);
+                break;
+            case "importacion":
+                BenchmarksPersistencia.medirImportacion(iteraciones);
+                break;
+            case "exportacion":
+                BenchmarksPersistencia.medirExportacion(iteraciones);
+                break;
+            case "indices":
+                BenchmarksIndices.medirIndices(iteraciones);
+                break;
+            case "cronologico":
+                BenchmarksIndices.medirCronologico(iteraciones);
+                break;
+            case "rutas":
+                BenchmarksColumnar.medirRutas(iteraciones);
+                break;
+            case "consultas":
+                BenchmarksConsultas.medirConsultas(iteraciones);
+                break;
+            case "nombres":
+                BenchmarksConsultas.medirNombres(iteraciones);
+                break;
+            default:
+                System.err.println("Caso desconocido: " + args[0]);
+                System.exit(1);
+        }
+        if (Medicion.sumidero == 42.0) {
+            System.out.println();
+        }
+    }
+}
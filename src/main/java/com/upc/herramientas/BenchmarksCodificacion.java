@@ -0,0 +1,110 @@
+package com.upc.herramientas;
+
+import com.upc.persistencia.CodecFecha;
+import com.upc.persistencia.SerializadorTicket;
+import com.upc.persistencia.TokenizadorCsv;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+/**
+ * Clase BenchmarksCodificacion
+ * Casos {@code tokenizador} y {@code fecha} de {@link Benchmarks}: lectura y escritura
+ * de los campos de texto de los archivos.
+ *
+ * <p>Las variantes cuestan pocos nanosegundos por operación, así que cada una recorre
+ * sus datos en su propio bucle en lugar de usar {@link Medicion#medirCada}.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+final class BenchmarksCodificacion {
+
+    private BenchmarksCodificacion() {
+    }
+
+    /**
+     * Compara la división de líneas de tickets con split y trim frente al tokenizador.
+     * Ambos extraen los mismos campos numéricos y de texto de cada línea.
+     */
+    static void medirTokenizador(int iteraciones) {
+        String[] lineas = new String[1024];
+        LocalDateTime base = LocalDateTime.of(2025, 11, 8, 10, 30, 45);
+        for (int i = 0; i < lineas.length; i++) {
+            lineas[i] = SerializadorTicket.serializarCampos(String.format("TK-%05d", i + 1),
+                    "PL" + (i % 50), String.valueOf(1000000000L + i), "Valledupar", "Barranquilla",
+                    base.plusSeconds(i * 37L), 50.0 + (i % 400) * 0.5);
+        }
+
+        Medicion.imprimirEncabezado("tokenizador", iteraciones);
+        Medicion.medir("split + trim + parseDouble", iteraciones, () -> {
+            for (int i = 0; i < iteraciones; i++) {
+                String[] partes = lineas[i & 1023].split(",");
+                Medicion.sumidero += partes[0].trim().length() + partes[1].trim().length()
+                        + Double.parseDouble(partes[6].trim());
+            }
+        });
+        Medicion.medir("TokenizadorCsv", iteraciones, () -> {
+            TokenizadorCsv campos = TokenizadorCsv.delHiloActual();
+            for (int i = 0; i < iteraciones; i++) {
+                campos.reiniciar(lineas[i & 1023]).exigirCampos(7);
+                Medicion.sumidero += campos.longitud(0) + campos.longitud(1) + campos.decimal(6);
+            }
+        });
+    }
+
+    /**
+     * Verifica la ida y vuelta de CodecFecha contra el formateador ISO y compara sus tiempos.
+     */
+    static void medirFecha(int iteraciones) {
+        DateTimeFormatter iso = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        Random aleatorio = new Random(7);
+        LocalDateTime[] fechas = new LocalDateTime[1024];
+        String[] textos = new String[fechas.length];
+        for (int i = 0; i < fechas.length; i++) {
+            fechas[i] = DatosPrueba.fechaAleatoria(aleatorio);
+            textos[i] = fechas[i].format(iso);
+        }
+
+        // Ida y vuelta sobre fechas con distintas precisiones de fracción
+        int verificadas = 0;
+        for (int i = 0; i < 200_000; i++) {
+            LocalDateTime fecha = DatosPrueba.fechaAleatoria(aleatorio);
+            String esperado = fecha.format(iso);
+            String obtenido = CodecFecha.formatear(fecha);
+            if (!esperado.equals(obtenido) || !CodecFecha.leer(obtenido).equals(LocalDateTime.parse(esperado, iso))
+                    || !CodecFecha.desdeEpochMilis(CodecFecha.aEpochMilis(fecha))
+                            .equals(fecha.truncatedTo(ChronoUnit.MILLIS))) {
+                throw new IllegalStateException("CodecFecha difiere de ISO para " + esperado + ": " + obtenido);
+            }
+            verificadas++;
+        }
+        System.out.println("Ida y vuelta verificada en " + verificadas + " fechas");
+
+        Medicion.imprimirEncabezado("fecha", iteraciones);
+        Medicion.medir("ISO format", iteraciones, () -> {
+            for (int i = 0; i < iteraciones; i++) {
+                Medicion.sumidero += fechas[i & 1023].format(iso).length();
+            }
+        });
+        Medicion.medir("CodecFecha.escribir", iteraciones, () -> {
+            StringBuilder sb = new StringBuilder(32);
+            for (int i = 0; i < iteraciones; i++) {
+                sb.setLength(0);
+                Medicion.sumidero += CodecFecha.escribir(sb, fechas[i & 1023]).length();
+            }
+        });
+        Medicion.medir("ISO parse", iteraciones, () -> {
+            for (int i = 0; i < iteraciones; i++) {
+                Medicion.sumidero += LocalDateTime.parse(textos[i & 1023], iso).getNano();
+            }
+        });
+        Medicion.medir("CodecFecha.leer", iteraciones, () -> {
+            for (int i = 0; i < iteraciones; i++) {
+                Medicion.sumidero += CodecFecha.leer(textos[i & 1023]).getNano();
+            }
+        });
+    }
+}
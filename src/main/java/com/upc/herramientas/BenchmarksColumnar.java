@@ -0,0 +1,168 @@
+package com.upc.herramientas;
+
+import com.upc.modelo.Ticket;
+import com.upc.persistencia.EstadisticaRuta;
+import com.upc.persistencia.TablaColumnarTickets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Clase BenchmarksColumnar
+ * Casos {@code analitica} y {@code rutas} de {@link Benchmarks}: totales y consultas por
+ * ruta recorriendo la lista de tickets frente a {@link TablaColumnarTickets}.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+final class BenchmarksColumnar {
+
+    /**
+     * Rutas en el caso de las más concurridas
+     */
+    private static final int RUTAS_POR_CONSULTA = 5;
+
+    private BenchmarksColumnar() {
+    }
+
+    /**
+     * Compara el cálculo de ingresos sobre la lista de tickets con la tabla columnar.
+     */
+    static void medirAnalitica(int cantidad) {
+        List<Ticket> tickets = DatosPrueba.tickets(cantidad);
+
+        System.setProperty(TablaColumnarTickets.PROPIEDAD_PARALELA, "false");
+        TablaColumnarTickets secuencial = TablaColumnarTickets.desde(tickets);
+        System.setProperty(TablaColumnarTickets.PROPIEDAD_PARALELA, "true");
+        TablaColumnarTickets paralela = TablaColumnarTickets.desde(tickets);
+
+        double esperado = ingresos(tickets);
+        double obtenido = paralela.resumir().getIngresos();
+        if (Math.abs(esperado - obtenido) > Math.abs(esperado) * 1e-9) {
+            throw new IllegalStateException("La tabla columnar difiere: " + esperado + " frente a " + obtenido);
+        }
+        System.out.println(String.format(Locale.ROOT, "Ingresos verificados: %.2f (%d tickets)", esperado, cantidad));
+
+        Medicion.imprimirEncabezado("analitica", cantidad);
+        Medicion.medir("lista + calcularPrecioFinal", cantidad,
+                () -> Medicion.sumidero += ingresos(new ArrayList<>(tickets)));
+        Medicion.medir("columnar secuencial", cantidad, () -> Medicion.sumidero += secuencial.resumir().getIngresos());
+        Medicion.medir("columnar paralela", cantidad, () -> Medicion.sumidero += paralela.resumir().getIngresos());
+    }
+
+    private static double ingresos(List<Ticket> tickets) {
+        double total = 0;
+        for (Ticket ticket : tickets) {
+            total += ticket.calcularPrecioFinal();
+        }
+        return total;
+    }
+
+    /**
+     * Compara las consultas por ruta recorriendo la lista de tickets, agrupando y
+     * calculando cada precio, con los contadores por ruta de la tabla columnar. Antes de
+     * medir cambia el destino de uno de cada 100 tickets y elimina otro de cada 100, y
+     * verifica que los contadores coincidan con el recorrido.
+     */
+    static void medirRutas(int cantidad) {
+        List<Ticket> tickets = DatosPrueba.tickets(cantidad);
+        TablaColumnarTickets tabla = TablaColumnarTickets.desde(tickets);
+        Random aleatorio = new Random(17);
+        List<Ticket> vigentes = new ArrayList<>(tickets.size());
+        for (int i = 0; i < tickets.size(); i++) {
+            Ticket ticket = tickets.get(i);
+            if (i % 100 == 1) {
+                ticket.setDestino(tickets.get(aleatorio.nextInt(cantidad)).getDestino());
+                tabla.registrar(ticket);
+            } else if (i % 100 == 2) {
+                tabla.eliminar(ticket.getIdTicket());
+                continue;
+            }
+            vigentes.add(ticket);
+        }
+        verificarRutas(agruparPorRuta(vigentes), tabla.rutas());
+
+        int consultas = Medicion.CONSULTAS_DISTINTAS;
+        Ticket[] ejemplos = new Ticket[consultas];
+        for (int i = 0; i < ejemplos.length; i++) {
+            ejemplos[i] = vigentes.get(aleatorio.nextInt(vigentes.size()));
+        }
+
+        int repetidas = consultas * Medicion.REPETICIONES_INDICE;
+        Medicion.imprimirEncabezado("rutas", consultas);
+        Medicion.medirCada("recorrido: 5 más concurridas", consultas, i -> {
+            List<double[]> rutas = new ArrayList<>(agruparPorRuta(vigentes).values());
+            rutas.sort((a, b) -> Double.compare(b[0], a[0]));
+            return rutas.subList(0, Math.min(RUTAS_POR_CONSULTA, rutas.size())).size();
+        });
+        Medicion.medirCada("índice: 5 más concurridas", repetidas,
+                i -> tabla.rutasMasConcurridas(RUTAS_POR_CONSULTA).size());
+        Medicion.medirCada("recorrido: ingresos de una ruta", consultas,
+                i -> ingresosDeRuta(vigentes, ejemplos[i]));
+        Medicion.medirCada("índice: ingresos de una ruta", repetidas, i -> {
+            Ticket ejemplo = ejemplos[i % consultas];
+            return tabla.estadisticaRuta(ejemplo.getIdOrigen(), ejemplo.getIdDestino()).getIngresos();
+        });
+        Medicion.medirCada("recorrido: tickets de una ruta", consultas, i -> deLaRuta(vigentes, ejemplos[i]).size());
+        Medicion.medirCada("índice: tickets de una ruta", consultas,
+                i -> tabla.idsDeRuta(ejemplos[i].getIdOrigen(), ejemplos[i].getIdDestino()).size());
+    }
+
+    private static double ingresosDeRuta(List<Ticket> tickets, Ticket ejemplo) {
+        double ingresos = 0;
+        for (Ticket ticket : tickets) {
+            if (ticket.esMismaRuta(ejemplo)) {
+                ingresos += ticket.calcularPrecioFinal();
+            }
+        }
+        return ingresos;
+    }
+
+    private static List<Ticket> deLaRuta(List<Ticket> tickets, Ticket ejemplo) {
+        List<Ticket> resultado = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            if (ticket.esMismaRuta(ejemplo)) {
+                resultado.add(ticket);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Agrupa los tickets por ruta: cantidad e ingresos de cada una, indexados por los
+     * identificadores de origen y destino.
+     */
+    private static Map<Long, double[]> agruparPorRuta(List<Ticket> tickets) {
+        Map<Long, double[]> rutas = new HashMap<>();
+        for (Ticket ticket : tickets) {
+            double[] ruta = rutas.computeIfAbsent(claveRuta(ticket.getIdOrigen(), ticket.getIdDestino()),
+                    clave -> new double[2]);
+            ruta[0]++;
+            ruta[1] += ticket.calcularPrecioFinal();
+        }
+        return rutas;
+    }
+
+    private static long claveRuta(int idOrigen, int idDestino) {
+        return ((long) idOrigen << 32) | (idDestino & 0xFFFFFFFFL);
+    }
+
+    private static void verificarRutas(Map<Long, double[]> esperadas, List<EstadisticaRuta> obtenidas) {
+        if (esperadas.size() != obtenidas.size()) {
+            throw new IllegalStateException("El índice de rutas tiene " + obtenidas.size() + " rutas frente a "
+                    + esperadas.size());
+        }
+        for (EstadisticaRuta ruta : obtenidas) {
+            double[] esperada = esperadas.get(claveRuta(ruta.getIdOrigen(), ruta.getIdDestino()));
+            if (esperada == null || esperada[0] != ruta.getCantidad()
+                    || Math.abs(esperada[1] - ruta.getIngresos()) > Math.abs(esperada[1]) * 1e-9) {
+                throw new IllegalStateException("El índice de rutas difiere del recorrido en " + ruta);
+            }
+        }
+        System.out.println("Rutas verificadas: " + obtenidas.size());
+    }
+}
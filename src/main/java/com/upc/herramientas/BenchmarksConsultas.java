@@ -0,0 +1,269 @@
+package com.upc.herramientas;
+
+import com.upc.modelo.Pasajero;
+import com.upc.modelo.Ticket;
+import com.upc.modelo.TipoPasajero;
+import com.upc.persistencia.ClaveCronologica;
+import com.upc.persistencia.ConsultaTickets;
+import com.upc.persistencia.ModoAlmacenamientoTickets;
+import com.upc.persistencia.PasajeroDAO;
+import com.upc.persistencia.TicketDAO;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Clase BenchmarksConsultas
+ * Casos {@code consultas} y {@code nombres} de {@link Benchmarks}: consultas de los DAO
+ * en el motor de memoria frente a copiar y filtrar todos sus datos.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+final class BenchmarksConsultas {
+
+    /**
+     * Tickets que devuelve cada consulta compuesta medida
+     */
+    private static final int LIMITE_CONSULTA = 20;
+
+    /**
+     * Resultados pedidos en cada búsqueda por nombre, como en el menú de pasajeros
+     */
+    private static final int LIMITE_NOMBRES = 10;
+
+    /**
+     * Búsquedas medidas de cada tipo
+     */
+    private static final int BUSQUEDAS_NOMBRE = 5;
+
+    private static final String[] NOMBRES_PILA = {"José", "María", "Ana", "Andrés", "Ángela", "Luis",
+        "Lucía", "Mariana", "Marco", "Carlos", "Camila", "Jesús", "Sofía", "Valentina", "Sebastián",
+        "Daniela", "Julián", "Natalia", "Óscar", "Iván", "Inés", "Ramón", "Simón", "Mónica"};
+
+    private static final String[] APELLIDOS = {"González", "Gómez", "Martínez", "Pérez", "Núñez",
+        "Rodríguez", "Díaz", "Ibáñez", "Márquez", "Peña", "Muñoz", "Castaño", "Ramírez", "Suárez",
+        "Jiménez", "Hernández", "Álvarez", "Gutiérrez", "Orozco", "Ospina", "Quintero", "Zuleta"};
+
+    private static final String[] SILABAS = {"ba", "ca", "da", "fe", "ga", "go", "la", "lo", "ma",
+        "me", "na", "ño", "pa", "que", "ra", "rí", "sa", "so", "ta", "to", "va", "ya", "za", "zú"};
+
+    private BenchmarksConsultas() {
+    }
+
+    /**
+     * Compara tres consultas compuestas resueltas como se hacía sin
+     * {@link ConsultaTickets} (copiar el historial, filtrar, ordenar y recortar) con
+     * {@link TicketDAO#consultar}, sobre el DAO en modo MEMORIA: los 20 tickets más
+     * recientes de estudiantes (índice por fecha, sin ordenar), los de un pasajero en un
+     * mes (índice por cédula) y los primeros 20 de una ruta en bus (índice de rutas).
+     * Antes de medir verifica que ambas variantes devuelvan lo mismo.
+     */
+    static void medirConsultas(int cantidad) {
+        DatosPrueba.usarMemoria();
+        System.setProperty(ModoAlmacenamientoTickets.PROPIEDAD, ModoAlmacenamientoTickets.MEMORIA.getClave());
+        Random aleatorio = new Random(19);
+        List<Ticket> generados = DatosPrueba.tickets(cantidad, aleatorio);
+        TicketDAO dao = TicketDAO.getInstancia();
+        dao.guardarTodos(generados);
+
+        int distintas = Medicion.CONSULTAS_DISTINTAS;
+        ConsultaTickets[] consultas = new ConsultaTickets[distintas * 3];
+        for (int i = 0; i < distintas; i++) {
+            Ticket ejemplo = generados.get(aleatorio.nextInt(cantidad));
+            LocalDateTime mes = ejemplo.getFecha().toLocalDate().withDayOfMonth(1).atStartOfDay();
+            consultas[i] = new ConsultaTickets()
+                    .porTipoPasajero(TipoPasajero.values()[i % TipoPasajero.values().length])
+                    .ordenarPor(ConsultaTickets.Orden.FECHA_DESCENDENTE).limitar(LIMITE_CONSULTA);
+            consultas[distintas + i] = new ConsultaTickets()
+                    .porPasajero(ejemplo.getCedula()).entre(mes, mes.plusMonths(1))
+                    .ordenarPor(ConsultaTickets.Orden.FECHA_ASCENDENTE);
+            consultas[2 * distintas + i] = new ConsultaTickets()
+                    .porRuta(ejemplo.getOrigen(), ejemplo.getDestino()).porTipoVehiculo("Bus")
+                    .ordenarPor(ConsultaTickets.Orden.FECHA_ASCENDENTE).limitar(LIMITE_CONSULTA);
+        }
+        List<Comparator<Ticket>> ordenes = Arrays.asList(ClaveCronologica.ORDEN_TICKETS.reversed(),
+                ClaveCronologica.ORDEN_TICKETS, ClaveCronologica.ORDEN_TICKETS);
+        int[] limites = {LIMITE_CONSULTA, Integer.MAX_VALUE, LIMITE_CONSULTA};
+        for (int i = 0; i < consultas.length; i++) {
+            int tipo = i / distintas;
+            List<Ticket> esperados = consultarCopiando(dao, consultas[i], ordenes.get(tipo), limites[tipo]);
+            List<Ticket> obtenidos = dao.consultar(consultas[i]).collect(Collectors.toList());
+            if (!esperados.equals(obtenidos)) {
+                throw new IllegalStateException("La consulta " + consultas[i] + " devuelve " + obtenidos.size()
+                        + " tickets frente a " + esperados.size() + " del recorrido");
+            }
+        }
+        for (int i = 0; i < consultas.length; i += distintas) {
+            System.out.println("Plan: " + dao.planificar(consultas[i]));
+        }
+
+        int repetidas = distintas * Medicion.REPETICIONES_INDICE;
+        String[] nombres = {"últimos 20 estudiantes", "pasajero en un mes", "ruta en bus"};
+        Medicion.imprimirEncabezado("consultas", distintas);
+        for (int tipo = 0; tipo < nombres.length; tipo++) {
+            int primera = tipo * distintas;
+            Comparator<Ticket> orden = ordenes.get(tipo);
+            int limite = limites[tipo];
+            Medicion.medirCada("copia + filtro: " + nombres[tipo], distintas,
+                    i -> consultarCopiando(dao, consultas[primera + i], orden, limite).size());
+            Medicion.medirCada("plan: " + nombres[tipo], repetidas,
+                    i -> dao.consultar(consultas[primera + i % distintas]).count());
+        }
+    }
+
+    /**
+     * Resuelve una consulta copiando el historial a una lista, filtrando y ordenando la
+     * copia completa.
+     */
+    private static List<Ticket> consultarCopiando(TicketDAO dao, ConsultaTickets consulta, Comparator<Ticket> orden,
+                                                  int limite) {
+        List<Ticket> coincidentes = new ArrayList<>();
+        for (Ticket ticket : dao.obtenerTodos()) {
+            if (consulta.coincide(ticket)) {
+                coincidentes.add(ticket);
+            }
+        }
+        coincidentes.sort(orden);
+        return new ArrayList<>(coincidentes.subList(0, Math.min(limite, coincidentes.size())));
+    }
+
+    /**
+     * Compara la búsqueda de pasajeros por nombre recorriéndolos todos (normalizar cada
+     * nombre y comprobar que cada palabra buscada empiece alguna palabra del nombre) con
+     * {@link PasajeroDAO#buscarPorNombre}, en el motor de memoria. Se buscan prefijos
+     * ("mar gonz"), nombres completos con tildes y mayúsculas y apellidos con un error
+     * de escritura, que el recorrido no encuentra. Antes de medir verifica que en las
+     * búsquedas sin errores los primeros resultados sean los pasajeros que encuentra el
+     * recorrido; el índice completa el límite con coincidencias con errores.
+     */
+    static void medirNombres(int cantidad) {
+        DatosPrueba.usarMemoria();
+        Random aleatorio = new Random(25);
+        List<Pasajero> pasajeros = generarPasajerosConNombre(cantidad, aleatorio);
+        PasajeroDAO dao = PasajeroDAO.getInstancia();
+        dao.limpiar();
+        dao.guardarTodos(pasajeros);
+        long inicio = System.nanoTime();
+        dao.buscarPorNombre("construir", 1);
+        System.out.println(String.format(Locale.ROOT, "Índice por nombre construido en %.0f ms",
+                (System.nanoTime() - inicio) / 1e6));
+
+        String[][] busquedas = new String[3][BUSQUEDAS_NOMBRE];
+        for (int i = 0; i < BUSQUEDAS_NOMBRE; i++) {
+            String[] palabras = pasajeros.get(aleatorio.nextInt(cantidad)).getNombre().split(" ");
+            String apellido = palabras[palabras.length - 2];
+            busquedas[0][i] = palabras[0].substring(0, 3) + " " + apellido.substring(0, Math.min(4, apellido.length()));
+            busquedas[1][i] = (palabras[0] + " " + apellido).toUpperCase(Locale.ROOT);
+            int error = 1 + aleatorio.nextInt(apellido.length() - 2);
+            busquedas[2][i] = palabras[0] + " " + apellido.substring(0, error) + "x" + apellido.substring(error + 1);
+        }
+        for (int tipo = 0; tipo < 2; tipo++) {
+            for (String busqueda : busquedas[tipo]) {
+                verificarNombre(dao, busqueda);
+            }
+        }
+        for (String[] tipo : busquedas) {
+            System.out.println("'" + tipo[0] + "' -> " + dao.buscarPorNombre(tipo[0], 3).stream()
+                    .map(Pasajero::getNombre).collect(Collectors.toList()));
+        }
+
+        int repetidas = BUSQUEDAS_NOMBRE * Medicion.REPETICIONES_INDICE;
+        String[] nombres = {"prefijos", "nombre con tildes", "con un error"};
+        Medicion.imprimirEncabezado("nombres", BUSQUEDAS_NOMBRE);
+        for (int n = 0; n < nombres.length; n++) {
+            String[] tipo = busquedas[n];
+            Medicion.medirCada("recorrido: " + nombres[n], BUSQUEDAS_NOMBRE,
+                    i -> buscarRecorriendo(dao, tipo[i]).size());
+            Medicion.medirCada("índice: " + nombres[n], repetidas,
+                    i -> dao.buscarPorNombre(tipo[i % BUSQUEDAS_NOMBRE], LIMITE_NOMBRES).size());
+        }
+    }
+
+    /**
+     * Genera pasajeros con uno o dos nombres de pila y dos apellidos: los comunes y una
+     * cola larga de apellidos poco frecuentes.
+     */
+    private static List<Pasajero> generarPasajerosConNombre(int cantidad, Random aleatorio) {
+        List<String> apellidos = new ArrayList<>(Arrays.asList(APELLIDOS));
+        Set<String> inventados = new HashSet<>();
+        while (inventados.size() < 5000) {
+            StringBuilder apellido = new StringBuilder();
+            for (int s = 2 + aleatorio.nextInt(3); s > 0; s--) {
+                apellido.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+            }
+            apellido.setCharAt(0, Character.toUpperCase(apellido.charAt(0)));
+            inventados.add(apellido.toString());
+        }
+        apellidos.addAll(inventados);
+        List<Pasajero> pasajeros = new ArrayList<>(cantidad);
+        TipoPasajero[] tipos = TipoPasajero.values();
+        for (int i = 0; i < cantidad; i++) {
+            StringBuilder nombre = new StringBuilder(NOMBRES_PILA[aleatorio.nextInt(NOMBRES_PILA.length)]);
+            if (aleatorio.nextBoolean()) {
+                nombre.append(' ').append(NOMBRES_PILA[aleatorio.nextInt(NOMBRES_PILA.length)]);
+            }
+            for (int a = 0; a < 2; a++) {
+                int posicion = aleatorio.nextInt(aleatorio.nextInt(apellidos.size()) + 1);
+                nombre.append(' ').append(apellidos.get(posicion));
+            }
+            pasajeros.add(new Pasajero(String.valueOf(1000000000L + i), nombre.toString(), tipos[i % tipos.length]));
+        }
+        return pasajeros;
+    }
+
+    /**
+     * Verifica que una búsqueda sin errores devuelva primero los pasajeros que encuentra
+     * el recorrido, hasta el límite.
+     */
+    private static void verificarNombre(PasajeroDAO dao, String busqueda) {
+        Set<String> esperados = buscarRecorriendo(dao, busqueda).stream()
+                .map(Pasajero::getCedula).collect(Collectors.toSet());
+        List<Pasajero> obtenidos = dao.buscarPorNombre(busqueda, LIMITE_NOMBRES);
+        int coincidentes = Math.min(LIMITE_NOMBRES, esperados.size());
+        if (obtenidos.size() < coincidentes || !obtenidos.subList(0, coincidentes).stream()
+                .map(Pasajero::getCedula).allMatch(esperados::contains)) {
+            throw new IllegalStateException("La búsqueda '" + busqueda + "' devuelve " + obtenidos.size()
+                    + " pasajeros que no empiezan por los " + esperados.size() + " del recorrido");
+        }
+    }
+
+    /**
+     * Busca pasajeros recorriéndolos todos: cada palabra buscada debe empezar alguna
+     * palabra del nombre, sin distinguir tildes ni mayúsculas.
+     */
+    private static List<Pasajero> buscarRecorriendo(PasajeroDAO dao, String texto) {
+        String[] buscadas = sinTildes(texto).split(" ");
+        List<Pasajero> encontrados = new ArrayList<>();
+        for (Pasajero pasajero : dao.obtenerTodos()) {
+            String[] palabras = sinTildes(pasajero.getNombre()).split(" ");
+            boolean coincide = true;
+            for (int i = 0; i < buscadas.length && coincide; i++) {
+                coincide = false;
+                for (String palabra : palabras) {
+                    if (palabra.startsWith(buscadas[i])) {
+                        coincide = true;
+                        break;
+                    }
+                }
+            }
+            if (coincide) {
+                encontrados.add(pasajero);
+            }
+        }
+        return encontrados;
+    }
+
+    private static String sinTildes(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+}
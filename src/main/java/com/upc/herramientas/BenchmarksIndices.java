@@ -0,0 +1,191 @@
+package com.upc.herramientas;
+
+import com.upc.modelo.Ticket;
+import com.upc.persistencia.ClaveCronologica;
+import com.upc.persistencia.IndiceTickets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Clase BenchmarksIndices
+ * Casos {@code indices} y {@code cronologico} de {@link Benchmarks}: búsquedas de
+ * tickets recorriendo el mapa de tickets frente a {@link IndiceTickets}.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+final class BenchmarksIndices {
+
+    /**
+     * Búsquedas por cédula y por placa medidas en cada variante
+     */
+    private static final int CONSULTAS = 100;
+
+    /**
+     * Tickets por consulta en los casos de más recientes y de páginas
+     */
+    private static final int TICKETS_POR_CONSULTA = 50;
+
+    private BenchmarksIndices() {
+    }
+
+    /**
+     * Compara la búsqueda de tickets por cédula y por placa recorriendo el mapa de
+     * tickets con la búsqueda en los índices secundarios. Antes de medir verifica que
+     * ambas encuentren los mismos tickets.
+     */
+    static void medirIndices(int cantidad) {
+        List<Ticket> generados = DatosPrueba.tickets(cantidad);
+        Map<String, Ticket> tickets = DatosPrueba.porId(generados);
+        IndiceTickets indice = IndiceTickets.desde(tickets.values());
+
+        Random aleatorio = new Random(7);
+        String[] cedulas = new String[CONSULTAS];
+        String[] placas = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            cedulas[i] = generados.get(aleatorio.nextInt(cantidad)).getCedula();
+            placas[i] = generados.get(aleatorio.nextInt(cantidad)).getPlaca();
+        }
+        for (int i = 0; i < CONSULTAS; i++) {
+            verificarIndice(tickets, indice.buscarPorCedula(cedulas[i]), cedulas[i], Ticket::getCedula);
+            verificarIndice(tickets, indice.buscarPorPlaca(placas[i]), placas[i], Ticket::getPlaca);
+        }
+
+        Medicion.imprimirEncabezado("indices", CONSULTAS);
+        Medicion.medirCada("recorrido por cédula", CONSULTAS,
+                i -> filtrar(tickets, cedulas[i], Ticket::getCedula).size());
+        Medicion.medirCada("IndiceTickets por cédula", CONSULTAS,
+                i -> resolver(tickets, indice.buscarPorCedula(cedulas[i])).size());
+        Medicion.medirCada("recorrido por placa", CONSULTAS, i -> filtrar(tickets, placas[i], Ticket::getPlaca).size());
+        Medicion.medirCada("IndiceTickets por placa", CONSULTAS,
+                i -> resolver(tickets, indice.buscarPorPlaca(placas[i])).size());
+    }
+
+    /**
+     * Busca tickets como lo hacía TicketDAO antes de los índices: recorriendo el mapa.
+     */
+    private static List<Ticket> filtrar(Map<String, Ticket> tickets, String valor, Function<Ticket, String> campo) {
+        List<Ticket> resultado = new ArrayList<>();
+        for (Ticket ticket : tickets.values()) {
+            if (valor.equals(campo.apply(ticket))) {
+                resultado.add(ticket);
+            }
+        }
+        return resultado;
+    }
+
+    private static List<Ticket> resolver(Map<String, Ticket> tickets, Set<String> ids) {
+        List<Ticket> resultado = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            resultado.add(tickets.get(id));
+        }
+        return resultado;
+    }
+
+    private static void verificarIndice(Map<String, Ticket> tickets, Set<String> ids, String valor,
+                                        Function<Ticket, String> campo) {
+        List<Ticket> esperados = filtrar(tickets, valor, campo);
+        if (esperados.size() != ids.size() || !new HashSet<>(resolver(tickets, ids)).containsAll(esperados)) {
+            throw new IllegalStateException("El índice difiere del recorrido para " + valor + ": "
+                    + ids.size() + " frente a " + esperados.size() + " tickets");
+        }
+    }
+
+    /**
+     * Compara las consultas cronológicas copiando y ordenando el mapa de tickets, como
+     * se hacía sin índice, con las vistas del índice por fecha. Antes de medir verifica
+     * que ambas devuelvan los mismos tickets en el mismo orden.
+     */
+    static void medirCronologico(int cantidad) {
+        Random aleatorio = new Random(13);
+        List<Ticket> generados = DatosPrueba.tickets(cantidad, aleatorio);
+        Map<String, Ticket> tickets = DatosPrueba.porId(generados);
+        IndiceTickets indice = IndiceTickets.desde(tickets.values());
+
+        int consultas = Medicion.CONSULTAS_DISTINTAS;
+        LocalDateTime[] dias = new LocalDateTime[consultas];
+        ClaveCronologica[] cursores = new ClaveCronologica[consultas];
+        for (int i = 0; i < consultas; i++) {
+            Ticket ticket = generados.get(aleatorio.nextInt(cantidad));
+            dias[i] = ticket.getFecha().toLocalDate().atStartOfDay();
+            cursores[i] = ClaveCronologica.de(ticket);
+        }
+
+        verificarCronologico(ultimosOrdenando(tickets), primeros(indice.recientes()), "más recientes");
+        for (int i = 0; i < consultas; i++) {
+            verificarCronologico(diaOrdenando(tickets, dias[i]),
+                    new ArrayList<>(indice.buscarEnRango(dias[i], dias[i].plusDays(1))), "día " + dias[i]);
+            verificarCronologico(paginaOrdenando(tickets, cursores[i]),
+                    primeros(indice.posterioresA(cursores[i])), "página tras " + cursores[i]);
+        }
+
+        int repetidas = consultas * Medicion.REPETICIONES_INDICE;
+        Medicion.imprimirEncabezado("cronologico", consultas);
+        Medicion.medirCada("copia + sort: últimos 50", consultas, i -> ultimosOrdenando(tickets).size());
+        Medicion.medirCada("índice: últimos 50", repetidas, i -> primeros(indice.recientes()).size());
+        Medicion.medirCada("recorrido + sort: un día", consultas, i -> diaOrdenando(tickets, dias[i]).size());
+        Medicion.medirCada("índice: un día", repetidas, i -> {
+            LocalDateTime dia = dias[i % consultas];
+            return new ArrayList<>(indice.buscarEnRango(dia, dia.plusDays(1))).size();
+        });
+        Medicion.medirCada("recorrido + sort: página de 50", consultas,
+                i -> paginaOrdenando(tickets, cursores[i]).size());
+        Medicion.medirCada("índice: página de 50", repetidas,
+                i -> primeros(indice.posterioresA(cursores[i % consultas])).size());
+    }
+
+    private static List<Ticket> ultimosOrdenando(Map<String, Ticket> tickets) {
+        List<Ticket> copia = new ArrayList<>(tickets.values());
+        copia.sort(ClaveCronologica.ORDEN_TICKETS.reversed());
+        return new ArrayList<>(copia.subList(0, Math.min(TICKETS_POR_CONSULTA, copia.size())));
+    }
+
+    private static List<Ticket> diaOrdenando(Map<String, Ticket> tickets, LocalDateTime dia) {
+        LocalDateTime fin = dia.plusDays(1);
+        List<Ticket> resultado = new ArrayList<>();
+        for (Ticket ticket : tickets.values()) {
+            if (!ticket.getFecha().isBefore(dia) && ticket.getFecha().isBefore(fin)) {
+                resultado.add(ticket);
+            }
+        }
+        resultado.sort(ClaveCronologica.ORDEN_TICKETS);
+        return resultado;
+    }
+
+    private static List<Ticket> paginaOrdenando(Map<String, Ticket> tickets, ClaveCronologica cursor) {
+        List<Ticket> posteriores = new ArrayList<>();
+        for (Ticket ticket : tickets.values()) {
+            if (cursor.compararCon(ticket) < 0) {
+                posteriores.add(ticket);
+            }
+        }
+        posteriores.sort(ClaveCronologica.ORDEN_TICKETS);
+        return new ArrayList<>(posteriores.subList(0, Math.min(TICKETS_POR_CONSULTA, posteriores.size())));
+    }
+
+    private static List<Ticket> primeros(Collection<Ticket> ordenados) {
+        List<Ticket> resultado = new ArrayList<>(TICKETS_POR_CONSULTA);
+        for (Ticket ticket : ordenados) {
+            if (resultado.size() == TICKETS_POR_CONSULTA) {
+                break;
+            }
+            resultado.add(ticket);
+        }
+        return resultado;
+    }
+
+    private static void verificarCronologico(List<Ticket> esperados, List<Ticket> obtenidos, String consulta) {
+        if (!esperados.equals(obtenidos)) {
+            throw new IllegalStateException("El índice por fecha difiere del ordenamiento en la consulta "
+                    + consulta + ": " + obtenidos.size() + " frente a " + esperados.size() + " tickets");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.upc.herramientas;
+
+import com.upc.logica.ExportadorTickets;
+import com.upc.logica.FormatoExportacion;
+import com.upc.logica.ImportadorCsv;
+import com.upc.logica.ResultadoImportacion;
+import com.upc.modelo.Pasajero;
+import com.upc.modelo.Ticket;
+import com.upc.modelo.TipoPasajero;
+import com.upc.persistencia.SerializadorPasajero;
+import com.upc.persistencia.SerializadorTicket;
+import com.upc.persistencia.TipoMotorAlmacenamiento;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Clase BenchmarksPersistencia
+ * Casos {@code motores}, {@code importacion} y {@code exportacion} de {@link Benchmarks}:
+ * escritura de pasajeros en cada motor de almacenamiento y de tickets en archivos.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+final class BenchmarksPersistencia {
+
+    private BenchmarksPersistencia() {
+    }
+
+    /**
+     * Ejecuta la misma carga sobre cada motor de almacenamiento y reporta su
+     * rendimiento y latencias.
+     */
+    static void medirMotores(int cantidad) {
+        Pasajero[] pasajeros = DatosPrueba.pasajeros(cantidad);
+        TipoPasajero[] tipos = TipoPasajero.values();
+        Pasajero[] actualizados = new Pasajero[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            actualizados[i] = new Pasajero(pasajeros[i].getCedula(), "Pasajero " + i + " (actualizado)",
+                    tipos[(i + 1) % tipos.length]);
+        }
+
+        System.out.println("Caso: motores (" + cantidad + " pasajeros por operación)");
+        System.out.println(String.format(Locale.ROOT, "%-10s %-12s %12s %10s %10s",
+                "motor", "operación", "ops/s", "p50 µs", "p99 µs"));
+        for (TipoMotorAlmacenamiento tipo : TipoMotorAlmacenamiento.values()) {
+            String clave = tipo.getClave();
+            DatosPrueba.conMotor(tipo, motor -> {
+                Medicion.medirOperacion(clave, "insertar", cantidad, i -> motor.insertar(pasajeros[i]));
+                Medicion.medirOperacion(clave, "buscar", cantidad,
+                        i -> Medicion.sumidero += motor.buscar(pasajeros[i].getCedula()).getNombre().length());
+                Medicion.medirOperacion(clave, "actualizar", cantidad, i -> motor.reemplazar(actualizados[i]));
+                Medicion.medirOperacion(clave, "eliminar", cantidad, i -> motor.eliminar(pasajeros[i].getCedula()));
+                if (motor.contar() != 0) {
+                    throw new IllegalStateException("El motor " + clave + " conserva " + motor.contar() + " pasajeros");
+                }
+            });
+        }
+    }
+
+    /**
+     * Genera un CSV de pasajeros y lo importa sobre cada motor de almacenamiento.
+     */
+    static void medirImportacion(int filas) {
+        File entrada = generarCsvPasajeros(filas);
+        System.out.println("Caso: importacion (" + filas + " filas de pasajeros)");
+        System.out.println(String.format(Locale.ROOT, "%-10s %14s %12s %12s %10s",
+                "motor", "filas/min", "importadas", "rechazadas", "ms"));
+        try {
+            for (TipoMotorAlmacenamiento tipo : TipoMotorAlmacenamiento.values()) {
+                DatosPrueba.conMotor(tipo, motor -> {
+                    ResultadoImportacion resultado = new ImportadorCsv<>("pasajeros",
+                            SerializadorPasajero::deserializar, Pasajero::getCedula, motor::insertarTodos)
+                            .importar(entrada);
+                    if (motor.contar() != resultado.getImportadas()) {
+                        throw new IllegalStateException("El motor " + tipo.getClave() + " tiene " + motor.contar()
+                                + " pasajeros y se importaron " + resultado.getImportadas());
+                    }
+                    System.out.println(String.format(Locale.ROOT, "%-10s %14.0f %12d %12d %10d", tipo.getClave(),
+                            resultado.getFilasPorMinuto(), resultado.getImportadas(), resultado.getRechazadas(),
+                            resultado.getDuracionMs()));
+                });
+            }
+        } finally {
+            entrada.delete();
+        }
+    }
+
+    /**
+     * Escribe un CSV de pasajeros con una fila repetida cada 50 y una inválida cada 100.
+     */
+    private static File generarCsvPasajeros(int filas) {
+        File entrada = DatosPrueba.archivoTemporal("barceloneta-importacion", ".csv");
+        TipoPasajero[] tipos = TipoPasajero.values();
+        try (BufferedWriter salida = Files.newBufferedWriter(entrada.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < filas; i++) {
+                if (i % 100 == 99) {
+                    salida.write(String.valueOf(1000000000L + i) + ",Pasajero " + i + ",DESCONOCIDO");
+                } else {
+                    long cedula = 1000000000L + (i % 50 == 49 ? i - 1 : i);
+                    salida.write(SerializadorPasajero.serializar(
+                            new Pasajero(String.valueOf(cedula), "Pasajero " + i, tipos[i % tipos.length])));
+                }
+                salida.newLine();
+            }
+        } catch (IOException e) {
+            entrada.delete();
+            throw new RuntimeException("No se pudo generar el archivo de importación", e);
+        }
+        return entrada;
+    }
+
+    /**
+     * Compara la exportación de tickets copiándolos a una lista y escribiendo con un
+     * BufferedWriter frente al exportador que escribe en un canal con un buffer fijo.
+     */
+    static void medirExportacion(int cantidad) {
+        List<Ticket> tickets = DatosPrueba.tickets(cantidad);
+        File salida = DatosPrueba.archivoTemporal("barceloneta-exportacion", ".txt");
+
+        Medicion.imprimirEncabezado("exportacion", cantidad);
+        try {
+            Medicion.medir("copia + BufferedWriter", cantidad, () -> {
+                List<Ticket> copia = new ArrayList<>(tickets);
+                try (BufferedWriter escritor = Files.newBufferedWriter(salida.toPath(), StandardCharsets.UTF_8)) {
+                    for (Ticket ticket : copia) {
+                        escritor.write(SerializadorTicket.serializar(ticket));
+                        escritor.newLine();
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException("Error al escribir " + salida, e);
+                }
+            });
+            for (FormatoExportacion formato : FormatoExportacion.values()) {
+                Medicion.medir("ExportadorTickets " + formato.getClave(), cantidad, () -> {
+                    try (ExportadorTickets exportador = new ExportadorTickets(salida, formato)) {
+                        tickets.forEach(exportador);
+                        Medicion.sumidero += exportador.terminar();
+                    } catch (IOException e) {
+                        throw new RuntimeException("Error al escribir " + salida, e);
+                    }
+                });
+            }
+        } finally {
+            salida.delete();
+        }
+    }
+}
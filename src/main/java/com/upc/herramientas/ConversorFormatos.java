@@ -0,0 +1,217 @@
+package com.upc.herramientas;
+
+import com.upc.persistencia.CodecBinario;
+import com.upc.persistencia.EscritorPersistencia;
+import com.upc.persistencia.MotorTicketsBitacora;
+import com.upc.persistencia.SerializadorBinarioPasajero;
+import com.upc.persistencia.SerializadorBinarioTicket;
+import com.upc.persistencia.SerializadorBinarioVehiculo;
+import com.upc.persistencia.SerializadorPasajero;
+import com.upc.persistencia.SerializadorTicket;
+import com.upc.persistencia.SerializadorVehiculo;
+import com.upc.persistencia.TicketSinResolver;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Clase ConversorFormatos
+ * Herramienta de línea de comandos para convertir los archivos de datos entre
+ * el formato CSV y el formato binario.
+ *
+ * <p>Uso:</p>
+ * <pre>
+ *   java -cp target/classes com.upc.herramientas.ConversorFormatos \
+ *        &lt;tickets|pasajeros|vehiculos&gt; &lt;a-binario|a-csv&gt; &lt;origen&gt; &lt;destino&gt;
+ * </pre>
+ *
+ * <p>La conversión de tickets no necesita cargar vehículos ni pasajeros: las referencias
+ * se copian tal cual. El encabezado de instantánea ({@code #bitacora=N}) se conserva.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class ConversorFormatos {
+
+    /**
+     * Punto de entrada de la herramienta.
+     *
+     * @param args entidad, dirección, archivo de origen y archivo de destino
+     */
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.out.println("Uso: ConversorFormatos <tickets|pasajeros|vehiculos> <a-binario|a-csv> <origen> <destino>");
+            System.exit(1);
+        }
+
+        String entidad = args[0];
+        boolean aBinario;
+        if (args[1].equals("a-binario")) {
+            aBinario = true;
+        } else if (args[1].equals("a-csv")) {
+            aBinario = false;
+        } else {
+            System.out.println("Dirección inválida: " + args[1]);
+            System.exit(1);
+            return;
+        }
+
+        File origen = new File(args[2]);
+        File destino = new File(args[3]);
+        long inicio = System.nanoTime();
+        int registros;
+
+        try {
+            registros = aBinario ? csvABinario(entidad, origen, destino) : binarioACsv(entidad, origen, destino);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error en la conversión: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.printf("Convertidos %d registros en %d ms (%d bytes -> %d bytes)%n",
+                registros, duracionMs, origen.length(), destino.length());
+    }
+
+    /**
+     * Convierte un archivo CSV al formato binario.
+     *
+     * @param entidad Tipo de entidad (tickets, pasajeros o vehiculos)
+     * @param origen Archivo CSV
+     * @param destino Archivo binario a crear
+     * @return Cantidad de registros convertidos
+     * @throws IOException si ocurre un error de lectura o escritura
+     * @throws IllegalArgumentException si una línea es inválida o la entidad es desconocida
+     */
+    public static int csvABinario(String entidad, File origen, File destino) throws IOException {
+        byte tipo = tipoBinario(entidad);
+        int registros = 0;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(origen), StandardCharsets.UTF_8));
+             OutputStream salida = new BufferedOutputStream(new FileOutputStream(destino), 65536)) {
+
+            // El encabezado de instantánea, si existe, está en la primera línea
+            reader.mark(256);
+            String primera = reader.readLine();
+            long metadato = 0;
+            if (primera != null && primera.startsWith(MotorTicketsBitacora.ENCABEZADO_SEGMENTO)) {
+                metadato = Long.parseLong(primera.substring(MotorTicketsBitacora.ENCABEZADO_SEGMENTO.length()).trim());
+            } else {
+                reader.reset();
+            }
+
+            CodecBinario.Salida binaria = new CodecBinario.Salida(salida, tipo, metadato);
+            String linea;
+            int numeroLinea = 0;
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                linea = linea.trim();
+                if (linea.isEmpty() || linea.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    escribirLinea(binaria, tipo, linea);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                        "línea " + numeroLinea + " de " + origen.getPath() + ": " + e.getMessage(), e
+                    );
+                }
+                registros++;
+            }
+        }
+        return registros;
+    }
+
+    /**
+     * Convierte un archivo binario al formato CSV.
+     *
+     * @param entidad Tipo de entidad (tickets, pasajeros o vehiculos)
+     * @param origen Archivo binario
+     * @param destino Archivo CSV a crear
+     * @return Cantidad de registros convertidos
+     * @throws IOException si ocurre un error de lectura o escritura
+     * @throws IllegalArgumentException si un registro es inválido o la entidad es desconocida
+     */
+    public static int binarioACsv(String entidad, File origen, File destino) throws IOException {
+        byte tipo = tipoBinario(entidad);
+        int registros = 0;
+
+        try (InputStream flujo = new BufferedInputStream(new FileInputStream(origen), 65536);
+             OutputStream salida = new BufferedOutputStream(new FileOutputStream(destino), 65536)) {
+
+            CodecBinario.Entrada entrada = new CodecBinario.Entrada(flujo, tipo);
+            if (tipo == CodecBinario.TIPO_TICKETS && entrada.getMetadato() > 0) {
+                EscritorPersistencia.escribirLinea(salida, MotorTicketsBitacora.ENCABEZADO_SEGMENTO + entrada.getMetadato());
+            }
+            while (entrada.siguienteRegistro()) {
+                EscritorPersistencia.escribirLinea(salida, leerComoCsv(entrada, tipo));
+                registros++;
+            }
+        }
+        return registros;
+    }
+
+    /**
+     * Escribe una línea CSV como registro binario.
+     *
+     * @param binaria Escritor binario
+     * @param tipo Tipo de archivo
+     * @param linea Línea CSV
+     * @throws IOException si ocurre un error de escritura
+     */
+    private static void escribirLinea(CodecBinario.Salida binaria, byte tipo, String linea) throws IOException {
+        switch (tipo) {
+            case CodecBinario.TIPO_TICKETS:
+                TicketSinResolver ticket = SerializadorTicket.deserializarSinResolver(linea);
+                SerializadorBinarioTicket.serializarCampos(binaria, ticket.getIdTicket(), ticket.getPlaca(),
+                        ticket.getCedula(), ticket.getOrigen(), ticket.getDestino(), ticket.getFecha(),
+                        ticket.getDistanciaKm());
+                break;
+            case CodecBinario.TIPO_PASAJEROS:
+                SerializadorBinarioPasajero.serializar(binaria, SerializadorPasajero.deserializar(linea));
+                break;
+            default:
+                SerializadorBinarioVehiculo.serializar(binaria, SerializadorVehiculo.deserializar(linea));
+        }
+    }
+
+    /**
+     * Lee el registro binario actual como línea CSV.
+     *
+     * @param entrada Lector binario
+     * @param tipo Tipo de archivo
+     * @return Línea CSV
+     */
+    private static String leerComoCsv(CodecBinario.Entrada entrada, byte tipo) {
+        switch (tipo) {
+            case CodecBinario.TIPO_TICKETS:
+                return SerializadorBinarioTicket.deserializarComoCsv(entrada);
+            case CodecBinario.TIPO_PASAJEROS:
+                return SerializadorPasajero.serializar(SerializadorBinarioPasajero.deserializar(entrada));
+            default:
+                return SerializadorVehiculo.serializar(SerializadorBinarioVehiculo.deserializar(entrada));
+        }
+    }
+
+    /**
+     * Obtiene el tipo de archivo binario de una entidad.
+     *
+     * @param entidad Nombre de la entidad
+     * @return Tipo de archivo binario
+     * @throws IllegalArgumentException si la entidad es desconocida
+     */
+    private static byte tipoBinario(String entidad) {
+        switch (entidad) {
+            case "tickets":
+                return CodecBinario.TIPO_TICKETS;
+            case "pasajeros":
+                return CodecBinario.TIPO_PASAJEROS;
+            case "vehiculos":
+                return CodecBinario.TIPO_VEHICULOS;
+            default:
+                throw new IllegalArgumentException("Entidad desconocida: " + entidad);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.upc.herramientas;
+
+import com.upc.modelo.Bus;
+import com.upc.modelo.Buseta;
+import com.upc.modelo.MicroBus;
+import com.upc.modelo.Pasajero;
+import com.upc.modelo.Ticket;
+import com.upc.modelo.TipoPasajero;
+import com.upc.modelo.Vehiculo;
+import com.upc.persistencia.BaseDatosEmbebida;
+import com.upc.persistencia.EscritorPersistencia;
+import com.upc.persistencia.MotorAlmacenamiento;
+import com.upc.persistencia.PasajeroDAO;
+import com.upc.persistencia.TipoMotorAlmacenamiento;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Clase DatosPrueba
+ * Datos generados y recursos temporales compartidos por los casos de {@link Benchmarks}.
+ *
+ * <p>Los generadores usan semillas fijas, así que cada caso mide siempre los mismos
+ * datos para una misma cantidad.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+final class DatosPrueba {
+
+    private static final String[] CIUDADES = {"Valledupar", "Barranquilla", "Bogota", "Cartagena", "Santa Marta",
+        "Sincelejo"};
+
+    private DatosPrueba() {
+    }
+
+    /**
+     * Genera pasajeros con cédulas consecutivas y los tipos de pasajero en rotación.
+     */
+    static Pasajero[] pasajeros(int cantidad) {
+        TipoPasajero[] tipos = TipoPasajero.values();
+        Pasajero[] pasajeros = new Pasajero[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            pasajeros[i] = new Pasajero(String.valueOf(1000000000L + i), "Pasajero " + i, tipos[i % tipos.length]);
+        }
+        return pasajeros;
+    }
+
+    /**
+     * Genera tickets aleatorios (con semilla fija) sobre 60 vehículos y 5000 pasajeros.
+     */
+    static List<Ticket> tickets(int cantidad) {
+        Random aleatorio = new Random(11);
+        Vehiculo[] vehiculos = new Vehiculo[60];
+        for (int i = 0; i < vehiculos.length; i++) {
+            String placa = "PL" + i;
+            vehiculos[i] = i % 3 == 0 ? new Buseta(placa, 18, "2020", 2500.0)
+                    : i % 3 == 1 ? new MicroBus(placa, 25, "2021", 2500.0)
+                    : new Bus(placa, 40, "2022", 2500.0);
+        }
+        Pasajero[] pasajeros = pasajeros(5000);
+        List<Ticket> tickets = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            tickets.add(new Ticket(String.format("TK-%05d", i + 1), vehiculos[aleatorio.nextInt(vehiculos.length)],
+                    pasajeros[aleatorio.nextInt(pasajeros.length)], CIUDADES[aleatorio.nextInt(CIUDADES.length)],
+                    CIUDADES[aleatorio.nextInt(CIUDADES.length)], 10 + aleatorio.nextInt(900)));
+        }
+        return tickets;
+    }
+
+    /**
+     * Genera tickets como {@link #tickets(int)} con fechas tomadas de un generador, que
+     * el caso puede seguir usando para elegir sus consultas.
+     */
+    static List<Ticket> tickets(int cantidad, Random fechas) {
+        List<Ticket> tickets = tickets(cantidad);
+        for (Ticket ticket : tickets) {
+            ticket.setFecha(fechaAleatoria(fechas));
+        }
+        return tickets;
+    }
+
+    /**
+     * Indexa los tickets por su ID, como el mapa de tickets del DAO.
+     */
+    static Map<String, Ticket> porId(List<Ticket> tickets) {
+        Map<String, Ticket> mapa = new HashMap<>();
+        for (Ticket ticket : tickets) {
+            mapa.put(ticket.getIdTicket(), ticket);
+        }
+        return mapa;
+    }
+
+    /**
+     * Genera una fecha con fracción de 0, 3, 6 o 9 dígitos.
+     */
+    static LocalDateTime fechaAleatoria(Random aleatorio) {
+        long segundos = 946684800L + (long) (aleatorio.nextDouble() * 1_000_000_000L);
+        int nanos;
+        switch (aleatorio.nextInt(4)) {
+            case 0:
+                nanos = 0;
+                break;
+            case 1:
+                nanos = aleatorio.nextInt(1000) * 1_000_000;
+                break;
+            case 2:
+                nanos = aleatorio.nextInt(1_000_000) * 1000;
+                break;
+            default:
+                nanos = aleatorio.nextInt(1_000_000_000);
+        }
+        return LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Configura los DAO para que usen el motor de memoria, sin archivos.
+     */
+    static void usarMemoria() {
+        System.setProperty(TipoMotorAlmacenamiento.PROPIEDAD, TipoMotorAlmacenamiento.MEMORIA.getClave());
+    }
+
+    /**
+     * Crea un motor de pasajeros en un directorio temporal propio, incluida la base de
+     * datos del motor JDBC, ejecuta la carga y elimina el directorio al terminar.
+     */
+    static void conMotor(TipoMotorAlmacenamiento tipo, Consumer<MotorAlmacenamiento<Pasajero>> carga) {
+        File directorio;
+        try {
+            directorio = Files.createTempDirectory("barceloneta-" + tipo.getClave()).toFile();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo crear el directorio temporal", e);
+        }
+        System.setProperty(BaseDatosEmbebida.PROPIEDAD_URL,
+                "jdbc:h2:" + new File(directorio, "barceloneta").getAbsolutePath() + ";DB_CLOSE_ON_EXIT=FALSE");
+        try {
+            carga.accept(tipo.crear(PasajeroDAO.esquema(new File(directorio, "pasajeros").getPath())));
+        } finally {
+            try {
+                BaseDatosEmbebida.cerrar();
+            } finally {
+                // Las escrituras asíncronas deben terminar antes de borrar el directorio
+                EscritorPersistencia.getInstancia().sincronizar();
+                eliminarDirectorio(directorio);
+            }
+        }
+    }
+
+    /**
+     * Crea un archivo temporal vacío.
+     */
+    static File archivoTemporal(String prefijo, String sufijo) {
+        try {
+            return Files.createTempFile(prefijo, sufijo).toFile();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo crear el archivo temporal", e);
+        }
+    }
+
+    private static void eliminarDirectorio(File directorio) {
+        File[] archivos = directorio.listFiles();
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                archivo.delete();
+            }
+        }
+        directorio.delete();
+    }
+}
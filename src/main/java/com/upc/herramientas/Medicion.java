@@ -0,0 +1,118 @@
+package com.upc.herramientas;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Clase Medicion
+ * Cronometraje e impresión de resultados compartidos por los casos de {@link Benchmarks}.
+ *
+ * <p>Cada variante se ejecuta {@link #CALENTAMIENTO} veces antes de medirla, y su
+ * resultado se acumula en {@link #sumidero} para que el JIT no elimine el trabajo.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+final class Medicion {
+
+    /**
+     * Repeticiones de calentamiento antes de medir
+     */
+    private static final int CALENTAMIENTO = 3;
+
+    /**
+     * Consultas distintas de cada tipo en los casos de índices; las variantes con índice
+     * las repiten {@link #REPETICIONES_INDICE} veces para que el tiempo medido sea significativo
+     */
+    static final int CONSULTAS_DISTINTAS = 10;
+    static final int REPETICIONES_INDICE = 100;
+
+    /**
+     * Acumulador para que el JIT no elimine el trabajo medido
+     */
+    static double sumidero;
+
+    private Medicion() {
+    }
+
+    /**
+     * Operación indexada medida por {@link #medirOperacion}.
+     */
+    interface Operacion {
+        void ejecutar(int indice);
+    }
+
+    static void imprimirEncabezado(String caso, int iteraciones) {
+        System.out.println("Caso: " + caso + " (" + iteraciones + " operaciones por medición)");
+        System.out.println(String.format(Locale.ROOT, "%-32s %12s %14s", "variante", "ns/op", "bytes/op"));
+    }
+
+    /**
+     * Ejecuta una variante con calentamiento e imprime tiempo y asignación por operación.
+     */
+    static void medir(String nombre, int operaciones, Runnable variante) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            variante.run();
+        }
+        long bytesAntes = bytesAsignados();
+        long inicio = System.nanoTime();
+        variante.run();
+        long nanos = System.nanoTime() - inicio;
+        long bytesDespues = bytesAsignados();
+
+        String bytes = bytesAntes < 0
+                ? "n/d"
+                : String.format(Locale.ROOT, "%.1f", (bytesDespues - bytesAntes) / (double) operaciones);
+        System.out.println(String.format(Locale.ROOT, "%-32s %12.1f %14s",
+                nombre, nanos / (double) operaciones, bytes));
+    }
+
+    /**
+     * Mide una consulta repetida {@code veces} veces, con {@link #medir}. Cada ejecución
+     * recibe su número y devuelve un valor (por ejemplo, la cantidad de resultados) que
+     * se acumula en el sumidero. Agrega una llamada por operación: sirve para consultas,
+     * no para variantes de pocos nanosegundos.
+     */
+    static void medirCada(String nombre, int veces, IntToDoubleFunction consulta) {
+        medir(nombre, veces, () -> {
+            for (int i = 0; i < veces; i++) {
+                sumidero += consulta.applyAsDouble(i);
+            }
+        });
+    }
+
+    /**
+     * Ejecuta una operación sobre cada índice e imprime rendimiento y latencias.
+     */
+    static void medirOperacion(String motor, String nombre, int cantidad, Operacion operacion) {
+        long[] latencias = new long[cantidad];
+        long inicio = System.nanoTime();
+        for (int i = 0; i < cantidad; i++) {
+            long antes = System.nanoTime();
+            operacion.ejecutar(i);
+            latencias[i] = System.nanoTime() - antes;
+        }
+        long nanos = System.nanoTime() - inicio;
+        Arrays.sort(latencias);
+        System.out.println(String.format(Locale.ROOT, "%-10s %-12s %12.0f %10.1f %10.1f", motor, nombre,
+                cantidad / (nanos / 1e9), latencias[cantidad / 2] / 1e3, latencias[(int) (cantidad * 0.99)] / 1e3));
+    }
+
+    /**
+     * Bytes asignados por el hilo actual, o -1 si la JVM no lo soporta.
+     */
+    private static long bytesAsignados() {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) hilos;
+            if (hotspot.isThreadAllocatedMemorySupported()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
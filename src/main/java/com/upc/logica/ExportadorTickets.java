@@ -0,0 +1,264 @@
+package com.upc.logica;
+
+import com.upc.modelo.Ticket;
+import com.upc.persistencia.CodecFecha;
+import com.upc.persistencia.SerializadorTicket;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Clase ExportadorTickets
+ * Escribe tickets en un archivo a medida que los recibe, sin reunirlos en una lista.
+ *
+ * <p>Es un visitante para {@link com.upc.persistencia.TicketDAO#recorrer(Consumer)}:
+ * cada ticket se convierte en una línea, se codifica en UTF-8 dentro de un buffer de
+ * tamaño fijo ({@link #TAMANO_BUFFER}) y el buffer se escribe en un {@link FileChannel}
+ * cada vez que se llena. La memoria usada no depende de la cantidad de tickets y no se
+ * crean arreglos de bytes por línea.</p>
+ *
+ * <p>El contenido se escribe en un archivo temporal junto al destino, que solo lo
+ * reemplaza en {@link #terminar()}; si la exportación falla o se cierra sin
+ * terminar, el temporal se elimina y el destino queda como estaba.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class ExportadorTickets implements Consumer<Ticket>, Closeable {
+
+    /**
+     * Tamaño del buffer de escritura en bytes
+     */
+    public static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final File archivo;
+    private final Path temporal;
+    private final FormatoExportacion formato;
+    private final FileChannel canal;
+    private final CharsetEncoder codificador;
+    private final ByteBuffer bytes;
+    private final StringBuilder linea;
+    private char[] caracteres;
+    private CharBuffer entrada;
+    private long exportados;
+    private boolean terminado;
+
+    /**
+     * Constructor del exportador. Crea el archivo temporal de la exportación.
+     *
+     * @param archivo Archivo destino (se reemplaza al terminar si ya existe)
+     * @param formato Formato de las líneas
+     * @throws IOException si no se puede crear el archivo temporal
+     */
+    public ExportadorTickets(File archivo, FormatoExportacion formato) throws IOException {
+        this.archivo = archivo;
+        this.formato = formato;
+        this.temporal = archivo.toPath().resolveSibling(archivo.getName() + ".tmp");
+        this.canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.codificador = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate(TAMANO_BUFFER);
+        this.linea = new StringBuilder(256);
+        this.caracteres = new char[256];
+        this.entrada = CharBuffer.wrap(caracteres);
+    }
+
+    /**
+     * Escribe un ticket como una línea del archivo.
+     *
+     * @param ticket Ticket a exportar
+     * @throws RuntimeException si ocurre un error al escribir
+     * @throws IllegalStateException si la exportación ya terminó
+     */
+    @Override
+    public void accept(Ticket ticket) {
+        if (terminado) {
+            throw new IllegalStateException("La exportación a " + archivo.getPath() + " ya terminó");
+        }
+        linea.setLength(0);
+        if (formato == FormatoExportacion.JSONL) {
+            agregarJson(ticket);
+        } else {
+            SerializadorTicket.escribir(linea, ticket);
+        }
+        linea.append('\n');
+        try {
+            codificar();
+        } catch (IOException e) {
+            throw new RuntimeException("Error al escribir la exportación de tickets: " + temporal, e);
+        }
+        exportados++;
+    }
+
+    /**
+     * Escribe lo que queda en el buffer, sincroniza el archivo con el disco y
+     * reemplaza el destino.
+     *
+     * @return Cantidad de tickets exportados
+     * @throws IOException si ocurre un error al escribir o al reemplazar el destino
+     */
+    public long terminar() throws IOException {
+        if (!terminado) {
+            vaciar();
+            canal.force(false);
+            canal.close();
+            terminado = true;
+            try {
+                Files.move(temporal, archivo.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, archivo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return exportados;
+    }
+
+    /**
+     * Obtiene la cantidad de tickets escritos hasta ahora.
+     *
+     * @return Tickets exportados
+     */
+    public long getExportados() {
+        return exportados;
+    }
+
+    /**
+     * Cierra el exportador. Si no se llamó a {@link #terminar()}, descarta el archivo
+     * temporal sin tocar el destino.
+     *
+     * @throws IOException si no se puede cerrar el canal
+     */
+    @Override
+    public void close() throws IOException {
+        if (!terminado) {
+            terminado = true;
+            try {
+                canal.close();
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        }
+    }
+
+    /**
+     * Codifica la línea actual en el buffer, escribiéndolo en el canal cada vez que se llena.
+     * La línea se copia a un arreglo reutilizado: el codificador UTF-8 es mucho más
+     * rápido cuando la entrada y la salida están respaldadas por arreglos.
+     */
+    private void codificar() throws IOException {
+        int longitud = linea.length();
+        if (caracteres.length < longitud) {
+            caracteres = new char[Math.max(longitud, caracteres.length * 2)];
+            entrada = CharBuffer.wrap(caracteres);
+        }
+        linea.getChars(0, longitud, caracteres, 0);
+        entrada.limit(longitud).position(0);
+        codificador.reset();
+        while (true) {
+            CoderResult resultado = codificador.encode(entrada, bytes, true);
+            if (resultado.isOverflow()) {
+                vaciar();
+            } else if (resultado.isUnderflow()) {
+                break;
+            } else {
+                throw new CharacterCodingException();
+            }
+        }
+        while (codificador.flush(bytes).isOverflow()) {
+            vaciar();
+        }
+    }
+
+    /**
+     * Escribe el contenido del buffer en el canal y lo deja vacío.
+     */
+    private void vaciar() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            canal.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Agrega el ticket a la línea como objeto JSON. El precio es null si el vehículo ya
+     * no existe.
+     */
+    private void agregarJson(Ticket ticket) {
+        linea.append("{\"idTicket\":");
+        agregarTextoJson(ticket.getIdTicket());
+        linea.append(",\"placa\":");
+        agregarTextoJson(ticket.getPlaca());
+        linea.append(",\"cedula\":");
+        agregarTextoJson(ticket.getCedula());
+        linea.append(",\"origen\":");
+        agregarTextoJson(ticket.getOrigen());
+        linea.append(",\"destino\":");
+        agregarTextoJson(ticket.getDestino());
+        linea.append(",\"fecha\":\"");
+        CodecFecha.escribir(linea, ticket.getFecha());
+        linea.append("\",\"distanciaKm\":").append(ticket.getDistanciaKm());
+        linea.append(",\"precio\":");
+        if (ticket.getVehiculo() != null) {
+            linea.append(ticket.calcularPrecioFinal());
+        } else {
+            linea.append("null");
+        }
+        linea.append('}');
+    }
+
+    /**
+     * Agrega un texto como cadena JSON, escapando comillas, barras y caracteres de control.
+     */
+    private void agregarTextoJson(String texto) {
+        if (texto == null) {
+            linea.append("null");
+            return;
+        }
+        linea.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    linea.append("\\\"");
+                    break;
+                case '\\':
+                    linea.append("\\\\");
+                    break;
+                case '\n':
+                    linea.append("\\n");
+                    break;
+                case '\r':
+                    linea.append("\\r");
+                    break;
+                case '\t':
+                    linea.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        linea.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        linea.append(c);
+                    }
+            }
+        }
+        linea.append('"');
+    }
+}
@@ -0,0 +1,70 @@
+package com.upc.logica;
+
+/**
+ * Enumeración FormatoExportacion
+ * Define el formato de los archivos generados por {@link ExportadorTickets}.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public enum FormatoExportacion {
+    /**
+     * Una línea CSV por ticket, con el formato de {@code data/tickets.txt}; el archivo
+     * se puede volver a cargar con {@link GestorTickets#importarTickets}
+     */
+    CSV("csv", ".csv"),
+
+    /**
+     * Un objeto JSON por línea (JSON Lines), con el precio final de cada ticket
+     */
+    JSONL("jsonl", ".jsonl");
+
+    private final String clave;
+    private final String extension;
+
+    /**
+     * Constructor del enum FormatoExportacion.
+     *
+     * @param clave Clave usada para elegir el formato
+     * @param extension Extensión sugerida para los archivos en este formato
+     */
+    FormatoExportacion(String clave, String extension) {
+        this.clave = clave;
+        this.extension = extension;
+    }
+
+    /**
+     * Convierte una clave en el formato correspondiente.
+     *
+     * @param clave Clave del formato (sin distinguir mayúsculas)
+     * @return Formato correspondiente
+     * @throws IllegalArgumentException si la clave es desconocida
+     */
+    public static FormatoExportacion desdeClave(String clave) {
+        for (FormatoExportacion formato : values()) {
+            if (formato.clave.equalsIgnoreCase(clave.trim())) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportación desconocido: " + clave);
+    }
+
+    /**
+     * Obtiene la clave del formato.
+     *
+     * @return Clave del formato
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * Obtiene la extensión sugerida para los archivos en este formato.
+     *
+     * @return Extensión con el punto inicial
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
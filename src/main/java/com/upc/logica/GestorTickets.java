@@ -2,7 +2,14 @@ package com.upc.logica;
 
 import com.upc.modelo.*;
 import com.upc.persistencia.*;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Clase GestorTickets
@@ -24,9 +31,11 @@ public class GestorTickets {
     private TicketDAO ticketDAO;
 
     /**
-     * Constructor que inicializa los DAOs
+     * Constructor que inicializa los DAOs.
+     * Los tres archivos de datos se cargan en paralelo.
      */
     public GestorTickets() {
+        CoordinadorArranque.cargarDatos();
         this.vehiculoDAO = VehiculoDAO.getInstancia();
         this.pasajeroDAO = PasajeroDAO.getInstancia();
         this.ticketDAO = TicketDAO.getInstancia();
@@ -85,6 +94,18 @@ public class GestorTickets {
         return pasajeroDAO.buscarPorCedula(cedula);
     }
 
+    /**
+     * Busca pasajeros por nombre o parte de él, sin distinguir tildes ni mayúsculas y
+     * tolerando errores de escritura.
+     *
+     * @param texto Palabras o prefijos del nombre
+     * @param limite Cantidad máxima de pasajeros
+     * @return Pasajeros de la mejor coincidencia a la peor
+     */
+    public List<Pasajero> buscarPasajerosPorNombre(String texto, int limite) {
+        return pasajeroDAO.buscarPorNombre(texto, limite);
+    }
+
     /**
      * Lista todos los pasajeros registrados.
      *
@@ -105,7 +126,8 @@ public class GestorTickets {
      * @param origen Ciudad de origen
      * @param destino Ciudad de destino
      * @param distanciaKm Distancia en kilómetros
-     * @return Ticket generado o null si hay error
+     * @return Ticket generado o null si hay error (incluida una cola de escritura llena
+     *         con política FALLAR)
      */
     public Ticket venderTicket(String cedulaPasajero, String placaVehiculo,
                                String origen, String destino, double distanciaKm) {
@@ -136,7 +158,14 @@ public class GestorTickets {
         Ticket ticket = new Ticket(idTicket, vehiculo, pasajero, origen, destino, distanciaKm);
 
         // Guardar el ticket
-        if (ticketDAO.guardar(ticket)) {
+        boolean guardado;
+        try {
+            guardado = ticketDAO.guardar(ticket);
+        } catch (IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
+            return null;
+        }
+        if (guardado) {
             return ticket;
         } else {
             System.out.println("Error: No se pudo guardar el ticket");
@@ -156,6 +185,8 @@ public class GestorTickets {
 
     /**
      * Lista todos los tickets vendidos.
+     * Copia el historial completo en una lista; para mostrarlo o exportarlo conviene
+     * {@link #recorrerTickets(Consumer)}.
      *
      * @return Lista de tickets
      */
@@ -163,6 +194,15 @@ public class GestorTickets {
         return ticketDAO.obtenerTodos();
     }
 
+    /**
+     * Entrega cada ticket vendido a un visitante, sin copiar el historial a una lista.
+     *
+     * @param visitante Función que recibe cada ticket
+     */
+    public void recorrerTickets(Consumer<? super Ticket> visitante) {
+        ticketDAO.recorrer(visitante);
+    }
+
     /**
      * Lista los tickets de un pasajero específico.
      *
@@ -183,19 +223,296 @@ public class GestorTickets {
         return ticketDAO.buscarPorVehiculo(placa);
     }
 
+    /**
+     * Lista los tickets emitidos entre dos fechas, ambas incluidas.
+     * En modo de almacenamiento particionado solo se leen los períodos del rango.
+     *
+     * @param desde Primer día del rango
+     * @param hasta Último día del rango
+     * @return Lista de tickets ordenada por fecha (vacía si el rango está invertido)
+     */
+    public List<Ticket> listarTicketsPorFecha(LocalDate desde, LocalDate hasta) {
+        return listarTicketsEntre(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Lista los tickets emitidos en un intervalo de tiempo, por ejemplo las ventas de
+     * la última hora. Usa el índice por fecha: no se recorre ni se ordena el historial.
+     *
+     * @param desde Inicio del intervalo (incluido)
+     * @param hasta Fin del intervalo (excluido)
+     * @return Lista de tickets en orden cronológico (vacía si el intervalo está invertido)
+     */
+    public List<Ticket> listarTicketsEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return ticketDAO.buscarPorRangoFechas(desde, hasta);
+    }
+
+    /**
+     * Lista los tickets vendidos más recientemente.
+     *
+     * @param cantidad Cantidad máxima de tickets
+     * @return Tickets del más reciente al más antiguo
+     */
+    public List<Ticket> listarUltimosTickets(int cantidad) {
+        return ticketDAO.buscarUltimos(cantidad);
+    }
+
+    /**
+     * Obtiene una página del historial de tickets en orden cronológico.
+     *
+     * @param desde Cursor devuelto por {@link PaginaTickets#getSiguiente()} en la página
+     *              anterior, o null para la primera página
+     * @param tamano Cantidad máxima de tickets por página
+     * @return Página con hasta {@code tamano} tickets
+     * @throws IllegalArgumentException si el tamaño no es positivo
+     */
+    public PaginaTickets listarPaginaTickets(ClaveCronologica desde, int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo: " + tamano);
+        }
+        // Un ticket de más indica si existe una página siguiente
+        List<Ticket> leidos = ticketDAO.buscarPosterioresA(desde, tamano + 1);
+        if (leidos.size() <= tamano) {
+            return new PaginaTickets(leidos, null);
+        }
+        List<Ticket> tickets = new ArrayList<>(leidos.subList(0, tamano));
+        return new PaginaTickets(tickets, ClaveCronologica.de(tickets.get(tamano - 1)));
+    }
+
+    // ========== RUTAS ==========
+
+    /**
+     * Lista los tickets de una ruta.
+     *
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @return Lista de tickets de la ruta (vacía si alguna ciudad no aparece en ningún ticket)
+     */
+    public List<Ticket> listarTicketsPorRuta(String origen, String destino) {
+        return ticketDAO.buscarPorRuta(DiccionarioCiudades.buscar(origen), DiccionarioCiudades.buscar(destino));
+    }
+
+    /**
+     * Obtiene la cantidad de tickets y los ingresos de una ruta.
+     * Lee los contadores del índice de rutas, que se actualizan con cada venta.
+     *
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @return Estadística de la ruta, con cantidad 0 si no tiene tickets
+     */
+    public EstadisticaRuta obtenerEstadisticaRuta(String origen, String destino) {
+        return ticketDAO.estadisticaRuta(DiccionarioCiudades.buscar(origen), DiccionarioCiudades.buscar(destino));
+    }
+
+    /**
+     * Lista la cantidad de tickets y los ingresos de cada ruta.
+     *
+     * @return Estadísticas de las rutas con tickets, de la más concurrida a la menos
+     */
+    public List<EstadisticaRuta> listarRutas() {
+        return ticketDAO.rutas();
+    }
+
+    /**
+     * Lista las rutas con más tickets vendidos, por ejemplo para decidir salidas adicionales.
+     *
+     * @param cantidad Cantidad máxima de rutas
+     * @return Estadísticas de las rutas, de la más concurrida a la menos
+     */
+    public List<EstadisticaRuta> listarRutasMasConcurridas(int cantidad) {
+        return ticketDAO.rutasMasConcurridas(cantidad);
+    }
+
+    // ========== CONSULTAS COMPUESTAS ==========
+
+    /**
+     * Resuelve una consulta que combina filtros, orden y paginación. El flujo es
+     * perezoso: conviene cortarlo con un límite y cerrarlo tras consumirlo.
+     *
+     * @param consulta Consulta armada con {@link ConsultaTickets}
+     * @return Flujo con los tickets del resultado
+     */
+    public Stream<Ticket> consultarTickets(ConsultaTickets consulta) {
+        return ticketDAO.consultar(consulta);
+    }
+
+    /**
+     * Explica cómo se resolvería una consulta: índice elegido, candidatos estimados y
+     * si hace falta ordenar en memoria.
+     *
+     * @param consulta Consulta a explicar
+     * @return Plan de la consulta
+     */
+    public PlanConsulta explicarConsulta(ConsultaTickets consulta) {
+        return ticketDAO.planificar(consulta);
+    }
+
+    // ========== IMPORTACIÓN MASIVA ==========
+
+    /**
+     * Importa pasajeros desde un archivo CSV con el formato de {@code data/pasajeros.txt}.
+     * Las filas se validan en paralelo y se guardan por lotes, persistiendo una vez por
+     * lote; una fila inválida, repetida o ya registrada se rechaza sin detener la importación.
+     *
+     * @param archivo Archivo CSV a importar
+     * @return Resultado con las filas importadas y los rechazos con su línea y motivo
+     * @throws RuntimeException si no se puede leer el archivo o si falla la persistencia
+     */
+    public ResultadoImportacion importarPasajeros(File archivo) {
+        return new ImportadorCsv<>("pasajeros", GestorTickets::interpretarPasajero, Pasajero::getCedula,
+                pasajeroDAO::guardarTodos).importar(archivo);
+    }
+
+    /**
+     * Importa vehículos desde un archivo CSV con el formato de {@code data/vehiculos.txt}.
+     * Las filas se validan en paralelo y se guardan por lotes, persistiendo una vez por
+     * lote; una fila inválida, repetida o ya registrada se rechaza sin detener la importación.
+     *
+     * @param archivo Archivo CSV a importar
+     * @return Resultado con las filas importadas y los rechazos con su línea y motivo
+     * @throws RuntimeException si no se puede leer el archivo o si falla la persistencia
+     */
+    public ResultadoImportacion importarVehiculos(File archivo) {
+        return new ImportadorCsv<>("vehiculos", GestorTickets::interpretarVehiculo, Vehiculo::getPlaca,
+                vehiculoDAO::guardarTodos).importar(archivo);
+    }
+
+    /**
+     * Importa tickets históricos desde un archivo CSV con el formato de
+     * {@code data/tickets.txt}, conservando sus IDs y fechas. El pasajero y el vehículo
+     * de cada ticket deben estar registrados, por lo que conviene importarlos antes.
+     * El contador de IDs avanza más allá del mayor ID importado.
+     *
+     * @param archivo Archivo CSV a importar
+     * @return Resultado con las filas importadas y los rechazos con su línea y motivo
+     * @throws RuntimeException si no se puede leer el archivo o si falla la persistencia
+     */
+    public ResultadoImportacion importarTickets(File archivo) {
+        return new ImportadorCsv<>("tickets", this::interpretarTicket, Ticket::getIdTicket,
+                ticketDAO::guardarTodos).importar(archivo);
+    }
+
+    /**
+     * Convierte y valida una fila de pasajero.
+     *
+     * @throws IllegalArgumentException con el motivo si la fila es inválida
+     */
+    private static Pasajero interpretarPasajero(String linea) {
+        Pasajero pasajero = SerializadorPasajero.deserializar(linea);
+        if (pasajero.getCedula().trim().isEmpty()) {
+            throw new IllegalArgumentException("La cédula no puede estar vacía");
+        }
+        if (pasajero.getNombre().trim().isEmpty()) {
+            throw new IllegalArgumentException("El nombre del pasajero " + pasajero.getCedula() + " está vacío");
+        }
+        return pasajero;
+    }
+
+    /**
+     * Convierte y valida una fila de vehículo.
+     *
+     * @throws IllegalArgumentException con el motivo si la fila es inválida
+     */
+    private static Vehiculo interpretarVehiculo(String linea) {
+        Vehiculo vehiculo = SerializadorVehiculo.deserializar(linea);
+        if (vehiculo.getPlaca().trim().isEmpty()) {
+            throw new IllegalArgumentException("La placa no puede estar vacía");
+        }
+        if (vehiculo.getCapacidad() <= 0) {
+            throw new IllegalArgumentException("La capacidad del vehículo " + vehiculo.getPlaca()
+                    + " debe ser mayor a 0");
+        }
+        if (vehiculo.getTarifaBase() <= 0) {
+            throw new IllegalArgumentException("La tarifa base del vehículo " + vehiculo.getPlaca()
+                    + " debe ser mayor a 0");
+        }
+        return vehiculo;
+    }
+
+    /**
+     * Convierte y valida una fila de ticket. Las referencias quedan como claves y se
+     * resuelven al pedirlas; aquí solo se verifica que existan.
+     *
+     * @throws IllegalArgumentException con el motivo si la fila es inválida
+     */
+    private Ticket interpretarTicket(String linea) {
+        Ticket ticket = SerializadorTicket.deserializar(linea);
+        if (!esIdCanonico(ticket.getIdTicket())) {
+            throw new IllegalArgumentException("ID de ticket inválido: " + ticket.getIdTicket()
+                    + ". Se esperaba formato TK-00001");
+        }
+        if (ticket.getDistanciaKm() <= 0) {
+            throw new IllegalArgumentException("La distancia del ticket " + ticket.getIdTicket()
+                    + " debe ser mayor a 0");
+        }
+        if (!pasajeroDAO.existe(ticket.getCedula())) {
+            throw new IllegalArgumentException("Pasajero no encontrado: " + ticket.getCedula());
+        }
+        if (!vehiculoDAO.existe(ticket.getPlaca())) {
+            throw new IllegalArgumentException("Vehículo no encontrado: " + ticket.getPlaca());
+        }
+        return ticket;
+    }
+
+    /**
+     * Verifica que un ID tenga exactamente el formato que genera el sistema ("TK-00001").
+     */
+    private static boolean esIdCanonico(String idTicket) {
+        if (!idTicket.startsWith("TK-") || idTicket.length() < 8 || idTicket.length() > 13) {
+            return false;
+        }
+        for (int i = 3; i < idTicket.length(); i++) {
+            char c = idTicket.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        long numero = Long.parseLong(idTicket.substring(3));
+        return numero > 0 && numero <= Integer.MAX_VALUE && String.format("TK-%05d", numero).equals(idTicket);
+    }
+
+    // ========== EXPORTACIÓN ==========
+
+    /**
+     * Exporta todos los tickets a un archivo, escribiéndolos a medida que se recorren.
+     * La memoria usada no depende del tamaño del historial y el archivo destino solo
+     * se reemplaza si la exportación termina sin errores.
+     *
+     * @param archivo Archivo destino
+     * @param formato Formato de las líneas (CSV o JSON Lines)
+     * @return Cantidad de tickets exportados
+     * @throws RuntimeException si ocurre un error al leer los tickets o al escribir el archivo
+     */
+    public long exportarTickets(File archivo, FormatoExportacion formato) {
+        try (ExportadorTickets exportador = new ExportadorTickets(archivo, formato)) {
+            ticketDAO.recorrer(exportador);
+            return exportador.terminar();
+        } catch (IOException e) {
+            throw new RuntimeException("Error al exportar los tickets a " + archivo.getPath() + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
     // ========== ESTADÍSTICAS ==========
 
     /**
      * Calcula el total de ingresos por ventas de tickets.
+     * Recorre la tabla columnar de tickets con el precio final ya calculado, o
+     * consulta la base de datos en modo de almacenamiento JDBC.
      *
      * @return Total de ingresos
      */
     public double calcularIngresosTotal() {
-        double total = 0;
-        for (Ticket ticket : ticketDAO.obtenerTodos()) {
-            total += ticket.calcularPrecioFinal();
-        }
-        return total;
+        return ticketDAO.resumir().getIngresos();
+    }
+
+    /**
+     * Calcula los ingresos de cada tipo de pasajero.
+     *
+     * @return Ingresos indexados por {@link TipoPasajero#ordinal()}
+     */
+    public double[] calcularIngresosPorTipoPasajero() {
+        return ticketDAO.ingresosPorTipoPasajero();
     }
 
     /**
@@ -206,18 +523,96 @@ public class GestorTickets {
     public String obtenerEstadisticas() {
         int totalVehiculos = vehiculoDAO.contarVehiculos();
         int totalPasajeros = pasajeroDAO.contarPasajeros();
-        int totalTickets = ticketDAO.contarTickets();
-        double ingresos = calcularIngresosTotal();
+        TablaColumnarTickets.Resumen resumen = ticketDAO.resumir();
+        double[] porTipo = calcularIngresosPorTipoPasajero();
 
-        return String.format(
+        StringBuilder sb = new StringBuilder(String.format(
             "\n===== ESTADÍSTICAS DEL SISTEMA =====\n" +
             "Vehículos registrados: %d\n" +
             "Pasajeros registrados: %d\n" +
             "Tickets vendidos: %d\n" +
             "Ingresos totales: $%.2f\n" +
-            "====================================\n",
-            totalVehiculos, totalPasajeros, totalTickets, ingresos
-        );
+            "Precio promedio: $%.2f\n" +
+            "Distancia promedio: %.1f km\n",
+            totalVehiculos, totalPasajeros, resumen.getCantidad(), resumen.getIngresos(),
+            resumen.getPrecioPromedio(), resumen.getDistanciaPromedio()
+        ));
+        for (TipoPasajero tipo : TipoPasajero.values()) {
+            sb.append(String.format("Ingresos %s: $%.2f\n", tipo.getDescripcion(), porTipo[tipo.ordinal()]));
+        }
+        sb.append("====================================\n");
+        return sb.toString();
+    }
+
+    // ========== MANTENIMIENTO ==========
+
+    /**
+     * Compacta el almacenamiento de tickets: escribe una instantánea y descarta los
+     * segmentos de bitácora que cubre. Las ventas pueden continuar mientras se ejecuta.
+     *
+     * @return Duración de la compactación en milisegundos (0 si el modo no usa bitácora)
+     */
+    public long compactarAlmacenamiento() {
+        return ticketDAO.compactar();
+    }
+
+    /**
+     * Obtiene la duración de la última compactación, manual o automática.
+     *
+     * @return Duración en milisegundos, o -1 si aún no se ha compactado
+     */
+    public long obtenerDuracionUltimaCompactacion() {
+        return ticketDAO.getDuracionUltimaCompactacionMs();
+    }
+
+    /**
+     * Obtiene el estado de la persistencia: motor de cada DAO, registros incompletos
+     * descartados al cargar las bitácoras, último error en segundo plano del motor de
+     * tickets y, por cada cola de escritura, profundidad, capacidad, latencia entre
+     * encolar una operación y tenerla en disco, y escrituras fallidas con el último error.
+     *
+     * @return String con el estado de cada cola
+     */
+    public String obtenerEstadoPersistencia() {
+        EscritorPersistencia escritor = EscritorPersistencia.getInstancia();
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n========== ESTADO DE PERSISTENCIA ==========\n");
+        sb.append("Motor de vehículos: ").append(vehiculoDAO.getTipoMotor()).append("\n");
+        sb.append("Motor de pasajeros: ").append(pasajeroDAO.getTipoMotor()).append("\n");
+        sb.append("Modo de tickets: ").append(ticketDAO.getModo()).append("\n");
+        sb.append("Durabilidad: ").append(escritor.getModoDurabilidad()).append("\n");
+        sb.append("Pendientes en el escritor: ").append(escritor.getPendientes()).append("\n");
+        sb.append("Lotes escritos: ").append(escritor.getLotesEscritos()).append("\n");
+        agregarDescartado(sb, "vehículos", vehiculoDAO.getRegistroDescartado());
+        agregarDescartado(sb, "pasajeros", pasajeroDAO.getRegistroDescartado());
+        agregarDescartado(sb, "tickets", ticketDAO.getRegistroDescartado());
+        if (ticketDAO.getErrorSegundoPlano() != null) {
+            sb.append("Último error en segundo plano de tickets: ")
+                    .append(ticketDAO.getErrorSegundoPlano().getMessage()).append("\n");
+        }
+        for (ColaEscritura cola : escritor.getColas()) {
+            sb.append("- ").append(cola).append("\n");
+            if (cola.getUltimoError() != null) {
+                sb.append("  Último error: ").append(cola.getUltimoError().getMessage()).append("\n");
+            }
+        }
+        sb.append("============================================\n");
+        return sb.toString();
+    }
+
+    /**
+     * Agrega al estado el registro incompleto que se descartó al cargar una bitácora.
+     *
+     * @param sb Texto del estado
+     * @param datos Datos de la bitácora (vehículos, pasajeros o tickets)
+     * @param descartado Error del registro descartado, o null si no se descartó ninguno
+     */
+    private static void agregarDescartado(StringBuilder sb, String datos, RuntimeException descartado) {
+        if (descartado != null) {
+            sb.append("Registro incompleto descartado de la bitácora de ").append(datos).append(": ")
+                    .append(descartado.getMessage()).append(" (").append(descartado.getCause().getMessage())
+                    .append(")\n");
+        }
     }
 
     // ========== DATOS DE PRUEBA ==========
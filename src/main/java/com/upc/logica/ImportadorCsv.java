@@ -0,0 +1,178 @@
+package com.upc.logica;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Clase ImportadorCsv
+ * Importa masivamente un archivo CSV en un DAO, por lotes de líneas.
+ *
+ * <p>El archivo se lee en secuencia, sin cargarlo completo. Cada lote se interpreta y
+ * valida en paralelo, se eliminan las filas repetidas dentro del lote (gana la primera
+ * aparición) y las restantes se guardan con una sola operación del DAO, que persiste
+ * una vez por lote en lugar de una vez por fila. Una fila inválida o repetida se
+ * rechaza con su número de línea y su motivo sin detener la importación; una fila cuya
+ * clave ya estaba guardada, incluso por un lote anterior del mismo archivo, se rechaza
+ * como existente.</p>
+ *
+ * <p>Las líneas vacías y las que empiezan con {@code #} (como el encabezado de las
+ * instantáneas de tickets) se omiten. El tamaño del lote se configura con la propiedad
+ * {@code barceloneta.importacion.lote} (por defecto 100000 líneas).</p>
+ *
+ * @param <T> Tipo de entidad importada
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class ImportadorCsv<T> {
+
+    /**
+     * Propiedad del sistema con la cantidad de líneas por lote
+     */
+    public static final String PROPIEDAD_LOTE = "barceloneta.importacion.lote";
+
+    private final String entidad;
+    private final Function<String, T> interpretar;
+    private final Function<T, String> clave;
+    private final Function<List<T>, List<T>> guardar;
+    private final int tamanoLote;
+
+    /**
+     * Constructor del importador.
+     *
+     * @param entidad Nombre de la entidad, usado en el resultado y en los mensajes
+     * @param interpretar Convierte y valida una línea; lanza IllegalArgumentException con el motivo del rechazo
+     * @param clave Obtiene la clave única de una entidad
+     * @param guardar Guarda un lote en el DAO y devuelve las entidades que ya existían
+     */
+    public ImportadorCsv(String entidad, Function<String, T> interpretar, Function<T, String> clave,
+                         Function<List<T>, List<T>> guardar) {
+        this.entidad = entidad;
+        this.interpretar = interpretar;
+        this.clave = clave;
+        this.guardar = guardar;
+        this.tamanoLote = Math.max(1, Integer.getInteger(PROPIEDAD_LOTE, 100000));
+    }
+
+    /**
+     * Importa un archivo CSV.
+     *
+     * @param archivo Archivo CSV con codificación UTF-8
+     * @return Resultado con las filas importadas y rechazadas
+     * @throws RuntimeException si no se puede leer el archivo o si falla la persistencia
+     *         de un lote; los lotes anteriores quedan importados
+     */
+    public ResultadoImportacion importar(File archivo) {
+        ResultadoImportacion resultado = new ResultadoImportacion(entidad);
+        long inicio = System.nanoTime();
+
+        try (BufferedReader lector = new BufferedReader(
+                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8), 1 << 16)) {
+
+            List<String> lineas = new ArrayList<>(Math.min(tamanoLote, 1 << 16));
+            List<Long> numeros = new ArrayList<>(Math.min(tamanoLote, 1 << 16));
+            String linea;
+            long numeroLinea = 0;
+
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                linea = linea.trim();
+                if (linea.isEmpty() || linea.charAt(0) == '#') {
+                    continue;
+                }
+                lineas.add(linea);
+                numeros.add(numeroLinea);
+                if (lineas.size() == tamanoLote) {
+                    procesarLote(lineas, numeros, resultado);
+                    lineas.clear();
+                    numeros.clear();
+                }
+            }
+            if (!lineas.isEmpty()) {
+                procesarLote(lineas, numeros, resultado);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el archivo de " + entidad + ": " + archivo.getPath(), e);
+        }
+
+        resultado.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+
+    /**
+     * Interpreta, valida y deduplica un lote en paralelo, y guarda las filas aceptadas.
+     *
+     * @param lineas Líneas del lote
+     * @param numeros Número de línea de cada una en el archivo
+     * @param resultado Resultado donde se acumulan los contadores y los rechazos
+     */
+    @SuppressWarnings("unchecked")
+    private void procesarLote(List<String> lineas, List<Long> numeros, ResultadoImportacion resultado) {
+        int total = lineas.size();
+        T[] entidades = (T[]) new Object[total];
+        String[] motivos = new String[total];
+        Map<String, Integer> primeras = new ConcurrentHashMap<>(total * 2);
+
+        // Interpretar y registrar la primera aparición de cada clave
+        IntStream.range(0, total).parallel().forEach(i -> {
+            try {
+                T entidad = interpretar.apply(lineas.get(i));
+                entidades[i] = entidad;
+                primeras.merge(clave.apply(entidad), i, Math::min);
+            } catch (IllegalArgumentException e) {
+                motivos[i] = e.getMessage() != null ? e.getMessage() : e.toString();
+            }
+        });
+
+        // Marcar las repetidas dentro del lote
+        IntStream.range(0, total).parallel().forEach(i -> {
+            if (entidades[i] != null) {
+                int primera = primeras.get(clave.apply(entidades[i]));
+                if (primera != i) {
+                    motivos[i] = "Clave " + clave.apply(entidades[i]) + " repetida (primera aparición en la línea "
+                            + numeros.get(primera) + ")";
+                }
+            }
+        });
+
+        List<T> aceptadas = new ArrayList<>(total);
+        Map<T, Integer> posiciones = new IdentityHashMap<>(total);
+        for (int i = 0; i < total; i++) {
+            if (motivos[i] == null) {
+                aceptadas.add(entidades[i]);
+                posiciones.put(entidades[i], i);
+            }
+        }
+
+        List<T> existentes;
+        try {
+            existentes = aceptadas.isEmpty() ? new ArrayList<>() : guardar.apply(aceptadas);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error al guardar el lote de " + entidad + " que empieza en la línea "
+                    + numeros.get(0) + " (ya se importaron " + resultado.getImportadas() + "): "
+                    + e.getMessage(), e);
+        }
+        for (T existente : existentes) {
+            motivos[posiciones.get(existente)] = "Ya existe " + clave.apply(existente);
+        }
+
+        for (int i = 0; i < total; i++) {
+            if (motivos[i] != null) {
+                resultado.rechazar(numeros.get(i), motivos[i]);
+            }
+        }
+        resultado.sumarLeidas(total);
+        resultado.sumarImportadas(aceptadas.size() - existentes.size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.upc.logica;
+
+import com.upc.modelo.Ticket;
+import com.upc.persistencia.ClaveCronologica;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase PaginaTickets
+ * Página del historial de tickets en orden cronológico.
+ *
+ * Para pedir la página siguiente se pasa {@link #getSiguiente()} a
+ * {@link GestorTickets#listarPaginaTickets(ClaveCronologica, int)}: el cursor es la
+ * posición del último ticket de esta página, no un número de página, así que los
+ * tickets vendidos mientras se pagina no desplazan ni repiten resultados.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class PaginaTickets {
+
+    private final List<Ticket> tickets;
+    private final ClaveCronologica siguiente;
+
+    /**
+     * Constructor de la página.
+     *
+     * @param tickets Tickets de la página en orden cronológico
+     * @param siguiente Cursor de la página siguiente, o null si esta es la última
+     */
+    PaginaTickets(List<Ticket> tickets, ClaveCronologica siguiente) {
+        this.tickets = Collections.unmodifiableList(tickets);
+        this.siguiente = siguiente;
+    }
+
+    /**
+     * Obtiene los tickets de la página.
+     *
+     * @return Lista no modificable en orden cronológico
+     */
+    public List<Ticket> getTickets() {
+        return tickets;
+    }
+
+    /**
+     * Obtiene el cursor para pedir la página siguiente.
+     *
+     * @return Clave del último ticket de la página, o null si no hay más tickets
+     */
+    public ClaveCronologica getSiguiente() {
+        return siguiente;
+    }
+
+    /**
+     * Indica si hay más tickets después de esta página.
+     *
+     * @return true si hay una página siguiente
+     */
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+}
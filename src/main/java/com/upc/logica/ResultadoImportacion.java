@@ -0,0 +1,142 @@
+package com.upc.logica;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase ResultadoImportacion
+ * Resume una importación masiva: filas leídas, importadas y rechazadas, con el
+ * número de línea y el motivo de cada rechazo.
+ *
+ * Para no agotar la memoria con un archivo muy dañado, solo se conservan los
+ * primeros {@link #MAX_RECHAZOS_DETALLADOS} rechazos; el total siempre se cuenta.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class ResultadoImportacion {
+
+    /**
+     * Cantidad máxima de rechazos que se conservan con su detalle
+     */
+    public static final int MAX_RECHAZOS_DETALLADOS = 1000;
+
+    private final String entidad;
+    private final List<Rechazo> rechazos;
+    private long leidas;
+    private long importadas;
+    private long rechazadas;
+    private long duracionMs;
+
+    /**
+     * Constructor del resultado.
+     *
+     * @param entidad Nombre de la entidad importada (por ejemplo "pasajeros")
+     */
+    ResultadoImportacion(String entidad) {
+        this.entidad = entidad;
+        this.rechazos = new ArrayList<>();
+    }
+
+    /**
+     * Registra el rechazo de una fila.
+     *
+     * @param linea Número de línea en el archivo (desde 1)
+     * @param motivo Motivo del rechazo
+     */
+    void rechazar(long linea, String motivo) {
+        rechazadas++;
+        if (rechazos.size() < MAX_RECHAZOS_DETALLADOS) {
+            rechazos.add(new Rechazo(linea, motivo));
+        }
+    }
+
+    void sumarLeidas(long filas) {
+        leidas += filas;
+    }
+
+    void sumarImportadas(long filas) {
+        importadas += filas;
+    }
+
+    void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    /**
+     * Obtiene las filas leídas, sin contar líneas vacías ni comentarios.
+     *
+     * @return Filas leídas
+     */
+    public long getLeidas() {
+        return leidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    /**
+     * Obtiene el detalle de los rechazos, en orden de línea.
+     *
+     * @return Lista no modificable con hasta {@link #MAX_RECHAZOS_DETALLADOS} rechazos
+     */
+    public List<Rechazo> getRechazos() {
+        return Collections.unmodifiableList(rechazos);
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    /**
+     * Calcula el ritmo de la importación.
+     *
+     * @return Filas leídas por minuto
+     */
+    public double getFilasPorMinuto() {
+        return duracionMs == 0 ? 0 : leidas * 60000.0 / duracionMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Importación de %s: %d leídas, %d importadas, %d rechazadas en %d ms (%.0f filas/min)",
+                entidad, leidas, importadas, rechazadas, duracionMs, getFilasPorMinuto());
+    }
+
+    /**
+     * Fila rechazada de una importación.
+     */
+    public static class Rechazo {
+        private final long linea;
+        private final String motivo;
+
+        Rechazo(long linea, String motivo) {
+            this.linea = linea;
+            this.motivo = motivo;
+        }
+
+        public long getLinea() {
+            return linea;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return "Línea " + linea + ": " + motivo;
+        }
+    }
+}
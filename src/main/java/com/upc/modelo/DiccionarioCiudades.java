@@ -0,0 +1,204 @@
+package com.upc.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Clase DiccionarioCiudades
+ * Asigna a cada nombre de ciudad un identificador entero pequeño.
+ *
+ * Los tickets guardan el identificador de su origen y destino en lugar de una cadena
+ * propia, de modo que cada ciudad existe una sola vez en memoria sin importar cuántos
+ * tickets la usen, y comparar rutas es comparar enteros. Los identificadores se
+ * asignan en orden de aparición y son válidos durante la ejecución.
+ *
+ * Las búsquedas no toman bloqueos: el diccionario es una tabla inmutable que se
+ * reemplaza completa al registrar una ciudad nueva, algo que ocurre pocas veces.
+ * {@link #id(CharSequence, int, int)} busca un fragmento de texto sin crear cadenas,
+ * lo que permite interpretar archivos sin copiar nombres ya conocidos.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public final class DiccionarioCiudades {
+
+    /**
+     * Identificador que representa una ciudad nula
+     */
+    public static final int SIN_CIUDAD = -1;
+
+    /**
+     * Tabla vigente del diccionario
+     */
+    private static volatile Tabla tabla = new Tabla(new String[0], new int[16]);
+
+    /**
+     * Constructor privado: clase de utilidad
+     */
+    private DiccionarioCiudades() {
+    }
+
+    /**
+     * Obtiene el identificador de una ciudad, registrándola si es nueva.
+     *
+     * @param nombre Nombre de la ciudad (puede ser null)
+     * @return Identificador de la ciudad, o {@link #SIN_CIUDAD} si el nombre es null
+     */
+    public static int id(String nombre) {
+        if (nombre == null) {
+            return SIN_CIUDAD;
+        }
+        return id(nombre, 0, nombre.length());
+    }
+
+    /**
+     * Obtiene el identificador de la ciudad escrita en un rango del texto,
+     * registrándola si es nueva. Solo se crea una cadena la primera vez que aparece.
+     *
+     * @param texto Texto que contiene el nombre
+     * @param inicio Posición inicial (incluida)
+     * @param fin Posición final (excluida)
+     * @return Identificador de la ciudad
+     */
+    public static int id(CharSequence texto, int inicio, int fin) {
+        int hash = hash(texto, inicio, fin);
+        int id = tabla.buscar(texto, inicio, fin, hash);
+        if (id != SIN_CIUDAD) {
+            return id;
+        }
+        return registrar(texto.subSequence(inicio, fin).toString(), hash);
+    }
+
+    /**
+     * Obtiene el identificador de una ciudad ya registrada, sin registrarla si es nueva.
+     * Sirve para consultas: buscar una ciudad que no aparece en ningún ticket no debe
+     * agregarla al diccionario.
+     *
+     * @param nombre Nombre de la ciudad (puede ser null)
+     * @return Identificador de la ciudad, o {@link #SIN_CIUDAD} si es null o no está registrada
+     */
+    public static int buscar(String nombre) {
+        if (nombre == null) {
+            return SIN_CIUDAD;
+        }
+        return tabla.buscar(nombre, 0, nombre.length(), nombre.hashCode());
+    }
+
+    /**
+     * Obtiene el nombre de una ciudad.
+     *
+     * @param id Identificador de la ciudad
+     * @return Nombre de la ciudad, o null si el identificador es {@link #SIN_CIUDAD}
+     * @throws IllegalArgumentException si el identificador no existe
+     */
+    public static String nombre(int id) {
+        if (id == SIN_CIUDAD) {
+            return null;
+        }
+        String[] nombres = tabla.nombres;
+        if (id < 0 || id >= nombres.length) {
+            throw new IllegalArgumentException("Ciudad inexistente: " + id);
+        }
+        return nombres[id];
+    }
+
+    /**
+     * Obtiene la cantidad de ciudades registradas.
+     *
+     * @return Número de ciudades
+     */
+    public static int contar() {
+        return tabla.nombres.length;
+    }
+
+    /**
+     * Registra una ciudad nueva y publica una tabla que la incluye.
+     */
+    private static synchronized int registrar(String nombre, int hash) {
+        Tabla actual = tabla;
+        int existente = actual.buscar(nombre, 0, nombre.length(), hash);
+        if (existente != SIN_CIUDAD) {
+            return existente; // Otro hilo la registró primero
+        }
+
+        int id = actual.nombres.length;
+        String[] nombres = Arrays.copyOf(actual.nombres, id + 1);
+        nombres[id] = nombre;
+
+        // Mantener la ocupación por debajo de la mitad para sondeos cortos
+        int capacidad = actual.ranuras.length;
+        while (nombres.length * 2 > capacidad) {
+            capacidad *= 2;
+        }
+        int[] ranuras = new int[capacidad];
+        for (int i = 0; i < nombres.length; i++) {
+            Tabla.insertar(ranuras, nombres[i].hashCode(), i);
+        }
+        tabla = new Tabla(nombres, ranuras);
+        return id;
+    }
+
+    /**
+     * Calcula el mismo hash que {@link String#hashCode()} sobre un rango del texto.
+     */
+    private static int hash(CharSequence texto, int inicio, int fin) {
+        int hash = 0;
+        for (int i = inicio; i < fin; i++) {
+            hash = 31 * hash + texto.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Tabla inmutable: nombres por identificador y un índice hash de direccionamiento
+     * abierto cuyas ranuras guardan el identificador más uno (0 = libre).
+     */
+    private static final class Tabla {
+        private final String[] nombres;
+        private final int[] ranuras;
+
+        private Tabla(String[] nombres, int[] ranuras) {
+            this.nombres = nombres;
+            this.ranuras = ranuras;
+        }
+
+        private int buscar(CharSequence texto, int inicio, int fin, int hash) {
+            int mascara = ranuras.length - 1;
+            for (int i = mezclar(hash) & mascara; ranuras[i] != 0; i = (i + 1) & mascara) {
+                int id = ranuras[i] - 1;
+                if (coincide(nombres[id], texto, inicio, fin)) {
+                    return id;
+                }
+            }
+            return SIN_CIUDAD;
+        }
+
+        private static void insertar(int[] ranuras, int hash, int id) {
+            int mascara = ranuras.length - 1;
+            int i = mezclar(hash) & mascara;
+            while (ranuras[i] != 0) {
+                i = (i + 1) & mascara;
+            }
+            ranuras[i] = id + 1;
+        }
+
+        private static boolean coincide(String nombre, CharSequence texto, int inicio, int fin) {
+            if (nombre.length() != fin - inicio) {
+                return false;
+            }
+            for (int i = 0; i < nombre.length(); i++) {
+                if (nombre.charAt(i) != texto.charAt(inicio + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Dispersa los bits altos del hash hacia los bajos usados como índice.
+         */
+        private static int mezclar(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.upc.modelo;
+
+/**
+ * Interfaz ResolutorReferencias
+ * Define cómo obtener el vehículo y el pasajero de un ticket a partir de sus claves.
+ *
+ * Un ticket leído del almacenamiento guarda solo la placa y la cédula, y usa un
+ * resolutor para buscar los objetos la primera vez que se piden. Así los tickets
+ * pueden leerse antes de que los vehículos y pasajeros estén cargados.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public interface ResolutorReferencias {
+
+    /**
+     * Busca un vehículo por su placa.
+     *
+     * @param placa Placa del vehículo
+     * @return Vehículo encontrado o null si no existe
+     */
+    Vehiculo buscarVehiculo(String placa);
+
+    /**
+     * Busca un pasajero por su cédula.
+     *
+     * @param cedula Cédula del pasajero
+     * @return Pasajero encontrado o null si no existe
+     */
+    Pasajero buscarPasajero(String cedula);
+}
@@ -10,6 +10,11 @@ import java.time.format.DateTimeFormatter;
  * Esta clase implementa las interfaces Calculable e Imprimible,
  * demostrando el uso de interfaces y polimorfismo.
  *
+ * El ticket guarda la placa del vehículo y la cédula del pasajero. Los tickets
+ * leídos del almacenamiento obtienen los objetos con un {@link ResolutorReferencias}
+ * la primera vez que se piden y los conservan; si la referencia ya no existe, el
+ * getter retorna null.
+ *
  * Conceptos POO demostrados: Interfaces, Polimorfismo, Composición
  *
  * @author Universidad Popular del Cesar
@@ -24,24 +29,39 @@ public class Ticket implements Calculable, Imprimible {
     private String idTicket;
 
     /**
-     * Vehículo asignado al viaje
+     * Placa del vehículo asignado al viaje
+     */
+    private String placa;
+
+    /**
+     * Cédula del pasajero que compra el ticket
+     */
+    private String cedula;
+
+    /**
+     * Vehículo asignado al viaje (null hasta resolverlo)
      */
     private Vehiculo vehiculo;
 
     /**
-     * Pasajero que compra el ticket
+     * Pasajero que compra el ticket (null hasta resolverlo)
      */
     private Pasajero pasajero;
 
     /**
-     * Ciudad de origen
+     * Resuelve la placa y la cédula (null si las referencias se asignaron directamente)
+     */
+    private ResolutorReferencias resolutor;
+
+    /**
+     * Ciudad de origen, como identificador de {@link DiccionarioCiudades}
      */
-    private String origen;
+    private int idOrigen;
 
     /**
-     * Ciudad de destino
+     * Ciudad de destino, como identificador de {@link DiccionarioCiudades}
      */
-    private String destino;
+    private int idDestino;
 
     /**
      * Fecha y hora de emisión del ticket
@@ -57,6 +77,8 @@ public class Ticket implements Calculable, Imprimible {
      * Constructor por defecto
      */
     public Ticket() {
+        this.idOrigen = DiccionarioCiudades.SIN_CIUDAD;
+        this.idDestino = DiccionarioCiudades.SIN_CIUDAD;
         this.fecha = LocalDateTime.now();
     }
 
@@ -72,15 +94,55 @@ public class Ticket implements Calculable, Imprimible {
      */
     public Ticket(String idTicket, Vehiculo vehiculo, Pasajero pasajero,
                   String origen, String destino, double distanciaKm) {
+        this(idTicket, vehiculo, pasajero, DiccionarioCiudades.id(origen),
+                DiccionarioCiudades.id(destino), distanciaKm);
+    }
+
+    /**
+     * Constructor con las ciudades ya convertidas a identificadores del diccionario.
+     *
+     * @param idTicket Identificador del ticket
+     * @param vehiculo Vehículo del viaje
+     * @param pasajero Pasajero del ticket
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @param distanciaKm Distancia en kilómetros
+     */
+    public Ticket(String idTicket, Vehiculo vehiculo, Pasajero pasajero,
+                  int idOrigen, int idDestino, double distanciaKm) {
         this.idTicket = idTicket;
-        this.vehiculo = vehiculo;
-        this.pasajero = pasajero;
-        this.origen = origen;
-        this.destino = destino;
+        setVehiculo(vehiculo);
+        setPasajero(pasajero);
+        this.idOrigen = idOrigen;
+        this.idDestino = idDestino;
         this.distanciaKm = distanciaKm;
         this.fecha = LocalDateTime.now();
     }
 
+    /**
+     * Constructor con referencias por clave, resueltas al pedirlas por primera vez.
+     *
+     * @param idTicket Identificador del ticket
+     * @param placa Placa del vehículo del viaje
+     * @param cedula Cédula del pasajero del ticket
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @param fecha Fecha de emisión
+     * @param distanciaKm Distancia en kilómetros
+     * @param resolutor Resolutor de la placa y la cédula
+     */
+    public Ticket(String idTicket, String placa, String cedula, int idOrigen, int idDestino,
+                  LocalDateTime fecha, double distanciaKm, ResolutorReferencias resolutor) {
+        this.idTicket = idTicket;
+        this.placa = placa;
+        this.cedula = cedula;
+        this.idOrigen = idOrigen;
+        this.idDestino = idDestino;
+        this.fecha = fecha;
+        this.distanciaKm = distanciaKm;
+        this.resolutor = resolutor;
+    }
+
     /**
      * Calcula el precio base del ticket sin descuentos.
      * Implementación de la interfaz Calculable.
@@ -92,6 +154,7 @@ public class Ticket implements Calculable, Imprimible {
      */
     @Override
     public double calcularPrecio() {
+        Vehiculo vehiculo = getVehiculo();
         if (vehiculo == null) {
             throw new IllegalStateException("El ticket no tiene vehículo asignado");
         }
@@ -121,6 +184,7 @@ public class Ticket implements Calculable, Imprimible {
      * @return Precio final con descuento del pasajero aplicado
      */
     public double calcularPrecioFinal() {
+        Pasajero pasajero = getPasajero();
         if (pasajero == null) {
             return calcularPrecio();
         }
@@ -136,8 +200,13 @@ public class Ticket implements Calculable, Imprimible {
     @Override
     public String imprimir() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        Vehiculo vehiculo = getVehiculo();
+        if (vehiculo == null) {
+            return String.format("Ticket #%s | %s -> %s | Vehículo %s no disponible | %.0f km",
+                    idTicket, getOrigen(), getDestino(), placa, distanciaKm);
+        }
         return String.format("Ticket #%s | %s -> %s | %s | %.0f km | $%.2f",
-                idTicket, origen, destino,
+                idTicket, getOrigen(), getDestino(),
                 vehiculo.getTipoVehiculo(),
                 distanciaKm,
                 calcularPrecioFinal());
@@ -148,9 +217,17 @@ public class Ticket implements Calculable, Imprimible {
      * Implementación de la interfaz Imprimible.
      *
      * @return String con el recibo completo formateado
+     * @throws IllegalStateException si el vehículo o el pasajero ya no existen
      */
     @Override
     public String generarRecibo() {
+        Vehiculo vehiculo = getVehiculo();
+        Pasajero pasajero = getPasajero();
+        if (vehiculo == null || pasajero == null) {
+            throw new IllegalStateException("El ticket " + idTicket + " referencia un "
+                    + (vehiculo == null ? "vehículo (" + placa + ")" : "pasajero (" + cedula + ")")
+                    + " que ya no existe");
+        }
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
         StringBuilder recibo = new StringBuilder();
 
@@ -167,8 +244,8 @@ public class Ticket implements Calculable, Imprimible {
         recibo.append(String.format("Tipo: %s\n\n", pasajero.getTipoPasajero().getDescripcion()));
 
         recibo.append("--- INFORMACIÓN DEL VIAJE ---\n");
-        recibo.append(String.format("Origen: %s\n", origen));
-        recibo.append(String.format("Destino: %s\n", destino));
+        recibo.append(String.format("Origen: %s\n", getOrigen()));
+        recibo.append(String.format("Destino: %s\n", getDestino()));
         recibo.append(String.format("Distancia: %.2f km\n\n", distanciaKm));
 
         recibo.append("--- INFORMACIÓN DEL VEHÍCULO ---\n");
@@ -202,36 +279,94 @@ public class Ticket implements Calculable, Imprimible {
         this.idTicket = idTicket;
     }
 
+    /**
+     * Obtiene el vehículo, resolviendo la placa la primera vez.
+     *
+     * @return Vehículo del viaje, o null si no está asignado o ya no existe
+     */
     public Vehiculo getVehiculo() {
-        return vehiculo;
+        Vehiculo actual = vehiculo;
+        if (actual == null && placa != null && resolutor != null) {
+            actual = resolutor.buscarVehiculo(placa);
+            vehiculo = actual;
+        }
+        return actual;
     }
 
     public void setVehiculo(Vehiculo vehiculo) {
         this.vehiculo = vehiculo;
+        this.placa = vehiculo == null ? null : vehiculo.getPlaca();
     }
 
+    /**
+     * Obtiene el pasajero, resolviendo la cédula la primera vez.
+     *
+     * @return Pasajero del ticket, o null si no está asignado o ya no existe
+     */
     public Pasajero getPasajero() {
-        return pasajero;
+        Pasajero actual = pasajero;
+        if (actual == null && cedula != null && resolutor != null) {
+            actual = resolutor.buscarPasajero(cedula);
+            pasajero = actual;
+        }
+        return actual;
     }
 
     public void setPasajero(Pasajero pasajero) {
         this.pasajero = pasajero;
+        this.cedula = pasajero == null ? null : pasajero.getCedula();
+    }
+
+    /**
+     * Obtiene la placa del vehículo sin resolver la referencia.
+     *
+     * @return Placa del vehículo, o null si no está asignado
+     */
+    public String getPlaca() {
+        return placa;
+    }
+
+    /**
+     * Obtiene la cédula del pasajero sin resolver la referencia.
+     *
+     * @return Cédula del pasajero, o null si no está asignado
+     */
+    public String getCedula() {
+        return cedula;
     }
 
     public String getOrigen() {
-        return origen;
+        return DiccionarioCiudades.nombre(idOrigen);
     }
 
     public void setOrigen(String origen) {
-        this.origen = origen;
+        this.idOrigen = DiccionarioCiudades.id(origen);
     }
 
     public String getDestino() {
-        return destino;
+        return DiccionarioCiudades.nombre(idDestino);
     }
 
     public void setDestino(String destino) {
-        this.destino = destino;
+        this.idDestino = DiccionarioCiudades.id(destino);
+    }
+
+    public int getIdOrigen() {
+        return idOrigen;
+    }
+
+    public int getIdDestino() {
+        return idDestino;
+    }
+
+    /**
+     * Indica si otro ticket cubre la misma ruta (mismo origen y destino).
+     *
+     * @param otro Ticket a comparar
+     * @return true si ambos tienen el mismo origen y el mismo destino
+     */
+    public boolean esMismaRuta(Ticket otro) {
+        return otro != null && idOrigen == otro.idOrigen && idDestino == otro.idDestino;
     }
 
     public LocalDateTime getFecha() {
@@ -0,0 +1,786 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import com.upc.modelo.TipoPasajero;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Clase AlmacenJdbcTickets
+ * Almacena los tickets en una tabla de la base de datos embebida
+ * ({@link BaseDatosEmbebida}) en modo {@link ModoAlmacenamientoTickets#JDBC}.
+ *
+ * <p>Los tickets no se cargan en memoria. Cada fila guarda la línea CSV del ticket
+ * junto con columnas para consultar: cédula, placa y (fecha, ID) tienen índices, de
+ * modo que {@code buscarPorPasajero}, {@code buscarPorVehiculo}, los rangos de fechas,
+ * los tickets más recientes y las páginas cronológicas no recorren la tabla; precio final, distancia y tipo de pasajero permiten calcular los
+ * totales con SQL ({@link #resumir()}, {@link #ingresosPorTipoPasajero()}).</p>
+ *
+ * <p>Las inserciones se acumulan y se confirman por lotes con una sentencia preparada
+ * ({@code executeBatch}) en una sola transacción: mientras un lote se escribe, las
+ * ventas concurrentes esperan y entran juntas en el siguiente. Con durabilidad
+ * SINCRONA {@link #completar(CompletableFuture)} espera la confirmación; con
+ * ASINCRONA el lote se confirma en segundo plano tras la ventana de agrupación y, si
+ * falla, el error queda en {@link #getErrorConfirmacion()}. Las
+ * lecturas y las demás operaciones confirman antes las inserciones pendientes.</p>
+ *
+ * <p>{@link #recorrer} lee la tabla por páginas en orden de número (paginación por
+ * clave sobre un índice), de modo que exportar el historial no lo carga completo ni
+ * retiene la conexión mientras se procesa cada página.</p>
+ *
+ * <p>El orden cronológico de la tabla usa la fecha en milisegundos: dos tickets del
+ * mismo milisegundo se ordenan por ID.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class AlmacenJdbcTickets {
+
+    /**
+     * Filas por lote al importar tickets existentes
+     */
+    private static final int LOTE_IMPORTACION = 1000;
+
+    /**
+     * Filas por página al recorrer la tabla
+     */
+    private static final int FILAS_POR_PAGINA = 1000;
+
+    private static final String COLUMNAS =
+            "id, numero, cedula, placa, fecha_ms, precio, distancia, tipo_pasajero, registro";
+
+    private final Connection conexion;
+    private final PreparedStatement insertar;
+    private final PreparedStatement actualizar;
+    private final PreparedStatement eliminar;
+    private final PreparedStatement existe;
+    private final PreparedStatement buscar;
+    private final PreparedStatement buscarPorCedula;
+    private final PreparedStatement buscarPorPlaca;
+    private final PreparedStatement buscarEnRango;
+    private final PreparedStatement buscarUltimos;
+    private final PreparedStatement buscarPosteriores;
+    private final PreparedStatement buscarAnteriores;
+    private final PreparedStatement pagina;
+
+    /**
+     * Inserciones aún no confirmadas, en orden de llegada (ID -> futuro)
+     */
+    private final Map<String, Pendiente> pendientes;
+
+    /**
+     * Confirma los lotes en segundo plano con durabilidad ASINCRONA
+     */
+    private final ScheduledExecutorService confirmador;
+
+    /**
+     * Ventana de agrupación de las inserciones asíncronas en milisegundos
+     */
+    private final long ventanaMs;
+
+    /**
+     * Indica si ya hay una confirmación en segundo plano programada
+     */
+    private boolean confirmacionProgramada;
+
+    /**
+     * Error de la última confirmación en segundo plano que falló, o null
+     */
+    private volatile RuntimeException errorConfirmacion;
+
+    /**
+     * Abre la tabla de tickets, creándola con sus índices si no existe.
+     *
+     * @throws RuntimeException si ocurre un error al abrir la base de datos
+     */
+    public AlmacenJdbcTickets() {
+        this.conexion = BaseDatosEmbebida.abrir();
+        this.pendientes = new LinkedHashMap<>();
+        this.ventanaMs = Math.max(1, Long.getLong(EscritorPersistencia.PROPIEDAD_VENTANA_MS, 2L));
+        try {
+            BaseDatosEmbebida.definir(conexion,
+                    "CREATE TABLE IF NOT EXISTS tickets (id VARCHAR(32) PRIMARY KEY, numero BIGINT NOT NULL, "
+                            + "cedula VARCHAR(32), placa VARCHAR(32), fecha_ms BIGINT NOT NULL, "
+                            + "precio DOUBLE PRECISION NOT NULL, distancia DOUBLE PRECISION NOT NULL, "
+                            + "tipo_pasajero SMALLINT, registro VARCHAR(1024) NOT NULL)",
+                    "CREATE INDEX IF NOT EXISTS idx_tickets_cedula ON tickets (cedula)",
+                    "CREATE INDEX IF NOT EXISTS idx_tickets_placa ON tickets (placa)",
+                    "DROP INDEX IF EXISTS idx_tickets_fecha",
+                    "CREATE INDEX IF NOT EXISTS idx_tickets_fecha_id ON tickets (fecha_ms, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_tickets_numero ON tickets (numero, id)");
+            this.insertar = conexion.prepareStatement("INSERT INTO tickets (" + COLUMNAS
+                    + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            this.actualizar = conexion.prepareStatement("UPDATE tickets SET numero = ?, cedula = ?, placa = ?, "
+                    + "fecha_ms = ?, precio = ?, distancia = ?, tipo_pasajero = ?, registro = ? WHERE id = ?");
+            this.eliminar = conexion.prepareStatement("DELETE FROM tickets WHERE id = ?");
+            this.existe = conexion.prepareStatement("SELECT 1 FROM tickets WHERE id = ?");
+            this.buscar = conexion.prepareStatement("SELECT registro FROM tickets WHERE id = ?");
+            this.buscarPorCedula = conexion.prepareStatement(
+                    "SELECT registro FROM tickets WHERE cedula = ? ORDER BY numero");
+            this.buscarPorPlaca = conexion.prepareStatement(
+                    "SELECT registro FROM tickets WHERE placa = ? ORDER BY numero");
+            this.buscarEnRango = conexion.prepareStatement(
+                    "SELECT registro FROM tickets WHERE fecha_ms >= ? AND fecha_ms <= ? ORDER BY fecha_ms, id");
+            this.buscarUltimos = conexion.prepareStatement(
+                    "SELECT registro FROM tickets ORDER BY fecha_ms DESC, id DESC LIMIT ?");
+            this.buscarPosteriores = conexion.prepareStatement("SELECT registro FROM tickets "
+                    + "WHERE (fecha_ms, id) > (?, ?) ORDER BY fecha_ms, id LIMIT ?");
+            this.buscarAnteriores = conexion.prepareStatement("SELECT registro FROM tickets "
+                    + "WHERE (fecha_ms, id) < (?, ?) ORDER BY fecha_ms DESC, id DESC LIMIT ?");
+            this.pagina = conexion.prepareStatement("SELECT registro, numero, id FROM tickets "
+                    + "WHERE (numero, id) > (?, ?) ORDER BY numero, id LIMIT " + FILAS_POR_PAGINA);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al abrir la tabla de tickets: " + e.getMessage(), e);
+        }
+        this.confirmador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "confirmador-tickets");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        BaseDatosEmbebida.alCerrar(this::vaciar);
+    }
+
+    /**
+     * Agrega un ticket al siguiente lote de inserciones.
+     * Debe invocarse con el bloqueo del DAO para que la verificación de existencia
+     * y el registro sean atómicos.
+     *
+     * @param ticket Ticket a insertar
+     * @return Futuro que se completa al confirmar el lote, o null si el ticket ya existía
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public CompletableFuture<Void> insertar(Ticket ticket) {
+        if (existe(ticket.getIdTicket())) {
+            return null;
+        }
+        Pendiente pendiente = new Pendiente(ticket);
+        synchronized (pendientes) {
+            pendientes.put(ticket.getIdTicket(), pendiente);
+        }
+        return pendiente.futuro;
+    }
+
+    /**
+     * Espera una inserción según la durabilidad configurada. Con durabilidad SINCRONA
+     * confirma el lote pendiente (que puede incluir inserciones de otros hilos).
+     *
+     * @param futuro Futuro devuelto por {@link #insertar(Ticket)}
+     * @throws RuntimeException si la inserción falló y había que esperarla
+     */
+    public void completar(CompletableFuture<Void> futuro) {
+        if (EscritorPersistencia.getInstancia().getModoDurabilidad() == ModoDurabilidad.SINCRONA) {
+            vaciar();
+            try {
+                futuro.join();
+            } catch (CompletionException e) {
+                // El lote lo confirmó otro hilo: propagar el error original
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+            return;
+        }
+        synchronized (pendientes) {
+            if (confirmacionProgramada || pendientes.isEmpty()) {
+                return;
+            }
+            confirmacionProgramada = true;
+        }
+        confirmador.schedule(() -> {
+            synchronized (pendientes) {
+                confirmacionProgramada = false;
+            }
+            try {
+                vaciar();
+            } catch (RuntimeException e) {
+                errorConfirmacion = e; // Los futuros del lote ya fallaron con este error
+            }
+        }, ventanaMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Confirma en un solo lote todas las inserciones pendientes.
+     *
+     * @throws RuntimeException si el lote falla; sus inserciones se descartan
+     */
+    public void vaciar() {
+        synchronized (conexion) {
+            List<Pendiente> lote;
+            synchronized (pendientes) {
+                if (pendientes.isEmpty()) {
+                    return;
+                }
+                lote = new ArrayList<>(pendientes.values());
+                pendientes.clear();
+            }
+            try {
+                for (Pendiente pendiente : lote) {
+                    asignar(insertar, pendiente.ticket);
+                    insertar.addBatch();
+                }
+                insertar.executeBatch();
+                conexion.commit();
+            } catch (SQLException e) {
+                BaseDatosEmbebida.revertir(conexion, e);
+                RuntimeException error = new RuntimeException(
+                        "Error al insertar " + lote.size() + " tickets en la base de datos: " + e.getMessage(), e);
+                for (Pendiente pendiente : lote) {
+                    pendiente.futuro.completeExceptionally(error);
+                }
+                throw error;
+            }
+            for (Pendiente pendiente : lote) {
+                pendiente.futuro.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el error de la última confirmación en segundo plano que falló.
+     *
+     * @return Último error, o null si ninguna falló
+     */
+    public RuntimeException getErrorConfirmacion() {
+        return errorConfirmacion;
+    }
+
+    /**
+     * Indica si los tickets de los archivos ya se importaron a la tabla.
+     *
+     * @return true si la importación ya se realizó
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public boolean importado() {
+        synchronized (conexion) {
+            try {
+                return BaseDatosEmbebida.importado(conexion, "tickets");
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Importa una única vez los tickets de los archivos, en lotes dentro de una sola
+     * transacción que también registra la importación.
+     *
+     * @param tickets Tickets a importar (no deben existir en la tabla)
+     * @throws RuntimeException si ocurre un error; no se importa ninguno
+     */
+    public void importar(Collection<Ticket> tickets) {
+        vaciar();
+        synchronized (conexion) {
+            try {
+                insertarEnLotes(tickets);
+                BaseDatosEmbebida.marcarImportado(conexion, "tickets");
+                conexion.commit();
+            } catch (SQLException e) {
+                BaseDatosEmbebida.revertir(conexion, e);
+                throw new RuntimeException("Error al importar tickets a la base de datos: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Inserta varios tickets en lotes dentro de una sola transacción.
+     * Debe invocarse con el bloqueo del DAO, como {@link #insertar(Ticket)}.
+     *
+     * @param tickets Tickets a insertar
+     * @return Tickets que no se insertaron porque ya existía uno con el mismo ID
+     *         (incluido uno anterior de la misma colección)
+     * @throws RuntimeException si ocurre un error; no se inserta ninguno
+     */
+    public List<Ticket> insertarTodos(Collection<Ticket> tickets) {
+        vaciar();
+        synchronized (conexion) {
+            List<Ticket> nuevos = new ArrayList<>(tickets.size());
+            List<Ticket> existentes = new ArrayList<>();
+            Set<String> vistos = new HashSet<>();
+            try {
+                for (Ticket ticket : tickets) {
+                    existe.setString(1, ticket.getIdTicket());
+                    boolean registrado;
+                    try (ResultSet fila = existe.executeQuery()) {
+                        registrado = fila.next();
+                    }
+                    if (registrado || !vistos.add(ticket.getIdTicket())) {
+                        existentes.add(ticket);
+                    } else {
+                        nuevos.add(ticket);
+                    }
+                }
+                insertarEnLotes(nuevos);
+                conexion.commit();
+                return existentes;
+            } catch (SQLException e) {
+                throw errorEscritura(e);
+            }
+        }
+    }
+
+    /**
+     * Envía las inserciones en lotes de {@link #LOTE_IMPORTACION} filas, sin confirmar.
+     * Debe invocarse con el bloqueo de la conexión.
+     */
+    private void insertarEnLotes(Collection<Ticket> tickets) throws SQLException {
+        int enLote = 0;
+        for (Ticket ticket : tickets) {
+            asignar(insertar, ticket);
+            insertar.addBatch();
+            if (++enLote == LOTE_IMPORTACION) {
+                insertar.executeBatch();
+                enLote = 0;
+            }
+        }
+        insertar.executeBatch();
+    }
+
+    /**
+     * Actualiza un ticket existente.
+     *
+     * @param ticket Ticket con los datos actualizados
+     * @return true si se actualizó, false si no existe
+     * @throws RuntimeException si ocurre un error en la base de datos
+     */
+    public boolean actualizar(Ticket ticket) {
+        vaciar();
+        synchronized (conexion) {
+            try {
+                asignar(actualizar, ticket);
+                return confirmar(actualizar.executeUpdate()) > 0;
+            } catch (SQLException e) {
+                throw errorEscritura(e);
+            }
+        }
+    }
+
+    /**
+     * Elimina un ticket.
+     *
+     * @param idTicket ID del ticket
+     * @return true si se eliminó, false si no existía
+     * @throws RuntimeException si ocurre un error en la base de datos
+     */
+    public boolean eliminar(String idTicket) {
+        vaciar();
+        synchronized (conexion) {
+            try {
+                eliminar.setString(1, idTicket);
+                return confirmar(eliminar.executeUpdate()) > 0;
+            } catch (SQLException e) {
+                throw errorEscritura(e);
+            }
+        }
+    }
+
+    /**
+     * Elimina todos los tickets.
+     *
+     * @throws RuntimeException si ocurre un error en la base de datos
+     */
+    public void limpiar() {
+        vaciar();
+        synchronized (conexion) {
+            try (Statement sentencia = conexion.createStatement()) {
+                confirmar(sentencia.executeUpdate("DELETE FROM tickets"));
+            } catch (SQLException e) {
+                throw errorEscritura(e);
+            }
+        }
+    }
+
+    /**
+     * Verifica si existe un ticket, incluidas las inserciones pendientes.
+     *
+     * @param idTicket ID del ticket
+     * @return true si existe
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public boolean existe(String idTicket) {
+        synchronized (pendientes) {
+            if (pendientes.containsKey(idTicket)) {
+                return true;
+            }
+        }
+        synchronized (conexion) {
+            try {
+                existe.setString(1, idTicket);
+                try (ResultSet fila = existe.executeQuery()) {
+                    return fila.next();
+                }
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Busca un ticket por su ID.
+     *
+     * @param idTicket ID del ticket
+     * @param vehiculoDAO DAO para resolver el vehículo
+     * @param pasajeroDAO DAO para resolver el pasajero
+     * @return Ticket encontrado o null si no existe
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public Ticket buscar(String idTicket, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        List<Ticket> encontrados = consultar(buscar, idTicket, vehiculoDAO, pasajeroDAO);
+        return encontrados.isEmpty() ? null : encontrados.get(0);
+    }
+
+    /**
+     * Busca los tickets de un pasajero usando el índice por cédula.
+     *
+     * @param cedula Cédula del pasajero
+     * @param vehiculoDAO DAO para resolver los vehículos
+     * @param pasajeroDAO DAO para resolver los pasajeros
+     * @return Tickets del pasajero
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public List<Ticket> buscarPorCedula(String cedula, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        return consultar(buscarPorCedula, cedula, vehiculoDAO, pasajeroDAO);
+    }
+
+    /**
+     * Busca los tickets de un vehículo usando el índice por placa.
+     *
+     * @param placa Placa del vehículo
+     * @param vehiculoDAO DAO para resolver los vehículos
+     * @param pasajeroDAO DAO para resolver los pasajeros
+     * @return Tickets del vehículo
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public List<Ticket> buscarPorPlaca(String placa, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        return consultar(buscarPorPlaca, placa, vehiculoDAO, pasajeroDAO);
+    }
+
+    /**
+     * Busca los tickets cuya fecha, truncada a milisegundos, está en un rango cerrado.
+     * El llamador debe filtrar con la fecha exacta.
+     *
+     * @param desdeMs Inicio del rango en milisegundos desde la época (incluido)
+     * @param hastaMs Fin del rango en milisegundos desde la época (incluido)
+     * @param vehiculoDAO DAO para resolver los vehículos
+     * @param pasajeroDAO DAO para resolver los pasajeros
+     * @return Tickets candidatos ordenados por fecha e ID
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public List<Ticket> buscarEnRango(long desdeMs, long hastaMs, VehiculoDAO vehiculoDAO,
+                                      PasajeroDAO pasajeroDAO) {
+        vaciar();
+        synchronized (conexion) {
+            try {
+                buscarEnRango.setLong(1, desdeMs);
+                buscarEnRango.setLong(2, hastaMs);
+                return leerTickets(buscarEnRango, vehiculoDAO, pasajeroDAO);
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Busca los tickets más recientes recorriendo el índice por fecha desde el final.
+     *
+     * @param cantidad Cantidad máxima de tickets
+     * @param vehiculoDAO DAO para resolver los vehículos
+     * @param pasajeroDAO DAO para resolver los pasajeros
+     * @return Tickets del más reciente al más antiguo
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public List<Ticket> buscarUltimos(int cantidad, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        vaciar();
+        synchronized (conexion) {
+            try {
+                buscarUltimos.setInt(1, cantidad);
+                return leerTickets(buscarUltimos, vehiculoDAO, pasajeroDAO);
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Busca los tickets posteriores a una posición del orden cronológico, paginando
+     * por clave sobre el índice por fecha.
+     *
+     * @param cursor Clave del último ticket ya entregado, o null para empezar por el más antiguo
+     * @param cantidad Cantidad máxima de tickets
+     * @param vehiculoDAO DAO para resolver los vehículos
+     * @param pasajeroDAO DAO para resolver los pasajeros
+     * @return Tickets en orden cronológico
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public List<Ticket> buscarPosterioresA(ClaveCronologica cursor, int cantidad, VehiculoDAO vehiculoDAO,
+                                           PasajeroDAO pasajeroDAO) {
+        long desdeMs = cursor == null ? Long.MIN_VALUE : CodecFecha.aEpochMilis(cursor.getFecha());
+        String desdeId = cursor == null ? "" : cursor.getIdTicket();
+        vaciar();
+        synchronized (conexion) {
+            try {
+                buscarPosteriores.setLong(1, desdeMs);
+                buscarPosteriores.setString(2, desdeId);
+                buscarPosteriores.setInt(3, cantidad);
+                return leerTickets(buscarPosteriores, vehiculoDAO, pasajeroDAO);
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Busca los tickets anteriores a una posición del orden cronológico, del más reciente
+     * al más antiguo, paginando por clave sobre el índice por fecha.
+     *
+     * @param cursor Clave del último ticket ya entregado (no null)
+     * @param cantidad Cantidad máxima de tickets
+     * @param vehiculoDAO DAO para resolver los vehículos
+     * @param pasajeroDAO DAO para resolver los pasajeros
+     * @return Tickets en orden cronológico inverso
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public List<Ticket> buscarAnterioresA(ClaveCronologica cursor, int cantidad, VehiculoDAO vehiculoDAO,
+                                          PasajeroDAO pasajeroDAO) {
+        vaciar();
+        synchronized (conexion) {
+            try {
+                buscarAnteriores.setLong(1, CodecFecha.aEpochMilis(cursor.getFecha()));
+                buscarAnteriores.setString(2, cursor.getIdTicket());
+                buscarAnteriores.setInt(3, cantidad);
+                return leerTickets(buscarAnteriores, vehiculoDAO, pasajeroDAO);
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Entrega todos los tickets a un visitante, en orden de número, leyendo la tabla
+     * por páginas. Cada página se lee con el bloqueo de la conexión y se entrega fuera
+     * de él, así que las ventas siguen mientras el visitante trabaja; solo una página
+     * está en memoria a la vez.
+     *
+     * @param visitante Función que recibe cada ticket
+     * @param vehiculoDAO DAO para resolver los vehículos
+     * @param pasajeroDAO DAO para resolver los pasajeros
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public void recorrer(Consumer<? super Ticket> visitante, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        List<TicketSinResolver> leidos = new ArrayList<>(FILAS_POR_PAGINA);
+        long ultimoNumero = Long.MIN_VALUE;
+        String ultimoId = "";
+        do {
+            leidos.clear();
+            vaciar();
+            synchronized (conexion) {
+                try {
+                    pagina.setLong(1, ultimoNumero);
+                    pagina.setString(2, ultimoId);
+                    try (ResultSet filas = pagina.executeQuery()) {
+                        while (filas.next()) {
+                            leidos.add(SerializadorTicket.deserializarSinResolver(filas.getString(1)));
+                            ultimoNumero = filas.getLong(2);
+                            ultimoId = filas.getString(3);
+                        }
+                    }
+                    conexion.commit();
+                } catch (SQLException e) {
+                    throw errorLectura(e);
+                }
+            }
+            for (TicketSinResolver ticket : leidos) {
+                visitante.accept(ticket.resolver(vehiculoDAO, pasajeroDAO));
+            }
+        } while (leidos.size() == FILAS_POR_PAGINA);
+    }
+
+    /**
+     * Cuenta los tickets.
+     *
+     * @return Número de tickets
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public int contar() {
+        return (int) consultarNumero("SELECT COUNT(*) FROM tickets");
+    }
+
+    /**
+     * Obtiene el mayor número de ID de ticket registrado.
+     *
+     * @return Mayor número, o 0 si no hay tickets
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public long maxNumeroId() {
+        return consultarNumero("SELECT COALESCE(MAX(numero), 0) FROM tickets");
+    }
+
+    /**
+     * Resume todos los tickets con una consulta de agregación.
+     *
+     * @return Cantidad, ingresos y distancia total
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public TablaColumnarTickets.Resumen resumir() {
+        vaciar();
+        synchronized (conexion) {
+            try (Statement sentencia = conexion.createStatement();
+                 ResultSet fila = sentencia.executeQuery(
+                         "SELECT COUNT(*), COALESCE(SUM(precio), 0), COALESCE(SUM(distancia), 0) FROM tickets")) {
+                fila.next();
+                TablaColumnarTickets.Resumen resumen =
+                        new TablaColumnarTickets.Resumen(fila.getInt(1), fila.getDouble(2), fila.getDouble(3));
+                conexion.commit();
+                return resumen;
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Suma los ingresos de cada tipo de pasajero con una consulta de agregación.
+     *
+     * @return Ingresos indexados por {@link TipoPasajero#ordinal()}
+     * @throws RuntimeException si ocurre un error al consultar la base de datos
+     */
+    public double[] ingresosPorTipoPasajero() {
+        TipoPasajero[] tipos = TipoPasajero.values();
+        double[] ingresos = new double[tipos.length];
+        vaciar();
+        synchronized (conexion) {
+            try (Statement sentencia = conexion.createStatement();
+                 ResultSet filas = sentencia.executeQuery("SELECT tipo_pasajero, SUM(precio) FROM tickets "
+                         + "WHERE tipo_pasajero IS NOT NULL GROUP BY tipo_pasajero")) {
+                while (filas.next()) {
+                    int tipo = filas.getInt(1);
+                    if (tipo >= 0 && tipo < tipos.length) {
+                        ingresos[tipo] = filas.getDouble(2);
+                    }
+                }
+                conexion.commit();
+                return ingresos;
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Asigna los parámetros de una inserción o actualización. La inserción lleva el ID
+     * al principio y la actualización al final.
+     */
+    private void asignar(PreparedStatement sentencia, Ticket ticket) throws SQLException {
+        int i = 1;
+        if (sentencia == insertar) {
+            sentencia.setString(i++, ticket.getIdTicket());
+        }
+        sentencia.setLong(i++, MotorTicketsBase.extraerNumeroId(ticket.getIdTicket()));
+        sentencia.setString(i++, ticket.getCedula());
+        sentencia.setString(i++, ticket.getPlaca());
+        sentencia.setLong(i++, CodecFecha.aEpochMilis(ticket.getFecha()));
+        sentencia.setDouble(i++, ticket.getVehiculo() == null ? 0 : ticket.calcularPrecioFinal());
+        sentencia.setDouble(i++, ticket.getDistanciaKm());
+        if (ticket.getPasajero() != null) {
+            sentencia.setInt(i++, ticket.getPasajero().getTipoPasajero().ordinal());
+        } else {
+            sentencia.setNull(i++, Types.SMALLINT);
+        }
+        sentencia.setString(i++, SerializadorTicket.serializar(ticket));
+        if (sentencia == actualizar) {
+            sentencia.setString(i, ticket.getIdTicket());
+        }
+    }
+
+    /**
+     * Ejecuta una consulta de tickets con un parámetro de texto.
+     */
+    private List<Ticket> consultar(PreparedStatement consulta, String parametro, VehiculoDAO vehiculoDAO,
+                                   PasajeroDAO pasajeroDAO) {
+        vaciar();
+        synchronized (conexion) {
+            try {
+                consulta.setString(1, parametro);
+                return leerTickets(consulta, vehiculoDAO, pasajeroDAO);
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una consulta cuya primera columna es el registro CSV y resuelve los tickets.
+     * Debe invocarse con el bloqueo de la conexión.
+     */
+    private List<Ticket> leerTickets(PreparedStatement consulta, VehiculoDAO vehiculoDAO,
+                                     PasajeroDAO pasajeroDAO) throws SQLException {
+        List<TicketSinResolver> leidos = new ArrayList<>();
+        try (ResultSet filas = consulta.executeQuery()) {
+            while (filas.next()) {
+                leidos.add(SerializadorTicket.deserializarSinResolver(filas.getString(1)));
+            }
+        }
+        conexion.commit();
+        List<Ticket> tickets = new ArrayList<>(leidos.size());
+        for (TicketSinResolver ticket : leidos) {
+            tickets.add(ticket.resolver(vehiculoDAO, pasajeroDAO));
+        }
+        return tickets;
+    }
+
+    private long consultarNumero(String sql) {
+        vaciar();
+        synchronized (conexion) {
+            try (Statement sentencia = conexion.createStatement(); ResultSet fila = sentencia.executeQuery(sql)) {
+                fila.next();
+                long numero = fila.getLong(1);
+                conexion.commit();
+                return numero;
+            } catch (SQLException e) {
+                throw errorLectura(e);
+            }
+        }
+    }
+
+    private int confirmar(int filas) throws SQLException {
+        conexion.commit();
+        return filas;
+    }
+
+    private RuntimeException errorEscritura(SQLException e) {
+        BaseDatosEmbebida.revertir(conexion, e);
+        return new RuntimeException("Error al escribir tickets en la base de datos: " + e.getMessage(), e);
+    }
+
+    private RuntimeException errorLectura(SQLException e) {
+        BaseDatosEmbebida.revertir(conexion, e);
+        return new RuntimeException("Error al consultar tickets en la base de datos: " + e.getMessage(), e);
+    }
+
+    /**
+     * Inserción a la espera de su lote.
+     */
+    private static final class Pendiente {
+        private final Ticket ticket;
+        private final CompletableFuture<Void> futuro = new CompletableFuture<>();
+
+        private Pendiente(Ticket ticket) {
+            this.ticket = ticket;
+        }
+    }
+}
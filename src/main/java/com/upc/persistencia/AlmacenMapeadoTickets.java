@@ -0,0 +1,640 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.DiccionarioCiudades;
+import com.upc.modelo.Ticket;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Clase AlmacenMapeadoTickets
+ * Almacén de tickets sobre un archivo mapeado en memoria con registros de tamaño fijo.
+ *
+ * <p>Los tickets no se cargan al iniciar: cada consulta lee los campos directamente del
+ * mapeo y solo construye objetos {@link Ticket} para los resultados. El ticket
+ * "TK-00042" ocupa la posición 41, de modo que la búsqueda por ID no necesita índice
+ * en memoria. El tamaño del heap deja de depender del historial y el arranque es
+ * prácticamente instantáneo.</p>
+ *
+ * <p>Estructura del archivo: encabezado de 64 bytes (marca, versión, tamaño de registro,
+ * posiciones usadas, tickets activos) seguido de registros de 128 bytes:</p>
+ * <pre>
+ *   estado(1) placa(1+16) cedula(1+16) origen(1+32) destino(1+32)
+ *   fechaSegundos(8) fechaNanos(4) distanciaKm(8)
+ * </pre>
+ *
+ * <p>Cada texto ocupa su campo si cabe: hasta 16 bytes UTF-8 la placa y la cédula y
+ * hasta 32 cada ciudad. Un texto más largo se guarda una sola vez en el área de desborde
+ * ({@code tickets.map.textos}, entradas {@code longitud(4) bytes}) y el campo guarda la
+ * marca 0xFF seguida de su posición allí (8 bytes), así que este modo acepta los mismos
+ * datos que los demás. El área de desborde se carga completa al abrir; solo contiene los
+ * textos largos distintos, que suelen ser pocos.</p>
+ *
+ * <p>Restricción: solo admite IDs con formato "TK-00001".</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class AlmacenMapeadoTickets {
+
+    /**
+     * Tamaño de cada registro en bytes
+     */
+    public static final int TAMANO_REGISTRO = 128;
+
+    /**
+     * Tamaño del encabezado del archivo en bytes
+     */
+    private static final int TAMANO_ENCABEZADO = 64;
+
+    /**
+     * Registros por región mapeada (el archivo crece de a una región)
+     */
+    private static final int REGISTROS_POR_REGION = 8192;
+
+    /**
+     * Marca del archivo ("BRCM")
+     */
+    private static final int MAGIA = 0x4252434D;
+
+    /**
+     * Versión del formato del archivo
+     */
+    private static final int VERSION = 1;
+
+    // Posiciones del encabezado
+    private static final int ENC_MAGIA = 0;
+    private static final int ENC_VERSION = 4;
+    private static final int ENC_TAMANO_REGISTRO = 8;
+    private static final int ENC_POSICIONES = 12;
+    private static final int ENC_ACTIVOS = 16;
+
+    // Posiciones dentro de un registro
+    private static final int POS_ESTADO = 0;
+    private static final int POS_PLACA = 1;
+    private static final int POS_CEDULA = 18;
+    private static final int POS_ORIGEN = 35;
+    private static final int POS_DESTINO = 68;
+    private static final int POS_SEGUNDOS = 101;
+    private static final int POS_NANOS = 109;
+    private static final int POS_DISTANCIA = 113;
+
+    // Capacidad de los campos de texto en bytes
+    private static final int MAX_PLACA = 16;
+    private static final int MAX_CEDULA = 16;
+    private static final int MAX_CIUDAD = 32;
+
+    /**
+     * Marca de longitud de un texto guardado en el área de desborde
+     */
+    private static final byte DESBORDADO = (byte) 0xFF;
+
+    // Estados de un registro
+    private static final byte VACIO = 0;
+    private static final byte ACTIVO = 1;
+    private static final byte ELIMINADO = 2;
+
+    /**
+     * Canal del archivo mapeado
+     */
+    private final FileChannel canal;
+
+    /**
+     * Mapeo del encabezado
+     */
+    private final MappedByteBuffer encabezado;
+
+    /**
+     * Regiones mapeadas de registros
+     */
+    private final List<MappedByteBuffer> regiones;
+
+    /**
+     * Ruta del archivo, para mensajes de error
+     */
+    private final String ruta;
+
+    /**
+     * Canal del área de desborde, con los textos que no caben en su campo
+     */
+    private final FileChannel desborde;
+
+    /**
+     * Textos del área de desborde por su posición en el archivo
+     */
+    private final Map<Long, String> textosDesbordados;
+
+    /**
+     * Posición en el área de desborde de cada texto, para no repetirlo
+     */
+    private final Map<String, Long> posicionesDesbordadas;
+
+    /**
+     * Abre (o crea) el almacén sobre el archivo indicado.
+     *
+     * @param ruta Ruta del archivo mapeado
+     * @throws RuntimeException si el archivo no se puede abrir o no tiene un formato válido
+     */
+    public AlmacenMapeadoTickets(String ruta) {
+        this.ruta = ruta;
+        this.regiones = new CopyOnWriteArrayList<>();
+        this.textosDesbordados = new ConcurrentHashMap<>();
+        this.posicionesDesbordadas = new ConcurrentHashMap<>();
+        File archivo = new File(ruta);
+        if (archivo.getParentFile() != null) {
+            archivo.getParentFile().mkdirs();
+        }
+
+        try {
+            this.canal = FileChannel.open(archivo.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean nuevo = canal.size() < TAMANO_ENCABEZADO;
+            this.encabezado = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANO_ENCABEZADO);
+
+            if (nuevo) {
+                encabezado.putInt(ENC_MAGIA, MAGIA);
+                encabezado.putInt(ENC_VERSION, VERSION);
+                encabezado.putInt(ENC_TAMANO_REGISTRO, TAMANO_REGISTRO);
+                encabezado.putInt(ENC_POSICIONES, 0);
+                encabezado.putInt(ENC_ACTIVOS, 0);
+            } else if (encabezado.getInt(ENC_MAGIA) != MAGIA
+                    || encabezado.getInt(ENC_VERSION) != VERSION
+                    || encabezado.getInt(ENC_TAMANO_REGISTRO) != TAMANO_REGISTRO) {
+                throw new RuntimeException("El archivo no es un almacén mapeado de tickets válido: " + ruta);
+            }
+
+            long bytesRegion = (long) REGISTROS_POR_REGION * TAMANO_REGISTRO;
+            long cantidadRegiones = (canal.size() - TAMANO_ENCABEZADO + bytesRegion - 1) / bytesRegion;
+            for (int i = 0; i < cantidadRegiones; i++) {
+                mapearRegion();
+            }
+
+            this.desborde = FileChannel.open(new File(ruta + ".textos").toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            cargarDesborde();
+        } catch (IOException e) {
+            throw new RuntimeException("Error al abrir el almacén mapeado de tickets: " + ruta, e);
+        }
+    }
+
+    /**
+     * Inserta un ticket nuevo.
+     *
+     * @param ticket Ticket a insertar
+     * @return true si se insertó, false si ya existía
+     * @throws IllegalArgumentException si el ID no es canónico
+     */
+    public boolean insertar(Ticket ticket) {
+        int posicion = posicionDe(ticket.getIdTicket(), true);
+        if (estado(posicion) == ACTIVO) {
+            return false;
+        }
+        escribir(posicion, ticket);
+        encabezado.putInt(ENC_ACTIVOS, encabezado.getInt(ENC_ACTIVOS) + 1);
+        if (posicion >= getPosicionesUsadas()) {
+            encabezado.putInt(ENC_POSICIONES, posicion + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Reemplaza los datos de un ticket existente.
+     *
+     * @param ticket Ticket con los datos actualizados
+     * @return true si se actualizó, false si no existe
+     */
+    public boolean actualizar(Ticket ticket) {
+        int posicion = posicionDe(ticket.getIdTicket(), false);
+        if (posicion < 0 || estado(posicion) != ACTIVO) {
+            return false;
+        }
+        escribir(posicion, ticket);
+        return true;
+    }
+
+    /**
+     * Marca un ticket como eliminado.
+     *
+     * @param idTicket ID del ticket
+     * @return true si se eliminó, false si no existía
+     */
+    public boolean eliminar(String idTicket) {
+        int posicion = posicionDe(idTicket, false);
+        if (posicion < 0 || estado(posicion) != ACTIVO) {
+            return false;
+        }
+        region(posicion).put(desplazamiento(posicion) + POS_ESTADO, ELIMINADO);
+        encabezado.putInt(ENC_ACTIVOS, encabezado.getInt(ENC_ACTIVOS) - 1);
+        return true;
+    }
+
+    /**
+     * Verifica si existe un ticket activo con el ID indicado.
+     *
+     * @param idTicket ID del ticket
+     * @return true si existe
+     */
+    public boolean existe(String idTicket) {
+        int posicion = posicionDe(idTicket, false);
+        return posicion >= 0 && estado(posicion) == ACTIVO;
+    }
+
+    /**
+     * Busca un ticket por su ID y lo construye a partir del registro.
+     *
+     * @param idTicket ID del ticket
+     * @param vehiculoDAO DAO de vehículos para resolver la placa
+     * @param pasajeroDAO DAO de pasajeros para resolver la cédula
+     * @return Ticket encontrado o null si no existe
+     */
+    public Ticket buscar(String idTicket, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        int posicion = posicionDe(idTicket, false);
+        if (posicion < 0 || estado(posicion) != ACTIVO) {
+            return null;
+        }
+        return construir(posicion, vehiculoDAO, pasajeroDAO);
+    }
+
+    /**
+     * Busca los tickets de un pasajero comparando la cédula directamente en el mapeo.
+     *
+     * @param cedula Cédula del pasajero
+     * @param vehiculoDAO DAO de vehículos
+     * @param pasajeroDAO DAO de pasajeros
+     * @return Tickets del pasajero
+     */
+    public List<Ticket> buscarPorCedula(String cedula, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        return buscarPorCampo(POS_CEDULA, MAX_CEDULA, cedula, vehiculoDAO, pasajeroDAO);
+    }
+
+    /**
+     * Busca los tickets de un vehículo comparando la placa directamente en el mapeo.
+     *
+     * @param placa Placa del vehículo
+     * @param vehiculoDAO DAO de vehículos
+     * @param pasajeroDAO DAO de pasajeros
+     * @return Tickets del vehículo
+     */
+    public List<Ticket> buscarPorPlaca(String placa, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        return buscarPorCampo(POS_PLACA, MAX_PLACA, placa, vehiculoDAO, pasajeroDAO);
+    }
+
+    /**
+     * Construye los tickets activos uno por uno, en orden de ID, y los entrega a un
+     * visitante. Solo el ticket actual está en memoria.
+     *
+     * @param visitante Función que recibe cada ticket
+     * @param vehiculoDAO DAO de vehículos
+     * @param pasajeroDAO DAO de pasajeros
+     */
+    public void recorrer(Consumer<? super Ticket> visitante, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        int usadas = getPosicionesUsadas();
+        for (int posicion = 0; posicion < usadas; posicion++) {
+            if (estado(posicion) == ACTIVO) {
+                visitante.accept(construir(posicion, vehiculoDAO, pasajeroDAO));
+            }
+        }
+    }
+
+    /**
+     * Obtiene un flujo perezoso de los tickets activos en orden de ID: cada ticket se
+     * construye cuando el flujo lo pide, así que un flujo que se corta antes (por
+     * ejemplo con {@code limit}) no lee el resto del archivo.
+     *
+     * @param vehiculoDAO DAO de vehículos
+     * @param pasajeroDAO DAO de pasajeros
+     * @return Flujo de los tickets activos
+     */
+    public Stream<Ticket> flujo(VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        return IntStream.range(0, getPosicionesUsadas())
+                .filter(posicion -> estado(posicion) == ACTIVO)
+                .mapToObj(posicion -> construir(posicion, vehiculoDAO, pasajeroDAO));
+    }
+
+    /**
+     * Obtiene la cantidad de tickets activos (leída del encabezado).
+     *
+     * @return Número de tickets activos
+     */
+    public int contar() {
+        return encabezado.getInt(ENC_ACTIVOS);
+    }
+
+    /**
+     * Obtiene la cantidad de posiciones usadas; coincide con el mayor número de ID emitido.
+     *
+     * @return Posiciones usadas
+     */
+    public int getPosicionesUsadas() {
+        return encabezado.getInt(ENC_POSICIONES);
+    }
+
+    /**
+     * Elimina todos los tickets.
+     */
+    public void limpiar() {
+        int usadas = getPosicionesUsadas();
+        for (int posicion = 0; posicion < usadas; posicion++) {
+            region(posicion).put(desplazamiento(posicion) + POS_ESTADO, VACIO);
+        }
+        encabezado.putInt(ENC_POSICIONES, 0);
+        encabezado.putInt(ENC_ACTIVOS, 0);
+        synchronized (this) {
+            try {
+                desborde.truncate(0);
+            } catch (IOException e) {
+                throw new RuntimeException("Error al vaciar el área de desborde del almacén mapeado: " + ruta, e);
+            }
+            textosDesbordados.clear();
+            posicionesDesbordadas.clear();
+        }
+    }
+
+    /**
+     * Sincroniza con el disco las páginas modificadas del mapeo.
+     */
+    public void sincronizar() {
+        for (MappedByteBuffer region : regiones) {
+            region.force();
+        }
+        encabezado.force();
+    }
+
+    /**
+     * Sincroniza con el disco solo la región que contiene un ticket y el encabezado.
+     *
+     * @param idTicket ID del ticket modificado
+     */
+    public void sincronizar(String idTicket) {
+        int posicion = posicionDe(idTicket, false);
+        if (posicion >= 0) {
+            region(posicion).force();
+        }
+        encabezado.force();
+    }
+
+    /**
+     * Busca tickets cuyo campo de texto coincide con el valor indicado. Un valor más
+     * largo que el campo se compara por su posición en el área de desborde.
+     */
+    private List<Ticket> buscarPorCampo(int campo, int maximo, String valor, VehiculoDAO vehiculoDAO,
+                                        PasajeroDAO pasajeroDAO) {
+        List<Ticket> resultado = new ArrayList<>();
+        byte[] buscado = valor.getBytes(StandardCharsets.UTF_8);
+        Long desbordado = null;
+        if (buscado.length > maximo) {
+            desbordado = posicionesDesbordadas.get(valor);
+            if (desbordado == null) {
+                return resultado; // Ningún ticket guardó ese texto
+            }
+        }
+        int usadas = getPosicionesUsadas();
+
+        for (int posicion = 0; posicion < usadas; posicion++) {
+            MappedByteBuffer region = region(posicion);
+            int base = desplazamiento(posicion);
+            if (region.get(base + POS_ESTADO) != ACTIVO) {
+                continue;
+            }
+            if (desbordado != null) {
+                if (region.get(base + campo) == DESBORDADO && region.getLong(base + campo + 1) == desbordado) {
+                    resultado.add(construir(posicion, vehiculoDAO, pasajeroDAO));
+                }
+                continue;
+            }
+            if (region.get(base + campo) != buscado.length) {
+                continue;
+            }
+            boolean coincide = true;
+            for (int i = 0; i < buscado.length && coincide; i++) {
+                coincide = region.get(base + campo + 1 + i) == buscado[i];
+            }
+            if (coincide) {
+                resultado.add(construir(posicion, vehiculoDAO, pasajeroDAO));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Escribe los campos de un ticket en su posición; el estado se marca al final.
+     */
+    private void escribir(int posicion, Ticket ticket) {
+        if (ticket.getPlaca() == null || ticket.getCedula() == null) {
+            throw new IllegalArgumentException("El ticket debe tener vehículo y pasajero asignados");
+        }
+        // Los textos largos van primero al área de desborde, antes que el registro que los apunta
+        Campo placa = codificar(ticket.getPlaca(), MAX_PLACA);
+        Campo cedula = codificar(ticket.getCedula(), MAX_CEDULA);
+        Campo origen = codificar(ticket.getOrigen(), MAX_CIUDAD);
+        Campo destino = codificar(ticket.getDestino(), MAX_CIUDAD);
+
+        asegurarPosicion(posicion);
+        MappedByteBuffer region = region(posicion);
+        int base = desplazamiento(posicion);
+        placa.escribir(region, base + POS_PLACA);
+        cedula.escribir(region, base + POS_CEDULA);
+        origen.escribir(region, base + POS_ORIGEN);
+        destino.escribir(region, base + POS_DESTINO);
+        region.putLong(base + POS_SEGUNDOS, ticket.getFecha().toEpochSecond(ZoneOffset.UTC));
+        region.putInt(base + POS_NANOS, ticket.getFecha().getNano());
+        region.putDouble(base + POS_DISTANCIA, ticket.getDistanciaKm());
+        region.put(base + POS_ESTADO, ACTIVO);
+    }
+
+    /**
+     * Construye un Ticket a partir del registro en la posición indicada. El vehículo y
+     * el pasajero quedan como referencias por clave que se buscan en los DAOs la primera
+     * vez que se piden, como en los demás modos: un vehículo o pasajero eliminado no
+     * impide leer sus tickets.
+     */
+    private Ticket construir(int posicion, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        MappedByteBuffer region = region(posicion);
+        int base = desplazamiento(posicion);
+        LocalDateTime fecha = LocalDateTime.ofEpochSecond(region.getLong(base + POS_SEGUNDOS),
+                region.getInt(base + POS_NANOS), ZoneOffset.UTC);
+        return new Ticket(SerializadorBinarioTicket.formatearId(posicion + 1L),
+                leerTexto(region, base + POS_PLACA), leerTexto(region, base + POS_CEDULA),
+                DiccionarioCiudades.id(leerTexto(region, base + POS_ORIGEN)),
+                DiccionarioCiudades.id(leerTexto(region, base + POS_DESTINO)),
+                fecha, region.getDouble(base + POS_DISTANCIA), ResolutorDAO.de(vehiculoDAO, pasajeroDAO));
+    }
+
+    /**
+     * Obtiene la posición de un ID canónico.
+     *
+     * @param idTicket ID del ticket
+     * @param obligatorio true para lanzar excepción si el ID no es canónico
+     * @return Posición, o -1 si el ID no es canónico y no es obligatorio
+     */
+    private int posicionDe(String idTicket, boolean obligatorio) {
+        long numero = idTicket == null ? 0 : SerializadorBinarioTicket.numeroCanonico(idTicket);
+        if (numero <= 0 || numero > Integer.MAX_VALUE) {
+            if (obligatorio) {
+                throw new IllegalArgumentException(
+                    "El almacén mapeado solo admite IDs con formato TK-00001: " + idTicket
+                );
+            }
+            return -1;
+        }
+        return (int) numero - 1;
+    }
+
+    private byte estado(int posicion) {
+        if (posicion >= (long) regiones.size() * REGISTROS_POR_REGION) {
+            return VACIO;
+        }
+        return region(posicion).get(desplazamiento(posicion) + POS_ESTADO);
+    }
+
+    private MappedByteBuffer region(int posicion) {
+        return regiones.get(posicion / REGISTROS_POR_REGION);
+    }
+
+    private static int desplazamiento(int posicion) {
+        return (posicion % REGISTROS_POR_REGION) * TAMANO_REGISTRO;
+    }
+
+    /**
+     * Mapea regiones nuevas hasta cubrir la posición indicada.
+     */
+    private void asegurarPosicion(int posicion) {
+        try {
+            while (posicion >= (long) regiones.size() * REGISTROS_POR_REGION) {
+                mapearRegion();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al ampliar el almacén mapeado de tickets: " + ruta, e);
+        }
+    }
+
+    private void mapearRegion() throws IOException {
+        long bytesRegion = (long) REGISTROS_POR_REGION * TAMANO_REGISTRO;
+        long inicio = TAMANO_ENCABEZADO + regiones.size() * bytesRegion;
+        regiones.add(canal.map(FileChannel.MapMode.READ_WRITE, inicio, bytesRegion));
+    }
+
+    /**
+     * Codifica un texto para su campo: en línea si cabe o, si no, en el área de desborde.
+     */
+    private Campo codificar(String texto, int maximo) {
+        String valor = texto == null ? "" : texto;
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= maximo ? new Campo(bytes, -1) : new Campo(null, desbordar(valor, bytes));
+    }
+
+    /**
+     * Obtiene la posición de un texto en el área de desborde, agregándolo si es nuevo.
+     * El texto se sincroniza con el disco en seguida, de modo que ningún registro
+     * guardado apunta a un texto que no llegó al disco.
+     */
+    private synchronized long desbordar(String texto, byte[] bytes) {
+        Long existente = posicionesDesbordadas.get(texto);
+        if (existente != null) {
+            return existente;
+        }
+        try {
+            long posicion = desborde.size();
+            ByteBuffer entrada = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+            entrada.putInt(bytes.length).put(bytes).flip();
+            while (entrada.hasRemaining()) {
+                desborde.write(entrada, posicion + entrada.position());
+            }
+            desborde.force(false);
+            textosDesbordados.put(posicion, texto);
+            posicionesDesbordadas.put(texto, posicion);
+            return posicion;
+        } catch (IOException e) {
+            throw new RuntimeException("Error al escribir en el área de desborde del almacén mapeado: " + ruta, e);
+        }
+    }
+
+    /**
+     * Lee el área de desborde completa. Una entrada incompleta al final (escritura
+     * interrumpida) se descarta: ningún registro llegó a apuntarla.
+     */
+    private void cargarDesborde() throws IOException {
+        long tamano = desborde.size();
+        ByteBuffer contenido = ByteBuffer.allocate((int) tamano);
+        while (contenido.hasRemaining()) {
+            if (desborde.read(contenido, contenido.position()) < 0) {
+                break;
+            }
+        }
+        contenido.flip();
+        while (contenido.remaining() >= Integer.BYTES) {
+            long posicion = contenido.position();
+            int longitud = contenido.getInt();
+            if (longitud < 0 || longitud > contenido.remaining()) {
+                contenido.position((int) posicion);
+                break;
+            }
+            byte[] bytes = new byte[longitud];
+            contenido.get(bytes);
+            String texto = new String(bytes, StandardCharsets.UTF_8);
+            textosDesbordados.put(posicion, texto);
+            posicionesDesbordadas.putIfAbsent(texto, posicion);
+        }
+        if (contenido.position() < tamano) {
+            desborde.truncate(contenido.position());
+        }
+    }
+
+    private String leerTexto(MappedByteBuffer region, int posicion) {
+        int longitud = region.get(posicion);
+        if (longitud == DESBORDADO) {
+            long desplazamiento = region.getLong(posicion + 1);
+            String texto = textosDesbordados.get(desplazamiento);
+            if (texto == null) {
+                throw new IllegalStateException("Un registro apunta a la posición " + desplazamiento
+                        + ", que no existe en el área de desborde del almacén mapeado: " + ruta);
+            }
+            return texto;
+        }
+        byte[] bytes = new byte[longitud];
+        for (int i = 0; i < longitud; i++) {
+            bytes[i] = region.get(posicion + 1 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Contenido de un campo de texto: los bytes en línea o la posición en el área de desborde.
+     */
+    private static final class Campo {
+        private final byte[] bytes;
+        private final long desbordado;
+
+        private Campo(byte[] bytes, long desbordado) {
+            this.bytes = bytes;
+            this.desbordado = desbordado;
+        }
+
+        private void escribir(MappedByteBuffer region, int posicion) {
+            if (bytes == null) {
+                region.put(posicion, DESBORDADO);
+                region.putLong(posicion + 1, desbordado);
+                return;
+            }
+            region.put(posicion, (byte) bytes.length);
+            for (int i = 0; i < bytes.length; i++) {
+                region.put(posicion + 1 + i, bytes[i]);
+            }
+        }
+    }
+}
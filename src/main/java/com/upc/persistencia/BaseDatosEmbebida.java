@@ -0,0 +1,210 @@
+package com.upc.persistencia;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase BaseDatosEmbebida
+ * Abre conexiones a la base de datos SQL embebida usada por el modo de
+ * almacenamiento JDBC ({@link AlmacenJdbcTickets} y {@link MotorJdbc}).
+ *
+ * La base de datos vive en un archivo local, sin servidor. La URL se configura con
+ * la propiedad del sistema {@code barceloneta.jdbc.url}; por defecto es una base H2
+ * en {@code data/barceloneta.mv.db}. Solo se usa SQL estándar, de modo que otro
+ * controlador JDBC embebido (por ejemplo SQLite) funciona cambiando la URL y la
+ * dependencia.
+ *
+ * Las conexiones abiertas se cierran al terminar la aplicación, después de ejecutar
+ * las tareas registradas con {@link #alCerrar(Runnable)} (por ejemplo, confirmar
+ * inserciones pendientes). Por eso la URL por defecto desactiva el cierre automático
+ * de H2, que podría ocurrir antes.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public final class BaseDatosEmbebida {
+
+    /**
+     * Propiedad del sistema con la URL JDBC de la base de datos
+     */
+    public static final String PROPIEDAD_URL = "barceloneta.jdbc.url";
+
+    /**
+     * URL por defecto: base H2 en el directorio de datos
+     */
+    public static final String URL_POR_DEFECTO = "jdbc:h2:./data/barceloneta;DB_CLOSE_ON_EXIT=FALSE";
+
+    /**
+     * Conexiones abiertas, cerradas al terminar la aplicación
+     */
+    private static final List<Connection> conexiones = new ArrayList<>();
+
+    /**
+     * Tareas a ejecutar antes de cerrar las conexiones
+     */
+    private static final List<Runnable> tareasCierre = new ArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BaseDatosEmbebida::cerrar, "cierre-base-datos"));
+    }
+
+    /**
+     * Constructor privado: clase de utilidad
+     */
+    private BaseDatosEmbebida() {
+    }
+
+    /**
+     * Abre una conexión nueva con confirmación manual de transacciones.
+     *
+     * @return Conexión abierta
+     * @throws RuntimeException si no se puede abrir la base de datos
+     */
+    public static Connection abrir() {
+        String url = System.getProperty(PROPIEDAD_URL, URL_POR_DEFECTO);
+        try {
+            Connection conexion = DriverManager.getConnection(url);
+            conexion.setAutoCommit(false);
+            synchronized (conexiones) {
+                conexiones.add(conexion);
+            }
+            return conexion;
+        } catch (SQLException e) {
+            throw new RuntimeException("No se pudo abrir la base de datos " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Registra una tarea que debe ejecutarse antes de cerrar las conexiones.
+     *
+     * @param tarea Tarea a ejecutar al terminar la aplicación
+     */
+    public static void alCerrar(Runnable tarea) {
+        synchronized (conexiones) {
+            tareasCierre.add(tarea);
+        }
+    }
+
+    /**
+     * Ejecuta las tareas de cierre y cierra todas las conexiones abiertas.
+     * Se invoca al terminar la aplicación; también puede llamarse antes, por ejemplo
+     * para eliminar una base de datos temporal.
+     *
+     * Un error no detiene el cierre: se ejecutan las demás tareas, se cierran todas las
+     * conexiones y al final se lanza el primer error, con los siguientes como suprimidos.
+     *
+     * @throws RuntimeException si falló alguna tarea o no se pudo cerrar alguna conexión
+     */
+    public static void cerrar() {
+        RuntimeException primero = null;
+        synchronized (conexiones) {
+            for (Runnable tarea : tareasCierre) {
+                try {
+                    tarea.run();
+                } catch (RuntimeException e) {
+                    primero = acumular(primero, e);
+                }
+            }
+            for (Connection conexion : conexiones) {
+                try {
+                    conexion.close();
+                } catch (SQLException e) {
+                    primero = acumular(primero, new RuntimeException(
+                            "Error al cerrar la base de datos: " + e.getMessage(), e));
+                }
+            }
+            conexiones.clear();
+        }
+        if (primero != null) {
+            throw primero;
+        }
+    }
+
+    /**
+     * Agrega un error de cierre a los anteriores.
+     *
+     * @param primero Primer error, o null si es el primero
+     * @param error Error nuevo
+     * @return Primer error, con el nuevo como suprimido si ya había uno
+     */
+    private static RuntimeException acumular(RuntimeException primero, RuntimeException error) {
+        if (primero == null) {
+            return error;
+        }
+        primero.addSuppressed(error);
+        return primero;
+    }
+
+    /**
+     * Ejecuta sentencias de definición (tablas e índices) y las confirma.
+     *
+     * @param conexion Conexión abierta
+     * @param sentencias Sentencias SQL a ejecutar en orden
+     * @throws SQLException si alguna sentencia falla
+     */
+    static void definir(Connection conexion, String... sentencias) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            for (String sql : sentencias) {
+                sentencia.execute(sql);
+            }
+        }
+        conexion.commit();
+    }
+
+    /**
+     * Indica si los datos de archivo de una tabla ya se importaron. La marca evita
+     * volver a importar los archivos si la tabla se vacía después.
+     *
+     * @param conexion Conexión abierta
+     * @param tabla Nombre de la tabla
+     * @return true si la importación ya se realizó
+     * @throws SQLException si ocurre un error de consulta
+     */
+    static boolean importado(Connection conexion, String tabla) throws SQLException {
+        definir(conexion, "CREATE TABLE IF NOT EXISTS importaciones (tabla VARCHAR(64) PRIMARY KEY)");
+        try (PreparedStatement consulta = conexion.prepareStatement("SELECT 1 FROM importaciones WHERE tabla = ?")) {
+            consulta.setString(1, tabla);
+            try (ResultSet fila = consulta.executeQuery()) {
+                return fila.next();
+            }
+        } finally {
+            conexion.commit();
+        }
+    }
+
+    /**
+     * Marca la importación de una tabla dentro de la transacción en curso, para que
+     * se confirme o se revierta junto con los datos importados.
+     *
+     * @param conexion Conexión con la transacción de la importación
+     * @param tabla Nombre de la tabla
+     * @throws SQLException si ocurre un error de escritura
+     */
+    static void marcarImportado(Connection conexion, String tabla) throws SQLException {
+        try (PreparedStatement marca = conexion.prepareStatement("INSERT INTO importaciones (tabla) VALUES (?)")) {
+            marca.setString(1, tabla);
+            marca.executeUpdate();
+        }
+    }
+
+    /**
+     * Deshace la transacción en curso tras un error, sin ocultar el error original.
+     *
+     * @param conexion Conexión con la transacción fallida
+     * @param error Error que provocó la reversión
+     */
+    static void revertir(Connection conexion, Exception error) {
+        try {
+            conexion.rollback();
+        } catch (SQLException e) {
+            error.addSuppressed(e);
+        }
+    }
+}
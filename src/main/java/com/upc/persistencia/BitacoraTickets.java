@@ -0,0 +1,338 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.io.*;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Clase BitacoraTickets
+ * Bitácora de solo anexado (append-only journal) para los tickets.
+ *
+ * <p>Cada operación CRUD agrega un único registro al final del segmento activo, de modo
+ * que el costo de una escritura no depende de la cantidad de tickets almacenados. Al
+ * iniciar, los segmentos se reproducen en orden sobre el contenido del archivo base.</p>
+ *
+ * <p>La bitácora se divide en segmentos numerados: el segmento 0 es el archivo base de la
+ * bitácora ({@code data/tickets.log}) y los siguientes agregan un sufijo numérico
+ * ({@code data/tickets.log.1}, {@code data/tickets.log.2}, ...). Al compactar se rota a
+ * un segmento nuevo y los anteriores se eliminan una vez cubiertos por una instantánea.</p>
+ *
+ * <p>Formato de los registros (uno por línea, con el marco de longitud y CRC32 de
+ * {@link RegistroBitacora}):</p>
+ * <ul>
+ *   <li>{@code I,<ticket en CSV>} - Inserción</li>
+ *   <li>{@code U,<ticket en CSV>} - Actualización</li>
+ *   <li>{@code D,<idTicket>} - Eliminación</li>
+ *   <li>{@code L} - Limpieza de todos los tickets</li>
+ * </ul>
+ *
+ * <p>Todos los registros son idempotentes: reproducirlos sobre un estado que ya los
+ * contiene produce el mismo resultado. Esto permite tomar instantáneas sin detener
+ * las ventas.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class BitacoraTickets {
+
+    /**
+     * Tipo de registro: inserción
+     */
+    public static final char INSERTAR = 'I';
+
+    /**
+     * Tipo de registro: actualización
+     */
+    public static final char ACTUALIZAR = 'U';
+
+    /**
+     * Tipo de registro: eliminación
+     */
+    public static final char ELIMINAR = 'D';
+
+    /**
+     * Tipo de registro: limpieza
+     */
+    public static final char LIMPIAR = 'L';
+
+    /**
+     * Separador entre el tipo de registro y su contenido
+     */
+    private static final char SEPARADOR = ',';
+
+    /**
+     * Archivo del segmento 0; los demás segmentos agregan un sufijo numérico
+     */
+    private final File archivoBase;
+
+    /**
+     * Número del segmento donde se anexan los registros nuevos
+     */
+    private volatile int segmentoActivo;
+
+    /**
+     * Cola de escritura donde se encolan los registros
+     */
+    private final ColaEscritura cola;
+
+    /**
+     * Error de la última línea cortada que se descartó al reproducir, o null
+     */
+    private volatile RuntimeException registroDescartado;
+
+    /**
+     * Crea una bitácora sobre el archivo indicado.
+     * El segmento activo es el de mayor número existente en disco.
+     *
+     * @param ruta Ruta del segmento 0 de la bitácora
+     * @param cola Cola de escritura del DAO dueño de la bitácora
+     */
+    public BitacoraTickets(String ruta, ColaEscritura cola) {
+        this.archivoBase = new File(ruta);
+        this.cola = cola;
+        int mayor = 0;
+        for (Integer numero : listarSegmentos().keySet()) {
+            mayor = Math.max(mayor, numero);
+        }
+        this.segmentoActivo = mayor;
+    }
+
+    /**
+     * Registra la inserción de un ticket.
+     *
+     * @param ticket Ticket insertado
+     * @return Futuro que se completa cuando el registro está en disco
+     */
+    public CompletableFuture<Void> registrarInsercion(Ticket ticket) {
+        return anexar(INSERTAR + "" + SEPARADOR + SerializadorTicket.serializar(ticket));
+    }
+
+    /**
+     * Registra la inserción de varios tickets con una sola escritura.
+     *
+     * @param tickets Copia de los tickets insertados (no debe modificarse después)
+     * @return Futuro que se completa cuando los registros están en disco
+     */
+    public CompletableFuture<Void> registrarInserciones(Collection<Ticket> tickets) {
+        return cola.encolarAnexos(archivoSegmento(segmentoActivo), tickets,
+                ticket -> RegistroBitacora.enmarcar(INSERTAR + "" + SEPARADOR + SerializadorTicket.serializar(ticket)));
+    }
+
+    /**
+     * Registra la actualización de un ticket.
+     *
+     * @param ticket Ticket con los datos actualizados
+     * @return Futuro que se completa cuando el registro está en disco
+     */
+    public CompletableFuture<Void> registrarActualizacion(Ticket ticket) {
+        return anexar(ACTUALIZAR + "" + SEPARADOR + SerializadorTicket.serializar(ticket));
+    }
+
+    /**
+     * Registra la eliminación de un ticket.
+     *
+     * @param idTicket ID del ticket eliminado
+     * @return Futuro que se completa cuando el registro está en disco
+     */
+    public CompletableFuture<Void> registrarEliminacion(String idTicket) {
+        return anexar(ELIMINAR + "" + SEPARADOR + idTicket);
+    }
+
+    /**
+     * Registra la limpieza de todos los tickets.
+     *
+     * @return Futuro que se completa cuando el registro está en disco
+     */
+    public CompletableFuture<Void> registrarLimpieza() {
+        return anexar(String.valueOf(LIMPIAR));
+    }
+
+    /**
+     * Reproduce los segmentos de la bitácora sobre el mapa de tickets indicado.
+     *
+     * Los segmentos se aplican en orden numérico y sus registros en el orden en que
+     * fueron escritos. Si la última línea de un segmento quedó cortada (por ejemplo, por
+     * un corte de energía durante la escritura) se descarta, queda disponible en
+     * {@link #getRegistroDescartado()} y se rota a un segmento nuevo para no anexar registros detrás de ella; un registro corrupto
+     * se detecta con su CRC32 y detiene la carga ({@link RegistroBitacora}).
+     *
+     * @param tickets Mapa sobre el que se aplican los registros
+     * @param desdeSegmento Primer segmento a reproducir (los anteriores ya están en la instantánea)
+     * @param vehiculoDAO DAO de vehículos para resolver las referencias
+     * @param pasajeroDAO DAO de pasajeros para resolver las referencias
+     * @return Cantidad de registros aplicados
+     * @throws RuntimeException si ocurre un error al leer la bitácora o si los datos están corruptos
+     */
+    public int reproducir(Map<String, Ticket> tickets, int desdeSegmento,
+                          VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        int aplicados = 0;
+        boolean colaIncompleta = false;
+        for (Map.Entry<Integer, File> segmento : listarSegmentos().entrySet()) {
+            if (segmento.getKey() >= desdeSegmento) {
+                int resultado = reproducirSegmento(segmento.getValue(), tickets, vehiculoDAO, pasajeroDAO);
+                if (resultado < 0) {
+                    colaIncompleta = segmento.getKey() == segmentoActivo;
+                    resultado = -resultado - 1;
+                }
+                aplicados += resultado;
+            }
+        }
+        if (colaIncompleta) {
+            rotar();
+        }
+        if (segmentoActivo < desdeSegmento) {
+            segmentoActivo = desdeSegmento;
+        }
+        return aplicados;
+    }
+
+    /**
+     * Reproduce un segmento de la bitácora.
+     *
+     * @param archivo Archivo del segmento
+     * @param tickets Mapa de tickets
+     * @param vehiculoDAO DAO de vehículos
+     * @param pasajeroDAO DAO de pasajeros
+     * @return Registros aplicados, o {@code -(aplicados + 1)} si el segmento no termina en un registro completo
+     * @throws RuntimeException si ocurre un error al leer el segmento o si los datos están corruptos
+     */
+    private int reproducirSegmento(File archivo, Map<String, Ticket> tickets,
+                                   VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        return RegistroBitacora.reproducir(archivo, registro -> aplicar(registro, tickets, vehiculoDAO, pasajeroDAO),
+                error -> registroDescartado = error);
+    }
+
+    /**
+     * Obtiene el error de la última línea cortada que se descartó al reproducir la bitácora.
+     *
+     * @return Error con el segmento, la línea y la causa, o null si no se descartó ninguna
+     */
+    public RuntimeException getRegistroDescartado() {
+        return registroDescartado;
+    }
+
+    /**
+     * Aplica un registro de la bitácora sobre el mapa de tickets.
+     *
+     * @param registro Registro de la bitácora, sin marco
+     * @param tickets Mapa de tickets
+     * @param vehiculoDAO DAO de vehículos
+     * @param pasajeroDAO DAO de pasajeros
+     * @throws IllegalArgumentException si el registro es inválido
+     */
+    private void aplicar(String registro, Map<String, Ticket> tickets,
+                         VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        char tipo = registro.charAt(0);
+
+        if (tipo == LIMPIAR && registro.length() == 1) {
+            tickets.clear();
+            return;
+        }
+        if (registro.length() < 3 || registro.charAt(1) != SEPARADOR) {
+            throw new IllegalArgumentException("Registro de bitácora inválido: " + registro);
+        }
+
+        String contenido = registro.substring(2);
+        switch (tipo) {
+            case INSERTAR:
+            case ACTUALIZAR:
+                Ticket ticket = SerializadorTicket.deserializar(contenido, vehiculoDAO, pasajeroDAO);
+                tickets.put(ticket.getIdTicket(), ticket);
+                break;
+            case ELIMINAR:
+                tickets.remove(contenido.trim());
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de registro de bitácora desconocido: " + tipo);
+        }
+    }
+
+    /**
+     * Rota la bitácora: los registros siguientes se anexan a un segmento nuevo.
+     * Debe invocarse bajo el mismo bloqueo que protege las operaciones del DAO.
+     *
+     * @return Número del segmento que dejó de estar activo
+     */
+    public int rotar() {
+        return segmentoActivo++;
+    }
+
+    /**
+     * Elimina los segmentos con número menor o igual al indicado.
+     * El llamador debe garantizar que no quedan escrituras pendientes sobre ellos.
+     *
+     * @param ultimoSegmento Último segmento a eliminar
+     * @return Cantidad de segmentos eliminados
+     */
+    public int eliminarSegmentosHasta(int ultimoSegmento) {
+        int eliminados = 0;
+        for (Map.Entry<Integer, File> segmento : listarSegmentos().entrySet()) {
+            if (segmento.getKey() <= ultimoSegmento && segmento.getValue().delete()) {
+                eliminados++;
+            }
+        }
+        return eliminados;
+    }
+
+    /**
+     * Lista los segmentos existentes en disco ordenados por número.
+     *
+     * @return Mapa ordenado (número de segmento -> archivo)
+     */
+    private Map<Integer, File> listarSegmentos() {
+        Map<Integer, File> segmentos = new TreeMap<>();
+        File directorio = archivoBase.getAbsoluteFile().getParentFile();
+        String prefijo = archivoBase.getName() + ".";
+        File[] archivos = directorio == null ? null : directorio.listFiles();
+        if (archivos == null) {
+            return segmentos;
+        }
+        for (File archivo : archivos) {
+            String nombre = archivo.getName();
+            if (nombre.equals(archivoBase.getName())) {
+                segmentos.put(0, archivo);
+            } else if (nombre.startsWith(prefijo)) {
+                try {
+                    segmentos.put(Integer.parseInt(nombre.substring(prefijo.length())), archivo);
+                } catch (NumberFormatException e) {
+                    // Archivos temporales u otros sufijos no son segmentos
+                }
+            }
+        }
+        return segmentos;
+    }
+
+    /**
+     * Obtiene el archivo correspondiente a un número de segmento.
+     *
+     * @param numero Número de segmento
+     * @return Archivo del segmento
+     */
+    private File archivoSegmento(int numero) {
+        return numero == 0 ? archivoBase : new File(archivoBase.getPath() + "." + numero);
+    }
+
+    /**
+     * Agrega un registro al final del segmento activo.
+     * La escritura se agrupa con otras mediante el {@link EscritorPersistencia}.
+     *
+     * @param registro Registro a agregar
+     * @return Futuro que se completa cuando el registro está en disco
+     */
+    private CompletableFuture<Void> anexar(String registro) {
+        return cola.encolarAnexo(archivoSegmento(segmentoActivo), RegistroBitacora.enmarcar(registro));
+    }
+
+    /**
+     * Obtiene el número del segmento activo.
+     *
+     * @return Número del segmento activo
+     */
+    public int getSegmentoActivo() {
+        return segmentoActivo;
+    }
+}
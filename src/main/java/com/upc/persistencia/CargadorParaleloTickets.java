@@ -0,0 +1,360 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Clase CargadorParaleloTickets
+ * Carga el archivo CSV de tickets dividiéndolo en fragmentos de bytes alineados
+ * a saltos de línea y procesando cada fragmento en un ForkJoinPool.
+ *
+ * La carga tiene dos fases: {@link #leer()} interpreta las líneas como
+ * {@link TicketSinResolver} sin consultar otros DAOs, y {@link #resolver}
+ * construye los tickets con referencias diferidas, que se buscan en VehiculoDAO
+ * y PasajeroDAO la primera vez que se piden. Así el archivo de tickets se procesa
+ * mientras los demás archivos siguen cargando, y un vehículo o pasajero eliminado
+ * no impide la carga.
+ *
+ * Los resultados se incorporan al mapa en el orden original del archivo, de
+ * modo que el resultado es idéntico al de una lectura secuencial. Los errores
+ * se reportan con el número de línea global, calculado a partir de las líneas
+ * contadas en los fragmentos anteriores.
+ *
+ * El número de hilos se configura con la propiedad del sistema
+ * {@code barceloneta.tickets.carga.hilos} (por defecto, los procesadores disponibles).
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class CargadorParaleloTickets {
+
+    /**
+     * Nombre de la propiedad del sistema que define el número de hilos de carga
+     */
+    public static final String PROPIEDAD_HILOS = "barceloneta.tickets.carga.hilos";
+
+    /**
+     * Tamaño mínimo de un fragmento; archivos menores se leen en un solo fragmento
+     */
+    private static final long TAMANO_MINIMO_FRAGMENTO = 256 * 1024;
+
+    /**
+     * Fragmentos creados por hilo, para repartir mejor la carga entre hilos
+     */
+    private static final int FRAGMENTOS_POR_HILO = 4;
+
+    /**
+     * Tamaño máximo de un fragmento, para acotar el búfer de cada tarea
+     */
+    private static final long TAMANO_MAXIMO_FRAGMENTO = 64L * 1024 * 1024;
+
+    private final File archivo;
+    private final String nombreArchivo;
+    private final int hilos;
+    private List<Fragmento> fragmentos;
+
+    /**
+     * Constructor del cargador.
+     *
+     * @param archivo Archivo CSV a cargar
+     * @param nombreArchivo Nombre usado en los mensajes de error
+     */
+    public CargadorParaleloTickets(File archivo, String nombreArchivo) {
+        this.archivo = archivo;
+        this.nombreArchivo = nombreArchivo;
+        this.hilos = Math.max(1, Integer.getInteger(PROPIEDAD_HILOS,
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Primera fase: lee e interpreta el archivo sin resolver referencias.
+     *
+     * @return Segmento de bitácora indicado en el encabezado, o 0 si no lo tiene
+     * @throws RuntimeException si hay errores de lectura o de formato
+     */
+    public int leer() {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            List<long[]> rangos = calcularRangos(canal);
+            fragmentos = new ArrayList<>(rangos.size());
+            for (long[] rango : rangos) {
+                fragmentos.add(new Fragmento(canal, rango[0], rango[1]));
+            }
+
+            ejecutar(fragmentos);
+            reportarPrimerError();
+            return fragmentos.get(0).primerSegmento;
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el archivo de tickets: " + nombreArchivo, e);
+        }
+    }
+
+    /**
+     * Segunda fase: construye los tickets con referencias diferidas y los incorpora al mapa.
+     *
+     * @param destino Mapa donde se agregan los tickets
+     * @param vehiculoDAO DAO para resolver vehículos
+     * @param pasajeroDAO DAO para resolver pasajeros
+     * @throws IllegalStateException si no se ejecutó {@link #leer()} antes
+     */
+    public void resolver(Map<String, Ticket> destino, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        if (fragmentos == null) {
+            throw new IllegalStateException("Debe leerse el archivo antes de resolver los tickets");
+        }
+
+        List<Callable<Void>> tareas = new ArrayList<>(fragmentos.size());
+        for (Fragmento fragmento : fragmentos) {
+            tareas.add(() -> {
+                fragmento.resolver(vehiculoDAO, pasajeroDAO);
+                return null;
+            });
+        }
+        ejecutar(tareas);
+
+        // Incorporar en el orden del archivo para conservar la semántica secuencial
+        for (Fragmento fragmento : fragmentos) {
+            for (Ticket ticket : fragmento.tickets) {
+                destino.put(ticket.getIdTicket(), ticket);
+            }
+        }
+        fragmentos = null;
+    }
+
+    /**
+     * Carga el archivo en el mapa ejecutando ambas fases seguidas.
+     *
+     * @param destino Mapa donde se agregan los tickets leídos
+     * @param vehiculoDAO DAO para resolver vehículos
+     * @param pasajeroDAO DAO para resolver pasajeros
+     * @return Segmento de bitácora indicado en el encabezado, o 0 si no lo tiene
+     * @throws RuntimeException si hay errores de lectura o de formato
+     */
+    public int cargar(Map<String, Ticket> destino, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        int primerSegmento = leer();
+        resolver(destino, vehiculoDAO, pasajeroDAO);
+        return primerSegmento;
+    }
+
+    /**
+     * Lanza el primer error en orden de archivo, con su línea global.
+     */
+    private void reportarPrimerError() {
+        int lineasPrevias = 0;
+        for (Fragmento fragmento : fragmentos) {
+            if (fragmento.errorLectura != null) {
+                throw new RuntimeException("Error al leer el archivo de tickets: " + nombreArchivo,
+                        fragmento.errorLectura);
+            }
+            if (fragmento.error != null) {
+                int linea = lineasPrevias + fragmento.lineaError;
+                if (fragmento.errorEncabezado) {
+                    throw new RuntimeException("Encabezado inválido en el archivo de tickets: "
+                            + nombreArchivo, fragmento.error);
+                }
+                throw new RuntimeException("Error al parsear línea " + linea + " del archivo "
+                        + nombreArchivo + ": " + fragmento.textoError, fragmento.error);
+            }
+            lineasPrevias += fragmento.lineas;
+        }
+    }
+
+    /**
+     * Divide el archivo en rangos [inicio, fin) que terminan justo después de un salto de línea.
+     */
+    private List<long[]> calcularRangos(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        List<long[]> rangos = new ArrayList<>();
+        long objetivo = Math.max(TAMANO_MINIMO_FRAGMENTO, tamano / ((long) hilos * FRAGMENTOS_POR_HILO) + 1);
+        if (hilos == 1) {
+            objetivo = Math.max(tamano, 1);
+        }
+        objetivo = Math.min(objetivo, TAMANO_MAXIMO_FRAGMENTO);
+
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long inicio = 0;
+        while (inicio < tamano) {
+            long fin = inicio + objetivo;
+            if (fin >= tamano) {
+                fin = tamano;
+            } else {
+                fin = buscarFinDeLinea(canal, fin, tamano, buffer);
+            }
+            rangos.add(new long[]{inicio, fin});
+            inicio = fin;
+        }
+        if (rangos.isEmpty()) {
+            rangos.add(new long[]{0, 0});
+        }
+        return rangos;
+    }
+
+    /**
+     * Busca la posición siguiente al primer '\n' a partir de la posición dada.
+     */
+    private static long buscarFinDeLinea(FileChannel canal, long desde, long tamano,
+                                         ByteBuffer buffer) throws IOException {
+        long posicion = desde;
+        while (posicion < tamano) {
+            buffer.clear();
+            int leidos = canal.read(buffer, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamano;
+    }
+
+    /**
+     * Ejecuta las tareas en un ForkJoinPool; con una sola tarea se usa el hilo actual.
+     */
+    private void ejecutar(List<? extends Callable<Void>> tareas) {
+        if (tareas.size() == 1 || hilos == 1) {
+            for (Callable<Void> tarea : tareas) {
+                try {
+                    tarea.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException("Error al cargar el archivo de tickets: " + nombreArchivo, e);
+                }
+            }
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(hilos, tareas.size()));
+        try {
+            for (Future<Void> resultado : pool.invokeAll(tareas)) {
+                resultado.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Carga de tickets interrumpida: " + nombreArchivo, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error al cargar el archivo de tickets: " + nombreArchivo, e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Fragmento del archivo interpretado por un único hilo.
+     * Cuenta sus líneas y guarda la línea local de cada ticket para que los
+     * errores se puedan ubicar en el archivo completo.
+     */
+    private final class Fragmento implements Callable<Void> {
+        private final FileChannel canal;
+        private final long inicio;
+        private final long fin;
+
+        private List<TicketSinResolver> pendientes = new ArrayList<>();
+        private List<Ticket> tickets;
+        private int lineas;
+        private int primerSegmento;
+        private int lineaError;
+        private String textoError;
+        private RuntimeException error;
+        private boolean errorEncabezado;
+        private IOException errorLectura;
+
+        Fragmento(FileChannel canal, long inicio, long fin) {
+            this.canal = canal;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        @Override
+        public Void call() {
+            byte[] datos;
+            try {
+                datos = leerRango();
+            } catch (IOException e) {
+                errorLectura = e;
+                return null;
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new ByteArrayInputStream(datos), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = reader.readLine()) != null) {
+                    lineas++;
+                    linea = linea.trim();
+
+                    // Saltar líneas vacías
+                    if (linea.isEmpty()) {
+                        continue;
+                    }
+
+                    try {
+                        if (linea.startsWith("#")) {
+                            if (inicio == 0 && linea.startsWith(MotorTicketsBitacora.ENCABEZADO_SEGMENTO)) {
+                                errorEncabezado = true;
+                                primerSegmento = Integer.parseInt(
+                                        linea.substring(MotorTicketsBitacora.ENCABEZADO_SEGMENTO.length()).trim());
+                                errorEncabezado = false;
+                            }
+                            continue;
+                        }
+                        pendientes.add(SerializadorTicket.deserializarSinResolver(linea));
+                    } catch (IllegalArgumentException e) {
+                        lineaError = lineas;
+                        textoError = linea;
+                        error = e;
+                        return null;
+                    }
+                }
+            } catch (IOException e) {
+                errorLectura = e;
+            }
+            return null;
+        }
+
+        /**
+         * Construye los tickets pendientes del fragmento con referencias diferidas.
+         */
+        void resolver(VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+            tickets = new ArrayList<>(pendientes.size());
+            for (TicketSinResolver pendiente : pendientes) {
+                tickets.add(pendiente.resolver(vehiculoDAO, pasajeroDAO));
+            }
+            pendientes = null;
+        }
+
+        /**
+         * Lee el rango completo con lecturas posicionales, seguras entre hilos.
+         */
+        private byte[] leerRango() throws IOException {
+            byte[] datos = new byte[(int) (fin - inicio)];
+            ByteBuffer buffer = ByteBuffer.wrap(datos);
+            long posicion = inicio;
+            while (buffer.hasRemaining()) {
+                int leidos = canal.read(buffer, posicion);
+                if (leidos < 0) {
+                    break;
+                }
+                posicion += leidos;
+            }
+            return datos;
+        }
+    }
+}
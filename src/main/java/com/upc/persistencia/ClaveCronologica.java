@@ -0,0 +1,116 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Clase ClaveCronologica
+ * Posición de un ticket en el orden cronológico: su fecha y, para desempatar, su ID.
+ *
+ * <p>Es la clave del índice por fecha de {@link IndiceTickets} y también el cursor de
+ * la paginación cronológica: la clave del último ticket de una página indica dónde
+ * empieza la siguiente, de modo que pedir una página no depende de cuántas hubo antes
+ * ni se desordena si entre tanto se venden tickets.</p>
+ *
+ * <p>La clave copia la fecha y el ID al crearse, así que no cambia si el ticket se
+ * modifica después.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public final class ClaveCronologica implements Comparable<ClaveCronologica> {
+
+    /**
+     * Orden cronológico de los tickets: por fecha y, a igual fecha, por ID
+     */
+    public static final Comparator<Ticket> ORDEN_TICKETS =
+            Comparator.comparing(Ticket::getFecha).thenComparing(Ticket::getIdTicket);
+
+    private final LocalDateTime fecha;
+    private final String idTicket;
+
+    /**
+     * Constructor de la clave.
+     *
+     * @param fecha Fecha del ticket
+     * @param idTicket ID del ticket
+     * @throws IllegalArgumentException si la fecha o el ID son null
+     */
+    public ClaveCronologica(LocalDateTime fecha, String idTicket) {
+        if (fecha == null || idTicket == null) {
+            throw new IllegalArgumentException("La clave cronológica requiere fecha e ID");
+        }
+        this.fecha = fecha;
+        this.idTicket = idTicket;
+    }
+
+    /**
+     * Obtiene la clave de un ticket.
+     *
+     * @param ticket Ticket con fecha e ID
+     * @return Clave del ticket
+     */
+    public static ClaveCronologica de(Ticket ticket) {
+        return new ClaveCronologica(ticket.getFecha(), ticket.getIdTicket());
+    }
+
+    /**
+     * Obtiene una clave anterior a la de todos los tickets de una fecha; sirve como
+     * límite de los rangos de fechas.
+     *
+     * @param fecha Fecha del límite
+     * @return Clave con la fecha indicada y el menor ID posible
+     */
+    public static ClaveCronologica inicio(LocalDateTime fecha) {
+        return new ClaveCronologica(fecha, "");
+    }
+
+    /**
+     * Compara la clave con la posición de un ticket, sin crear su clave.
+     *
+     * @param ticket Ticket a comparar
+     * @return Negativo si la clave es anterior al ticket, 0 si es la suya, positivo si es posterior
+     */
+    public int compararCon(Ticket ticket) {
+        int comparacion = fecha.compareTo(ticket.getFecha());
+        return comparacion != 0 ? comparacion : idTicket.compareTo(ticket.getIdTicket());
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public String getIdTicket() {
+        return idTicket;
+    }
+
+    @Override
+    public int compareTo(ClaveCronologica otra) {
+        int comparacion = fecha.compareTo(otra.fecha);
+        return comparacion != 0 ? comparacion : idTicket.compareTo(otra.idTicket);
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof ClaveCronologica)) {
+            return false;
+        }
+        ClaveCronologica clave = (ClaveCronologica) otro;
+        return fecha.equals(clave.fecha) && idTicket.equals(clave.idTicket);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * fecha.hashCode() + idTicket.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return fecha + " " + idTicket;
+    }
+}
@@ -0,0 +1,458 @@
+package com.upc.persistencia;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase CodecBinario
+ * Primitivas del formato binario de los archivos de datos.
+ *
+ * <p>Estructura de un archivo binario:</p>
+ * <pre>
+ *   encabezado: 'B' 'R' 'C' tipo(1 byte) versión(1 byte) metadato(varint)
+ *   registro*:  longitud(varint) contenido(longitud bytes)
+ * </pre>
+ *
+ * <p>Dentro de cada registro los campos usan primitivas de ancho fijo (long, int, double
+ * en big-endian), enteros de longitud variable (varint LEB128) y textos UTF-8 con prefijo
+ * de longitud. Los textos muy repetidos (placas, cédulas, ciudades) se escriben como
+ * <i>cadenas de tabla</i>: la primera aparición define la cadena y las siguientes la
+ * referencian por índice, por lo que el archivo debe leerse de forma secuencial.</p>
+ *
+ * <p>El prefijo de longitud permite detectar un último registro truncado sin interpretar
+ * su contenido.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class CodecBinario {
+
+    /**
+     * Versión actual del formato binario
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Tipo de archivo: tickets
+     */
+    public static final byte TIPO_TICKETS = 'T';
+
+    /**
+     * Tipo de archivo: pasajeros
+     */
+    public static final byte TIPO_PASAJEROS = 'P';
+
+    /**
+     * Tipo de archivo: vehículos
+     */
+    public static final byte TIPO_VEHICULOS = 'V';
+
+    /**
+     * Bytes mágicos al inicio de todo archivo binario
+     */
+    private static final byte[] MAGIA = {'B', 'R', 'C'};
+
+    /**
+     * Constructor privado: clase de utilidades.
+     */
+    private CodecBinario() {
+    }
+
+    /**
+     * Escritor de un archivo binario.
+     * Los campos se acumulan en un búfer y {@link #terminarRegistro()} los vuelca con su longitud.
+     */
+    public static class Salida {
+
+        private final OutputStream salida;
+        private final Map<String, Integer> tabla;
+        private byte[] registro;
+        private int posicion;
+
+        /**
+         * Crea un escritor y escribe el encabezado del archivo.
+         *
+         * @param salida Flujo de salida
+         * @param tipo Tipo de archivo ({@link #TIPO_TICKETS}, etc.)
+         * @param metadato Metadato del encabezado (por ejemplo, el primer segmento de bitácora)
+         * @throws IOException si ocurre un error de escritura
+         */
+        public Salida(OutputStream salida, byte tipo, long metadato) throws IOException {
+            this.salida = salida;
+            this.tabla = new HashMap<>();
+            this.registro = new byte[256];
+
+            escribirBytes(MAGIA, 0, MAGIA.length);
+            escribirByte(tipo);
+            escribirByte(VERSION);
+            escribirVarint(metadato);
+            salida.write(registro, 0, posicion);
+            posicion = 0;
+        }
+
+        /**
+         * Escribe un byte.
+         *
+         * @param valor Byte a escribir
+         */
+        public void escribirByte(int valor) {
+            asegurar(1);
+            registro[posicion++] = (byte) valor;
+        }
+
+        /**
+         * Escribe un entero sin signo de longitud variable (LEB128).
+         *
+         * @param valor Valor no negativo
+         * @throws IllegalArgumentException si el valor es negativo
+         */
+        public void escribirVarint(long valor) {
+            if (valor < 0) {
+                throw new IllegalArgumentException("Un varint no puede ser negativo: " + valor);
+            }
+            asegurar(10);
+            while ((valor & ~0x7FL) != 0) {
+                registro[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            registro[posicion++] = (byte) valor;
+        }
+
+        /**
+         * Escribe un entero de 32 bits de ancho fijo.
+         *
+         * @param valor Valor a escribir
+         */
+        public void escribirInt(int valor) {
+            asegurar(4);
+            registro[posicion++] = (byte) (valor >>> 24);
+            registro[posicion++] = (byte) (valor >>> 16);
+            registro[posicion++] = (byte) (valor >>> 8);
+            registro[posicion++] = (byte) valor;
+        }
+
+        /**
+         * Escribe un entero de 64 bits de ancho fijo.
+         *
+         * @param valor Valor a escribir
+         */
+        public void escribirLong(long valor) {
+            escribirInt((int) (valor >>> 32));
+            escribirInt((int) valor);
+        }
+
+        /**
+         * Escribe un double de ancho fijo (representación IEEE 754 exacta).
+         *
+         * @param valor Valor a escribir
+         */
+        public void escribirDouble(double valor) {
+            escribirLong(Double.doubleToRawLongBits(valor));
+        }
+
+        /**
+         * Escribe un texto UTF-8 con prefijo de longitud.
+         *
+         * @param texto Texto a escribir (no null)
+         */
+        public void escribirTexto(String texto) {
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            escribirVarint(bytes.length);
+            escribirBytes(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Escribe un texto repetitivo usando la tabla de cadenas del archivo.
+         * Se codifica como varint 0 seguido del texto la primera vez, y como
+         * varint (índice + 1) las siguientes.
+         *
+         * @param texto Texto a escribir (no null)
+         */
+        public void escribirCadena(String texto) {
+            Integer indice = tabla.get(texto);
+            if (indice != null) {
+                escribirVarint(indice + 1L);
+            } else {
+                tabla.put(texto, tabla.size());
+                escribirVarint(0);
+                escribirTexto(texto);
+            }
+        }
+
+        /**
+         * Termina el registro actual escribiéndolo con su prefijo de longitud.
+         *
+         * @throws IOException si ocurre un error de escritura
+         */
+        public void terminarRegistro() throws IOException {
+            int longitud = posicion;
+            byte[] prefijo = new byte[5];
+            int n = 0;
+            int valor = longitud;
+            while ((valor & ~0x7F) != 0) {
+                prefijo[n++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            prefijo[n++] = (byte) valor;
+            salida.write(prefijo, 0, n);
+            salida.write(registro, 0, longitud);
+            posicion = 0;
+        }
+
+        private void escribirBytes(byte[] bytes, int desde, int cantidad) {
+            asegurar(cantidad);
+            System.arraycopy(bytes, desde, registro, posicion, cantidad);
+            posicion += cantidad;
+        }
+
+        private void asegurar(int adicional) {
+            if (posicion + adicional > registro.length) {
+                registro = Arrays.copyOf(registro, Math.max(registro.length * 2, posicion + adicional));
+            }
+        }
+    }
+
+    /**
+     * Lector secuencial de un archivo binario.
+     */
+    public static class Entrada {
+
+        private final InputStream entrada;
+        private final List<String> tabla;
+        private final long metadato;
+        private final int version;
+        private byte[] registro;
+        private int limite;
+        private int posicion;
+        private int numeroRegistro;
+
+        /**
+         * Crea un lector y valida el encabezado del archivo.
+         *
+         * @param entrada Flujo de entrada (se recomienda con búfer)
+         * @param tipoEsperado Tipo de archivo esperado
+         * @throws IOException si ocurre un error de lectura
+         * @throws IllegalArgumentException si el encabezado es inválido o la versión no es compatible
+         */
+        public Entrada(InputStream entrada, byte tipoEsperado) throws IOException {
+            this.entrada = entrada;
+            this.tabla = new ArrayList<>();
+            this.registro = new byte[256];
+
+            for (byte esperado : MAGIA) {
+                if (entrada.read() != esperado) {
+                    throw new IllegalArgumentException("El archivo no tiene formato binario Barceloneta");
+                }
+            }
+            int tipo = entrada.read();
+            if (tipo != tipoEsperado) {
+                throw new IllegalArgumentException(
+                    "Tipo de archivo binario inesperado: " + (char) tipo + " (se esperaba " + (char) tipoEsperado + ")"
+                );
+            }
+            this.version = entrada.read();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Versión de formato binario no soportada: " + version);
+            }
+            long valor = leerVarintDeFlujo();
+            if (valor < 0) {
+                throw new EOFException("Encabezado binario incompleto");
+            }
+            this.metadato = valor;
+        }
+
+        /**
+         * Avanza al siguiente registro.
+         *
+         * @return true si se leyó un registro, false al llegar al final del archivo
+         * @throws IOException si ocurre un error de lectura
+         * @throws IllegalArgumentException si el último registro está truncado
+         */
+        public boolean siguienteRegistro() throws IOException {
+            long longitud = leerVarintDeFlujo();
+            if (longitud < 0) {
+                return false;
+            }
+            numeroRegistro++;
+            if (longitud > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Longitud de registro inválida: " + longitud);
+            }
+            if (longitud > registro.length) {
+                registro = new byte[(int) longitud];
+            }
+            int leidos = 0;
+            while (leidos < longitud) {
+                int n = entrada.read(registro, leidos, (int) longitud - leidos);
+                if (n < 0) {
+                    throw new IllegalArgumentException("Registro truncado: se esperaban " + longitud + " bytes");
+                }
+                leidos += n;
+            }
+            limite = (int) longitud;
+            posicion = 0;
+            return true;
+        }
+
+        /**
+         * Lee un byte del registro actual.
+         *
+         * @return Byte leído (sin signo)
+         */
+        public int leerByte() {
+            verificar(1);
+            return registro[posicion++] & 0xFF;
+        }
+
+        /**
+         * Lee un entero sin signo de longitud variable.
+         *
+         * @return Valor leído
+         */
+        public long leerVarint() {
+            long valor = 0;
+            int desplazamiento = 0;
+            while (true) {
+                int b = leerByte();
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+                desplazamiento += 7;
+                if (desplazamiento > 63) {
+                    throw new IllegalArgumentException("Varint demasiado largo");
+                }
+            }
+        }
+
+        /**
+         * Lee un entero de 32 bits de ancho fijo.
+         *
+         * @return Valor leído
+         */
+        public int leerInt() {
+            verificar(4);
+            int valor = ((registro[posicion] & 0xFF) << 24) | ((registro[posicion + 1] & 0xFF) << 16)
+                    | ((registro[posicion + 2] & 0xFF) << 8) | (registro[posicion + 3] & 0xFF);
+            posicion += 4;
+            return valor;
+        }
+
+        /**
+         * Lee un entero de 64 bits de ancho fijo.
+         *
+         * @return Valor leído
+         */
+        public long leerLong() {
+            long alto = leerInt() & 0xFFFFFFFFL;
+            long bajo = leerInt() & 0xFFFFFFFFL;
+            return (alto << 32) | bajo;
+        }
+
+        /**
+         * Lee un double de ancho fijo.
+         *
+         * @return Valor leído
+         */
+        public double leerDouble() {
+            return Double.longBitsToDouble(leerLong());
+        }
+
+        /**
+         * Lee un texto UTF-8 con prefijo de longitud.
+         *
+         * @return Texto leído
+         */
+        public String leerTexto() {
+            int longitud = (int) leerVarint();
+            verificar(longitud);
+            String texto = new String(registro, posicion, longitud, StandardCharsets.UTF_8);
+            posicion += longitud;
+            return texto;
+        }
+
+        /**
+         * Lee un texto escrito con {@link Salida#escribirCadena(String)}.
+         * Las repeticiones devuelven la misma instancia de String.
+         *
+         * @return Texto leído
+         */
+        public String leerCadena() {
+            long indice = leerVarint();
+            if (indice == 0) {
+                String texto = leerTexto();
+                tabla.add(texto);
+                return texto;
+            }
+            if (indice > tabla.size()) {
+                throw new IllegalArgumentException("Referencia a cadena inexistente: " + indice);
+            }
+            return tabla.get((int) indice - 1);
+        }
+
+        /**
+         * Obtiene el metadato del encabezado.
+         *
+         * @return Metadato del archivo
+         */
+        public long getMetadato() {
+            return metadato;
+        }
+
+        /**
+         * Obtiene la versión del formato del archivo.
+         *
+         * @return Versión del formato
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Obtiene el número (desde 1) del registro actual, útil para mensajes de error.
+         *
+         * @return Número del registro actual
+         */
+        public int getNumeroRegistro() {
+            return numeroRegistro;
+        }
+
+        private void verificar(int cantidad) {
+            if (cantidad < 0 || posicion + cantidad > limite) {
+                throw new IllegalArgumentException("Registro binario más corto de lo esperado");
+            }
+        }
+
+        /**
+         * Lee un varint directamente del flujo (prefijos de longitud y encabezado).
+         *
+         * @return Valor leído, o -1 si el flujo terminó antes del primer byte
+         */
+        private long leerVarintDeFlujo() throws IOException {
+            long valor = 0;
+            int desplazamiento = 0;
+            while (true) {
+                int b = entrada.read();
+                if (b < 0) {
+                    if (desplazamiento == 0) {
+                        return -1;
+                    }
+                    throw new IllegalArgumentException("Prefijo de longitud truncado");
+                }
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+                desplazamiento += 7;
+                if (desplazamiento > 63) {
+                    throw new IllegalArgumentException("Varint demasiado largo");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.upc.persistencia;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Clase CodecFecha
+ * Convierte fechas entre LocalDateTime y el formato fijo
+ * {@code yyyy-MM-ddTHH:mm:ss[.fffffffff]} sin usar DateTimeFormatter.
+ *
+ * El resultado es idéntico al de {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}:
+ * los segundos siempre se escriben y la fracción solo lleva los dígitos
+ * necesarios (sin ceros finales). La lectura acepta además fechas sin segundos
+ * ({@code yyyy-MM-ddTHH:mm}), igual que el formateador ISO. Los años fuera de
+ * 0000-9999 se delegan al formateador ISO.
+ *
+ * También ofrece la conversión a milisegundos desde la época (UTC), usada por la
+ * columna opcional {@code fechaEpochMs} del formato CSV de tickets.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class CodecFecha {
+
+    /**
+     * Formateador ISO usado para los casos fuera del formato fijo
+     */
+    private static final DateTimeFormatter FORMATTER_ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * Constructor privado: clase de utilidad
+     */
+    private CodecFecha() {
+    }
+
+    /**
+     * Escribe una fecha en formato ISO.
+     *
+     * @param sb Destino
+     * @param fecha Fecha a escribir
+     * @return El mismo StringBuilder, para encadenar llamadas
+     */
+    public static StringBuilder escribir(StringBuilder sb, LocalDateTime fecha) {
+        int anio = fecha.getYear();
+        if (anio < 0 || anio > 9999) {
+            return sb.append(fecha.format(FORMATTER_ISO));
+        }
+        agregarDigitos(sb, anio, 4).append('-');
+        agregarDigitos(sb, fecha.getMonthValue(), 2).append('-');
+        agregarDigitos(sb, fecha.getDayOfMonth(), 2).append('T');
+        agregarDigitos(sb, fecha.getHour(), 2).append(':');
+        agregarDigitos(sb, fecha.getMinute(), 2).append(':');
+        agregarDigitos(sb, fecha.getSecond(), 2);
+
+        int nanos = fecha.getNano();
+        if (nanos != 0) {
+            // Quitar ceros finales de la fracción
+            int digitos = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digitos--;
+            }
+            sb.append('.');
+            agregarDigitos(sb, nanos, digitos);
+        }
+        return sb;
+    }
+
+    /**
+     * Convierte una fecha a texto ISO.
+     *
+     * @param fecha Fecha a convertir
+     * @return Texto igual al de ISO_LOCAL_DATE_TIME
+     */
+    public static String formatear(LocalDateTime fecha) {
+        return escribir(new StringBuilder(29), fecha).toString();
+    }
+
+    /**
+     * Lee una fecha ISO completa.
+     *
+     * @param texto Texto de la fecha
+     * @return Fecha leída
+     * @throws IllegalArgumentException si el texto no es una fecha válida
+     */
+    public static LocalDateTime leer(CharSequence texto) {
+        return leer(texto, 0, texto.length());
+    }
+
+    /**
+     * Lee una fecha ISO ubicada en un rango del texto, sin crear cadenas.
+     *
+     * @param texto Texto que contiene la fecha
+     * @param inicio Posición inicial (incluida)
+     * @param fin Posición final (excluida)
+     * @return Fecha leída
+     * @throws IllegalArgumentException si el rango no es una fecha válida
+     */
+    public static LocalDateTime leer(CharSequence texto, int inicio, int fin) {
+        int longitud = fin - inicio;
+        if (longitud < 16 || !digito(texto, inicio) || texto.charAt(inicio + 4) != '-'
+                || texto.charAt(inicio + 7) != '-' || texto.charAt(inicio + 10) != 'T'
+                || texto.charAt(inicio + 13) != ':') {
+            return leerConFormateador(texto, inicio, fin);
+        }
+
+        int anio = numero(texto, inicio, 4);
+        int mes = numero(texto, inicio + 5, 2);
+        int dia = numero(texto, inicio + 8, 2);
+        int hora = numero(texto, inicio + 11, 2);
+        int minuto = numero(texto, inicio + 14, 2);
+        int segundo = 0;
+        int nanos = 0;
+
+        int posicion = inicio + 16;
+        if (posicion < fin) {
+            if (texto.charAt(posicion) != ':' || fin - posicion < 3) {
+                throw fechaInvalida(texto, inicio, fin);
+            }
+            segundo = numero(texto, posicion + 1, 2);
+            posicion += 3;
+            if (posicion < fin) {
+                if (texto.charAt(posicion) != '.' || fin - posicion < 2 || fin - posicion > 10) {
+                    throw fechaInvalida(texto, inicio, fin);
+                }
+                int digitos = fin - posicion - 1;
+                nanos = numero(texto, posicion + 1, digitos);
+                for (int i = digitos; i < 9; i++) {
+                    nanos *= 10;
+                }
+            }
+        }
+        if (anio < 0 || mes < 0 || dia < 0 || hora < 0 || minuto < 0 || segundo < 0 || nanos < 0) {
+            throw fechaInvalida(texto, inicio, fin);
+        }
+
+        try {
+            return LocalDateTime.of(anio, mes, dia, hora, minuto, segundo, nanos);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Fecha inválida: " + texto.subSequence(inicio, fin), e);
+        }
+    }
+
+    /**
+     * Convierte una fecha a milisegundos desde la época (UTC).
+     * Los nanosegundos por debajo del milisegundo se descartan.
+     *
+     * @param fecha Fecha a convertir
+     * @return Milisegundos desde 1970-01-01T00:00 UTC
+     */
+    public static long aEpochMilis(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC) * 1000 + fecha.getNano() / 1_000_000;
+    }
+
+    /**
+     * Convierte milisegundos desde la época (UTC) a fecha.
+     *
+     * @param milis Milisegundos desde 1970-01-01T00:00 UTC
+     * @return Fecha equivalente
+     */
+    public static LocalDateTime desdeEpochMilis(long milis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(milis, 1000),
+                Math.floorMod(milis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime leerConFormateador(CharSequence texto, int inicio, int fin) {
+        try {
+            return LocalDateTime.parse(texto.subSequence(inicio, fin), FORMATTER_ISO);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Fecha inválida: " + texto.subSequence(inicio, fin), e);
+        }
+    }
+
+    private static IllegalArgumentException fechaInvalida(CharSequence texto, int inicio, int fin) {
+        return new IllegalArgumentException("Fecha inválida: " + texto.subSequence(inicio, fin));
+    }
+
+    private static boolean digito(CharSequence texto, int posicion) {
+        char c = texto.charAt(posicion);
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Lee un número de ancho fijo; retorna -1 si algún carácter no es dígito.
+     */
+    private static int numero(CharSequence texto, int posicion, int digitos) {
+        int valor = 0;
+        for (int i = 0; i < digitos; i++) {
+            int d = texto.charAt(posicion + i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            valor = valor * 10 + d;
+        }
+        return valor;
+    }
+
+    /**
+     * Agrega un número rellenado con ceros a la izquierda hasta el ancho indicado.
+     */
+    private static StringBuilder agregarDigitos(StringBuilder sb, int valor, int ancho) {
+        for (int divisor = potencia(ancho - 1); divisor > 0; divisor /= 10) {
+            sb.append((char) ('0' + (valor / divisor) % 10));
+        }
+        return sb;
+    }
+
+    private static int potencia(int exponente) {
+        int valor = 1;
+        for (int i = 0; i < exponente; i++) {
+            valor *= 10;
+        }
+        return valor;
+    }
+}
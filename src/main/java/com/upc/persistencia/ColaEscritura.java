@@ -0,0 +1,358 @@
+package com.upc.persistencia;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Clase ColaEscritura
+ * Cola acotada de escrituras pendientes de un DAO (write-behind).
+ *
+ * Cada DAO encola sus mutaciones en su propia cola, que las entrega al
+ * {@link EscritorPersistencia}. El hilo escritor sigue siendo uno solo, así que las
+ * escrituras de todos los DAOs comparten lotes y sincronizaciones, pero cada DAO
+ * tiene un límite propio de mutaciones pendientes. Cuando la cola está llena se
+ * aplica su {@link PoliticaContrapresion}.
+ *
+ * Con durabilidad ASINCRONA las operaciones retornan apenas el cambio está en
+ * memoria y la cola absorbe los picos de ventas; su profundidad y la latencia
+ * entre encolar y tener la mutación en disco permiten dimensionarla. Como nadie
+ * espera esas escrituras, la cola cuenta las que fallan y guarda el último error;
+ * {@link EscritorPersistencia#cerrar()} los lanza al vaciar las colas.
+ *
+ * Configuración (propiedades del sistema):
+ * <ul>
+ *   <li>{@code barceloneta.persistencia.cola.capacidad} - Mutaciones pendientes por cola (4096)</li>
+ *   <li>{@code barceloneta.persistencia.cola.<nombre>.capacidad} - Capacidad de una cola concreta</li>
+ *   <li>{@code barceloneta.persistencia.cola.politica} - Ver {@link PoliticaContrapresion}</li>
+ * </ul>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class ColaEscritura {
+
+    /**
+     * Propiedad del sistema con la capacidad de cada cola
+     */
+    public static final String PROPIEDAD_CAPACIDAD = "barceloneta.persistencia.cola.capacidad";
+
+    private final EscritorPersistencia escritor;
+    private final String nombre;
+    private final int capacidad;
+    private final Semaphore espacio;
+    private volatile PoliticaContrapresion politica;
+
+    private final AtomicInteger profundidad;
+    private final AtomicLong escrituras;
+    private final AtomicLong rechazos;
+    private final AtomicLong degradaciones;
+    private final AtomicLong fallos;
+    private volatile RuntimeException ultimoError;
+    private final AtomicLong latenciaTotalNanos;
+    private volatile long latenciaUltimaNanos;
+    private volatile long latenciaMaximaNanos;
+
+    /**
+     * Constructor de la cola. Las colas se obtienen con {@link EscritorPersistencia#getCola(String)}.
+     *
+     * @param escritor Escritor que procesa las mutaciones
+     * @param nombre Nombre de la cola, usado en la configuración y en los mensajes
+     */
+    ColaEscritura(EscritorPersistencia escritor, String nombre) {
+        this.escritor = escritor;
+        this.nombre = nombre;
+        int general = Integer.getInteger(PROPIEDAD_CAPACIDAD, 4096);
+        this.capacidad = Math.max(1, Integer.getInteger("barceloneta.persistencia.cola." + nombre + ".capacidad", general));
+        this.espacio = new Semaphore(capacidad);
+        this.politica = PoliticaContrapresion.desdeConfiguracion(nombre);
+        this.profundidad = new AtomicInteger();
+        this.escrituras = new AtomicLong();
+        this.rechazos = new AtomicLong();
+        this.degradaciones = new AtomicLong();
+        this.fallos = new AtomicLong();
+        this.latenciaTotalNanos = new AtomicLong();
+    }
+
+    /**
+     * Encola un registro para anexarlo al final de un archivo.
+     *
+     * @param archivo Archivo destino
+     * @param registro Registro a anexar (sin salto de línea)
+     * @return Futuro que se completa cuando el registro está sincronizado en disco
+     * @throws IllegalStateException si la cola está llena y la política es FALLAR
+     */
+    public CompletableFuture<Void> encolarAnexo(File archivo, String registro) {
+        return escritor.encolar(this, archivo, false,
+                salida -> EscritorPersistencia.escribirLinea(salida, registro));
+    }
+
+    /**
+     * Encola varios registros para anexarlos juntos al final de un archivo, como una
+     * sola mutación.
+     *
+     * @param archivo Archivo destino
+     * @param elementos Copia de los elementos a anexar (no debe modificarse después)
+     * @param serializador Función que convierte cada elemento en un registro
+     * @param <T> Tipo de los elementos
+     * @return Futuro que se completa cuando los registros están sincronizados en disco
+     * @throws IllegalStateException si la cola está llena y la política es FALLAR
+     */
+    public <T> CompletableFuture<Void> encolarAnexos(File archivo, Collection<T> elementos,
+                                                     Function<T, String> serializador) {
+        return escritor.encolar(this, archivo, false, salida -> {
+            for (T elemento : elementos) {
+                EscritorPersistencia.escribirLinea(salida, serializador.apply(elemento));
+            }
+        });
+    }
+
+    /**
+     * Encola la reescritura completa de un archivo.
+     *
+     * @param archivo Archivo destino
+     * @param elementos Copia de los elementos a escribir (no debe modificarse después)
+     * @param serializador Función que convierte cada elemento en una línea
+     * @param <T> Tipo de los elementos
+     * @return Futuro que se completa cuando el archivo está sincronizado en disco
+     * @throws IllegalStateException si la cola está llena y la política es FALLAR
+     */
+    public <T> CompletableFuture<Void> encolarReescritura(File archivo, Collection<T> elementos,
+                                                          Function<T, String> serializador) {
+        return escritor.encolar(this, archivo, true, salida -> {
+            for (T elemento : elementos) {
+                EscritorPersistencia.escribirLinea(salida, serializador.apply(elemento));
+            }
+        });
+    }
+
+    /**
+     * Encola la reescritura completa de un archivo con un contenido arbitrario.
+     *
+     * @param archivo Archivo destino
+     * @param contenido Contenido a escribir; no debe depender de datos que cambien después
+     * @return Futuro que se completa cuando el archivo está sincronizado en disco
+     * @throws IllegalStateException si la cola está llena y la política es FALLAR
+     */
+    public CompletableFuture<Void> encolarReescritura(File archivo, EscritorPersistencia.Contenido contenido) {
+        return escritor.encolar(this, archivo, true, contenido);
+    }
+
+    /**
+     * Espera una escritura según la durabilidad configurada, o siempre si la
+     * cola la degradó a síncrona.
+     *
+     * @param resultado Futuro devuelto por un método encolar
+     * @throws RuntimeException si la escritura falló y había que esperarla
+     */
+    public void completar(CompletableFuture<Void> resultado) {
+        escritor.completar(resultado);
+    }
+
+    /**
+     * Reserva un lugar en la cola según la política configurada.
+     *
+     * @return true si se reservó un lugar; false si la mutación entra fuera del
+     *         límite y quien la encola debe esperar su escritura
+     * @throws IllegalStateException si la cola está llena y la política es FALLAR
+     */
+    boolean reservar() {
+        if (espacio.tryAcquire()) {
+            profundidad.incrementAndGet();
+            return true;
+        }
+        switch (politica) {
+            case FALLAR:
+                rechazos.incrementAndGet();
+                throw new IllegalStateException(
+                    "Cola de escritura llena (" + nombre + "): " + capacidad + " operaciones pendientes"
+                );
+            case SINCRONA:
+                degradaciones.incrementAndGet();
+                profundidad.incrementAndGet();
+                return false;
+            default:
+                try {
+                    espacio.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrumpido mientras se esperaba espacio en la cola " + nombre, e);
+                }
+                profundidad.incrementAndGet();
+                return true;
+        }
+    }
+
+    /**
+     * Libera el lugar de una mutación terminada y registra su latencia.
+     *
+     * @param reservada Si la mutación ocupaba un lugar de la cola
+     * @param latenciaNanos Tiempo entre encolar y terminar la escritura
+     */
+    void liberar(boolean reservada, long latenciaNanos) {
+        profundidad.decrementAndGet();
+        if (reservada) {
+            espacio.release();
+        }
+        escrituras.incrementAndGet();
+        latenciaTotalNanos.addAndGet(latenciaNanos);
+        latenciaUltimaNanos = latenciaNanos;
+        if (latenciaNanos > latenciaMaximaNanos) {
+            latenciaMaximaNanos = latenciaNanos;
+        }
+    }
+
+    /**
+     * Registra una mutación que no se pudo escribir.
+     *
+     * @param error Error de escritura
+     */
+    void registrarFallo(RuntimeException error) {
+        fallos.incrementAndGet();
+        ultimoError = error;
+    }
+
+    /**
+     * Libera un lugar reservado para una mutación que no llegó a encolarse.
+     *
+     * @param reservada Si la mutación ocupaba un lugar de la cola
+     */
+    void cancelar(boolean reservada) {
+        profundidad.decrementAndGet();
+        if (reservada) {
+            espacio.release();
+        }
+    }
+
+    /**
+     * Obtiene el nombre de la cola.
+     *
+     * @return Nombre de la cola
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene la capacidad de la cola.
+     *
+     * @return Mutaciones pendientes permitidas
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Obtiene la cantidad de mutaciones encoladas que aún no están en disco.
+     *
+     * @return Profundidad actual de la cola
+     */
+    public int getProfundidad() {
+        return profundidad.get();
+    }
+
+    /**
+     * Obtiene la política aplicada cuando la cola está llena.
+     *
+     * @return Política de contrapresión
+     */
+    public PoliticaContrapresion getPolitica() {
+        return politica;
+    }
+
+    /**
+     * Establece la política aplicada cuando la cola está llena.
+     *
+     * @param politica Nueva política de contrapresión
+     */
+    public void setPolitica(PoliticaContrapresion politica) {
+        this.politica = politica;
+    }
+
+    /**
+     * Obtiene la cantidad de mutaciones escritas (o fallidas) desde el inicio.
+     *
+     * @return Número de escrituras terminadas
+     */
+    public long getEscrituras() {
+        return escrituras.get();
+    }
+
+    /**
+     * Obtiene la cantidad de operaciones rechazadas por la política FALLAR.
+     *
+     * @return Número de rechazos
+     */
+    public long getRechazos() {
+        return rechazos.get();
+    }
+
+    /**
+     * Obtiene la cantidad de operaciones degradadas a escritura síncrona.
+     *
+     * @return Número de degradaciones
+     */
+    public long getDegradaciones() {
+        return degradaciones.get();
+    }
+
+    /**
+     * Obtiene la cantidad de mutaciones que no se pudieron escribir desde el inicio.
+     *
+     * @return Número de escrituras fallidas
+     */
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    /**
+     * Obtiene el error de la última mutación que no se pudo escribir.
+     *
+     * @return Último error de escritura, o null si ninguna falló
+     */
+    public RuntimeException getUltimoError() {
+        return ultimoError;
+    }
+
+    /**
+     * Obtiene la latencia promedio entre encolar y tener la mutación en disco.
+     *
+     * @return Latencia promedio en milisegundos, o 0 si no hubo escrituras
+     */
+    public double getLatenciaPromedioMs() {
+        long total = escrituras.get();
+        return total == 0 ? 0 : latenciaTotalNanos.get() / (double) total / 1_000_000.0;
+    }
+
+    /**
+     * Obtiene la latencia de la última mutación escrita.
+     *
+     * @return Latencia en milisegundos
+     */
+    public double getLatenciaUltimaMs() {
+        return latenciaUltimaNanos / 1_000_000.0;
+    }
+
+    /**
+     * Obtiene la mayor latencia observada.
+     *
+     * @return Latencia máxima en milisegundos
+     */
+    public double getLatenciaMaximaMs() {
+        return latenciaMaximaNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.ROOT,
+                "%s: %d/%d pendientes, %d escritas, latencia prom. %.2f ms (máx. %.2f ms), "
+                        + "%d fallidas, %d rechazadas, %d síncronas, política %s",
+                nombre, getProfundidad(), capacidad, getEscrituras(), getLatenciaPromedioMs(),
+                getLatenciaMaximaMs(), getFallos(), getRechazos(), getDegradaciones(), politica.getClave());
+    }
+}
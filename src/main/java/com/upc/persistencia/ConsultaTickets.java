@@ -0,0 +1,363 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.DiccionarioCiudades;
+import com.upc.modelo.Pasajero;
+import com.upc.modelo.Ticket;
+import com.upc.modelo.TipoPasajero;
+import com.upc.modelo.Vehiculo;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Clase ConsultaTickets
+ * Describe una consulta de tickets combinando filtros, orden y paginación.
+ *
+ * <p>Los filtros se encadenan y todos deben cumplirse: pasajero, vehículo, tipo de
+ * vehículo, tipo de pasajero, ruta y rango de fechas. El resultado puede ordenarse por
+ * fecha, saltar y limitar tickets, o continuar desde un cursor
+ * ({@link ClaveCronologica}) como las páginas del historial.</p>
+ *
+ * <p>La consulta solo describe qué se busca; {@link TicketDAO#planificar(ConsultaTickets)}
+ * elige por qué índice empezar y {@link TicketDAO#consultar(ConsultaTickets)} entrega
+ * los tickets como un flujo perezoso. Ejemplo:</p>
+ * <pre>
+ *   new ConsultaTickets()
+ *       .porTipoPasajero(TipoPasajero.ESTUDIANTE)
+ *       .entre(inicioMes, finMes)
+ *       .ordenarPor(ConsultaTickets.Orden.FECHA_DESCENDENTE)
+ *       .limitar(20);
+ * </pre>
+ *
+ * <p>Los métodos modifican la consulta y la devuelven para poder encadenarlos; una
+ * consulta no es segura para hilos mientras se arma.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class ConsultaTickets {
+
+    /**
+     * Orden del resultado
+     */
+    public enum Orden {
+        /**
+         * Sin orden garantizado: el que resulte más barato según el índice usado
+         */
+        NINGUNO,
+
+        /**
+         * Del más antiguo al más reciente ({@link ClaveCronologica#ORDEN_TICKETS})
+         */
+        FECHA_ASCENDENTE,
+
+        /**
+         * Del más reciente al más antiguo
+         */
+        FECHA_DESCENDENTE
+    }
+
+    private String cedula;
+    private String placa;
+    private String tipoVehiculo;
+    private TipoPasajero tipoPasajero;
+    private boolean porRuta;
+    private int idOrigen;
+    private int idDestino;
+    private LocalDateTime desde;
+    private LocalDateTime hasta;
+    private Orden orden = Orden.NINGUNO;
+    private ClaveCronologica cursor;
+    private long desplazamiento;
+    private long limite = Long.MAX_VALUE;
+
+    /**
+     * Filtra por pasajero.
+     *
+     * @param cedula Cédula del pasajero
+     * @return Esta consulta
+     * @throws IllegalArgumentException si la cédula es null
+     */
+    public ConsultaTickets porPasajero(String cedula) {
+        this.cedula = requerir(cedula, "La cédula");
+        return this;
+    }
+
+    /**
+     * Filtra por vehículo.
+     *
+     * @param placa Placa del vehículo
+     * @return Esta consulta
+     * @throws IllegalArgumentException si la placa es null
+     */
+    public ConsultaTickets porVehiculo(String placa) {
+        this.placa = requerir(placa, "La placa");
+        return this;
+    }
+
+    /**
+     * Filtra por tipo de vehículo.
+     *
+     * @param tipoVehiculo Tipo según {@link Vehiculo#getTipoVehiculo()} ("Bus", "Buseta",
+     *                     "MicroBus"), sin distinguir mayúsculas
+     * @return Esta consulta
+     * @throws IllegalArgumentException si el tipo es null
+     */
+    public ConsultaTickets porTipoVehiculo(String tipoVehiculo) {
+        this.tipoVehiculo = requerir(tipoVehiculo, "El tipo de vehículo").trim();
+        return this;
+    }
+
+    /**
+     * Filtra por tipo de pasajero.
+     *
+     * @param tipoPasajero Tipo de pasajero
+     * @return Esta consulta
+     * @throws IllegalArgumentException si el tipo es null
+     */
+    public ConsultaTickets porTipoPasajero(TipoPasajero tipoPasajero) {
+        this.tipoPasajero = requerir(tipoPasajero, "El tipo de pasajero");
+        return this;
+    }
+
+    /**
+     * Filtra por ruta.
+     *
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @return Esta consulta
+     * @throws IllegalArgumentException si alguna ciudad es null
+     */
+    public ConsultaTickets porRuta(String origen, String destino) {
+        this.idOrigen = DiccionarioCiudades.buscar(requerir(origen, "El origen"));
+        this.idDestino = DiccionarioCiudades.buscar(requerir(destino, "El destino"));
+        this.porRuta = true;
+        return this;
+    }
+
+    /**
+     * Filtra por rango de fechas. Cualquiera de los límites puede ser null para dejar
+     * el rango abierto por ese lado.
+     *
+     * @param desde Inicio del rango (incluido), o null
+     * @param hasta Fin del rango (excluido), o null
+     * @return Esta consulta
+     */
+    public ConsultaTickets entre(LocalDateTime desde, LocalDateTime hasta) {
+        this.desde = desde;
+        this.hasta = hasta;
+        return this;
+    }
+
+    /**
+     * Define el orden del resultado.
+     *
+     * @param orden Orden deseado
+     * @return Esta consulta
+     * @throws IllegalArgumentException si el orden es null
+     */
+    public ConsultaTickets ordenarPor(Orden orden) {
+        this.orden = requerir(orden, "El orden");
+        return this;
+    }
+
+    /**
+     * Continúa después de un ticket ya entregado, en el orden de la consulta: los
+     * posteriores al cursor en orden ascendente y los anteriores en orden descendente.
+     * Si la consulta no tenía orden, pasa a ordenarse por fecha ascendente.
+     *
+     * @param cursor Clave del último ticket entregado, o null para empezar desde el principio
+     * @return Esta consulta
+     */
+    public ConsultaTickets despuesDe(ClaveCronologica cursor) {
+        this.cursor = cursor;
+        if (cursor != null && orden == Orden.NINGUNO) {
+            orden = Orden.FECHA_ASCENDENTE;
+        }
+        return this;
+    }
+
+    /**
+     * Descarta los primeros tickets del resultado.
+     *
+     * @param cantidad Tickets a saltar
+     * @return Esta consulta
+     * @throws IllegalArgumentException si la cantidad es negativa
+     */
+    public ConsultaTickets saltar(long cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad a saltar no puede ser negativa: " + cantidad);
+        }
+        this.desplazamiento = cantidad;
+        return this;
+    }
+
+    /**
+     * Limita la cantidad de tickets del resultado.
+     *
+     * @param cantidad Cantidad máxima de tickets
+     * @return Esta consulta
+     * @throws IllegalArgumentException si la cantidad es negativa
+     */
+    public ConsultaTickets limitar(long cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("El límite no puede ser negativo: " + cantidad);
+        }
+        this.limite = cantidad;
+        return this;
+    }
+
+    /**
+     * Indica si un ticket cumple todos los filtros y está después del cursor.
+     * Se aplica a cada candidato, también a los que vienen de un índice, de modo que el
+     * resultado es correcto aunque el índice devuelva candidatos de más.
+     *
+     * @param ticket Ticket a evaluar
+     * @return true si el ticket pertenece al resultado
+     */
+    public boolean coincide(Ticket ticket) {
+        if (cedula != null && !cedula.equals(ticket.getCedula())) {
+            return false;
+        }
+        if (placa != null && !placa.equals(ticket.getPlaca())) {
+            return false;
+        }
+        if (porRuta && (ticket.getIdOrigen() != idOrigen || ticket.getIdDestino() != idDestino)) {
+            return false;
+        }
+        if (desde != null || hasta != null || cursor != null) {
+            LocalDateTime fecha = ticket.getFecha();
+            if (fecha == null || (desde != null && fecha.isBefore(desde))
+                    || (hasta != null && !fecha.isBefore(hasta))) {
+                return false;
+            }
+            if (cursor != null) {
+                int comparacion = cursor.compararCon(ticket);
+                if (orden == Orden.FECHA_DESCENDENTE ? comparacion <= 0 : comparacion >= 0) {
+                    return false;
+                }
+            }
+        }
+        // Los filtros que resuelven el pasajero o el vehículo van al final
+        if (tipoPasajero != null) {
+            Pasajero pasajero = ticket.getPasajero();
+            if (pasajero == null || pasajero.getTipoPasajero() != tipoPasajero) {
+                return false;
+            }
+        }
+        if (tipoVehiculo != null) {
+            Vehiculo vehiculo = ticket.getVehiculo();
+            return vehiculo != null && vehiculo.getTipoVehiculo().equalsIgnoreCase(tipoVehiculo);
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene el comparador del orden de la consulta.
+     *
+     * @return Comparador cronológico o inverso, o null si la consulta no tiene orden
+     */
+    Comparator<Ticket> comparador() {
+        switch (orden) {
+            case FECHA_ASCENDENTE:
+                return ClaveCronologica.ORDEN_TICKETS;
+            case FECHA_DESCENDENTE:
+                return ClaveCronologica.ORDEN_TICKETS.reversed();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Indica si la consulta limita las fechas, por rango o por cursor.
+     */
+    boolean limitaFechas() {
+        return desde != null || hasta != null || cursor != null;
+    }
+
+    String getCedula() {
+        return cedula;
+    }
+
+    String getPlaca() {
+        return placa;
+    }
+
+    boolean isPorRuta() {
+        return porRuta;
+    }
+
+    int getIdOrigen() {
+        return idOrigen;
+    }
+
+    int getIdDestino() {
+        return idDestino;
+    }
+
+    LocalDateTime getDesde() {
+        return desde;
+    }
+
+    LocalDateTime getHasta() {
+        return hasta;
+    }
+
+    Orden getOrden() {
+        return orden;
+    }
+
+    ClaveCronologica getCursor() {
+        return cursor;
+    }
+
+    long getDesplazamiento() {
+        return desplazamiento;
+    }
+
+    long getLimite() {
+        return limite;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ConsultaTickets[");
+        if (cedula != null) {
+            sb.append("cédula=").append(cedula).append(", ");
+        }
+        if (placa != null) {
+            sb.append("placa=").append(placa).append(", ");
+        }
+        if (tipoVehiculo != null) {
+            sb.append("tipoVehiculo=").append(tipoVehiculo).append(", ");
+        }
+        if (tipoPasajero != null) {
+            sb.append("tipoPasajero=").append(tipoPasajero).append(", ");
+        }
+        if (porRuta) {
+            sb.append("ruta=").append(DiccionarioCiudades.nombre(idOrigen)).append(" -> ")
+                    .append(DiccionarioCiudades.nombre(idDestino)).append(", ");
+        }
+        if (desde != null || hasta != null) {
+            sb.append("fechas=[").append(desde).append(", ").append(hasta).append("), ");
+        }
+        if (cursor != null) {
+            sb.append("después de ").append(cursor).append(", ");
+        }
+        sb.append("orden=").append(orden);
+        if (desplazamiento > 0) {
+            sb.append(", saltar=").append(desplazamiento);
+        }
+        if (limite < Long.MAX_VALUE) {
+            sb.append(", límite=").append(limite);
+        }
+        return sb.append(']').toString();
+    }
+
+    private static <T> T requerir(T valor, String nombre) {
+        if (valor == null) {
+            throw new IllegalArgumentException(nombre + " de la consulta no puede ser null");
+        }
+        return valor;
+    }
+}
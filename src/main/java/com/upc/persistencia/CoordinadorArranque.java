@@ -0,0 +1,71 @@
+package com.upc.persistencia;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Clase CoordinadorArranque
+ * Carga los tres DAOs al iniciar la aplicación de forma concurrente.
+ *
+ * VehiculoDAO y PasajeroDAO se cargan en hilos propios mientras TicketDAO,
+ * en el hilo actual, interpreta su archivo sin resolver referencias. Cuando
+ * TicketDAO pide los otros dos DAOs, {@code getInstancia()} espera a que
+ * terminen de cargar; los tickets guardan la placa y la cédula y buscan el
+ * vehículo y el pasajero recién cuando se piden.
+ * El tiempo de arranque queda cerca del tiempo del archivo más grande en
+ * lugar de la suma de los tres.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class CoordinadorArranque {
+
+    /**
+     * Constructor privado: clase de utilidad
+     */
+    private CoordinadorArranque() {
+    }
+
+    /**
+     * Carga VehiculoDAO, PasajeroDAO y TicketDAO en paralelo.
+     * Si los DAOs ya estaban cargados, retorna de inmediato.
+     *
+     * @throws RuntimeException si alguno de los archivos no se puede cargar
+     */
+    public static void cargarDatos() {
+        ExecutorService hilos = Executors.newFixedThreadPool(2, tarea -> {
+            Thread hilo = new Thread(tarea, "arranque-datos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            Future<VehiculoDAO> vehiculos = hilos.submit(VehiculoDAO::getInstancia);
+            Future<PasajeroDAO> pasajeros = hilos.submit(PasajeroDAO::getInstancia);
+            TicketDAO.getInstancia();
+            esperar(vehiculos);
+            esperar(pasajeros);
+        } finally {
+            hilos.shutdown();
+        }
+    }
+
+    /**
+     * Espera la carga de un DAO y propaga su error, si lo hubo.
+     */
+    private static void esperar(Future<?> carga) {
+        try {
+            carga.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Carga de datos interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Error al cargar los datos", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,692 @@
+package com.upc.persistencia;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Clase EscritorPersistencia
+ * Hilo escritor dedicado que agrupa las escrituras de todos los DAOs (group commit).
+ *
+ * <p>Los DAOs actualizan su mapa en memoria y encolan la mutación correspondiente
+ * (anexar un registro o reescribir un archivo completo). El hilo escritor toma las
+ * mutaciones pendientes en lotes, limitados por una cantidad máxima o por una ventana
+ * de tiempo, y realiza una única llamada a {@link FileChannel#force(boolean)} por archivo
+ * y por lote. Varias ventas comparten así una misma sincronización con el disco.</p>
+ *
+ * <p>Si un lote contiene varias reescrituras del mismo archivo, solo se escribe la
+ * última, ya que cada una contiene el estado completo en el momento de la operación.</p>
+ *
+ * <p>Cada DAO encola a través de su propia {@link ColaEscritura}, que limita sus
+ * mutaciones pendientes y aplica la política de contrapresión cuando se llena. Al
+ * terminar la JVM, un gancho de cierre escribe todas las mutaciones pendientes. Las
+ * escrituras que fallan se cuentan en su cola; con durabilidad ASINCRONA nadie las
+ * espera, así que {@link #cerrar()} las lanza después de vaciar las colas.</p>
+ *
+ * <p>Configuración (propiedades del sistema):</p>
+ * <ul>
+ *   <li>{@code barceloneta.persistencia.lote.maximo} - Mutaciones máximas por lote (256)</li>
+ *   <li>{@code barceloneta.persistencia.lote.ventanaMs} - Ventana de agrupación en ms (2)</li>
+ *   <li>{@code barceloneta.persistencia.durabilidad} - Ver {@link ModoDurabilidad}</li>
+ *   <li>{@code barceloneta.persistencia.cola.*} - Ver {@link ColaEscritura}</li>
+ * </ul>
+ *
+ * <p><b>Patrón de diseño:</b> Singleton + Productor/Consumidor</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class EscritorPersistencia {
+
+    /**
+     * Propiedad del sistema con la cantidad máxima de mutaciones por lote
+     */
+    public static final String PROPIEDAD_LOTE_MAXIMO = "barceloneta.persistencia.lote.maximo";
+
+    /**
+     * Propiedad del sistema con la ventana de agrupación en milisegundos
+     */
+    public static final String PROPIEDAD_VENTANA_MS = "barceloneta.persistencia.lote.ventanaMs";
+
+    /**
+     * Cola usada por quienes encolan sin una cola propia
+     */
+    private static final String COLA_GENERAL = "general";
+
+    /**
+     * Separador de línea del sistema codificado en UTF-8
+     */
+    private static final byte[] SEPARADOR_LINEA = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Instancia única del escritor (patrón Singleton)
+     */
+    private static EscritorPersistencia instancia;
+
+    /**
+     * Cola de mutaciones pendientes de escribir
+     */
+    private final BlockingQueue<Mutacion> pendientes;
+
+    /**
+     * Colas de escritura por DAO, en orden de creación
+     */
+    private final Map<String, ColaEscritura> colas;
+
+    /**
+     * Cantidad máxima de mutaciones por lote
+     */
+    private final int loteMaximo;
+
+    /**
+     * Ventana de agrupación en nanosegundos
+     */
+    private final long ventanaNanos;
+
+    /**
+     * Modo de durabilidad de las operaciones
+     */
+    private volatile ModoDurabilidad durabilidad;
+
+    /**
+     * Hilo que escribe los lotes en disco
+     */
+    private final Thread hilo;
+
+    /**
+     * Indica si el escritor sigue aceptando mutaciones
+     */
+    private volatile boolean activo;
+
+    /**
+     * Bloqueo que comparten encolar y cerrar: una mutación aceptada siempre llega a la
+     * cola antes de que el hilo escritor vea el cierre y termine de vaciarla
+     */
+    private final Object bloqueoCierre;
+
+    /**
+     * Cantidad de lotes escritos
+     */
+    private final AtomicLong lotesEscritos;
+
+    /**
+     * Cantidad de mutaciones escritas
+     */
+    private final AtomicLong mutacionesEscritas;
+
+    /**
+     * Constructor privado para implementar Singleton.
+     * Inicia el hilo escritor y registra el cierre ordenado al terminar la JVM.
+     */
+    private EscritorPersistencia() {
+        this.pendientes = new LinkedBlockingQueue<>();
+        this.colas = Collections.synchronizedMap(new LinkedHashMap<>());
+        this.loteMaximo = Math.max(1, Integer.getInteger(PROPIEDAD_LOTE_MAXIMO, 256));
+        this.ventanaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, Long.getLong(PROPIEDAD_VENTANA_MS, 2L)));
+        this.durabilidad = ModoDurabilidad.desdeConfiguracion();
+        this.lotesEscritos = new AtomicLong();
+        this.mutacionesEscritas = new AtomicLong();
+        this.activo = true;
+        this.bloqueoCierre = new Object();
+
+        this.hilo = new Thread(this::ejecutar, "escritor-persistencia");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::cerrar, "cierre-persistencia"));
+    }
+
+    /**
+     * Obtiene la instancia única del escritor.
+     *
+     * @return Instancia de EscritorPersistencia
+     */
+    public static synchronized EscritorPersistencia getInstancia() {
+        if (instancia == null) {
+            instancia = new EscritorPersistencia();
+        }
+        return instancia;
+    }
+
+    /**
+     * Obtiene la cola de escritura con el nombre indicado, creándola si no existe.
+     *
+     * @param nombre Nombre de la cola (por ejemplo "tickets")
+     * @return Cola de escritura
+     */
+    public ColaEscritura getCola(String nombre) {
+        return colas.computeIfAbsent(nombre, n -> new ColaEscritura(this, n));
+    }
+
+    /**
+     * Obtiene las colas de escritura creadas hasta ahora.
+     *
+     * @return Copia de la lista de colas
+     */
+    public List<ColaEscritura> getColas() {
+        synchronized (colas) {
+            return new ArrayList<>(colas.values());
+        }
+    }
+
+    /**
+     * Agrega un registro al final de un archivo.
+     * Según el modo de durabilidad, espera o no a que el registro esté en disco.
+     *
+     * @param archivo Archivo destino
+     * @param registro Registro a anexar (sin salto de línea)
+     * @throws RuntimeException si ocurre un error al escribir (solo en modo SINCRONA)
+     */
+    public void anexar(File archivo, String registro) {
+        completar(encolarAnexo(archivo, registro));
+    }
+
+    /**
+     * Reemplaza el contenido completo de un archivo.
+     * Según el modo de durabilidad, espera o no a que el archivo esté en disco.
+     *
+     * @param archivo Archivo destino
+     * @param elementos Copia de los elementos a escribir (no debe modificarse después)
+     * @param serializador Función que convierte cada elemento en una línea
+     * @param <T> Tipo de los elementos
+     * @throws RuntimeException si ocurre un error al escribir (solo en modo SINCRONA)
+     */
+    public <T> void reescribir(File archivo, Collection<T> elementos, Function<T, String> serializador) {
+        completar(encolarReescritura(archivo, elementos, serializador));
+    }
+
+    /**
+     * Encola un registro para anexarlo al final de un archivo.
+     *
+     * @param archivo Archivo destino
+     * @param registro Registro a anexar (sin salto de línea)
+     * @return Futuro que se completa cuando el registro está sincronizado en disco
+     */
+    public CompletableFuture<Void> encolarAnexo(File archivo, String registro) {
+        return getCola(COLA_GENERAL).encolarAnexo(archivo, registro);
+    }
+
+    /**
+     * Encola la reescritura completa de un archivo.
+     * La serialización se realiza en el hilo escritor.
+     *
+     * @param archivo Archivo destino
+     * @param elementos Copia de los elementos a escribir (no debe modificarse después)
+     * @param serializador Función que convierte cada elemento en una línea
+     * @param <T> Tipo de los elementos
+     * @return Futuro que se completa cuando el archivo está sincronizado en disco
+     */
+    public <T> CompletableFuture<Void> encolarReescritura(File archivo, Collection<T> elementos,
+                                                          Function<T, String> serializador) {
+        return getCola(COLA_GENERAL).encolarReescritura(archivo, elementos, serializador);
+    }
+
+    /**
+     * Reemplaza el contenido completo de un archivo con un contenido arbitrario
+     * (por ejemplo, un archivo binario).
+     * Según el modo de durabilidad, espera o no a que el archivo esté en disco.
+     *
+     * @param archivo Archivo destino
+     * @param contenido Contenido a escribir; no debe depender de datos que cambien después
+     * @throws RuntimeException si ocurre un error al escribir (solo en modo SINCRONA)
+     */
+    public void reescribir(File archivo, Contenido contenido) {
+        completar(encolarReescritura(archivo, contenido));
+    }
+
+    /**
+     * Encola la reescritura completa de un archivo con un contenido arbitrario.
+     *
+     * @param archivo Archivo destino
+     * @param contenido Contenido a escribir; no debe depender de datos que cambien después
+     * @return Futuro que se completa cuando el archivo está sincronizado en disco
+     */
+    public CompletableFuture<Void> encolarReescritura(File archivo, Contenido contenido) {
+        return getCola(COLA_GENERAL).encolarReescritura(archivo, contenido);
+    }
+
+    /**
+     * Escribe una línea de texto en UTF-8 seguida del separador de línea del sistema.
+     *
+     * @param salida Flujo de salida
+     * @param linea Línea a escribir
+     * @throws IOException si ocurre un error de escritura
+     */
+    public static void escribirLinea(OutputStream salida, String linea) throws IOException {
+        salida.write(linea.getBytes(StandardCharsets.UTF_8));
+        salida.write(SEPARADOR_LINEA);
+    }
+
+    /**
+     * Espera a que todas las mutaciones encoladas hasta ahora estén en disco.
+     *
+     * @throws RuntimeException si alguna escritura anterior falló
+     */
+    public void sincronizar() {
+        Mutacion barrera = new Mutacion(null, false, null, null, true);
+        encolar(barrera);
+        esperar(barrera.resultado);
+    }
+
+    /**
+     * Detiene el escritor después de escribir todas las mutaciones pendientes.
+     * Se invoca automáticamente al terminar la JVM.
+     *
+     * @throws IllegalStateException si alguna escritura falló desde el inicio, con el
+     *         último error como causa; solo la primera llamada lo lanza
+     */
+    public void cerrar() {
+        boolean primera;
+        synchronized (bloqueoCierre) {
+            primera = activo;
+            activo = false;
+        }
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (primera) {
+            verificarFallos();
+        }
+    }
+
+    /**
+     * Lanza las escrituras fallidas de todas las colas como una sola excepción.
+     *
+     * @throws IllegalStateException si alguna cola tiene escrituras fallidas
+     */
+    private void verificarFallos() {
+        StringBuilder detalle = new StringBuilder();
+        long total = 0;
+        RuntimeException ultimo = null;
+        for (ColaEscritura cola : getColas()) {
+            long fallos = cola.getFallos();
+            if (fallos > 0) {
+                detalle.append(detalle.length() == 0 ? "" : ", ").append(cola.getNombre()).append(": ").append(fallos);
+                total += fallos;
+                ultimo = cola.getUltimoError();
+            }
+        }
+        if (total > 0) {
+            throw new IllegalStateException(
+                "No se pudieron escribir " + total + " operaciones (" + detalle + ")", ultimo
+            );
+        }
+    }
+
+    /**
+     * Encola una mutación de una cola de escritura, aplicando su contrapresión.
+     *
+     * @param cola Cola del DAO que encola
+     * @param archivo Archivo destino
+     * @param reescritura Si la mutación reemplaza el archivo completo
+     * @param contenido Contenido a escribir
+     * @return Futuro de la mutación
+     * @throws IllegalStateException si el escritor ya fue cerrado o la cola rechaza la operación
+     */
+    CompletableFuture<Void> encolar(ColaEscritura cola, File archivo, boolean reescritura, Contenido contenido) {
+        boolean reservada = cola.reservar();
+        Mutacion mutacion = new Mutacion(archivo, reescritura, contenido, cola, reservada);
+        try {
+            encolar(mutacion);
+        } catch (RuntimeException e) {
+            cola.cancelar(reservada);
+            throw e;
+        }
+        return mutacion.resultado;
+    }
+
+    /**
+     * Entrega una mutación al hilo escritor.
+     *
+     * @param mutacion Mutación a encolar
+     * @throws IllegalStateException si el escritor ya fue cerrado
+     */
+    private void encolar(Mutacion mutacion) {
+        synchronized (bloqueoCierre) {
+            if (!activo) {
+                throw new IllegalStateException("El escritor de persistencia está cerrado");
+            }
+            pendientes.add(mutacion);
+        }
+    }
+
+    /**
+     * Espera el resultado de una mutación si el modo de durabilidad es SINCRONA, o si
+     * su cola estaba llena y la degradó a escritura síncrona.
+     * Permite a los DAOs encolar dentro de una sección crítica y esperar fuera de ella.
+     *
+     * @param resultado Futuro de la mutación
+     * @throws RuntimeException si la escritura falló y había que esperarla
+     */
+    public void completar(CompletableFuture<Void> resultado) {
+        if (durabilidad == ModoDurabilidad.SINCRONA
+                || (resultado instanceof Resultado && ((Resultado) resultado).sincrona)) {
+            esperar(resultado);
+        }
+    }
+
+    /**
+     * Espera el resultado de una mutación.
+     *
+     * @param resultado Futuro de la mutación
+     * @throws RuntimeException si la escritura falló
+     */
+    private static void esperar(CompletableFuture<Void> resultado) {
+        try {
+            resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido mientras se esperaba la escritura en disco", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new RuntimeException(causa);
+        }
+    }
+
+    /**
+     * Ciclo principal del hilo escritor.
+     * Forma lotes con las mutaciones pendientes y los escribe en disco.
+     */
+    private void ejecutar() {
+        List<Mutacion> lote = new ArrayList<>();
+        while (activo || !pendientes.isEmpty()) {
+            try {
+                Mutacion primera = pendientes.poll(50, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+
+                // Esperar más mutaciones hasta llenar el lote o agotar la ventana
+                long limite = System.nanoTime() + ventanaNanos;
+                while (lote.size() < loteMaximo) {
+                    long restante = limite - System.nanoTime();
+                    Mutacion siguiente = restante > 0
+                            ? pendientes.poll(restante, TimeUnit.NANOSECONDS)
+                            : pendientes.poll();
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+
+                escribirLote(lote);
+            } catch (InterruptedException e) {
+                // El escritor solo se detiene mediante cerrar()
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Escribe un lote de mutaciones agrupándolas por archivo.
+     *
+     * @param lote Mutaciones a escribir, en orden de llegada
+     */
+    private void escribirLote(List<Mutacion> lote) {
+        Map<File, List<Mutacion>> porArchivo = new LinkedHashMap<>();
+        List<Mutacion> barreras = new ArrayList<>();
+        for (Mutacion mutacion : lote) {
+            if (mutacion.archivo == null) {
+                barreras.add(mutacion);
+            } else {
+                porArchivo.computeIfAbsent(mutacion.archivo, k -> new ArrayList<>()).add(mutacion);
+            }
+        }
+
+        for (Map.Entry<File, List<Mutacion>> entrada : porArchivo.entrySet()) {
+            List<Mutacion> mutaciones = entrada.getValue();
+            try {
+                escribirArchivo(entrada.getKey(), mutaciones);
+                for (Mutacion mutacion : mutaciones) {
+                    terminar(mutacion, null);
+                }
+            } catch (IOException | RuntimeException e) {
+                RuntimeException error = new RuntimeException(
+                    "Error al escribir en el archivo: " + entrada.getKey().getPath(), e
+                );
+                for (Mutacion mutacion : mutaciones) {
+                    terminar(mutacion, error);
+                }
+            }
+        }
+
+        for (Mutacion barrera : barreras) {
+            terminar(barrera, null);
+        }
+
+        lotesEscritos.incrementAndGet();
+        mutacionesEscritas.addAndGet(lote.size() - barreras.size());
+    }
+
+    /**
+     * Completa el futuro de una mutación, libera su lugar en la cola y, si falló,
+     * registra el error en ella.
+     *
+     * @param mutacion Mutación terminada
+     * @param error Error de escritura, o null si se escribió correctamente
+     */
+    private static void terminar(Mutacion mutacion, RuntimeException error) {
+        if (mutacion.cola != null) {
+            if (error != null) {
+                mutacion.cola.registrarFallo(error);
+            }
+            mutacion.cola.liberar(mutacion.reservada, System.nanoTime() - mutacion.encolada);
+        }
+        if (error == null) {
+            mutacion.resultado.complete(null);
+        } else {
+            mutacion.resultado.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Aplica las mutaciones de un lote sobre un archivo con una única sincronización.
+     *
+     * Si hay una reescritura, las mutaciones anteriores a ella se descartan y el
+     * archivo se reemplaza de forma atómica mediante un archivo temporal.
+     *
+     * @param archivo Archivo destino
+     * @param mutaciones Mutaciones del archivo, en orden de llegada
+     * @throws IOException si ocurre un error de escritura
+     */
+    private void escribirArchivo(File archivo, List<Mutacion> mutaciones) throws IOException {
+        int ultimaReescritura = -1;
+        for (int i = 0; i < mutaciones.size(); i++) {
+            if (mutaciones.get(i).reescritura) {
+                ultimaReescritura = i;
+            }
+        }
+
+        // Crear directorio si no existe
+        if (archivo.getParentFile() != null && !archivo.getParentFile().exists()) {
+            archivo.getParentFile().mkdirs();
+        }
+
+        Path destino = archivo.toPath();
+        if (ultimaReescritura < 0) {
+            try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                escribirEnCanal(canal, mutaciones, 0);
+            }
+            return;
+        }
+
+        final int desde = ultimaReescritura;
+        reemplazarArchivo(archivo, salida -> {
+            for (int i = desde; i < mutaciones.size(); i++) {
+                mutaciones.get(i).contenido.escribir(salida);
+            }
+        });
+    }
+
+    /**
+     * Reemplaza un archivo de forma atómica: escribe un archivo temporal, lo sincroniza
+     * con el disco y lo renombra sobre el destino. Un lector nunca ve un archivo a medias.
+     *
+     * @param archivo Archivo destino
+     * @param contenido Contenido a escribir
+     * @throws IOException si ocurre un error de escritura
+     */
+    static void reemplazarArchivo(File archivo, Contenido contenido) throws IOException {
+        Path destino = archivo.toPath();
+        Path temporal = destino.resolveSibling(archivo.getName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            escribirEnCanal(canal, contenido);
+        }
+        try {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Escribe las mutaciones en un canal y lo sincroniza con el disco.
+     *
+     * @param canal Canal abierto para escritura
+     * @param mutaciones Mutaciones del archivo
+     * @param desde Índice de la primera mutación a escribir
+     * @throws IOException si ocurre un error de escritura
+     */
+    private void escribirEnCanal(FileChannel canal, List<Mutacion> mutaciones, int desde) throws IOException {
+        escribirEnCanal(canal, salida -> {
+            for (int i = desde; i < mutaciones.size(); i++) {
+                mutaciones.get(i).contenido.escribir(salida);
+            }
+        });
+    }
+
+    /**
+     * Escribe un contenido en un canal y lo sincroniza con el disco.
+     *
+     * @param canal Canal abierto para escritura
+     * @param contenido Contenido a escribir
+     * @throws IOException si ocurre un error de escritura
+     */
+    private static void escribirEnCanal(FileChannel canal, Contenido contenido) throws IOException {
+        OutputStream salida = new BufferedOutputStream(Channels.newOutputStream(canal), 65536);
+        contenido.escribir(salida);
+        salida.flush();
+        canal.force(true);
+    }
+
+    /**
+     * Establece el modo de durabilidad de las operaciones.
+     *
+     * @param durabilidad Nuevo modo de durabilidad
+     */
+    public void setModoDurabilidad(ModoDurabilidad durabilidad) {
+        this.durabilidad = durabilidad;
+    }
+
+    /**
+     * Obtiene el modo de durabilidad de las operaciones.
+     *
+     * @return Modo de durabilidad actual
+     */
+    public ModoDurabilidad getModoDurabilidad() {
+        return durabilidad;
+    }
+
+    /**
+     * Obtiene la cantidad de lotes escritos desde el inicio.
+     *
+     * @return Número de lotes escritos
+     */
+    public long getLotesEscritos() {
+        return lotesEscritos.get();
+    }
+
+    /**
+     * Obtiene la cantidad de mutaciones de todas las colas que esperan al hilo escritor.
+     *
+     * @return Mutaciones pendientes
+     */
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    /**
+     * Obtiene la cantidad de mutaciones escritas desde el inicio.
+     *
+     * @return Número de mutaciones escritas
+     */
+    public long getMutacionesEscritas() {
+        return mutacionesEscritas.get();
+    }
+
+    /**
+     * Contenido de una mutación o de un archivo a reemplazar.
+     * Se escribe en el hilo escritor sobre un flujo con búfer.
+     */
+    @FunctionalInterface
+    public interface Contenido {
+
+        /**
+         * Escribe el contenido en el flujo de salida.
+         *
+         * @param salida Flujo de salida (no debe cerrarse)
+         * @throws IOException si ocurre un error de escritura
+         */
+        void escribir(OutputStream salida) throws IOException;
+    }
+
+    /**
+     * Futuro de una mutación. Indica si quien la encoló debe esperarla aunque la
+     * durabilidad sea ASINCRONA (cola llena con política SINCRONA).
+     */
+    private static final class Resultado extends CompletableFuture<Void> {
+        private final boolean sincrona;
+
+        Resultado(boolean sincrona) {
+            this.sincrona = sincrona;
+        }
+    }
+
+    /**
+     * Mutación pendiente sobre un archivo.
+     * Una mutación sin archivo actúa como barrera para {@link #sincronizar()}.
+     */
+    private static class Mutacion {
+        private final File archivo;
+        private final boolean reescritura;
+        private final Contenido contenido;
+        private final ColaEscritura cola;
+        private final boolean reservada;
+        private final long encolada;
+        private final Resultado resultado;
+
+        Mutacion(File archivo, boolean reescritura, Contenido contenido, ColaEscritura cola, boolean reservada) {
+            this.archivo = archivo == null ? null : archivo.getAbsoluteFile();
+            this.reescritura = reescritura;
+            this.contenido = contenido;
+            this.cola = cola;
+            this.reservada = reservada;
+            this.encolada = System.nanoTime();
+            this.resultado = new Resultado(!reservada);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.upc.persistencia;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Clase EsquemaEntidad
+ * Describe cómo un {@link MotorAlmacenamiento} identifica, serializa y ubica en disco
+ * las entidades de un DAO.
+ *
+ * Los archivos se derivan de la ruta base: {@code data/vehiculos.txt} (CSV),
+ * {@code data/vehiculos.bin} (binario) y {@code data/vehiculos.log} (bitácora).
+ *
+ * @param <T> Tipo de entidad
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public final class EsquemaEntidad<T> {
+
+    /**
+     * Escribe una entidad como registro binario.
+     *
+     * @param <T> Tipo de entidad
+     */
+    @FunctionalInterface
+    public interface SerializadorBinario<T> {
+
+        /**
+         * Escribe la entidad en la salida binaria.
+         *
+         * @param salida Escritor binario
+         * @param entidad Entidad a serializar
+         * @throws IOException si ocurre un error de escritura
+         */
+        void serializar(CodecBinario.Salida salida, T entidad) throws IOException;
+    }
+
+    private final String nombre;
+    private final String rutaBase;
+    private final FormatoArchivo formato;
+    private final Function<T, String> clave;
+    private final Function<T, String> serializador;
+    private final Function<String, T> deserializador;
+    private final byte tipoBinario;
+    private final SerializadorBinario<T> serializadorBinario;
+    private final Function<CodecBinario.Entrada, T> deserializadorBinario;
+
+    /**
+     * Constructor del esquema.
+     *
+     * @param nombre Nombre en plural de la entidad; también nombra su cola de escritura
+     * @param rutaBase Ruta de los archivos sin extensión (por ejemplo "data/vehiculos")
+     * @param formato Formato del archivo completo
+     * @param clave Función que obtiene la clave de una entidad
+     * @param serializador Conversión de una entidad a línea CSV
+     * @param deserializador Conversión de una línea CSV a entidad
+     * @param tipoBinario Tipo de archivo binario ({@link CodecBinario#TIPO_VEHICULOS}, etc.)
+     * @param serializadorBinario Escritura de una entidad como registro binario
+     * @param deserializadorBinario Lectura del registro binario actual
+     */
+    public EsquemaEntidad(String nombre, String rutaBase, FormatoArchivo formato, Function<T, String> clave,
+                          Function<T, String> serializador, Function<String, T> deserializador,
+                          byte tipoBinario, SerializadorBinario<T> serializadorBinario,
+                          Function<CodecBinario.Entrada, T> deserializadorBinario) {
+        this.nombre = nombre;
+        this.rutaBase = rutaBase;
+        this.formato = formato;
+        this.clave = clave;
+        this.serializador = serializador;
+        this.deserializador = deserializador;
+        this.tipoBinario = tipoBinario;
+        this.serializadorBinario = serializadorBinario;
+        this.deserializadorBinario = deserializadorBinario;
+    }
+
+    /**
+     * Obtiene el nombre en plural de la entidad.
+     *
+     * @return Nombre de la entidad
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene la ruta base de los archivos.
+     *
+     * @return Ruta sin extensión
+     */
+    public String getRutaBase() {
+        return rutaBase;
+    }
+
+    /**
+     * Obtiene el formato del archivo completo.
+     *
+     * @return Formato configurado
+     */
+    public FormatoArchivo getFormato() {
+        return formato;
+    }
+
+    /**
+     * Obtiene la clave de una entidad.
+     *
+     * @param entidad Entidad
+     * @return Clave de la entidad
+     */
+    public String clave(T entidad) {
+        return clave.apply(entidad);
+    }
+
+    /**
+     * Convierte una entidad a línea CSV.
+     *
+     * @param entidad Entidad
+     * @return Línea CSV
+     */
+    public String serializar(T entidad) {
+        return serializador.apply(entidad);
+    }
+
+    /**
+     * Convierte una línea CSV a entidad.
+     *
+     * @param linea Línea CSV
+     * @return Entidad
+     * @throws IllegalArgumentException si la línea es inválida
+     */
+    public T deserializar(String linea) {
+        return deserializador.apply(linea);
+    }
+
+    /**
+     * Obtiene el tipo de archivo binario de la entidad.
+     *
+     * @return Tipo de archivo binario
+     */
+    public byte getTipoBinario() {
+        return tipoBinario;
+    }
+
+    /**
+     * Escribe una entidad como registro binario.
+     *
+     * @param salida Escritor binario
+     * @param entidad Entidad
+     * @throws IOException si ocurre un error de escritura
+     */
+    public void serializarBinario(CodecBinario.Salida salida, T entidad) throws IOException {
+        serializadorBinario.serializar(salida, entidad);
+    }
+
+    /**
+     * Lee el registro binario actual como entidad.
+     *
+     * @param entrada Lector binario posicionado en un registro
+     * @return Entidad
+     * @throws IllegalArgumentException si el registro es inválido
+     */
+    public T deserializarBinario(CodecBinario.Entrada entrada) {
+        return deserializadorBinario.apply(entrada);
+    }
+}
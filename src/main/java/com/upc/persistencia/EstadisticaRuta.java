@@ -0,0 +1,80 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.DiccionarioCiudades;
+
+/**
+ * Clase EstadisticaRuta
+ * Cantidad de tickets, ingresos y distancia de una ruta (origen, destino).
+ *
+ * <p>Es una copia de los contadores de {@link IndiceRutas} en el momento de la
+ * consulta: no cambia con las ventas posteriores.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public final class EstadisticaRuta {
+
+    private final int idOrigen;
+    private final int idDestino;
+    private final int cantidad;
+    private final double ingresos;
+    private final double distanciaTotal;
+
+    /**
+     * Constructor de la estadística.
+     *
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @param cantidad Tickets vendidos en la ruta
+     * @param ingresos Suma de los precios finales
+     * @param distanciaTotal Suma de las distancias en kilómetros
+     */
+    EstadisticaRuta(int idOrigen, int idDestino, int cantidad, double ingresos, double distanciaTotal) {
+        this.idOrigen = idOrigen;
+        this.idDestino = idDestino;
+        this.cantidad = cantidad;
+        this.ingresos = ingresos;
+        this.distanciaTotal = distanciaTotal;
+    }
+
+    public String getOrigen() {
+        return DiccionarioCiudades.nombre(idOrigen);
+    }
+
+    public String getDestino() {
+        return DiccionarioCiudades.nombre(idDestino);
+    }
+
+    public int getIdOrigen() {
+        return idOrigen;
+    }
+
+    public int getIdDestino() {
+        return idDestino;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public double getIngresos() {
+        return ingresos;
+    }
+
+    public double getDistanciaTotal() {
+        return distanciaTotal;
+    }
+
+    /**
+     * @return Precio final promedio, o 0 si no hay tickets
+     */
+    public double getPrecioPromedio() {
+        return cantidad == 0 ? 0 : ingresos / cantidad;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s -> %s: %d tickets, $%.2f", getOrigen(), getDestino(), cantidad, ingresos);
+    }
+}
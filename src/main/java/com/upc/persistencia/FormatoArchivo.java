@@ -0,0 +1,100 @@
+package com.upc.persistencia;
+
+/**
+ * Enumeración FormatoArchivo
+ * Define el formato de los archivos de datos de cada DAO.
+ *
+ * El formato se selecciona por DAO mediante las propiedades del sistema
+ * {@code barceloneta.tickets.formato}, {@code barceloneta.pasajeros.formato} y
+ * {@code barceloneta.vehiculos.formato}. Si no se especifica, se usa CSV.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public enum FormatoArchivo {
+    /**
+     * Texto CSV en UTF-8, una línea por registro (extensión .txt)
+     */
+    CSV("csv", ".txt"),
+
+    /**
+     * Registros binarios con prefijo de longitud (extensión .bin), ver {@link CodecBinario}
+     */
+    BINARIO("binario", ".bin");
+
+    /**
+     * Propiedad del sistema con el formato de los tickets
+     */
+    public static final String PROPIEDAD_TICKETS = "barceloneta.tickets.formato";
+
+    /**
+     * Propiedad del sistema con el formato de los pasajeros
+     */
+    public static final String PROPIEDAD_PASAJEROS = "barceloneta.pasajeros.formato";
+
+    /**
+     * Propiedad del sistema con el formato de los vehículos
+     */
+    public static final String PROPIEDAD_VEHICULOS = "barceloneta.vehiculos.formato";
+
+    private final String clave;
+    private final String extension;
+
+    /**
+     * Constructor del enum FormatoArchivo.
+     *
+     * @param clave Clave usada en la configuración
+     * @param extension Extensión de los archivos en este formato
+     */
+    FormatoArchivo(String clave, String extension) {
+        this.clave = clave;
+        this.extension = extension;
+    }
+
+    /**
+     * Obtiene el formato configurado en la propiedad indicada.
+     *
+     * @param propiedad Nombre de la propiedad del sistema
+     * @return Formato configurado, o CSV si no se especificó ninguno
+     * @throws IllegalArgumentException si el valor configurado es desconocido
+     */
+    public static FormatoArchivo desdeConfiguracion(String propiedad) {
+        return desdeClave(System.getProperty(propiedad, CSV.clave));
+    }
+
+    /**
+     * Convierte una clave de configuración en el formato correspondiente.
+     *
+     * @param clave Clave del formato (sin distinguir mayúsculas)
+     * @return Formato correspondiente
+     * @throws IllegalArgumentException si la clave es desconocida
+     */
+    public static FormatoArchivo desdeClave(String clave) {
+        for (FormatoArchivo formato : values()) {
+            if (formato.clave.equalsIgnoreCase(clave.trim())) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de archivo desconocido: " + clave);
+    }
+
+    /**
+     * Obtiene la ruta de un archivo de datos en este formato.
+     *
+     * @param rutaSinExtension Ruta del archivo sin extensión (por ejemplo "data/tickets")
+     * @return Ruta con la extensión del formato
+     */
+    public String ruta(String rutaSinExtension) {
+        return rutaSinExtension + extension;
+    }
+
+    /**
+     * Obtiene la clave de configuración del formato.
+     *
+     * @return Clave del formato
+     */
+    public String getClave() {
+        return clave;
+    }
+}
@@ -0,0 +1,136 @@
+package com.upc.persistencia;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Enumeración GranularidadParticion
+ * Define el período que cubre cada partición de tickets en modo
+ * {@link ModoAlmacenamientoTickets#PARTICIONADO}.
+ *
+ * La granularidad se selecciona mediante la propiedad del sistema
+ * {@code barceloneta.tickets.particion}. Si no se especifica, se usa MES.
+ *
+ * La clave de una partición es su fecha de inicio en ISO ({@code 2025-11} o
+ * {@code 2025-11-08}), de modo que el orden alfabético de las claves coincide con el
+ * orden cronológico. El período se deduce de la longitud de la clave, así que las
+ * particiones escritas con otra granularidad se siguen leyendo correctamente.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public enum GranularidadParticion {
+    /**
+     * Una partición por mes calendario
+     */
+    MES("mes", "Mensual"),
+
+    /**
+     * Una partición por día
+     */
+    DIA("dia", "Diaria");
+
+    /**
+     * Nombre de la propiedad del sistema que selecciona la granularidad
+     */
+    public static final String PROPIEDAD = "barceloneta.tickets.particion";
+
+    private final String clave;
+    private final String descripcion;
+
+    /**
+     * Constructor del enum GranularidadParticion.
+     *
+     * @param clave Clave usada en la configuración
+     * @param descripcion Descripción de la granularidad
+     */
+    GranularidadParticion(String clave, String descripcion) {
+        this.clave = clave;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Obtiene la granularidad configurada mediante la propiedad del sistema.
+     *
+     * @return Granularidad configurada, o MES si no se especificó ninguna
+     * @throws IllegalArgumentException si el valor configurado es desconocido
+     */
+    public static GranularidadParticion desdeConfiguracion() {
+        String valor = System.getProperty(PROPIEDAD, MES.clave);
+        for (GranularidadParticion granularidad : values()) {
+            if (granularidad.clave.equalsIgnoreCase(valor.trim())) {
+                return granularidad;
+            }
+        }
+        throw new IllegalArgumentException("Granularidad de partición desconocida: " + valor);
+    }
+
+    /**
+     * Obtiene la clave de la partición que contiene una fecha.
+     *
+     * @param fecha Fecha del ticket
+     * @return Clave de la partición ("2025-11" o "2025-11-08")
+     */
+    public String claveParticion(LocalDateTime fecha) {
+        String dia = fecha.toLocalDate().toString();
+        return this == MES ? dia.substring(0, 7) : dia;
+    }
+
+    /**
+     * Obtiene el primer día cubierto por una partición.
+     *
+     * @param claveParticion Clave de la partición
+     * @return Fecha de inicio (incluida)
+     * @throws IllegalArgumentException si la clave no corresponde a una partición
+     */
+    public static LocalDate inicio(String claveParticion) {
+        try {
+            if (claveParticion.length() == 7) {
+                return LocalDate.parse(claveParticion + "-01");
+            }
+            if (claveParticion.length() == 10) {
+                return LocalDate.parse(claveParticion);
+            }
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Clave de partición inválida: " + claveParticion, e);
+        }
+        throw new IllegalArgumentException("Clave de partición inválida: " + claveParticion);
+    }
+
+    /**
+     * Obtiene el día siguiente al último cubierto por una partición.
+     *
+     * @param claveParticion Clave de la partición
+     * @return Fecha de fin (excluida)
+     * @throws IllegalArgumentException si la clave no corresponde a una partición
+     */
+    public static LocalDate fin(String claveParticion) {
+        LocalDate inicio = inicio(claveParticion);
+        return claveParticion.length() == 7 ? inicio.plusMonths(1) : inicio.plusDays(1);
+    }
+
+    /**
+     * Obtiene la clave de configuración de la granularidad.
+     *
+     * @return Clave de la granularidad
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * Obtiene la descripción de la granularidad.
+     *
+     * @return Descripción de la granularidad
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
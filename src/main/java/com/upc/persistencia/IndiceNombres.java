@@ -0,0 +1,753 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Pasajero;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clase IndiceNombres
+ * Índice de los pasajeros por las palabras de su nombre, para buscarlos cuando solo se
+ * conoce una parte del nombre o se escribió con errores.
+ *
+ * <p>Los nombres se normalizan sin tildes ni mayúsculas ("José Peña" queda como
+ * "jose pena") y se dividen en palabras. Las palabras distintas forman un árbol de
+ * prefijos (trie) cuyos nodos terminales guardan las cédulas de los pasajeros que las
+ * usan; cada nodo cuenta las cédulas de su subárbol, lo que permite estimar sin recorrer
+ * cuántos pasajeros coinciden con un prefijo. Para tolerar errores de escritura, el
+ * árbol se recorre calculando fila por fila la distancia de edición (con transposiciones)
+ * contra la palabra buscada, y se abandona cada rama en cuanto supera los errores
+ * permitidos.</p>
+ *
+ * <p>Cada palabra de la búsqueda debe coincidir con alguna palabra del nombre. El costo
+ * de una coincidencia es 0 si la palabra es igual, 1 si es un prefijo y 2 más la
+ * distancia de edición si tiene errores; los resultados se ordenan por la suma de los
+ * costos. Las palabras candidatas de la búsqueda más selectiva se recorren de menor a
+ * mayor costo, y la búsqueda termina en cuanto ningún candidato restante puede mejorar
+ * los resultados ya reunidos, así que no depende de la cantidad de pasajeros.</p>
+ *
+ * <p>Lo mantiene {@link PasajeroDAO} en cada operación; es seguro para hilos: las
+ * búsquedas comparten un bloqueo de lectura y los cambios toman el de escritura.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+class IndiceNombres {
+
+    /**
+     * Longitud mínima de una palabra de búsqueda para tolerar errores de escritura
+     */
+    static final int LONGITUD_MINIMA_APROXIMADA = 3;
+
+    /**
+     * Costo de una palabra igual a la buscada
+     */
+    static final int COSTO_EXACTO = 0;
+
+    /**
+     * Costo de una palabra que empieza por la buscada
+     */
+    static final int COSTO_PREFIJO = 1;
+
+    /**
+     * Costo base de una palabra con errores, al que se suma la distancia de edición
+     */
+    static final int COSTO_APROXIMADO = 2;
+
+    private static final char[] SIN_LETRAS = new char[0];
+    private static final Nodo[] SIN_HIJOS = new Nodo[0];
+
+    /**
+     * Raíz del árbol de prefijos de las palabras
+     */
+    private final Nodo raiz;
+
+    /**
+     * Palabras normalizadas del nombre de cada pasajero (cédula -> palabras)
+     */
+    private final Map<String, String[]> palabrasPorCedula;
+
+    private final ReentrantReadWriteLock bloqueo;
+
+    /**
+     * Constructor de un índice vacío.
+     */
+    IndiceNombres() {
+        this.raiz = new Nodo();
+        this.palabrasPorCedula = new HashMap<>();
+        this.bloqueo = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Agrega un pasajero o reemplaza las palabras con que estaba indexado. Solo se tocan
+     * las palabras que cambiaron, así que actualizar un pasajero sin cambiar su nombre no
+     * altera el índice ni el orden de registro.
+     *
+     * @param pasajero Pasajero guardado o actualizado
+     */
+    void agregar(Pasajero pasajero) {
+        String cedula = pasajero.getCedula();
+        String[] palabras = normalizar(pasajero.getNombre());
+        bloqueo.writeLock().lock();
+        try {
+            String[] anteriores = palabrasPorCedula.get(cedula);
+            if (anteriores != null) {
+                for (String anterior : anteriores) {
+                    if (buscarEn(palabras, anterior) == null) {
+                        quitarPalabra(anterior, cedula);
+                    }
+                }
+            }
+            String[] canonicas = new String[palabras.length];
+            for (int i = 0; i < palabras.length; i++) {
+                String anterior = anteriores != null ? buscarEn(anteriores, palabras[i]) : null;
+                canonicas[i] = anterior != null ? anterior : agregarPalabra(palabras[i], cedula);
+            }
+            palabrasPorCedula.put(cedula, canonicas);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un pasajero del índice.
+     *
+     * @param cedula Cédula del pasajero
+     */
+    void quitar(String cedula) {
+        bloqueo.writeLock().lock();
+        try {
+            String[] palabras = palabrasPorCedula.remove(cedula);
+            if (palabras != null) {
+                for (String palabra : palabras) {
+                    quitarPalabra(palabra, cedula);
+                }
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina todos los pasajeros del índice.
+     */
+    void limpiar() {
+        bloqueo.writeLock().lock();
+        try {
+            raiz.letras = SIN_LETRAS;
+            raiz.hijos = SIN_HIJOS;
+            raiz.cantidad = 0;
+            palabrasPorCedula.clear();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca pasajeros por su nombre o parte de él.
+     *
+     * @param texto Palabras o prefijos del nombre, en cualquier orden, con o sin tildes
+     * @param limite Cantidad máxima de resultados
+     * @return Cédulas de los pasajeros, de la mejor coincidencia a la peor; a igual costo,
+     *         primero las palabras más cortas y, entre los de una misma palabra, en orden de registro
+     */
+    List<String> buscar(String texto, int limite) {
+        String[] consulta = normalizar(texto);
+        List<String> resultado = new ArrayList<>();
+        if (consulta.length == 0 || limite <= 0) {
+            return resultado;
+        }
+        bloqueo.readLock().lock();
+        try {
+            // Guía la búsqueda la palabra con menos pasajeros candidatos
+            Termino[] terminos = new Termino[consulta.length];
+            Termino guia = null;
+            long menor = Long.MAX_VALUE;
+            for (int i = 0; i < consulta.length; i++) {
+                terminos[i] = new Termino(consulta[i]);
+                long estimacion = terminos[i].estimacion();
+                if (estimacion < menor) {
+                    guia = terminos[i];
+                    menor = estimacion;
+                }
+            }
+            // Lo menos que suman las demás palabras: acota cuánto puede mejorar un candidato
+            int minimoResto = 0;
+            for (Termino termino : terminos) {
+                int minimo = termino.costoMinimo();
+                if (minimo < 0) {
+                    return resultado; // Una palabra no coincide con ningún pasajero
+                }
+                if (termino != guia) {
+                    minimoResto += minimo;
+                }
+            }
+
+            // La cima es el peor de los conservados
+            PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(Math.min(limite, 1024) + 1,
+                    Coincidencia.ORDEN.reversed());
+            Set<String> vistas = new HashSet<>();
+            long orden = 0;
+            Iterator<Candidata> candidatas = guia.candidatas();
+            recorrido:
+            while (candidatas.hasNext()) {
+                Candidata candidata = candidatas.next();
+                if (mejores.size() == limite && mejores.peek().costo <= candidata.costo + minimoResto) {
+                    break;
+                }
+                for (String cedula : candidata.nodo.cedulas) {
+                    if (!vistas.add(cedula)) {
+                        continue; // Ya se vio con una palabra de menor costo
+                    }
+                    int costo = costoResto(terminos, guia, palabrasPorCedula.get(cedula));
+                    if (costo < 0) {
+                        continue;
+                    }
+                    Coincidencia coincidencia = new Coincidencia(cedula, candidata.costo + costo, orden++);
+                    if (mejores.size() < limite) {
+                        mejores.add(coincidencia);
+                    } else if (coincidencia.costo < mejores.peek().costo) {
+                        mejores.poll();
+                        mejores.add(coincidencia);
+                    }
+                    if (mejores.size() == limite && mejores.peek().costo <= candidata.costo + minimoResto) {
+                        break recorrido; // Las siguientes cuestan lo mismo o más y llegaron después
+                    }
+                }
+            }
+            List<Coincidencia> ordenadas = new ArrayList<>(mejores);
+            ordenadas.sort(Coincidencia.ORDEN);
+            for (Coincidencia coincidencia : ordenadas) {
+                resultado.add(coincidencia.cedula);
+            }
+            return resultado;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de pasajeros indexados.
+     *
+     * @return Número de pasajeros
+     */
+    int contar() {
+        bloqueo.readLock().lock();
+        try {
+            return palabrasPorCedula.size();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza un texto para indexarlo o buscarlo: sin tildes ni diacríticos, en
+     * minúsculas y dividido en palabras de letras y dígitos, sin repetidas.
+     *
+     * @param texto Texto a normalizar (puede ser null)
+     * @return Palabras normalizadas en el orden del texto
+     */
+    static String[] normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return new String[0];
+        }
+        String descompuesto = Normalizer.isNormalized(texto, Normalizer.Form.NFD)
+                ? texto : Normalizer.normalize(texto, Normalizer.Form.NFD);
+        Set<String> palabras = new LinkedHashSet<>();
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue; // Tilde o diacrítico separado de su letra
+            }
+            if (Character.isLetterOrDigit(c)) {
+                palabra.append(Character.toLowerCase(c));
+            } else if (palabra.length() > 0) {
+                palabras.add(palabra.toString());
+                palabra.setLength(0);
+            }
+        }
+        if (palabra.length() > 0) {
+            palabras.add(palabra.toString());
+        }
+        return palabras.toArray(new String[0]);
+    }
+
+    /**
+     * Calcula el costo de una palabra del nombre para una palabra de la búsqueda.
+     *
+     * @param buscada Palabra de la búsqueda, normalizada
+     * @param palabra Palabra del nombre, normalizada
+     * @return Costo de la coincidencia, o -1 si no coinciden
+     */
+    static int costo(String buscada, String palabra) {
+        if (palabra.startsWith(buscada)) {
+            return palabra.length() == buscada.length() ? COSTO_EXACTO : COSTO_PREFIJO;
+        }
+        if (buscada.length() < LONGITUD_MINIMA_APROXIMADA) {
+            return -1;
+        }
+        int maximo = distanciaMaxima(buscada);
+        int distancia = distanciaPrefijo(buscada, palabra, maximo);
+        return distancia <= maximo ? COSTO_APROXIMADO + distancia : -1;
+    }
+
+    /**
+     * Errores tolerados según la longitud de la palabra buscada.
+     */
+    private static int distanciaMaxima(String buscada) {
+        return buscada.length() <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Calcula la menor distancia de edición (inserción, borrado, sustitución o
+     * transposición de letras vecinas) entre la palabra buscada y algún prefijo de la
+     * palabra del nombre, de modo que "gonz" con errores también encuentra "gonzalez".
+     *
+     * @param buscada Palabra de la búsqueda
+     * @param palabra Palabra del nombre
+     * @param maximo Distancia a partir de la cual el resultado no interesa
+     * @return Distancia, o {@code maximo + 1} si es mayor que el máximo
+     */
+    static int distanciaPrefijo(String buscada, String palabra, int maximo) {
+        int filas = buscada.length();
+        int columnas = Math.min(palabra.length(), filas + maximo);
+        int[] anterior2 = new int[columnas + 1];
+        int[] anterior = new int[columnas + 1];
+        int[] actual = new int[columnas + 1];
+        for (int j = 0; j <= columnas; j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= filas; i++) {
+            actual[0] = i;
+            int minimoFila = i;
+            char a = buscada.charAt(i - 1);
+            for (int j = 1; j <= columnas; j++) {
+                char b = palabra.charAt(j - 1);
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1),
+                        anterior[j - 1] + (a == b ? 0 : 1));
+                if (i > 1 && j > 1 && a == palabra.charAt(j - 2) && buscada.charAt(i - 2) == b) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] libre = anterior2;
+            anterior2 = anterior;
+            anterior = actual;
+            actual = libre;
+        }
+        // Cualquier prefijo de la palabra sirve: el mejor de la última fila
+        int mejor = maximo + 1;
+        for (int j = Math.max(0, filas - maximo); j <= columnas; j++) {
+            mejor = Math.min(mejor, anterior[j]);
+        }
+        return mejor;
+    }
+
+    /**
+     * Suma los costos de las palabras de la búsqueda distintas de la guía.
+     *
+     * @return Costo total, o -1 si alguna palabra de la búsqueda no coincide
+     */
+    private static int costoResto(Termino[] terminos, Termino guia, String[] palabras) {
+        int total = 0;
+        for (Termino termino : terminos) {
+            if (termino == guia) {
+                continue;
+            }
+            // Las comparaciones de prefijo son baratas y ganan a cualquier error
+            int mejor = -1;
+            for (String palabra : palabras) {
+                if (palabra.startsWith(termino.texto)) {
+                    mejor = palabra.length() == termino.texto.length() ? COSTO_EXACTO : COSTO_PREFIJO;
+                    if (mejor == COSTO_EXACTO) {
+                        break;
+                    }
+                }
+            }
+            if (mejor < 0) {
+                for (String palabra : palabras) {
+                    int costo = costo(termino.texto, palabra);
+                    if (costo >= 0 && (mejor < 0 || costo < mejor)) {
+                        mejor = costo;
+                    }
+                }
+            }
+            if (mejor < 0) {
+                return -1;
+            }
+            total += mejor;
+        }
+        return total;
+    }
+
+    private static String buscarEn(String[] palabras, String palabra) {
+        for (String candidata : palabras) {
+            if (candidata.equals(palabra)) {
+                return candidata;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registra una palabra que el pasajero no tenía en el árbol.
+     * Debe llamarse con el bloqueo de escritura.
+     *
+     * @return La instancia de la palabra guardada en el árbol, compartida entre pasajeros
+     */
+    private String agregarPalabra(String palabra, String cedula) {
+        Nodo nodo = raiz;
+        nodo.cantidad++;
+        for (int i = 0; i < palabra.length(); i++) {
+            nodo = nodo.hijoCreando(palabra.charAt(i));
+            nodo.cantidad++;
+        }
+        if (nodo.palabra == null) {
+            nodo.palabra = palabra;
+            nodo.cedulas = new ArrayList<>(2);
+        }
+        nodo.cedulas.add(cedula);
+        return nodo.palabra;
+    }
+
+    /**
+     * Quita del árbol una palabra de un pasajero. Si la palabra queda sin pasajeros se
+     * elimina del árbol. Debe llamarse con el bloqueo de escritura.
+     */
+    private void quitarPalabra(String palabra, String cedula) {
+        Nodo[] camino = new Nodo[palabra.length() + 1];
+        camino[0] = raiz;
+        for (int i = 0; i < palabra.length(); i++) {
+            camino[i + 1] = camino[i].hijo(palabra.charAt(i));
+        }
+        Nodo terminal = camino[palabra.length()];
+        if (!terminal.cedulas.remove(cedula)) {
+            return;
+        }
+        for (Nodo paso : camino) {
+            paso.cantidad--;
+        }
+        if (terminal.cedulas.isEmpty()) {
+            terminal.palabra = null;
+            terminal.cedulas = null;
+        }
+        // Poda la rama más alta que quedó sin pasajeros
+        for (int i = 1; i <= palabra.length(); i++) {
+            if (camino[i].cantidad == 0) {
+                camino[i - 1].quitarHijo(palabra.charAt(i - 1));
+                break;
+            }
+        }
+    }
+
+    /**
+     * Palabra de la búsqueda con sus candidatas en el árbol.
+     */
+    private final class Termino {
+        private final String texto;
+        private final Nodo nodo;
+        private List<Candidata> aproximadas;
+
+        private Termino(String texto) {
+            this.texto = texto;
+            this.nodo = raiz.buscar(texto);
+        }
+
+        /**
+         * Cédulas que coinciden por prefijo o, si no hay ninguna, con errores.
+         */
+        private long estimacion() {
+            if (nodo != null) {
+                return nodo.cantidad;
+            }
+            long total = 0;
+            for (Candidata candidata : aproximadas()) {
+                total += candidata.nodo.cedulas.size();
+            }
+            return total;
+        }
+
+        /**
+         * Menor costo de la palabra en cualquier pasajero.
+         *
+         * @return Costo mínimo, o -1 si la palabra no coincide con ningún pasajero
+         */
+        private int costoMinimo() {
+            if (nodo != null) {
+                return nodo.palabra != null ? COSTO_EXACTO : COSTO_PREFIJO;
+            }
+            List<Candidata> candidatas = aproximadas();
+            return candidatas.isEmpty() ? -1 : candidatas.get(0).costo;
+        }
+
+        /**
+         * Obtiene las palabras candidatas de menor a mayor costo.
+         */
+        private Iterator<Candidata> candidatas() {
+            return new Candidatas();
+        }
+
+        /**
+         * Obtiene las palabras que no empiezan por la buscada pero coinciden con errores.
+         */
+        private List<Candidata> aproximadas() {
+            if (aproximadas != null) {
+                return aproximadas;
+            }
+            aproximadas = new ArrayList<>();
+            if (texto.length() < LONGITUD_MINIMA_APROXIMADA) {
+                return aproximadas;
+            }
+            int[] inicial = new int[texto.length() + 1];
+            for (int i = 0; i < inicial.length; i++) {
+                inicial[i] = i;
+            }
+            int maximo = distanciaMaxima(texto);
+            for (int k = 0; k < raiz.hijos.length; k++) {
+                aproximar(raiz.hijos[k], raiz.letras[k], (char) 0, null, inicial, maximo + 1, maximo);
+            }
+            aproximadas.sort(Candidata.ORDEN);
+            return aproximadas;
+        }
+
+        /**
+         * Calcula, como en {@link IndiceNombres#distanciaPrefijo(String, String, int)}, la fila de la
+         * distancia entre la palabra buscada y el prefijo que termina en el nodo, y sigue
+         * por sus hijos. La rama se abandona cuando toda la fila supera el máximo; si
+         * antes un prefijo ya quedó dentro del máximo, todas las palabras del subárbol
+         * coinciden con esa distancia.
+         *
+         * @param letra Última letra del prefijo
+         * @param letraAnterior Penúltima letra del prefijo, para las transposiciones
+         * @param filaAnterior Fila del penúltimo prefijo, o null si el prefijo tiene una letra
+         * @param fila Fila del prefijo sin la última letra
+         * @param mejor Menor distancia de los prefijos anteriores
+         */
+        private void aproximar(Nodo actual, char letra, char letraAnterior, int[] filaAnterior,
+                               int[] fila, int mejor, int maximo) {
+            if (actual == nodo) {
+                return; // Las que empiezan por la buscada ya se recorrieron sin errores
+            }
+            int[] nueva = new int[fila.length];
+            nueva[0] = fila[0] + 1;
+            int minimoFila = nueva[0];
+            for (int i = 1; i < nueva.length; i++) {
+                char a = texto.charAt(i - 1);
+                int valor = Math.min(Math.min(fila[i] + 1, nueva[i - 1] + 1),
+                        fila[i - 1] + (a == letra ? 0 : 1));
+                if (filaAnterior != null && i > 1 && a == letraAnterior && texto.charAt(i - 2) == letra) {
+                    valor = Math.min(valor, filaAnterior[i - 2] + 1);
+                }
+                nueva[i] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            mejor = Math.min(mejor, nueva[nueva.length - 1]);
+            if (minimoFila > maximo) {
+                if (mejor <= maximo) {
+                    agregarSubarbol(actual, COSTO_APROXIMADO + mejor);
+                }
+                return;
+            }
+            if (actual.palabra != null && mejor <= maximo) {
+                aproximadas.add(new Candidata(actual, COSTO_APROXIMADO + mejor));
+            }
+            for (int k = 0; k < actual.hijos.length; k++) {
+                aproximar(actual.hijos[k], actual.letras[k], letra, fila, nueva, mejor, maximo);
+            }
+        }
+
+        private void agregarSubarbol(Nodo inicio, int costo) {
+            ArrayDeque<Nodo> pendientes = new ArrayDeque<>();
+            pendientes.add(inicio);
+            while (!pendientes.isEmpty()) {
+                Nodo actual = pendientes.poll();
+                if (actual == nodo) {
+                    continue;
+                }
+                if (actual.palabra != null) {
+                    aproximadas.add(new Candidata(actual, costo));
+                }
+                Collections.addAll(pendientes, actual.hijos);
+            }
+        }
+
+        /**
+         * Recorre las palabras candidatas de menor a mayor costo: la palabra exacta, las
+         * que empiezan por ella de la más corta a la más larga (por niveles del árbol) y
+         * por último las que coinciden con errores, que se calculan solo si se llega a ellas.
+         */
+        private final class Candidatas implements Iterator<Candidata> {
+            private final ArrayDeque<Nodo> pendientes = new ArrayDeque<>();
+            private Iterator<Candidata> conErrores;
+            private Candidata siguiente;
+
+            private Candidatas() {
+                if (nodo != null) {
+                    pendientes.add(nodo);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (siguiente == null) {
+                    if (!pendientes.isEmpty()) {
+                        Nodo actual = pendientes.poll();
+                        Collections.addAll(pendientes, actual.hijos);
+                        if (actual.palabra != null) {
+                            siguiente = new Candidata(actual, actual == nodo ? COSTO_EXACTO : COSTO_PREFIJO);
+                        }
+                    } else {
+                        if (conErrores == null) {
+                            conErrores = aproximadas().iterator();
+                        }
+                        if (!conErrores.hasNext()) {
+                            return false;
+                        }
+                        siguiente = conErrores.next();
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Candidata next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Candidata candidata = siguiente;
+                siguiente = null;
+                return candidata;
+            }
+        }
+    }
+
+    /**
+     * Palabra del árbol candidata para una palabra de la búsqueda, con su costo.
+     */
+    private static final class Candidata {
+        private static final Comparator<Candidata> ORDEN = Comparator
+                .comparingInt((Candidata candidata) -> candidata.costo)
+                .thenComparingInt(candidata -> candidata.nodo.palabra.length())
+                .thenComparing(candidata -> candidata.nodo.palabra);
+
+        private final Nodo nodo;
+        private final int costo;
+
+        private Candidata(Nodo nodo, int costo) {
+            this.nodo = nodo;
+            this.costo = costo;
+        }
+    }
+
+    /**
+     * Pasajero encontrado, con su costo y el orden en que se encontró para desempatar.
+     */
+    private static final class Coincidencia {
+        private static final Comparator<Coincidencia> ORDEN = Comparator
+                .comparingInt((Coincidencia coincidencia) -> coincidencia.costo)
+                .thenComparingLong(coincidencia -> coincidencia.orden);
+
+        private final String cedula;
+        private final int costo;
+        private final long orden;
+
+        private Coincidencia(String cedula, int costo, long orden) {
+            this.cedula = cedula;
+            this.costo = costo;
+            this.orden = orden;
+        }
+    }
+
+    /**
+     * Nodo del árbol de prefijos. Los hijos se guardan en arreglos ordenados por letra,
+     * más compactos que un mapa por nodo y ya en el orden en que se recorren.
+     */
+    private static final class Nodo {
+        private char[] letras = SIN_LETRAS;
+        private Nodo[] hijos = SIN_HIJOS;
+
+        /**
+         * Cédulas en el subárbol, contando una vez por palabra
+         */
+        private int cantidad;
+
+        /**
+         * Palabra que termina en este nodo, o null
+         */
+        private String palabra;
+
+        /**
+         * Cédulas de los pasajeros con la palabra, en orden de registro, o null. Una
+         * lista ocupa bastante menos que un conjunto con millones de pasajeros; quitar una
+         * cédula la recorre, pero los cambios de nombre son raros frente a las búsquedas.
+         */
+        private List<String> cedulas;
+
+        private Nodo hijo(char letra) {
+            int posicion = Arrays.binarySearch(letras, letra);
+            return posicion >= 0 ? hijos[posicion] : null;
+        }
+
+        private Nodo hijoCreando(char letra) {
+            int posicion = Arrays.binarySearch(letras, letra);
+            if (posicion >= 0) {
+                return hijos[posicion];
+            }
+            int insercion = -posicion - 1;
+            char[] nuevasLetras = new char[letras.length + 1];
+            Nodo[] nuevosHijos = new Nodo[hijos.length + 1];
+            System.arraycopy(letras, 0, nuevasLetras, 0, insercion);
+            System.arraycopy(hijos, 0, nuevosHijos, 0, insercion);
+            System.arraycopy(letras, insercion, nuevasLetras, insercion + 1, letras.length - insercion);
+            System.arraycopy(hijos, insercion, nuevosHijos, insercion + 1, hijos.length - insercion);
+            Nodo nuevo = new Nodo();
+            nuevasLetras[insercion] = letra;
+            nuevosHijos[insercion] = nuevo;
+            letras = nuevasLetras;
+            hijos = nuevosHijos;
+            return nuevo;
+        }
+
+        private void quitarHijo(char letra) {
+            int posicion = Arrays.binarySearch(letras, letra);
+            if (posicion < 0) {
+                return;
+            }
+            char[] nuevasLetras = new char[letras.length - 1];
+            Nodo[] nuevosHijos = new Nodo[hijos.length - 1];
+            System.arraycopy(letras, 0, nuevasLetras, 0, posicion);
+            System.arraycopy(hijos, 0, nuevosHijos, 0, posicion);
+            System.arraycopy(letras, posicion + 1, nuevasLetras, posicion, letras.length - posicion - 1);
+            System.arraycopy(hijos, posicion + 1, nuevosHijos, posicion, hijos.length - posicion - 1);
+            letras = nuevasLetras.length == 0 ? SIN_LETRAS : nuevasLetras;
+            hijos = nuevosHijos.length == 0 ? SIN_HIJOS : nuevosHijos;
+        }
+
+        private Nodo buscar(String prefijo) {
+            Nodo nodo = this;
+            for (int i = 0; i < prefijo.length() && nodo != null; i++) {
+                nodo = nodo.hijo(prefijo.charAt(i));
+            }
+            return nodo;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.upc.persistencia;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Clase IndiceRutas
+ * Tickets y contadores de cada ruta, identificada por el par (origen, destino) de
+ * identificadores de {@link com.upc.modelo.DiccionarioCiudades}.
+ *
+ * <p>Cada ruta lleva la cantidad de tickets, los ingresos, la distancia total y los
+ * IDs de sus tickets en orden de registro. Los contadores se ajustan en cada venta,
+ * actualización y eliminación, así que consultar una ruta o las más concurridas no
+ * recorre el historial: cuesta lo que mide el resultado o, como mucho, la cantidad de
+ * rutas, que es pequeña frente a la de tickets.</p>
+ *
+ * <p>{@link TablaColumnarTickets} lo mantiene dentro de su bloqueo de escritura, porque
+ * es ella la que conoce la ruta y el precio con que cada ticket fue registrado. No es
+ * seguro para hilos por sí mismo.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+class IndiceRutas {
+
+    /**
+     * Orden de las rutas más concurridas: más tickets primero y, a igual cantidad, más ingresos
+     */
+    private static final Comparator<Contadores> MAS_CONCURRIDA = Comparator
+            .comparingInt((Contadores ruta) -> ruta.cantidad).reversed()
+            .thenComparing(Comparator.comparingDouble((Contadores ruta) -> ruta.ingresos).reversed())
+            .thenComparingLong(ruta -> ruta.clave);
+
+    /**
+     * Contadores de cada ruta (clave de la ruta -> contadores)
+     */
+    private final Map<Long, Contadores> rutas;
+
+    /**
+     * Constructor de un índice vacío.
+     */
+    IndiceRutas() {
+        this.rutas = new HashMap<>();
+    }
+
+    /**
+     * Suma un ticket a su ruta.
+     *
+     * @param idTicket ID del ticket
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @param precio Precio final del ticket
+     * @param distancia Distancia en kilómetros
+     */
+    void agregar(String idTicket, int idOrigen, int idDestino, double precio, double distancia) {
+        long clave = clave(idOrigen, idDestino);
+        Contadores ruta = rutas.get(clave);
+        if (ruta == null) {
+            ruta = new Contadores(clave, idOrigen, idDestino);
+            rutas.put(clave, ruta);
+        }
+        if (ruta.ids.add(idTicket)) {
+            ruta.cantidad++;
+            ruta.ingresos += precio;
+            ruta.distancia += distancia;
+        }
+    }
+
+    /**
+     * Resta un ticket de su ruta. La ruta desaparece al quedarse sin tickets.
+     *
+     * @param idTicket ID del ticket
+     * @param idOrigen Identificador de la ciudad de origen con que fue registrado
+     * @param idDestino Identificador de la ciudad de destino con que fue registrado
+     * @param precio Precio final con que fue registrado
+     * @param distancia Distancia con que fue registrado
+     */
+    void quitar(String idTicket, int idOrigen, int idDestino, double precio, double distancia) {
+        long clave = clave(idOrigen, idDestino);
+        Contadores ruta = rutas.get(clave);
+        if (ruta == null || !ruta.ids.remove(idTicket)) {
+            return;
+        }
+        if (ruta.ids.isEmpty()) {
+            rutas.remove(clave); // También descarta el error acumulado en las sumas
+            return;
+        }
+        ruta.cantidad--;
+        ruta.ingresos -= precio;
+        ruta.distancia -= distancia;
+    }
+
+    /**
+     * Elimina todas las rutas.
+     */
+    void limpiar() {
+        rutas.clear();
+    }
+
+    /**
+     * Obtiene los contadores de una ruta.
+     *
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @return Estadística de la ruta, con cantidad 0 si no tiene tickets
+     */
+    EstadisticaRuta estadistica(int idOrigen, int idDestino) {
+        Contadores ruta = rutas.get(clave(idOrigen, idDestino));
+        return ruta == null ? new EstadisticaRuta(idOrigen, idDestino, 0, 0, 0) : ruta.copiar();
+    }
+
+    /**
+     * Obtiene los contadores de todas las rutas con tickets.
+     *
+     * @return Estadísticas de las rutas, de la más concurrida a la menos
+     */
+    List<EstadisticaRuta> todas() {
+        List<Contadores> ordenadas = new ArrayList<>(rutas.values());
+        ordenadas.sort(MAS_CONCURRIDA);
+        List<EstadisticaRuta> resultado = new ArrayList<>(ordenadas.size());
+        for (Contadores ruta : ordenadas) {
+            resultado.add(ruta.copiar());
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene las rutas con más tickets. Selecciona con un montículo acotado, sin
+     * ordenar todas las rutas.
+     *
+     * @param cantidad Cantidad máxima de rutas
+     * @return Estadísticas de las rutas, de la más concurrida a la menos
+     */
+    List<EstadisticaRuta> masConcurridas(int cantidad) {
+        if (cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Contadores> mejores = new PriorityQueue<>(cantidad + 1, MAS_CONCURRIDA.reversed());
+        for (Contadores ruta : rutas.values()) {
+            mejores.add(ruta);
+            if (mejores.size() > cantidad) {
+                mejores.poll(); // Descarta la menos concurrida de las seleccionadas
+            }
+        }
+        List<Contadores> ordenadas = new ArrayList<>(mejores);
+        ordenadas.sort(MAS_CONCURRIDA);
+        List<EstadisticaRuta> resultado = new ArrayList<>(ordenadas.size());
+        for (Contadores ruta : ordenadas) {
+            resultado.add(ruta.copiar());
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene los IDs de los tickets de una ruta.
+     *
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @return Copia de los IDs en orden de registro, vacía si la ruta no tiene tickets
+     */
+    List<String> ids(int idOrigen, int idDestino) {
+        Contadores ruta = rutas.get(clave(idOrigen, idDestino));
+        return ruta == null ? new ArrayList<>() : new ArrayList<>(ruta.ids);
+    }
+
+    /**
+     * Combina los dos identificadores en una clave; {@code SIN_CIUDAD} (-1) también es válido.
+     */
+    private static long clave(int idOrigen, int idDestino) {
+        return ((long) idOrigen << 32) | (idDestino & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Contadores mutables de una ruta.
+     */
+    private static final class Contadores {
+        private final long clave;
+        private final int idOrigen;
+        private final int idDestino;
+        private final Set<String> ids;
+        private int cantidad;
+        private double ingresos;
+        private double distancia;
+
+        private Contadores(long clave, int idOrigen, int idDestino) {
+            this.clave = clave;
+            this.idOrigen = idOrigen;
+            this.idDestino = idDestino;
+            this.ids = new LinkedHashSet<>();
+        }
+
+        private EstadisticaRuta copiar() {
+            return new EstadisticaRuta(idOrigen, idDestino, cantidad, ingresos, distancia);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Clase IndiceTickets
+ * Índices secundarios de los tickets: de cada cédula y de cada placa a los IDs de sus
+ * tickets, y de la posición cronológica ({@link ClaveCronologica}) a cada ticket.
+ *
+ * <p>{@link MotorTicketsMemoria} lo mantiene junto con su mapa de tickets, dentro del mismo
+ * bloqueo, al guardar, actualizar, eliminar y limpiar, y lo reconstruye al cargar. Así
+ * las búsquedas por pasajero y por vehículo cuestan lo que mide su resultado en lugar
+ * de recorrer el historial. Los índices por cédula y por placa no son seguros para
+ * hilos: quien los consulta debe sincronizar el acceso.</p>
+ *
+ * <p>El índice por fecha es un {@link ConcurrentSkipListMap}: se modifica con el mismo
+ * bloqueo, pero se consulta sin él. Los rangos, los más recientes y las páginas son
+ * vistas ordenadas que se recorren desde su primer elemento, sin ordenar nada al
+ * consultar; como las de cualquier mapa concurrente, pueden incluir o no los cambios
+ * hechos mientras se recorren.</p>
+ *
+ * <p>Los IDs son las mismas cadenas de los tickets, así que el índice solo agrega las
+ * entradas de los mapas. Una clave con un único ticket (el caso más común en las
+ * cédulas) se guarda en un conjunto inmutable de un elemento, que se reemplaza por un
+ * {@link LinkedHashSet} al llegar el segundo.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class IndiceTickets {
+
+    /**
+     * IDs de los tickets de cada pasajero (cédula -> IDs)
+     */
+    private final Map<String, Set<String>> porCedula;
+
+    /**
+     * IDs de los tickets de cada vehículo (placa -> IDs)
+     */
+    private final Map<String, Set<String>> porPlaca;
+
+    /**
+     * Tickets en orden cronológico ((fecha, ID) -> ticket)
+     */
+    private final ConcurrentSkipListMap<ClaveCronologica, Ticket> porFecha;
+
+    /**
+     * Constructor de un índice vacío.
+     */
+    public IndiceTickets() {
+        this.porCedula = new HashMap<>();
+        this.porPlaca = new HashMap<>();
+        this.porFecha = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Construye un índice con los tickets indicados.
+     *
+     * @param tickets Tickets a indexar
+     * @return Índice de los tickets
+     */
+    public static IndiceTickets desde(Collection<Ticket> tickets) {
+        IndiceTickets indice = new IndiceTickets();
+        indice.reconstruir(tickets);
+        return indice;
+    }
+
+    /**
+     * Descarta el contenido del índice y lo vuelve a construir.
+     *
+     * @param tickets Tickets a indexar
+     */
+    public void reconstruir(Collection<Ticket> tickets) {
+        limpiar();
+        for (Ticket ticket : tickets) {
+            agregar(ticket);
+        }
+    }
+
+    /**
+     * Agrega un ticket al índice.
+     *
+     * @param ticket Ticket guardado
+     */
+    public void agregar(Ticket ticket) {
+        agregar(porCedula, ticket.getCedula(), ticket.getIdTicket());
+        agregar(porPlaca, ticket.getPlaca(), ticket.getIdTicket());
+        if (ticket.getFecha() != null) {
+            porFecha.put(ClaveCronologica.de(ticket), ticket);
+        }
+    }
+
+    /**
+     * Quita un ticket del índice.
+     *
+     * @param ticket Ticket eliminado, con la cédula y la placa con que fue indexado
+     */
+    public void quitar(Ticket ticket) {
+        quitar(porCedula, ticket.getCedula(), ticket.getIdTicket());
+        quitar(porPlaca, ticket.getPlaca(), ticket.getIdTicket());
+        if (ticket.getFecha() != null) {
+            porFecha.remove(ClaveCronologica.de(ticket));
+        }
+    }
+
+    /**
+     * Actualiza el índice cuando un ticket reemplaza a otro con el mismo ID.
+     *
+     * Si es el mismo objeto, modificado en el lugar, ya no se conocen la cédula, la
+     * placa y la fecha con que fue indexado: cuando no coinciden con las actuales, se
+     * buscan sus entradas en todo el índice. Es el único caso que no cuesta tiempo
+     * constante (o logarítmico, en el índice por fecha).
+     *
+     * @param anterior Ticket reemplazado (null si no había)
+     * @param nuevo Ticket que lo reemplaza
+     */
+    public void reemplazar(Ticket anterior, Ticket nuevo) {
+        if (anterior == nuevo) {
+            String id = nuevo.getIdTicket();
+            if (buscarPorCedula(nuevo.getCedula()).contains(id) && buscarPorPlaca(nuevo.getPlaca()).contains(id)
+                    && (nuevo.getFecha() == null || porFecha.get(ClaveCronologica.de(nuevo)) == nuevo)) {
+                return;
+            }
+            quitarEnTodas(porCedula, id);
+            quitarEnTodas(porPlaca, id);
+            porFecha.keySet().removeIf(clave -> clave.getIdTicket().equals(id));
+        } else if (anterior != null) {
+            quitar(anterior);
+        }
+        agregar(nuevo);
+    }
+
+    /**
+     * Elimina todas las entradas del índice.
+     */
+    public void limpiar() {
+        porCedula.clear();
+        porPlaca.clear();
+        porFecha.clear();
+    }
+
+    /**
+     * Obtiene los IDs de los tickets de un pasajero.
+     *
+     * @param cedula Cédula del pasajero
+     * @return Vista no modificable de los IDs, vacía si el pasajero no tiene tickets; refleja
+     *         los cambios posteriores, así que debe recorrerse con el mismo bloqueo
+     */
+    public Set<String> buscarPorCedula(String cedula) {
+        return buscar(porCedula, cedula);
+    }
+
+    /**
+     * Obtiene los IDs de los tickets de un vehículo.
+     *
+     * @param placa Placa del vehículo
+     * @return Vista no modificable de los IDs, vacía si el vehículo no tiene tickets; refleja
+     *         los cambios posteriores, así que debe recorrerse con el mismo bloqueo
+     */
+    public Set<String> buscarPorPlaca(String placa) {
+        return buscar(porPlaca, placa);
+    }
+
+    /**
+     * Obtiene los tickets de un rango de fechas en orden cronológico.
+     *
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido)
+     * @return Vista no modificable del rango, vacía si el rango está invertido
+     */
+    public Collection<Ticket> buscarEnRango(LocalDateTime desde, LocalDateTime hasta) {
+        return cronologico(desde, hasta, null, false);
+    }
+
+    /**
+     * Obtiene los tickets del más reciente al más antiguo.
+     *
+     * @return Vista no modificable en orden cronológico inverso
+     */
+    public Collection<Ticket> recientes() {
+        return cronologico(null, null, null, true);
+    }
+
+    /**
+     * Obtiene los tickets posteriores a una posición, en orden cronológico.
+     *
+     * @param cursor Clave del último ticket ya entregado, o null para empezar por el más antiguo
+     * @return Vista no modificable de los tickets posteriores al cursor
+     */
+    public Collection<Ticket> posterioresA(ClaveCronologica cursor) {
+        return cronologico(null, null, cursor, false);
+    }
+
+    /**
+     * Obtiene los tickets de un rango de fechas que siguen a una posición, en orden
+     * cronológico o inverso. Todos los límites son opcionales.
+     *
+     * @param desde Inicio del rango (incluido), o null
+     * @param hasta Fin del rango (excluido), o null
+     * @param cursor Clave del último ticket ya entregado, o null; en orden inverso se
+     *               obtienen los anteriores a ella
+     * @param inverso true para recorrer del más reciente al más antiguo
+     * @return Vista no modificable, vacía si los límites no dejan ningún ticket
+     */
+    public Collection<Ticket> cronologico(LocalDateTime desde, LocalDateTime hasta, ClaveCronologica cursor,
+                                          boolean inverso) {
+        ClaveCronologica inferior = desde == null ? null : ClaveCronologica.inicio(desde);
+        boolean inferiorIncluido = true;
+        ClaveCronologica superior = hasta == null ? null : ClaveCronologica.inicio(hasta);
+        if (cursor != null && !inverso && (inferior == null || cursor.compareTo(inferior) >= 0)) {
+            inferior = cursor;
+            inferiorIncluido = false;
+        }
+        if (cursor != null && inverso && (superior == null || cursor.compareTo(superior) < 0)) {
+            superior = cursor;
+        }
+        ConcurrentNavigableMap<ClaveCronologica, Ticket> vista;
+        if (inferior != null && superior != null) {
+            if (inferior.compareTo(superior) >= 0) {
+                return Collections.emptyList();
+            }
+            vista = porFecha.subMap(inferior, inferiorIncluido, superior, false);
+        } else if (inferior != null) {
+            vista = porFecha.tailMap(inferior, inferiorIncluido);
+        } else if (superior != null) {
+            vista = porFecha.headMap(superior, false);
+        } else {
+            vista = porFecha;
+        }
+        return Collections.unmodifiableCollection((inverso ? vista.descendingMap() : vista).values());
+    }
+
+    /**
+     * Obtiene las claves del ticket más antiguo y del más reciente, para estimar cuántos
+     * tickets hay en un rango de fechas.
+     *
+     * @return Arreglo con la primera y la última clave, o null si no hay tickets con fecha
+     */
+    public ClaveCronologica[] extremos() {
+        Map.Entry<ClaveCronologica, Ticket> primera = porFecha.firstEntry();
+        Map.Entry<ClaveCronologica, Ticket> ultima = porFecha.lastEntry();
+        if (primera == null || ultima == null) {
+            return null;
+        }
+        return new ClaveCronologica[] {primera.getKey(), ultima.getKey()};
+    }
+
+    private static Set<String> buscar(Map<String, Set<String>> indice, String clave) {
+        Set<String> ids = clave == null ? null : indice.get(clave);
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    private static void agregar(Map<String, Set<String>> indice, String clave, String idTicket) {
+        if (clave == null) {
+            return;
+        }
+        Set<String> ids = indice.get(clave);
+        if (ids == null) {
+            indice.put(clave, Collections.singleton(idTicket));
+        } else if (ids.size() == 1 && !(ids instanceof LinkedHashSet)) {
+            if (!ids.contains(idTicket)) {
+                Set<String> varios = new LinkedHashSet<>(4);
+                varios.addAll(ids);
+                varios.add(idTicket);
+                indice.put(clave, varios);
+            }
+        } else {
+            ids.add(idTicket);
+        }
+    }
+
+    private static void quitarEnTodas(Map<String, Set<String>> indice, String idTicket) {
+        Iterator<Set<String>> conjuntos = indice.values().iterator();
+        while (conjuntos.hasNext()) {
+            Set<String> ids = conjuntos.next();
+            if (ids.contains(idTicket)) {
+                if (ids.size() == 1) {
+                    conjuntos.remove();
+                } else {
+                    ids.remove(idTicket);
+                }
+            }
+        }
+    }
+
+    private static void quitar(Map<String, Set<String>> indice, String clave, String idTicket) {
+        if (clave == null) {
+            return;
+        }
+        Set<String> ids = indice.get(clave);
+        if (ids == null || !ids.contains(idTicket)) {
+            return;
+        }
+        if (ids.size() == 1) {
+            indice.remove(clave);
+        } else {
+            ids.remove(idTicket);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.upc.persistencia;
+
+/**
+ * Enumeración ModoAlmacenamientoTickets
+ * Define las estrategias disponibles para persistir los tickets en disco.
+ *
+ * El modo se selecciona al iniciar la aplicación mediante la propiedad del sistema
+ * {@code barceloneta.tickets.modo} (por ejemplo {@code -Dbarceloneta.tickets.modo=bitacora}).
+ * Si no se especifica, se usa el modo equivalente al motor de almacenamiento
+ * configurado explícitamente ({@link TipoMotorAlmacenamiento}) o, si tampoco se
+ * configuró el motor, el CSV tradicional.
+ * Cada modo crea su {@link MotorTickets} con {@link #crear(FormatoArchivo, ColaEscritura)}.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public enum ModoAlmacenamientoTickets {
+    /**
+     * Solo en memoria, sin archivos (pruebas y mediciones)
+     */
+    MEMORIA("memoria", "En memoria"),
+
+    /**
+     * Reescribe el archivo completo de tickets en cada operación CRUD
+     */
+    CSV("csv", "Archivo CSV completo"),
+
+    /**
+     * Anexa un registro por operación a una bitácora y la reproduce al iniciar
+     */
+    BITACORA("bitacora", "Bitácora de solo anexado"),
+
+    /**
+     * Registros de tamaño fijo en un archivo mapeado en memoria, sin cargar los tickets
+     */
+    MAPEADO("mapeado", "Archivo mapeado en memoria"),
+
+    /**
+     * Un archivo por período de fecha; solo se escribe la partición abierta
+     */
+    PARTICIONADO("particionado", "Particiones por fecha"),
+
+    /**
+     * Tabla con índices en una base de datos SQL embebida, sin cargar los tickets
+     */
+    JDBC("jdbc", "Base de datos embebida");
+
+    /**
+     * Nombre de la propiedad del sistema que selecciona el modo
+     */
+    public static final String PROPIEDAD = "barceloneta.tickets.modo";
+
+    private final String clave;
+    private final String descripcion;
+
+    /**
+     * Constructor del enum ModoAlmacenamientoTickets.
+     *
+     * @param clave Clave usada en la configuración
+     * @param descripcion Descripción del modo
+     */
+    ModoAlmacenamientoTickets(String clave, String descripcion) {
+        this.clave = clave;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Obtiene el modo configurado mediante la propiedad del sistema.
+     *
+     * @return Modo configurado, el equivalente al motor configurado si no se especificó
+     *         ninguno, o CSV si tampoco se configuró el motor
+     * @throws IllegalArgumentException si el valor configurado es desconocido
+     */
+    public static ModoAlmacenamientoTickets desdeConfiguracion() {
+        String valor = System.getProperty(PROPIEDAD);
+        if (valor != null) {
+            return desdeClave(valor);
+        }
+        if (System.getProperty(TipoMotorAlmacenamiento.PROPIEDAD) == null) {
+            return CSV;
+        }
+        switch (TipoMotorAlmacenamiento.desdeConfiguracion()) {
+            case MEMORIA:
+                return MEMORIA;
+            case BITACORA:
+                return BITACORA;
+            case JDBC:
+                return JDBC;
+            default:
+                return CSV;
+        }
+    }
+
+    /**
+     * Convierte una clave de configuración en el modo correspondiente.
+     *
+     * @param clave Clave del modo (sin distinguir mayúsculas)
+     * @return Modo correspondiente
+     * @throws IllegalArgumentException si la clave es desconocida
+     */
+    public static ModoAlmacenamientoTickets desdeClave(String clave) {
+        for (ModoAlmacenamientoTickets modo : values()) {
+            if (modo.clave.equalsIgnoreCase(clave.trim())) {
+                return modo;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Modo de almacenamiento de tickets desconocido: " + clave
+        );
+    }
+
+    /**
+     * Crea el motor de tickets de este modo y carga (o importa) los tickets existentes.
+     *
+     * @param formato Formato del archivo de tickets, de la instantánea o de las particiones
+     * @param cola Cola de escritura de los tickets
+     * @return Motor listo para usar
+     * @throws RuntimeException si ocurre un error al leer o importar los datos
+     */
+    public MotorTickets crear(FormatoArchivo formato, ColaEscritura cola) {
+        switch (this) {
+            case MEMORIA:
+                return new MotorTicketsMemoria();
+            case BITACORA:
+                return new MotorTicketsBitacora(formato, cola);
+            case MAPEADO:
+                return new MotorTicketsMapeado(formato);
+            case PARTICIONADO:
+                return new MotorTicketsParticionado(formato, cola);
+            case JDBC:
+                return new MotorTicketsJdbc(formato);
+            default:
+                return new MotorTicketsCsv(formato, cola);
+        }
+    }
+
+    /**
+     * Obtiene la clave de configuración del modo.
+     *
+     * @return Clave del modo
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * Obtiene la descripción del modo.
+     *
+     * @return Descripción del modo
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,82 @@
+package com.upc.persistencia;
+
+/**
+ * Enumeración ModoDurabilidad
+ * Define cuándo retorna una operación CRUD respecto a la escritura en disco.
+ *
+ * El modo se selecciona mediante la propiedad del sistema
+ * {@code barceloneta.persistencia.durabilidad}. Si no se especifica, se usa SINCRONA.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public enum ModoDurabilidad {
+    /**
+     * La operación espera a que su lote quede sincronizado en disco
+     */
+    SINCRONA("sincrona", "Espera la sincronización en disco"),
+
+    /**
+     * La operación retorna apenas el cambio queda registrado en memoria
+     */
+    ASINCRONA("asincrona", "Retorna tras el cambio en memoria");
+
+    /**
+     * Nombre de la propiedad del sistema que selecciona el modo
+     */
+    public static final String PROPIEDAD = "barceloneta.persistencia.durabilidad";
+
+    private final String clave;
+    private final String descripcion;
+
+    /**
+     * Constructor del enum ModoDurabilidad.
+     *
+     * @param clave Clave usada en la configuración
+     * @param descripcion Descripción del modo
+     */
+    ModoDurabilidad(String clave, String descripcion) {
+        this.clave = clave;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Obtiene el modo configurado mediante la propiedad del sistema.
+     *
+     * @return Modo configurado, o SINCRONA si no se especificó ninguno
+     * @throws IllegalArgumentException si el valor configurado es desconocido
+     */
+    public static ModoDurabilidad desdeConfiguracion() {
+        String clave = System.getProperty(PROPIEDAD, SINCRONA.clave);
+        for (ModoDurabilidad modo : values()) {
+            if (modo.clave.equalsIgnoreCase(clave.trim())) {
+                return modo;
+            }
+        }
+        throw new IllegalArgumentException("Modo de durabilidad desconocido: " + clave);
+    }
+
+    /**
+     * Obtiene la clave de configuración del modo.
+     *
+     * @return Clave del modo
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * Obtiene la descripción del modo.
+     *
+     * @return Descripción del modo
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
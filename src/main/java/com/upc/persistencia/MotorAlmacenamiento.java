@@ -0,0 +1,128 @@
+package com.upc.persistencia;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Interfaz MotorAlmacenamiento
+ * Contrato de los motores que guardan las entidades de un DAO, indexadas por clave.
+ *
+ * <p>El motor es dueño de los datos en memoria y de su persistencia; el DAO solo
+ * valida y delega. Así el mismo DAO funciona en memoria, con archivos CSV o con una
+ * bitácora, según {@link TipoMotorAlmacenamiento}.</p>
+ *
+ * <p>Las operaciones de escritura aplican el cambio en memoria y lo persisten según la
+ * durabilidad configurada en {@link EscritorPersistencia}. Si la cola de escritura
+ * rechaza el cambio, se deshace en memoria antes de propagar la excepción.</p>
+ *
+ * <p>Las implementaciones deben ser seguras para el uso concurrente.</p>
+ *
+ * @param <T> Tipo de entidad almacenada
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public interface MotorAlmacenamiento<T> {
+
+    /**
+     * Obtiene el tipo del motor.
+     *
+     * @return Tipo del motor
+     */
+    TipoMotorAlmacenamiento getTipo();
+
+    /**
+     * Busca una entidad por su clave.
+     *
+     * @param clave Clave de la entidad
+     * @return Entidad encontrada o null si no existe
+     */
+    T buscar(String clave);
+
+    /**
+     * Verifica si existe una entidad con la clave indicada.
+     *
+     * @param clave Clave a verificar
+     * @return true si existe, false si no
+     */
+    boolean contiene(String clave);
+
+    /**
+     * Obtiene una copia de todas las entidades almacenadas.
+     *
+     * @return Lista de entidades
+     */
+    List<T> todos();
+
+    /**
+     * Entrega cada entidad almacenada a un visitante, sin copiarlas a una lista.
+     * El recorrido no detiene las escrituras: puede incluir o no los cambios hechos
+     * mientras se ejecuta, pero nunca entrega una entidad dos veces.
+     *
+     * @param visitante Función que recibe cada entidad
+     */
+    void recorrer(Consumer<? super T> visitante);
+
+    /**
+     * Obtiene la cantidad de entidades almacenadas.
+     *
+     * @return Número de entidades
+     */
+    int contar();
+
+    /**
+     * Inserta una entidad nueva.
+     *
+     * @param entidad Entidad a insertar
+     * @return true si se insertó, false si ya existía una con la misma clave
+     * @throws RuntimeException si ocurre un error al persistir el cambio
+     */
+    boolean insertar(T entidad);
+
+    /**
+     * Inserta varias entidades nuevas y persiste el cambio una sola vez, en lugar de
+     * una vez por entidad.
+     *
+     * @param entidades Entidades a insertar
+     * @return Entidades que no se insertaron porque ya existía una con la misma clave
+     *         (incluida una anterior de la misma colección)
+     * @throws RuntimeException si ocurre un error al persistir el cambio; no se inserta ninguna
+     */
+    List<T> insertarTodos(Collection<T> entidades);
+
+    /**
+     * Reemplaza una entidad existente.
+     *
+     * @param entidad Entidad con los datos actualizados
+     * @return true si se reemplazó, false si no existía
+     * @throws RuntimeException si ocurre un error al persistir el cambio
+     */
+    boolean reemplazar(T entidad);
+
+    /**
+     * Elimina una entidad.
+     *
+     * @param clave Clave de la entidad a eliminar
+     * @return true si se eliminó, false si no existía
+     * @throws RuntimeException si ocurre un error al persistir el cambio
+     */
+    boolean eliminar(String clave);
+
+    /**
+     * Elimina todas las entidades.
+     *
+     * @throws RuntimeException si ocurre un error al persistir el cambio
+     */
+    void limpiar();
+
+    /**
+     * Obtiene el registro incompleto que se descartó al cargar la bitácora (solo en el
+     * motor BITACORA): su última línea, cortada por una escritura interrumpida.
+     *
+     * @return Error con la línea descartada y su causa, o null si no se descartó ninguna
+     */
+    default RuntimeException getRegistroDescartado() {
+        return null;
+    }
+}
@@ -0,0 +1,233 @@
+package com.upc.persistencia;
+
+import java.io.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Clase MotorBitacora
+ * Motor de almacenamiento que anexa un registro por operación CRUD a una bitácora
+ * ({@code data/vehiculos.log}) en lugar de reescribir el archivo completo.
+ *
+ * <p>El costo de una escritura no depende de la cantidad de entidades, y una
+ * inserción masiva anexa todos sus registros en una sola escritura. Al iniciar se
+ * carga el archivo completo, se reproduce la bitácora sobre él y, si tenía registros,
+ * se compacta: el archivo completo se reescribe con el estado resultante y la
+ * bitácora se elimina. Los registros son idempotentes, así que una interrupción entre
+ * ambos pasos solo hace que se vuelvan a aplicar en el siguiente arranque.</p>
+ *
+ * <p>Durante la ejecución el motor cuenta los registros anexados desde la última
+ * compactación. Cuando superan a las entidades vigentes (y al mínimo configurado con
+ * {@code barceloneta.persistencia.compactacion.registros}), copia el mapa y encola una
+ * compactación: el hilo escritor reescribe el archivo completo y después vacía la
+ * bitácora, conservando los registros anexados mientras tanto. La copia cuesta tantas
+ * entidades como registros se anexaron, de modo que el costo amortizado de cada
+ * operación sigue siendo constante.</p>
+ *
+ * <p>Formato de los registros (uno por línea, con el marco de {@link RegistroBitacora}),
+ * igual al de {@link BitacoraTickets}:</p>
+ * <ul>
+ *   <li>{@code I,<entidad en CSV>} - Inserción</li>
+ *   <li>{@code U,<entidad en CSV>} - Actualización</li>
+ *   <li>{@code D,<clave>} - Eliminación</li>
+ *   <li>{@code L} - Limpieza de todas las entidades</li>
+ * </ul>
+ *
+ * @param <T> Tipo de entidad almacenada
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorBitacora<T> extends MotorCsv<T> {
+
+    /**
+     * Extensión del archivo de la bitácora
+     */
+    public static final String EXTENSION = ".log";
+
+    /**
+     * Separador entre el tipo de registro y su contenido
+     */
+    private static final char SEPARADOR = ',';
+
+    /**
+     * Propiedad del sistema con la cantidad mínima de registros que dispara una compactación
+     */
+    public static final String PROPIEDAD_COMPACTACION = "barceloneta.persistencia.compactacion.registros";
+
+    /**
+     * Archivo de la bitácora
+     */
+    private final File bitacora;
+
+    /**
+     * Registros mínimos anexados antes de compactar durante la ejecución
+     */
+    private final int minimoCompactacion;
+
+    /**
+     * Registros anexados desde la última compactación (protegido por el bloqueo del motor)
+     */
+    private int registrosSucios;
+
+    /**
+     * Error de la última línea cortada que se descartó al reproducir, o null
+     */
+    private RuntimeException registroDescartado;
+
+    /**
+     * Constructor del motor. Carga el archivo completo, reproduce la bitácora y la compacta.
+     *
+     * @param esquema Descripción de la entidad almacenada
+     * @throws RuntimeException si ocurre un error al leer los archivos o si los datos están corruptos
+     */
+    public MotorBitacora(EsquemaEntidad<T> esquema) {
+        super(esquema);
+        this.bitacora = new File(esquema.getRutaBase() + EXTENSION);
+        this.minimoCompactacion = Math.max(1, Integer.getInteger(PROPIEDAD_COMPACTACION, 1000));
+        if (bitacora.exists()) {
+            reproducir();
+            try {
+                reescribirAhora();
+            } catch (IOException e) {
+                throw new RuntimeException("Error al compactar la bitácora de " + esquema.getNombre() + ": "
+                        + bitacora.getPath(), e);
+            }
+            if (!bitacora.delete()) {
+                throw new RuntimeException("No se pudo eliminar la bitácora compactada: " + bitacora.getPath());
+            }
+        }
+    }
+
+    @Override
+    public TipoMotorAlmacenamiento getTipo() {
+        return TipoMotorAlmacenamiento.BITACORA;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInsercion(T entidad) {
+        return anexar(BitacoraTickets.INSERTAR + "" + SEPARADOR + esquema.serializar(entidad));
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInserciones(List<T> entidades) {
+        CompletableFuture<Void> escritura = cola.encolarAnexos(bitacora, entidades,
+                entidad -> RegistroBitacora.enmarcar(BitacoraTickets.INSERTAR + "" + SEPARADOR
+                        + esquema.serializar(entidad)));
+        registrosSucios += entidades.size();
+        compactarSiHaceFalta();
+        return escritura;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirActualizacion(T entidad) {
+        return anexar(BitacoraTickets.ACTUALIZAR + "" + SEPARADOR + esquema.serializar(entidad));
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirEliminacion(String clave) {
+        return anexar(BitacoraTickets.ELIMINAR + "" + SEPARADOR + clave);
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirLimpieza() {
+        return anexar(String.valueOf(BitacoraTickets.LIMPIAR));
+    }
+
+    /**
+     * Anexa un registro a la bitácora y, si ya hay suficientes registros sucios,
+     * encola la compactación. Se invoca con el bloqueo del motor.
+     *
+     * @param registro Registro a anexar
+     * @return Futuro que se completa cuando el registro está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza el registro
+     */
+    private CompletableFuture<Void> anexar(String registro) {
+        CompletableFuture<Void> escritura = cola.encolarAnexo(bitacora, RegistroBitacora.enmarcar(registro));
+        registrosSucios++;
+        compactarSiHaceFalta();
+        return escritura;
+    }
+
+    /**
+     * Encola la compactación si los registros anexados superan a las entidades
+     * vigentes y al mínimo configurado. Se invoca con el bloqueo del motor.
+     */
+    private void compactarSiHaceFalta() {
+        if (registrosSucios > Math.max(minimoCompactacion, datos.size())) {
+            compactar();
+        }
+    }
+
+    /**
+     * Encola la compactación de la bitácora con una copia del estado actual.
+     *
+     * La compactación es una reescritura de la bitácora: el escritor descarta los
+     * registros anteriores (ya incluidos en la copia), pero antes de reemplazar la
+     * bitácora escribe el archivo completo, de modo que un corte entre ambos pasos
+     * solo deja registros que se vuelven a aplicar al iniciar. Los registros
+     * encolados después se anexan a la bitácora nueva. Si la cola está llena, se
+     * reintenta con el siguiente registro. Si la reescritura falla, la cola la cuenta
+     * entre sus escrituras fallidas ({@link ColaEscritura#getUltimoError()}).
+     */
+    private void compactar() {
+        EscritorPersistencia.Contenido contenido = instantanea();
+        File archivo = getArchivo();
+        try {
+            cola.encolarReescritura(bitacora, salida -> EscritorPersistencia.reemplazarArchivo(archivo, contenido));
+            registrosSucios = 0;
+        } catch (IllegalStateException e) {
+            // Cola llena con política FALLAR o escritor cerrado: la bitácora sigue siendo válida
+        }
+    }
+
+    /**
+     * Reproduce la bitácora sobre el mapa.
+     * Si la última línea quedó cortada (por ejemplo, por un corte de energía durante la
+     * escritura) se descarta y queda disponible en {@link #getRegistroDescartado()}; un registro corrupto se detecta con su
+     * CRC32 y detiene la carga ({@link RegistroBitacora}). La bitácora se compacta y
+     * elimina en seguida, así que no hace falta rotarla.
+     *
+     * @throws RuntimeException si ocurre un error al leer la bitácora o si los datos están corruptos
+     */
+    private void reproducir() {
+        RegistroBitacora.reproducir(bitacora, this::aplicar, error -> registroDescartado = error);
+    }
+
+    @Override
+    public RuntimeException getRegistroDescartado() {
+        return registroDescartado;
+    }
+
+    /**
+     * Aplica un registro de la bitácora sobre el mapa.
+     *
+     * @param registro Registro de la bitácora, sin marco
+     * @throws IllegalArgumentException si el registro es inválido
+     */
+    private void aplicar(String registro) {
+        char tipo = registro.charAt(0);
+
+        if (tipo == BitacoraTickets.LIMPIAR && registro.length() == 1) {
+            datos.clear();
+            return;
+        }
+        if (registro.length() < 3 || registro.charAt(1) != SEPARADOR) {
+            throw new IllegalArgumentException("Registro de bitácora inválido: " + registro);
+        }
+
+        String contenido = registro.substring(2);
+        switch (tipo) {
+            case BitacoraTickets.INSERTAR:
+            case BitacoraTickets.ACTUALIZAR:
+                T entidad = esquema.deserializar(contenido);
+                datos.put(esquema.clave(entidad), entidad);
+                break;
+            case BitacoraTickets.ELIMINAR:
+                datos.remove(contenido.trim());
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de registro de bitácora desconocido: " + tipo);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.upc.persistencia;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Clase MotorCsv
+ * Motor de almacenamiento que mantiene las entidades en memoria y reescribe el
+ * archivo completo después de cada operación CRUD (comportamiento original de Fase 2).
+ * Una inserción masiva lo reescribe una sola vez.
+ *
+ * El archivo está en el formato configurado para la entidad: CSV con codificación
+ * UTF-8 o binario ({@link FormatoArchivo}). En formato BINARIO, si aún no existe el
+ * archivo binario se cargan los datos del archivo CSV y se migran en la siguiente
+ * escritura.
+ *
+ * La escritura la realiza el {@link EscritorPersistencia}, que agrupa en un solo lote
+ * las reescrituras pendientes y conserva únicamente la más reciente.
+ *
+ * @param <T> Tipo de entidad almacenada
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorCsv<T> extends MotorMemoria<T> {
+
+    /**
+     * Cola de escritura de la entidad
+     */
+    protected final ColaEscritura cola;
+
+    /**
+     * Archivo CSV de la entidad
+     */
+    private final File archivoCsv;
+
+    /**
+     * Archivo binario de la entidad
+     */
+    private final File archivoBinario;
+
+    /**
+     * Constructor del motor. Carga automáticamente los datos desde el archivo.
+     *
+     * @param esquema Descripción de la entidad almacenada
+     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
+     */
+    public MotorCsv(EsquemaEntidad<T> esquema) {
+        super(esquema);
+        this.cola = EscritorPersistencia.getInstancia().getCola(esquema.getNombre());
+        this.archivoCsv = new File(FormatoArchivo.CSV.ruta(esquema.getRutaBase()));
+        this.archivoBinario = new File(FormatoArchivo.BINARIO.ruta(esquema.getRutaBase()));
+        cargarDesdeArchivo();
+    }
+
+    @Override
+    public TipoMotorAlmacenamiento getTipo() {
+        return TipoMotorAlmacenamiento.CSV;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInsercion(T entidad) {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInserciones(List<T> entidades) {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirActualizacion(T entidad) {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirEliminacion(String clave) {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirLimpieza() {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected void esperar(CompletableFuture<Void> escritura) {
+        cola.completar(escritura);
+    }
+
+    /**
+     * Obtiene el archivo completo en el formato configurado.
+     *
+     * @return Archivo CSV o binario
+     */
+    protected File getArchivo() {
+        return esquema.getFormato() == FormatoArchivo.BINARIO ? archivoBinario : archivoCsv;
+    }
+
+    /**
+     * Encola la reescritura del archivo completo con el contenido actual del mapa.
+     * Debe invocarse con el bloqueo del motor.
+     *
+     * @return Futuro que se completa cuando el archivo está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> guardarEnArchivo() {
+        List<T> copia = new ArrayList<>(datos.values());
+        if (esquema.getFormato() == FormatoArchivo.BINARIO) {
+            return cola.encolarReescritura(archivoBinario, salida -> escribirBinario(salida, copia));
+        }
+        return cola.encolarReescritura(archivoCsv, copia, esquema::serializar);
+    }
+
+    /**
+     * Escribe el contenido actual del mapa en el archivo de forma síncrona,
+     * sin pasar por la cola. Solo debe usarse mientras nadie más escribe el archivo.
+     *
+     * @throws IOException si ocurre un error de escritura
+     */
+    protected void reescribirAhora() throws IOException {
+        EscritorPersistencia.Contenido contenido = instantanea();
+        getArchivo().getAbsoluteFile().getParentFile().mkdirs();
+        EscritorPersistencia.reemplazarArchivo(getArchivo(), contenido);
+    }
+
+    /**
+     * Copia el contenido actual del mapa como contenido del archivo completo, para
+     * escribirlo después fuera del bloqueo. Debe invocarse con el bloqueo del motor.
+     *
+     * @return Contenido del archivo en el formato configurado
+     */
+    protected EscritorPersistencia.Contenido instantanea() {
+        List<T> copia = new ArrayList<>(datos.values());
+        if (esquema.getFormato() == FormatoArchivo.BINARIO) {
+            return salida -> escribirBinario(salida, copia);
+        }
+        return salida -> {
+            for (T entidad : copia) {
+                EscritorPersistencia.escribirLinea(salida, esquema.serializar(entidad));
+            }
+        };
+    }
+
+    private void escribirBinario(OutputStream salida, List<T> entidades) throws IOException {
+        CodecBinario.Salida binaria = new CodecBinario.Salida(salida, esquema.getTipoBinario(), 0);
+        for (T entidad : entidades) {
+            esquema.serializarBinario(binaria, entidad);
+        }
+    }
+
+    /**
+     * Carga las entidades desde el archivo.
+     *
+     * Si el archivo CSV no existe, se crea vacío.
+     * Si el archivo está corrupto, se lanza una excepción.
+     *
+     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
+     */
+    private void cargarDesdeArchivo() {
+        if (esquema.getFormato() == FormatoArchivo.BINARIO && archivoBinario.exists()) {
+            cargarDesdeBinario();
+            return;
+        }
+
+        // Si el archivo no existe, crearlo
+        if (!archivoCsv.exists()) {
+            if (esquema.getFormato() == FormatoArchivo.BINARIO) {
+                return;
+            }
+            try {
+                archivoCsv.getAbsoluteFile().getParentFile().mkdirs();
+                archivoCsv.createNewFile();
+                return;
+            } catch (IOException e) {
+                throw new RuntimeException("Error al crear el archivo de " + esquema.getNombre() + ": "
+                        + archivoCsv.getPath(), e);
+            }
+        }
+
+        // Leer el archivo línea por línea
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(archivoCsv), StandardCharsets.UTF_8))) {
+
+            String linea;
+            int numeroLinea = 0;
+            datos.clear();
+
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                linea = linea.trim();
+
+                // Saltar líneas vacías
+                if (linea.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    T entidad = esquema.deserializar(linea);
+                    datos.put(esquema.clave(entidad), entidad);
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException(
+                        "Error al parsear línea " + numeroLinea + " del archivo " + archivoCsv.getPath() + ": " + linea, e
+                    );
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el archivo de " + esquema.getNombre() + ": "
+                    + archivoCsv.getPath(), e);
+        }
+    }
+
+    /**
+     * Carga las entidades desde el archivo binario.
+     *
+     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
+     */
+    private void cargarDesdeBinario() {
+        String ruta = archivoBinario.getPath();
+        try (InputStream flujo = new BufferedInputStream(new FileInputStream(archivoBinario), 65536)) {
+            CodecBinario.Entrada entrada = new CodecBinario.Entrada(flujo, esquema.getTipoBinario());
+            datos.clear();
+
+            while (entrada.siguienteRegistro()) {
+                try {
+                    T entidad = esquema.deserializarBinario(entrada);
+                    datos.put(esquema.clave(entidad), entidad);
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException(
+                        "Error al parsear registro " + entrada.getNumeroRegistro() + " del archivo " + ruta, e
+                    );
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Archivo binario de " + esquema.getNombre() + " inválido: " + ruta, e);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el archivo de " + esquema.getNombre() + ": " + ruta, e);
+        }
+    }
+}
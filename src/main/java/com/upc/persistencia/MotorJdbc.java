@@ -0,0 +1,184 @@
+package com.upc.persistencia;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Clase MotorJdbc
+ * Motor de almacenamiento que guarda las entidades en una tabla de la base de datos
+ * embebida ({@link BaseDatosEmbebida}) y conserva una copia en memoria para las lecturas.
+ *
+ * <p>Cada entidad es una fila {@code (clave, registro)} con su línea CSV, en una tabla
+ * con el nombre de la entidad ({@code vehiculos}, {@code pasajeros}). Cada operación
+ * CRUD se confirma en su propia transacción; si falla, se revierte y el cambio en
+ * memoria se deshace. Una inserción masiva ({@link #insertarTodos}) se envía en un
+ * solo lote y una sola transacción.</p>
+ *
+ * <p>La primera vez que se abre la tabla se importan los datos del archivo CSV o
+ * binario existente.</p>
+ *
+ * @param <T> Tipo de entidad almacenada
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorJdbc<T> extends MotorMemoria<T> {
+
+    private final Connection conexion;
+    private final PreparedStatement insertar;
+    private final PreparedStatement actualizar;
+    private final PreparedStatement eliminar;
+    private final String tabla;
+
+    /**
+     * Constructor del motor. Crea la tabla si no existe y carga su contenido.
+     *
+     * @param esquema Descripción de la entidad almacenada
+     * @throws RuntimeException si ocurre un error al abrir o leer la base de datos
+     */
+    public MotorJdbc(EsquemaEntidad<T> esquema) {
+        super(esquema);
+        this.tabla = esquema.getNombre();
+        this.conexion = BaseDatosEmbebida.abrir();
+        try {
+            BaseDatosEmbebida.definir(conexion, "CREATE TABLE IF NOT EXISTS " + tabla
+                    + " (clave VARCHAR(64) PRIMARY KEY, registro VARCHAR(1024) NOT NULL)");
+            this.insertar = conexion.prepareStatement("INSERT INTO " + tabla + " (clave, registro) VALUES (?, ?)");
+            this.actualizar = conexion.prepareStatement("UPDATE " + tabla + " SET registro = ? WHERE clave = ?");
+            this.eliminar = conexion.prepareStatement("DELETE FROM " + tabla + " WHERE clave = ?");
+            cargar();
+            if (!BaseDatosEmbebida.importado(conexion, tabla)) {
+                importarArchivo();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al abrir la tabla de " + tabla + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public TipoMotorAlmacenamiento getTipo() {
+        return TipoMotorAlmacenamiento.JDBC;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInsercion(T entidad) {
+        try {
+            insertar.setString(1, esquema.clave(entidad));
+            insertar.setString(2, esquema.serializar(entidad));
+            insertar.executeUpdate();
+            conexion.commit();
+        } catch (SQLException e) {
+            throw errorEscritura(e);
+        }
+        return SIN_ESCRITURA;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInserciones(List<T> entidades) {
+        try {
+            for (T entidad : entidades) {
+                insertar.setString(1, esquema.clave(entidad));
+                insertar.setString(2, esquema.serializar(entidad));
+                insertar.addBatch();
+            }
+            insertar.executeBatch();
+            conexion.commit();
+        } catch (SQLException e) {
+            throw errorEscritura(e);
+        }
+        return SIN_ESCRITURA;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirActualizacion(T entidad) {
+        try {
+            actualizar.setString(1, esquema.serializar(entidad));
+            actualizar.setString(2, esquema.clave(entidad));
+            actualizar.executeUpdate();
+            conexion.commit();
+        } catch (SQLException e) {
+            throw errorEscritura(e);
+        }
+        return SIN_ESCRITURA;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirEliminacion(String clave) {
+        try {
+            eliminar.setString(1, clave);
+            eliminar.executeUpdate();
+            conexion.commit();
+        } catch (SQLException e) {
+            throw errorEscritura(e);
+        }
+        return SIN_ESCRITURA;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirLimpieza() {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.executeUpdate("DELETE FROM " + tabla);
+            conexion.commit();
+        } catch (SQLException e) {
+            throw errorEscritura(e);
+        }
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Carga todas las filas de la tabla en memoria.
+     */
+    private void cargar() throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT clave, registro FROM " + tabla)) {
+            while (filas.next()) {
+                try {
+                    T entidad = esquema.deserializar(filas.getString(2));
+                    datos.put(esquema.clave(entidad), entidad);
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("Error al parsear la fila " + filas.getString(1)
+                            + " de la tabla " + tabla, e);
+                }
+            }
+        }
+        conexion.commit();
+    }
+
+    /**
+     * Importa una única vez los datos del archivo CSV o binario, en una sola transacción.
+     */
+    private void importarArchivo() {
+        String rutaBase = esquema.getRutaBase();
+        boolean hayArchivo = new File(FormatoArchivo.CSV.ruta(rutaBase)).exists()
+                || new File(FormatoArchivo.BINARIO.ruta(rutaBase)).exists();
+        try {
+            if (hayArchivo) {
+                for (T entidad : new MotorCsv<>(esquema).todos()) {
+                    if (datos.putIfAbsent(esquema.clave(entidad), entidad) == null) {
+                        insertar.setString(1, esquema.clave(entidad));
+                        insertar.setString(2, esquema.serializar(entidad));
+                        insertar.addBatch();
+                    }
+                }
+                insertar.executeBatch();
+            }
+            BaseDatosEmbebida.marcarImportado(conexion, tabla);
+            conexion.commit();
+        } catch (SQLException e) {
+            BaseDatosEmbebida.revertir(conexion, e);
+            datos.clear();
+            throw new RuntimeException("Error al importar " + tabla + " a la base de datos: " + e.getMessage(), e);
+        }
+    }
+
+    private RuntimeException errorEscritura(SQLException e) {
+        BaseDatosEmbebida.revertir(conexion, e);
+        return new RuntimeException("Error al escribir en la tabla " + tabla + ": " + e.getMessage(), e);
+    }
+}
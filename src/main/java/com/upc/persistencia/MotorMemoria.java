@@ -0,0 +1,258 @@
+package com.upc.persistencia;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Clase MotorMemoria
+ * Motor de almacenamiento que guarda las entidades solo en memoria (ConcurrentHashMap).
+ *
+ * <p>No lee ni escribe archivos, por lo que sirve para pruebas y mediciones, y como
+ * base de los motores persistentes: estos heredan el mapa y sus reglas, y solo
+ * redefinen cómo se persiste cada cambio ({@code persistir*}) y cómo se espera la
+ * escritura ({@link #esperar(CompletableFuture)}).</p>
+ *
+ * <p>Los métodos {@code persistir*} se invocan con el bloqueo del motor y el mapa ya
+ * modificado, de modo que ven un estado consistente; la espera de la escritura ocurre
+ * fuera del bloqueo para no serializar las operaciones mientras el disco trabaja.</p>
+ *
+ * @param <T> Tipo de entidad almacenada
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorMemoria<T> implements MotorAlmacenamiento<T> {
+
+    /**
+     * Escritura ya completada, devuelta cuando no hay nada que persistir
+     */
+    protected static final CompletableFuture<Void> SIN_ESCRITURA = CompletableFuture.completedFuture(null);
+
+    /**
+     * Descripción de la entidad almacenada
+     */
+    protected final EsquemaEntidad<T> esquema;
+
+    /**
+     * Entidades en memoria (Clave -> Entidad). Las modificaciones se hacen con el
+     * bloqueo del motor; el mapa es concurrente para que {@link #recorrer} no lo necesite.
+     */
+    protected final Map<String, T> datos;
+
+    /**
+     * Constructor del motor en memoria.
+     *
+     * @param esquema Descripción de la entidad almacenada
+     */
+    public MotorMemoria(EsquemaEntidad<T> esquema) {
+        this.esquema = esquema;
+        this.datos = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public TipoMotorAlmacenamiento getTipo() {
+        return TipoMotorAlmacenamiento.MEMORIA;
+    }
+
+    @Override
+    public synchronized T buscar(String clave) {
+        return datos.get(clave);
+    }
+
+    @Override
+    public synchronized boolean contiene(String clave) {
+        return datos.containsKey(clave);
+    }
+
+    @Override
+    public synchronized List<T> todos() {
+        return new ArrayList<>(datos.values());
+    }
+
+    @Override
+    public void recorrer(Consumer<? super T> visitante) {
+        for (T entidad : datos.values()) {
+            visitante.accept(entidad);
+        }
+    }
+
+    @Override
+    public synchronized int contar() {
+        return datos.size();
+    }
+
+    @Override
+    public boolean insertar(T entidad) {
+        String clave = esquema.clave(entidad);
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            if (datos.containsKey(clave)) {
+                return false; // Ya existe
+            }
+            datos.put(clave, entidad);
+            try {
+                escritura = persistirInsercion(entidad);
+            } catch (RuntimeException e) {
+                // La cola rechazó la escritura: el cambio no debe quedar solo en memoria
+                datos.remove(clave);
+                throw e;
+            }
+        }
+        esperar(escritura);
+        return true;
+    }
+
+    @Override
+    public List<T> insertarTodos(Collection<T> entidades) {
+        List<T> insertadas = new ArrayList<>(entidades.size());
+        List<T> existentes = new ArrayList<>();
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            for (T entidad : entidades) {
+                if (datos.putIfAbsent(esquema.clave(entidad), entidad) == null) {
+                    insertadas.add(entidad);
+                } else {
+                    existentes.add(entidad);
+                }
+            }
+            if (insertadas.isEmpty()) {
+                return existentes;
+            }
+            try {
+                escritura = persistirInserciones(insertadas);
+            } catch (RuntimeException e) {
+                for (T entidad : insertadas) {
+                    datos.remove(esquema.clave(entidad));
+                }
+                throw e;
+            }
+        }
+        esperar(escritura);
+        return existentes;
+    }
+
+    @Override
+    public boolean reemplazar(T entidad) {
+        String clave = esquema.clave(entidad);
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            if (!datos.containsKey(clave)) {
+                return false; // No existe
+            }
+            T anterior = datos.put(clave, entidad);
+            try {
+                escritura = persistirActualizacion(entidad);
+            } catch (RuntimeException e) {
+                datos.put(clave, anterior);
+                throw e;
+            }
+        }
+        esperar(escritura);
+        return true;
+    }
+
+    @Override
+    public boolean eliminar(String clave) {
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            T eliminado = datos.remove(clave);
+            if (eliminado == null) {
+                return false;
+            }
+            try {
+                escritura = persistirEliminacion(clave);
+            } catch (RuntimeException e) {
+                datos.put(clave, eliminado);
+                throw e;
+            }
+        }
+        esperar(escritura);
+        return true;
+    }
+
+    @Override
+    public void limpiar() {
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            Map<String, T> anteriores = new HashMap<>(datos);
+            datos.clear();
+            try {
+                escritura = persistirLimpieza();
+            } catch (RuntimeException e) {
+                datos.putAll(anteriores);
+                throw e;
+            }
+        }
+        esperar(escritura);
+    }
+
+    /**
+     * Persiste la inserción de una entidad.
+     *
+     * @param entidad Entidad insertada
+     * @return Futuro que se completa cuando el cambio está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirInsercion(T entidad) {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Persiste la inserción de varias entidades con una sola escritura.
+     *
+     * @param entidades Entidades insertadas
+     * @return Futuro que se completa cuando los cambios están en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirInserciones(List<T> entidades) {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Persiste la actualización de una entidad.
+     *
+     * @param entidad Entidad con los datos actualizados
+     * @return Futuro que se completa cuando el cambio está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirActualizacion(T entidad) {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Persiste la eliminación de una entidad.
+     *
+     * @param clave Clave de la entidad eliminada
+     * @return Futuro que se completa cuando el cambio está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirEliminacion(String clave) {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Persiste la eliminación de todas las entidades.
+     *
+     * @return Futuro que se completa cuando el cambio está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirLimpieza() {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Espera una escritura según la durabilidad configurada.
+     * En memoria no hay nada que esperar.
+     *
+     * @param escritura Futuro devuelto por un método {@code persistir*}
+     * @throws RuntimeException si la escritura falló y había que esperarla
+     */
+    protected void esperar(CompletableFuture<Void> escritura) {
+    }
+}
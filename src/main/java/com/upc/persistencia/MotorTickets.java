@@ -0,0 +1,299 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Interfaz MotorTickets
+ * Contrato de los motores que guardan los tickets de {@link TicketDAO}, uno por cada
+ * {@link ModoAlmacenamientoTickets}.
+ *
+ * <p>Sigue el contrato de {@link MotorAlmacenamiento}: el motor es dueño de los
+ * tickets, de sus índices y de su persistencia, y el DAO solo valida y delega. Además
+ * de las operaciones por clave, cada motor resuelve las búsquedas por pasajero,
+ * vehículo y fecha con sus propios índices (en memoria, en el archivo mapeado o en la
+ * base de datos) y le da al planificador de {@link TicketDAO#planificar(ConsultaTickets)}
+ * la estimación y el flujo de candidatos de cada acceso.</p>
+ *
+ * <p>Las operaciones de escritura aplican el cambio y lo persisten según la
+ * durabilidad configurada en {@link EscritorPersistencia}. Si la cola de escritura
+ * rechaza el cambio, se deshace antes de propagar la excepción.</p>
+ *
+ * <p>Las implementaciones deben ser seguras para el uso concurrente.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public interface MotorTickets {
+
+    /**
+     * Obtiene el modo de almacenamiento que implementa el motor.
+     *
+     * @return Modo del motor
+     */
+    ModoAlmacenamientoTickets getModo();
+
+    /**
+     * Genera un ID único para un ticket nuevo.
+     *
+     * @return ID generado en formato "TK-00001"
+     */
+    String generarId();
+
+    /**
+     * Busca un ticket por su ID.
+     *
+     * @param idTicket ID del ticket
+     * @return Ticket encontrado o null si no existe
+     */
+    Ticket buscar(String idTicket);
+
+    /**
+     * Verifica si existe un ticket con el ID indicado.
+     *
+     * @param idTicket ID a verificar
+     * @return true si existe, false si no
+     */
+    boolean contiene(String idTicket);
+
+    /**
+     * Obtiene una copia de todos los tickets.
+     *
+     * @return Lista de tickets
+     */
+    List<Ticket> todos();
+
+    /**
+     * Entrega cada ticket a un visitante, sin copiar el historial a una lista. El
+     * recorrido no detiene las ventas: puede incluir o no los cambios hechos mientras
+     * se ejecuta.
+     *
+     * @param visitante Función que recibe cada ticket
+     * @throws RuntimeException si ocurre un error al leer los datos
+     */
+    void recorrer(Consumer<? super Ticket> visitante);
+
+    /**
+     * Obtiene la cantidad de tickets.
+     *
+     * @return Número de tickets
+     */
+    int contar();
+
+    /**
+     * Inserta un ticket nuevo.
+     *
+     * @param ticket Ticket a insertar
+     * @return true si se insertó, false si ya existía uno con el mismo ID
+     * @throws IllegalStateException si la fecha del ticket corresponde a una partición sellada
+     * @throws RuntimeException si ocurre un error al persistir el cambio
+     */
+    boolean insertar(Ticket ticket);
+
+    /**
+     * Inserta varios tickets y persiste el cambio una sola vez, en lugar de una vez por
+     * ticket. El contador de IDs avanza más allá del mayor ID insertado.
+     *
+     * @param lote Tickets a insertar (sin elementos null ni IDs null)
+     * @return Tickets que no se insertaron porque ya existía uno con el mismo ID
+     *         (incluido uno anterior del mismo lote)
+     * @throws RuntimeException si ocurre un error al persistir; los tickets aún no
+     *         escritos quedan sin insertar
+     */
+    List<Ticket> insertarTodos(Collection<Ticket> lote);
+
+    /**
+     * Reemplaza un ticket existente.
+     *
+     * @param ticket Ticket con los datos actualizados
+     * @return true si se reemplazó, false si no existía
+     * @throws IllegalStateException si el ticket pertenece a una partición sellada
+     * @throws RuntimeException si ocurre un error al persistir el cambio
+     */
+    boolean reemplazar(Ticket ticket);
+
+    /**
+     * Elimina un ticket.
+     *
+     * @param idTicket ID del ticket a eliminar
+     * @return true si se eliminó, false si no existía
+     * @throws IllegalStateException si el ticket pertenece a una partición sellada
+     * @throws RuntimeException si ocurre un error al persistir el cambio
+     */
+    boolean eliminar(String idTicket);
+
+    /**
+     * Elimina todos los tickets y reinicia el contador de IDs.
+     *
+     * @throws RuntimeException si ocurre un error al persistir el cambio
+     */
+    void limpiar();
+
+    /**
+     * Busca los tickets de un pasajero.
+     *
+     * @param cedula Cédula del pasajero
+     * @return Lista de tickets del pasajero
+     */
+    List<Ticket> buscarPorCedula(String cedula);
+
+    /**
+     * Busca los tickets de un vehículo.
+     *
+     * @param placa Placa del vehículo
+     * @return Lista de tickets del vehículo
+     */
+    List<Ticket> buscarPorPlaca(String placa);
+
+    /**
+     * Busca los tickets emitidos dentro de un rango de fechas no vacío.
+     *
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido), posterior a {@code desde}
+     * @return Lista de tickets del rango, ordenada por fecha e ID
+     */
+    List<Ticket> buscarEnRango(LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Busca los tickets más recientes.
+     *
+     * @param cantidad Cantidad máxima de tickets, mayor que 0
+     * @return Tickets del más reciente al más antiguo
+     */
+    List<Ticket> buscarUltimos(int cantidad);
+
+    /**
+     * Busca los tickets que siguen a una posición del orden cronológico.
+     *
+     * @param cursor Clave del último ticket ya entregado, o null para empezar por el más antiguo
+     * @param cantidad Cantidad máxima de tickets, mayor que 0
+     * @return Tickets posteriores al cursor, en orden cronológico
+     */
+    List<Ticket> buscarPosterioresA(ClaveCronologica cursor, int cantidad);
+
+    /**
+     * Obtiene los tickets con los IDs indicados, omitiendo los que ya no existen.
+     *
+     * @param ids IDs de los tickets
+     * @return Tickets encontrados
+     */
+    List<Ticket> buscarPorIds(List<String> ids);
+
+    /**
+     * Obtiene la proyección columnar de los tickets para reportes y totales. Se
+     * construye en la primera llamada y desde entonces se actualiza con cada operación.
+     *
+     * @return Tabla columnar con todos los tickets
+     */
+    TablaColumnarTickets getTablaColumnar();
+
+    /**
+     * Resume todos los tickets: cantidad, ingresos y distancia total.
+     *
+     * @return Resumen de los tickets
+     */
+    TablaColumnarTickets.Resumen resumir();
+
+    /**
+     * Suma los ingresos de cada tipo de pasajero.
+     *
+     * @return Ingresos indexados por {@link com.upc.modelo.TipoPasajero#ordinal()}
+     */
+    double[] ingresosPorTipoPasajero();
+
+    /**
+     * Obtiene la cantidad de tickets que cubren los flujos de {@link #candidatos}; en modo
+     * PARTICIONADO, solo los de la partición abierta.
+     *
+     * @return Número de tickets indexados
+     */
+    long contarIndexados();
+
+    /**
+     * Estima cuántos candidatos entrega un acceso para una consulta.
+     *
+     * @param acceso Acceso a estimar
+     * @param consulta Consulta a resolver
+     * @param total Resultado de {@link #contarIndexados()}
+     * @return Candidatos estimados, o -1 si el acceso no sirve para la consulta o el motor
+     */
+    long estimar(PlanConsulta.Acceso acceso, ConsultaTickets consulta, long total);
+
+    /**
+     * Obtiene el flujo de candidatos de un acceso, sin filtrar. En modo PARTICIONADO
+     * cubre solo la partición abierta.
+     *
+     * @param acceso Acceso elegido por el planificador
+     * @param consulta Consulta a resolver
+     * @return Candidatos, en orden de fecha si el acceso es {@link PlanConsulta.Acceso#INDICE_FECHA}
+     */
+    Stream<Ticket> candidatos(PlanConsulta.Acceso acceso, ConsultaTickets consulta);
+
+    /**
+     * Cuenta las particiones selladas que pueden tener tickets de la consulta.
+     *
+     * @param consulta Consulta a resolver
+     * @return Particiones selladas a leer, o 0 si el motor no tiene particiones
+     */
+    default int contarSelladas(ConsultaTickets consulta) {
+        return 0;
+    }
+
+    /**
+     * Obtiene el flujo de los tickets de la consulta que están fuera de los
+     * {@link #candidatos}, en particiones selladas, ya filtrados y en el orden pedido.
+     *
+     * @param consulta Consulta a resolver
+     * @return Tickets de las particiones selladas, o un flujo vacío si el motor no tiene particiones
+     * @throws RuntimeException si ocurre un error al leer una partición
+     */
+    default Stream<Ticket> flujoSelladas(ConsultaTickets consulta) {
+        return Stream.empty();
+    }
+
+    /**
+     * Compacta el almacenamiento (solo en modo BITACORA).
+     *
+     * @return Duración de la compactación en milisegundos, o 0 si el motor no usa bitácora
+     * @throws RuntimeException si ocurre un error al escribir la instantánea
+     */
+    default long compactar() {
+        return 0;
+    }
+
+    /**
+     * Obtiene la duración de la última compactación.
+     *
+     * @return Duración en milisegundos, o -1 si aún no se ha compactado
+     */
+    default long getDuracionUltimaCompactacionMs() {
+        return -1;
+    }
+
+    /**
+     * Obtiene el error de la última tarea que el motor ejecutó por su cuenta en segundo
+     * plano y falló: la compactación automática en modo BITACORA, la compresión de
+     * particiones selladas en modo PARTICIONADO o la confirmación asíncrona de un lote
+     * en modo JDBC.
+     *
+     * @return Último error, o null si ninguna falló
+     */
+    default RuntimeException getErrorSegundoPlano() {
+        return null;
+    }
+
+    /**
+     * Obtiene el registro incompleto que se descartó al cargar la bitácora (solo en modo
+     * BITACORA): la última línea de un segmento, cortada por una escritura interrumpida.
+     *
+     * @return Error con la línea descartada y su causa, o null si no se descartó ninguna
+     */
+    default RuntimeException getRegistroDescartado() {
+        return null;
+    }
+}
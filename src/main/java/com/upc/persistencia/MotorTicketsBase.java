@@ -0,0 +1,244 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Clase MotorTicketsBase
+ * Base de los motores de tickets: contador de IDs, proyección columnar y la parte del
+ * planificador que no depende de dónde viven los tickets.
+ *
+ * <p>El contador y la tabla columnar se modifican con el bloqueo del motor, el mismo
+ * con que cada subclase aplica sus escrituras. La tabla se construye recién cuando se
+ * piden reportes, recorriendo los tickets con {@link #recorrer}; desde entonces cada
+ * escritura la actualiza con {@link #proyectar(Ticket)}.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public abstract class MotorTicketsBase implements MotorTickets {
+
+    /**
+     * Contador para generar IDs únicos de tickets (protegido por el bloqueo del motor)
+     */
+    protected int contadorId = 1;
+
+    /**
+     * Proyección columnar para reportes (null hasta que se pide por primera vez)
+     */
+    private volatile TablaColumnarTickets tablaColumnar;
+
+    @Override
+    public synchronized String generarId() {
+        return String.format("TK-%05d", contadorId++);
+    }
+
+    @Override
+    public List<Ticket> todos() {
+        List<Ticket> todos = new ArrayList<>((int) contarIndexados());
+        recorrer(todos::add);
+        return todos;
+    }
+
+    @Override
+    public List<Ticket> buscarPorIds(List<String> ids) {
+        List<Ticket> encontrados = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Ticket ticket = buscar(id);
+            if (ticket != null) { // Puede haberse eliminado después de leer los IDs
+                encontrados.add(ticket);
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public TablaColumnarTickets getTablaColumnar() {
+        TablaColumnarTickets tabla = tablaColumnar;
+        if (tabla == null) {
+            synchronized (this) {
+                if (tablaColumnar == null) {
+                    TablaColumnarTickets nueva = new TablaColumnarTickets();
+                    recorrer(nueva::registrar);
+                    tablaColumnar = nueva;
+                }
+                tabla = tablaColumnar;
+            }
+        }
+        return tabla;
+    }
+
+    @Override
+    public TablaColumnarTickets.Resumen resumir() {
+        return getTablaColumnar().resumir();
+    }
+
+    @Override
+    public double[] ingresosPorTipoPasajero() {
+        return getTablaColumnar().ingresosPorTipoPasajero();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Descarta los accesos cuyo filtro no está en la consulta y estima la ruta con el
+     * contador de la tabla columnar; los demás accesos los estima el motor con
+     * {@link #estimarIndice}.</p>
+     */
+    @Override
+    public long estimar(PlanConsulta.Acceso acceso, ConsultaTickets consulta, long total) {
+        switch (acceso) {
+            case INDICE_CEDULA:
+                return consulta.getCedula() == null ? -1 : estimarIndice(acceso, consulta, total);
+            case INDICE_PLACA:
+                return consulta.getPlaca() == null ? -1 : estimarIndice(acceso, consulta, total);
+            case INDICE_RUTA:
+                if (!consulta.isPorRuta()) {
+                    return -1;
+                }
+                return Math.min(total, getTablaColumnar()
+                        .estadisticaRuta(consulta.getIdOrigen(), consulta.getIdDestino()).getCantidad());
+            default:
+                return estimarIndice(acceso, consulta, total);
+        }
+    }
+
+    /**
+     * Estima cuántos candidatos entrega un acceso por cédula, placa o fecha, o el
+     * recorrido completo. Los accesos por cédula y placa solo se piden si la consulta
+     * tiene ese filtro.
+     *
+     * @param acceso Acceso a estimar (nunca {@link PlanConsulta.Acceso#INDICE_RUTA})
+     * @param consulta Consulta a resolver
+     * @param total Resultado de {@link #contarIndexados()}
+     * @return Candidatos estimados, o -1 si el acceso no sirve para el motor
+     */
+    protected abstract long estimarIndice(PlanConsulta.Acceso acceso, ConsultaTickets consulta, long total);
+
+    /**
+     * Estima los candidatos de un acceso por cédula o por placa sin índice en memoria,
+     * suponiendo que los tickets se reparten por igual entre pasajeros o vehículos.
+     *
+     * @param acceso {@link PlanConsulta.Acceso#INDICE_CEDULA} o {@link PlanConsulta.Acceso#INDICE_PLACA}
+     * @param total Cantidad de tickets
+     * @return Candidatos estimados
+     */
+    protected static long repartir(PlanConsulta.Acceso acceso, long total) {
+        int grupos = acceso == PlanConsulta.Acceso.INDICE_CEDULA
+                ? PasajeroDAO.getInstancia().contarPasajeros()
+                : VehiculoDAO.getInstancia().contarVehiculos();
+        return total / Math.max(1, grupos);
+    }
+
+    /**
+     * Registra un ticket guardado o actualizado en la tabla columnar, si existe.
+     * Debe llamarse con el bloqueo del motor.
+     *
+     * @param ticket Ticket guardado o actualizado
+     */
+    protected void proyectar(Ticket ticket) {
+        if (tablaColumnar != null) {
+            tablaColumnar.registrar(ticket);
+        }
+    }
+
+    /**
+     * Registra en la tabla columnar los tickets de un lote que sí se guardaron y avanza
+     * el contador de IDs más allá del mayor de ellos. Debe llamarse con el bloqueo del motor.
+     *
+     * @param lote Tickets del lote
+     * @param existentes Tickets del lote que no se guardaron
+     */
+    protected void proyectarGuardados(Collection<Ticket> lote, Collection<Ticket> existentes) {
+        Set<Ticket> rechazados = Collections.newSetFromMap(new IdentityHashMap<>());
+        rechazados.addAll(existentes);
+        List<Ticket> guardados = new ArrayList<>(lote.size());
+        for (Ticket ticket : lote) {
+            if (!rechazados.contains(ticket)) {
+                proyectar(ticket);
+                guardados.add(ticket);
+            }
+        }
+        contadorId = Math.max(contadorId, maxNumeroId(guardados) + 1);
+    }
+
+    /**
+     * Quita un ticket eliminado de la tabla columnar, si existe.
+     * Debe llamarse con el bloqueo del motor.
+     *
+     * @param idTicket ID del ticket eliminado
+     */
+    protected void quitarProyeccion(String idTicket) {
+        if (tablaColumnar != null) {
+            tablaColumnar.eliminar(idTicket);
+        }
+    }
+
+    /**
+     * Vacía la tabla columnar, si existe. Debe llamarse con el bloqueo del motor.
+     */
+    protected void limpiarProyeccion() {
+        if (tablaColumnar != null) {
+            tablaColumnar.limpiar();
+        }
+    }
+
+    /**
+     * Agrega a la lista los tickets cuya fecha está en el rango.
+     */
+    protected static void agregarEnRango(Collection<Ticket> candidatos, LocalDateTime desde, LocalDateTime hasta,
+                                         List<Ticket> destino) {
+        for (Ticket ticket : candidatos) {
+            agregarEnRango(ticket, desde, hasta, destino);
+        }
+    }
+
+    /**
+     * Agrega el ticket a la lista si su fecha está en el rango.
+     */
+    protected static void agregarEnRango(Ticket ticket, LocalDateTime desde, LocalDateTime hasta,
+                                         List<Ticket> destino) {
+        LocalDateTime fecha = ticket.getFecha();
+        if (!fecha.isBefore(desde) && fecha.isBefore(hasta)) {
+            destino.add(ticket);
+        }
+    }
+
+    /**
+     * Obtiene el mayor número de ID entre los tickets indicados.
+     *
+     * @param contenido Tickets a revisar
+     * @return Mayor número de ID, o 0 si no hay tickets con el formato esperado
+     */
+    protected static int maxNumeroId(Collection<Ticket> contenido) {
+        int maxId = 0;
+        for (Ticket ticket : contenido) {
+            maxId = Math.max(maxId, extraerNumeroId(ticket.getIdTicket()));
+        }
+        return maxId;
+    }
+
+    /**
+     * Extrae el número de un ID con formato "TK-00001".
+     *
+     * @param id ID del ticket
+     * @return Número del ID, o 0 si el ID no sigue el formato esperado
+     */
+    static int extraerNumeroId(String id) {
+        if (id.startsWith("TK-")) {
+            try {
+                return Integer.parseInt(id.substring(3));
+            } catch (NumberFormatException e) {
+                // Si no se puede parsear, ignorar
+            }
+        }
+        return 0;
+    }
+}
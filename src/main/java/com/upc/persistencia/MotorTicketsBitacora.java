@@ -0,0 +1,206 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clase MotorTicketsBitacora
+ * Motor de tickets que anexa un registro por operación a una bitácora
+ * ({@code data/tickets.log*}) en lugar de reescribir el archivo completo (modo
+ * {@link ModoAlmacenamientoTickets#BITACORA}).
+ *
+ * <p>El archivo de tickets actúa como instantánea y la bitácora se reproduce sobre
+ * ella al iniciar. Así el costo de una venta no depende del historial. Periódicamente
+ * (o a pedido con {@link #compactar()}) se escribe una instantánea nueva en segundo
+ * plano y se eliminan los segmentos que cubre.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorTicketsBitacora extends MotorTicketsCsv {
+
+    /**
+     * Encabezado de la instantánea que indica el primer segmento de bitácora a reproducir
+     */
+    public static final String ENCABEZADO_SEGMENTO = "#bitacora=";
+
+    /**
+     * Propiedad del sistema con el intervalo de compactación automática en segundos (0 la desactiva)
+     */
+    public static final String PROPIEDAD_INTERVALO_COMPACTACION = "barceloneta.tickets.compactacion.intervaloSeg";
+
+    /**
+     * Ruta de la bitácora de operaciones
+     */
+    private static final String ARCHIVO_BITACORA = "data/tickets.log";
+
+    /**
+     * Bitácora de operaciones
+     */
+    private final BitacoraTickets bitacora;
+
+    /**
+     * Bloqueo que impide ejecutar dos compactaciones a la vez
+     */
+    private final Object bloqueoCompactacion = new Object();
+
+    /**
+     * Duración de la última compactación en milisegundos (-1 si no se ha compactado)
+     */
+    private volatile long duracionUltimaCompactacionMs = -1;
+
+    /**
+     * Error de la última compactación automática que falló, o null
+     */
+    private volatile RuntimeException errorCompactacionAutomatica;
+
+    /**
+     * Constructor del motor. Carga la instantánea, reproduce la bitácora y programa la
+     * compactación automática.
+     *
+     * @param formato Formato de la instantánea
+     * @param cola Cola de escritura de los tickets
+     * @throws RuntimeException si ocurre un error al leer los archivos o si los datos están corruptos
+     */
+    public MotorTicketsBitacora(FormatoArchivo formato, ColaEscritura cola) {
+        this(formato, cola, new BitacoraTickets(ARCHIVO_BITACORA, cola));
+    }
+
+    private MotorTicketsBitacora(FormatoArchivo formato, ColaEscritura cola, BitacoraTickets bitacora) {
+        super(formato, cola, bitacora);
+        this.bitacora = bitacora;
+        programarCompactacion();
+    }
+
+    @Override
+    public ModoAlmacenamientoTickets getModo() {
+        return ModoAlmacenamientoTickets.BITACORA;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInsercion(Ticket ticket) {
+        return bitacora.registrarInsercion(ticket);
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInserciones(List<Ticket> insertados) {
+        return bitacora.registrarInserciones(insertados);
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirActualizacion(Ticket ticket) {
+        return bitacora.registrarActualizacion(ticket);
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirEliminacion(String idTicket) {
+        return bitacora.registrarEliminacion(idTicket);
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirLimpieza() {
+        return bitacora.registrarLimpieza();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Rota la bitácora a un segmento nuevo, escribe una instantánea de todos los
+     * tickets en el archivo base y elimina los segmentos cubiertos por ella. Las ventas
+     * solo se detienen durante la rotación (tiempo constante); la instantánea se escribe
+     * mientras siguen llegando operaciones, que se registran en el segmento nuevo. Como
+     * los registros de la bitácora son idempotentes, reproducir ese segmento sobre la
+     * instantánea reconstruye el estado exacto aunque ella ya incluya algunos cambios.</p>
+     */
+    @Override
+    public long compactar() {
+        synchronized (bloqueoCompactacion) {
+            long inicio = System.nanoTime();
+
+            int ultimoSegmentoCubierto;
+            synchronized (this) {
+                ultimoSegmentoCubierto = bitacora.rotar();
+            }
+
+            // Los registros pendientes de los segmentos cubiertos deben llegar al disco
+            // antes de eliminarlos, o el escritor los volvería a crear
+            EscritorPersistencia.getInstancia().sincronizar();
+
+            escribirInstantanea(ultimoSegmentoCubierto + 1);
+            bitacora.eliminarSegmentosHasta(ultimoSegmentoCubierto);
+
+            duracionUltimaCompactacionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            return duracionUltimaCompactacionMs;
+        }
+    }
+
+    @Override
+    public long getDuracionUltimaCompactacionMs() {
+        return duracionUltimaCompactacionMs;
+    }
+
+    @Override
+    public RuntimeException getErrorSegundoPlano() {
+        return errorCompactacionAutomatica;
+    }
+
+    @Override
+    public RuntimeException getRegistroDescartado() {
+        return bitacora.getRegistroDescartado();
+    }
+
+    /**
+     * Escribe una instantánea de los tickets en el archivo base de forma atómica.
+     *
+     * @param primerSegmento Primer segmento de bitácora no cubierto por la instantánea
+     * @throws RuntimeException si ocurre un error al escribir el archivo
+     */
+    private void escribirInstantanea(int primerSegmento) {
+        try {
+            if (formato == FormatoArchivo.BINARIO) {
+                EscritorPersistencia.reemplazarArchivo(new File(ARCHIVO_TICKETS_BINARIO),
+                        salida -> escribirBinario(salida, tickets.values(), primerSegmento));
+                return;
+            }
+            EscritorPersistencia.reemplazarArchivo(new File(ARCHIVO_TICKETS), salida -> {
+                EscritorPersistencia.escribirLinea(salida, ENCABEZADO_SEGMENTO + primerSegmento);
+                for (Ticket ticket : tickets.values()) {
+                    EscritorPersistencia.escribirLinea(salida, SerializadorTicket.serializar(ticket));
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Error al escribir la instantánea de tickets", e);
+        }
+    }
+
+    /**
+     * Programa la compactación automática en segundo plano según la configuración. Si
+     * una compactación falla, la bitácora sigue siendo válida: el error queda en
+     * {@link #getErrorSegundoPlano()} y se vuelve a intentar en el siguiente intervalo.
+     */
+    private void programarCompactacion() {
+        long intervalo = Long.getLong(PROPIEDAD_INTERVALO_COMPACTACION, 300L);
+        if (intervalo <= 0) {
+            return;
+        }
+        ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "compactador-tickets");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(() -> {
+            try {
+                compactar();
+            } catch (RuntimeException e) {
+                errorCompactacionAutomatica = e;
+            }
+        }, intervalo, intervalo, TimeUnit.SECONDS);
+    }
+}
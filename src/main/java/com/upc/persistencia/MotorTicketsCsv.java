@@ -0,0 +1,247 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Clase MotorTicketsCsv
+ * Motor de tickets que los mantiene en memoria y reescribe el archivo completo
+ * después de cada operación CRUD (modo {@link ModoAlmacenamientoTickets#CSV}, el
+ * comportamiento original de Fase 2). Una inserción masiva lo reescribe una sola vez.
+ *
+ * <p>El archivo está en el formato configurado para los tickets: CSV con codificación
+ * UTF-8 o binario ({@link FormatoArchivo}). La escritura la realiza el
+ * {@link EscritorPersistencia}, que agrupa en un solo lote las reescrituras pendientes
+ * y conserva únicamente la más reciente.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorTicketsCsv extends MotorTicketsMemoria {
+
+    /**
+     * Ruta del archivo de persistencia
+     */
+    static final String ARCHIVO_TICKETS = "data/tickets.txt";
+
+    /**
+     * Ruta del archivo de persistencia en formato binario
+     */
+    static final String ARCHIVO_TICKETS_BINARIO = FormatoArchivo.BINARIO.ruta("data/tickets");
+
+    /**
+     * Formato del archivo de tickets (o de la instantánea en modo BITACORA)
+     */
+    protected final FormatoArchivo formato;
+
+    /**
+     * Cola de escritura de los tickets
+     */
+    protected final ColaEscritura cola;
+
+    /**
+     * Constructor del motor. Carga automáticamente los tickets desde el archivo.
+     *
+     * @param formato Formato del archivo de tickets
+     * @param cola Cola de escritura de los tickets
+     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
+     */
+    public MotorTicketsCsv(FormatoArchivo formato, ColaEscritura cola) {
+        this(formato, cola, null);
+    }
+
+    /**
+     * Constructor para los motores que reproducen una bitácora sobre el archivo.
+     *
+     * @param formato Formato del archivo de tickets
+     * @param cola Cola de escritura de los tickets
+     * @param bitacora Bitácora a reproducir después del archivo, o null
+     * @throws RuntimeException si ocurre un error al leer los archivos o si los datos están corruptos
+     */
+    protected MotorTicketsCsv(FormatoArchivo formato, ColaEscritura cola, BitacoraTickets bitacora) {
+        this.formato = formato;
+        this.cola = cola;
+        cargarArchivo(formato, tickets, bitacora);
+        indexarCargados();
+    }
+
+    @Override
+    public ModoAlmacenamientoTickets getModo() {
+        return ModoAlmacenamientoTickets.CSV;
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInsercion(Ticket ticket) {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInserciones(List<Ticket> insertados) {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirActualizacion(Ticket ticket) {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirEliminacion(String idTicket) {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirLimpieza() {
+        return guardarEnArchivo();
+    }
+
+    @Override
+    protected void esperar(CompletableFuture<Void> escritura) {
+        cola.completar(escritura);
+    }
+
+    /**
+     * Encola la reescritura del archivo completo con el contenido actual del mapa.
+     * Debe invocarse con el bloqueo del motor.
+     *
+     * @return Futuro que se completa cuando el archivo está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    private CompletableFuture<Void> guardarEnArchivo() {
+        List<Ticket> copia = new ArrayList<>(tickets.values());
+        if (formato == FormatoArchivo.BINARIO) {
+            return cola.encolarReescritura(new File(ARCHIVO_TICKETS_BINARIO),
+                    salida -> escribirBinario(salida, copia, 0));
+        }
+        return cola.encolarReescritura(new File(ARCHIVO_TICKETS), copia,
+                SerializadorTicket::serializar);
+    }
+
+    /**
+     * Carga los tickets desde el archivo de texto o binario. Los demás motores la usan
+     * para migrar, una única vez, los tickets del archivo a su propio almacenamiento.
+     *
+     * Si el archivo no existe, se crea vacío.
+     * Si el archivo está corrupto, se lanza una excepción.
+     * Si se indica una bitácora, después del archivo base se reproduce la bitácora.
+     *
+     * El archivo base se interpreta antes de pedir VehiculoDAO y PasajeroDAO, de modo
+     * que, si {@link CoordinadorArranque} los está cargando en otros hilos, la lectura
+     * de los tres archivos se solapa. Las referencias se resuelven al final.
+     *
+     * @param formato Formato del archivo de tickets
+     * @param destino Mapa donde se cargan los tickets (se vacía antes)
+     * @param bitacora Bitácora a reproducir después del archivo, o null
+     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
+     */
+    static void cargarArchivo(FormatoArchivo formato, Map<String, Ticket> destino, BitacoraTickets bitacora) {
+        File archivo = new File(ARCHIVO_TICKETS);
+        File binario = new File(ARCHIVO_TICKETS_BINARIO);
+        boolean usarBinario = formato == FormatoArchivo.BINARIO && binario.exists();
+
+        // Si el archivo no existe, crearlo
+        if (!usarBinario && !archivo.exists() && formato == FormatoArchivo.CSV) {
+            try {
+                archivo.getParentFile().mkdirs();
+                archivo.createNewFile();
+            } catch (IOException e) {
+                throw new RuntimeException("Error al crear el archivo de tickets: " + ARCHIVO_TICKETS, e);
+            }
+        }
+
+        // Fase 1: interpretar el archivo base sin consultar otros DAOs
+        destino.clear();
+        int primerSegmento = 0;
+        CargadorParaleloTickets cargador = null;
+        List<TicketSinResolver> pendientes = null;
+        if (usarBinario) {
+            pendientes = new ArrayList<>();
+            primerSegmento = leerArchivoBinario(binario, ARCHIVO_TICKETS_BINARIO, pendientes);
+        } else if (archivo.exists()) {
+            cargador = new CargadorParaleloTickets(archivo, ARCHIVO_TICKETS);
+            primerSegmento = cargador.leer();
+        }
+
+        // Fase 2: obtener los DAOs necesarios y resolver las referencias
+        VehiculoDAO vehiculoDAO = VehiculoDAO.getInstancia();
+        PasajeroDAO pasajeroDAO = PasajeroDAO.getInstancia();
+
+        if (cargador != null) {
+            cargador.resolver(destino, vehiculoDAO, pasajeroDAO);
+        } else if (pendientes != null) {
+            resolverPendientes(pendientes, destino, vehiculoDAO, pasajeroDAO);
+        }
+
+        if (bitacora != null) {
+            bitacora.reproducir(destino, primerSegmento, vehiculoDAO, pasajeroDAO);
+        }
+    }
+
+    /**
+     * Lee el archivo binario de tickets sin resolver sus referencias.
+     *
+     * @param archivo Archivo binario de tickets
+     * @param nombreArchivo Nombre usado en los mensajes de error
+     * @param pendientes Lista donde se agregan los tickets leídos, en orden
+     * @return Primer segmento de bitácora no cubierto por el archivo
+     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
+     */
+    static int leerArchivoBinario(File archivo, String nombreArchivo, List<TicketSinResolver> pendientes) {
+        try (InputStream flujo = new BufferedInputStream(new FileInputStream(archivo), 65536)) {
+            CodecBinario.Entrada entrada = new CodecBinario.Entrada(flujo, CodecBinario.TIPO_TICKETS);
+
+            while (entrada.siguienteRegistro()) {
+                try {
+                    pendientes.add(SerializadorBinarioTicket.deserializarSinResolver(entrada));
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException(
+                        "Error al parsear registro " + entrada.getNumeroRegistro() + " del archivo " + nombreArchivo, e
+                    );
+                }
+            }
+            return (int) entrada.getMetadato();
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Archivo binario de tickets inválido: " + nombreArchivo, e);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el archivo de tickets: " + nombreArchivo, e);
+        }
+    }
+
+    /**
+     * Construye los tickets leídos de un archivo binario, con referencias diferidas,
+     * y los agrega a un mapa.
+     *
+     * @param pendientes Tickets en el orden del archivo
+     * @param destino Mapa donde se agregan los tickets
+     * @param vehiculoDAO DAO de vehículos para resolver referencias
+     * @param pasajeroDAO DAO de pasajeros para resolver referencias
+     */
+    static void resolverPendientes(List<TicketSinResolver> pendientes, Map<String, Ticket> destino,
+                                   VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        for (TicketSinResolver pendiente : pendientes) {
+            Ticket ticket = pendiente.resolver(vehiculoDAO, pasajeroDAO);
+            destino.put(ticket.getIdTicket(), ticket);
+        }
+    }
+
+    /**
+     * Escribe los tickets indicados en formato binario.
+     *
+     * @param salida Flujo de salida
+     * @param contenido Tickets a escribir
+     * @param primerSegmento Metadato del encabezado (primer segmento de bitácora no cubierto)
+     * @throws IOException si ocurre un error de escritura
+     */
+    static void escribirBinario(OutputStream salida, Iterable<Ticket> contenido, int primerSegmento)
+            throws IOException {
+        CodecBinario.Salida binaria = new CodecBinario.Salida(salida, CodecBinario.TIPO_TICKETS, primerSegmento);
+        for (Ticket ticket : contenido) {
+            SerializadorBinarioTicket.serializar(binaria, ticket);
+        }
+    }
+}
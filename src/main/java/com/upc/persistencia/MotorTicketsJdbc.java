@@ -0,0 +1,343 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Clase MotorTicketsJdbc
+ * Motor de tickets que los guarda en una tabla de la base de datos embebida (modo
+ * {@link ModoAlmacenamientoTickets#JDBC}).
+ *
+ * <p>Los tickets no se cargan en memoria: viven en {@link AlmacenJdbcTickets}. Las
+ * búsquedas por pasajero, vehículo y fecha usan los índices de la tabla, los totales
+ * se calculan con SQL y las ventas se insertan por lotes. Las consultas compuestas
+ * que van por fecha leen la tabla por páginas, a medida que el flujo las consume.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorTicketsJdbc extends MotorTicketsBase {
+
+    /**
+     * Fracción de la tabla que se estima para un rango de fechas, sin estadísticas
+     */
+    private static final double SELECTIVIDAD_RANGO = 1.0 / 3;
+
+    /**
+     * Tamaño máximo de las páginas que lee una consulta compuesta
+     */
+    private static final int TICKETS_POR_PAGINA_CONSULTA = 1000;
+
+    /**
+     * Tabla de la base de datos embebida
+     */
+    private final AlmacenJdbcTickets jdbc;
+
+    /**
+     * Constructor del motor. Abre la tabla de tickets de la base de datos embebida.
+     *
+     * Si los tickets aún no se importaron, se copian una única vez los del archivo
+     * CSV o binario actual. El contador de IDs se toma del mayor número registrado.
+     *
+     * @param formato Formato del archivo de tickets a importar
+     * @throws RuntimeException si ocurre un error al abrir o importar los datos
+     */
+    public MotorTicketsJdbc(FormatoArchivo formato) {
+        jdbc = new AlmacenJdbcTickets();
+        if (!jdbc.importado()) {
+            Map<String, Ticket> cargados = new ConcurrentHashMap<>();
+            MotorTicketsCsv.cargarArchivo(formato, cargados, null);
+            jdbc.importar(cargados.values());
+        }
+        contadorId = (int) jdbc.maxNumeroId() + 1;
+    }
+
+    @Override
+    public ModoAlmacenamientoTickets getModo() {
+        return ModoAlmacenamientoTickets.JDBC;
+    }
+
+    @Override
+    public RuntimeException getErrorSegundoPlano() {
+        return jdbc.getErrorConfirmacion();
+    }
+
+    @Override
+    public Ticket buscar(String idTicket) {
+        return jdbc.buscar(idTicket, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    @Override
+    public boolean contiene(String idTicket) {
+        return jdbc.existe(idTicket);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>La tabla se lee por páginas.</p>
+     */
+    @Override
+    public void recorrer(Consumer<? super Ticket> visitante) {
+        jdbc.recorrer(visitante, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    @Override
+    public int contar() {
+        return jdbc.contar();
+    }
+
+    @Override
+    public long contarIndexados() {
+        return jdbc.contar();
+    }
+
+    @Override
+    public boolean insertar(Ticket ticket) {
+        CompletableFuture<Void> insercion;
+        synchronized (this) {
+            insercion = jdbc.insertar(ticket);
+            if (insercion == null) {
+                return false; // Ya existe
+            }
+            proyectar(ticket);
+        }
+        // Confirmar fuera del bloqueo para que otras ventas compartan el lote
+        jdbc.completar(insercion);
+        return true;
+    }
+
+    @Override
+    public synchronized List<Ticket> insertarTodos(Collection<Ticket> lote) {
+        List<Ticket> existentes = jdbc.insertarTodos(lote);
+        proyectarGuardados(lote, existentes);
+        return existentes;
+    }
+
+    @Override
+    public synchronized boolean reemplazar(Ticket ticket) {
+        if (!jdbc.actualizar(ticket)) {
+            return false; // No existe
+        }
+        proyectar(ticket);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean eliminar(String idTicket) {
+        if (!jdbc.eliminar(idTicket)) {
+            return false;
+        }
+        quitarProyeccion(idTicket);
+        return true;
+    }
+
+    @Override
+    public synchronized void limpiar() {
+        jdbc.limpiar();
+        contadorId = 1;
+        limpiarProyeccion();
+    }
+
+    @Override
+    public List<Ticket> buscarPorCedula(String cedula) {
+        return jdbc.buscarPorCedula(cedula, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    @Override
+    public List<Ticket> buscarPorPlaca(String placa) {
+        return jdbc.buscarPorPlaca(placa, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se consulta el índice por fecha de la tabla.</p>
+     */
+    @Override
+    public List<Ticket> buscarEnRango(LocalDateTime desde, LocalDateTime hasta) {
+        List<Ticket> enRango = new ArrayList<>();
+        agregarEnRango(jdbc.buscarEnRango(CodecFecha.aEpochMilis(desde), CodecFecha.aEpochMilis(hasta),
+                VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia()), desde, hasta, enRango);
+        return enRango;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se lee el índice por fecha de la tabla desde el final.</p>
+     */
+    @Override
+    public List<Ticket> buscarUltimos(int cantidad) {
+        return jdbc.buscarUltimos(cantidad, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se pagina por clave sobre el índice por fecha de la tabla.</p>
+     */
+    @Override
+    public List<Ticket> buscarPosterioresA(ClaveCronologica cursor, int cantidad) {
+        return jdbc.buscarPosterioresA(cursor, cantidad, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se calcula con una consulta de agregación.</p>
+     */
+    @Override
+    public TablaColumnarTickets.Resumen resumir() {
+        return jdbc.resumir();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se calcula con una consulta de agregación.</p>
+     */
+    @Override
+    public double[] ingresosPorTipoPasajero() {
+        return jdbc.ingresosPorTipoPasajero();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>La cédula y la placa se estiman repartiendo los tickets entre pasajeros o
+     * vehículos, y un rango de fechas como un tercio de la tabla. El recorrido completo
+     * no se usa: el índice por fecha lo reemplaza.</p>
+     */
+    @Override
+    protected long estimarIndice(PlanConsulta.Acceso acceso, ConsultaTickets consulta, long total) {
+        switch (acceso) {
+            case INDICE_CEDULA:
+            case INDICE_PLACA:
+                return repartir(acceso, total);
+            case INDICE_FECHA:
+                return consulta.limitaFechas() ? (long) (total * SELECTIVIDAD_RANGO) : total;
+            default:
+                return -1;
+        }
+    }
+
+    @Override
+    public Stream<Ticket> candidatos(PlanConsulta.Acceso acceso, ConsultaTickets consulta) {
+        switch (acceso) {
+            case INDICE_CEDULA:
+                return buscarPorCedula(consulta.getCedula()).stream();
+            case INDICE_PLACA:
+                return buscarPorPlaca(consulta.getPlaca()).stream();
+            case INDICE_RUTA:
+                return getTablaColumnar().idsDeRuta(consulta.getIdOrigen(), consulta.getIdDestino()).stream()
+                        .map(this::buscar).filter(Objects::nonNull);
+            default:
+                return flujoPorFecha(consulta);
+        }
+    }
+
+    /**
+     * Recorre la tabla por el índice por fecha, en páginas que se leen a medida que el
+     * flujo las consume, y se detiene al salir del rango de la consulta.
+     */
+    private Stream<Ticket> flujoPorFecha(ConsultaTickets consulta) {
+        boolean inverso = consulta.getOrden() == ConsultaTickets.Orden.FECHA_DESCENDENTE;
+        ClaveCronologica inicio = consulta.getCursor();
+        if (inverso && consulta.getHasta() != null) {
+            // La tabla guarda milisegundos: se incluye el milisegundo del límite y se filtra después
+            ClaveCronologica limite = ClaveCronologica.inicio(consulta.getHasta().plusNanos(1_000_000));
+            if (inicio == null || limite.compareTo(inicio) < 0) {
+                inicio = limite;
+            }
+        } else if (!inverso && consulta.getDesde() != null) {
+            ClaveCronologica limite = ClaveCronologica.inicio(consulta.getDesde());
+            if (inicio == null || limite.compareTo(inicio) > 0) {
+                inicio = limite;
+            }
+        }
+        long necesarios = consulta.getDesplazamiento() + consulta.getLimite();
+        int primeraPagina = (int) Math.max(1, Math.min(TICKETS_POR_PAGINA_CONSULTA, necesarios));
+        Stream<Ticket> flujo = StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new Paginas(inicio, inverso, primeraPagina), Spliterator.ORDERED | Spliterator.NONNULL), false);
+        if (inverso && consulta.getDesde() != null) {
+            long desdeMs = CodecFecha.aEpochMilis(consulta.getDesde());
+            flujo = flujo.takeWhile(ticket -> CodecFecha.aEpochMilis(ticket.getFecha()) >= desdeMs);
+        } else if (!inverso && consulta.getHasta() != null) {
+            long hastaMs = CodecFecha.aEpochMilis(consulta.getHasta());
+            flujo = flujo.takeWhile(ticket -> CodecFecha.aEpochMilis(ticket.getFecha()) <= hastaMs);
+        }
+        return flujo;
+    }
+
+    /**
+     * Iterador sobre la tabla en orden de fecha, que lee una página nueva solo cuando
+     * se agota la anterior. La primera página es del tamaño que la consulta necesita y
+     * las siguientes crecen hasta {@link #TICKETS_POR_PAGINA_CONSULTA}.
+     */
+    private final class Paginas implements Iterator<Ticket> {
+        private final boolean inverso;
+        private ClaveCronologica posicion;
+        private int tamano;
+        private List<Ticket> pagina = Collections.emptyList();
+        private int siguiente;
+        private boolean agotada;
+
+        private Paginas(ClaveCronologica inicio, boolean inverso, int tamano) {
+            this.posicion = inicio;
+            this.inverso = inverso;
+            this.tamano = tamano;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (siguiente < pagina.size()) {
+                return true;
+            }
+            if (agotada) {
+                return false;
+            }
+            VehiculoDAO vehiculoDAO = VehiculoDAO.getInstancia();
+            PasajeroDAO pasajeroDAO = PasajeroDAO.getInstancia();
+            if (!inverso) {
+                pagina = jdbc.buscarPosterioresA(posicion, tamano, vehiculoDAO, pasajeroDAO);
+            } else if (posicion == null) {
+                pagina = jdbc.buscarUltimos(tamano, vehiculoDAO, pasajeroDAO);
+            } else {
+                pagina = jdbc.buscarAnterioresA(posicion, tamano, vehiculoDAO, pasajeroDAO);
+            }
+            siguiente = 0;
+            agotada = pagina.size() < tamano;
+            tamano = Math.min(TICKETS_POR_PAGINA_CONSULTA, tamano * 2);
+            if (pagina.isEmpty()) {
+                return false;
+            }
+            posicion = ClaveCronologica.de(pagina.get(pagina.size() - 1));
+            return true;
+        }
+
+        @Override
+        public Ticket next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pagina.get(siguiente++);
+        }
+    }
+}
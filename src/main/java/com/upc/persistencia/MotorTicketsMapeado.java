@@ -0,0 +1,290 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Clase MotorTicketsMapeado
+ * Motor de tickets que los guarda en registros de tamaño fijo de un archivo mapeado en
+ * memoria (modo {@link ModoAlmacenamientoTickets#MAPEADO}).
+ *
+ * <p>Los tickets no se cargan en un mapa: viven en {@link AlmacenMapeadoTickets} y
+ * solo se construyen al consultarlos. Las búsquedas por pasajero y vehículo usan los
+ * índices del almacén; como no hay índice por fecha en memoria, las búsquedas por fecha
+ * recorren el archivo. Con durabilidad SINCRONA cada cambio se sincroniza con el disco
+ * antes de volver.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorTicketsMapeado extends MotorTicketsBase {
+
+    /**
+     * Ruta del archivo mapeado en memoria
+     */
+    private static final String ARCHIVO_MAPEADO = "data/tickets.map";
+
+    /**
+     * Almacén mapeado en memoria
+     */
+    private final AlmacenMapeadoTickets mapeado;
+
+    /**
+     * Constructor del motor. Abre el almacén mapeado en memoria.
+     *
+     * Si el archivo mapeado aún no existe, se importan una única vez los tickets del
+     * archivo CSV o binario actual. El contador de IDs se toma del encabezado.
+     *
+     * @param formato Formato del archivo de tickets a importar
+     * @throws RuntimeException si ocurre un error al abrir o importar los datos
+     */
+    public MotorTicketsMapeado(FormatoArchivo formato) {
+        boolean existia = new File(ARCHIVO_MAPEADO).exists();
+        mapeado = new AlmacenMapeadoTickets(ARCHIVO_MAPEADO);
+
+        if (!existia) {
+            Map<String, Ticket> cargados = new ConcurrentHashMap<>();
+            MotorTicketsCsv.cargarArchivo(formato, cargados, null);
+            for (Ticket ticket : cargados.values()) {
+                mapeado.insertar(ticket);
+            }
+            mapeado.sincronizar();
+        }
+        contadorId = mapeado.getPosicionesUsadas() + 1;
+    }
+
+    @Override
+    public ModoAlmacenamientoTickets getModo() {
+        return ModoAlmacenamientoTickets.MAPEADO;
+    }
+
+    @Override
+    public Ticket buscar(String idTicket) {
+        return mapeado.buscar(idTicket, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    @Override
+    public boolean contiene(String idTicket) {
+        return mapeado.existe(idTicket);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Cada ticket se construye al entregarlo.</p>
+     */
+    @Override
+    public void recorrer(Consumer<? super Ticket> visitante) {
+        mapeado.recorrer(visitante, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    @Override
+    public int contar() {
+        return mapeado.contar();
+    }
+
+    @Override
+    public long contarIndexados() {
+        return mapeado.contar();
+    }
+
+    @Override
+    public boolean insertar(Ticket ticket) {
+        synchronized (this) {
+            if (!mapeado.insertar(ticket)) {
+                return false; // Ya existe
+            }
+            proyectar(ticket);
+        }
+        sincronizar(ticket.getIdTicket());
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException si un ticket no cabe en el registro
+     */
+    @Override
+    public List<Ticket> insertarTodos(Collection<Ticket> lote) {
+        List<Ticket> insertados = new ArrayList<>(lote.size());
+        List<Ticket> existentes = new ArrayList<>();
+        synchronized (this) {
+            try {
+                for (Ticket ticket : lote) {
+                    if (mapeado.insertar(ticket)) {
+                        insertados.add(ticket);
+                    } else {
+                        existentes.add(ticket);
+                    }
+                }
+            } finally {
+                proyectarGuardados(insertados, Collections.emptyList());
+            }
+        }
+        if (EscritorPersistencia.getInstancia().getModoDurabilidad() == ModoDurabilidad.SINCRONA) {
+            mapeado.sincronizar();
+        }
+        return existentes;
+    }
+
+    @Override
+    public boolean reemplazar(Ticket ticket) {
+        synchronized (this) {
+            if (!mapeado.actualizar(ticket)) {
+                return false; // No existe
+            }
+            proyectar(ticket);
+        }
+        sincronizar(ticket.getIdTicket());
+        return true;
+    }
+
+    @Override
+    public boolean eliminar(String idTicket) {
+        synchronized (this) {
+            if (!mapeado.eliminar(idTicket)) {
+                return false;
+            }
+            quitarProyeccion(idTicket);
+        }
+        sincronizar(idTicket);
+        return true;
+    }
+
+    @Override
+    public void limpiar() {
+        synchronized (this) {
+            mapeado.limpiar();
+            contadorId = 1;
+            limpiarProyeccion();
+        }
+        mapeado.sincronizar();
+    }
+
+    @Override
+    public List<Ticket> buscarPorCedula(String cedula) {
+        return mapeado.buscarPorCedula(cedula, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    @Override
+    public List<Ticket> buscarPorPlaca(String placa) {
+        return mapeado.buscarPorPlaca(placa, VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se recorre el archivo y se ordena solo el resultado.</p>
+     */
+    @Override
+    public List<Ticket> buscarEnRango(LocalDateTime desde, LocalDateTime hasta) {
+        List<Ticket> enRango = new ArrayList<>();
+        recorrer(ticket -> agregarEnRango(ticket, desde, hasta, enRango));
+        enRango.sort(ClaveCronologica.ORDEN_TICKETS);
+        return enRango;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se recorre el archivo conservando los {@code cantidad} más recientes.</p>
+     */
+    @Override
+    public List<Ticket> buscarUltimos(int cantidad) {
+        return seleccionar(cantidad, ClaveCronologica.ORDEN_TICKETS.reversed(), null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se recorre el archivo conservando los {@code cantidad} primeros posteriores al cursor.</p>
+     */
+    @Override
+    public List<Ticket> buscarPosterioresA(ClaveCronologica cursor, int cantidad) {
+        return seleccionar(cantidad, ClaveCronologica.ORDEN_TICKETS, cursor);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>La cédula y la placa se estiman repartiendo los tickets entre pasajeros o
+     * vehículos. Sin índice por fecha, ese acceso no sirve.</p>
+     */
+    @Override
+    protected long estimarIndice(PlanConsulta.Acceso acceso, ConsultaTickets consulta, long total) {
+        switch (acceso) {
+            case INDICE_CEDULA:
+            case INDICE_PLACA:
+                return repartir(acceso, total);
+            case INDICE_FECHA:
+                return -1;
+            default:
+                return total;
+        }
+    }
+
+    @Override
+    public Stream<Ticket> candidatos(PlanConsulta.Acceso acceso, ConsultaTickets consulta) {
+        switch (acceso) {
+            case INDICE_CEDULA:
+                return buscarPorCedula(consulta.getCedula()).stream();
+            case INDICE_PLACA:
+                return buscarPorPlaca(consulta.getPlaca()).stream();
+            case INDICE_RUTA:
+                return getTablaColumnar().idsDeRuta(consulta.getIdOrigen(), consulta.getIdDestino()).stream()
+                        .map(this::buscar).filter(Objects::nonNull);
+            default:
+                return mapeado.flujo(VehiculoDAO.getInstancia(), PasajeroDAO.getInstancia());
+        }
+    }
+
+    /**
+     * Recorre todos los tickets y conserva los {@code cantidad} primeros según un orden
+     * en un montículo acotado, sin ordenar el historial: O(n log cantidad).
+     *
+     * @param cantidad Cantidad máxima de tickets
+     * @param orden Orden del resultado
+     * @param cursor Si no es null, solo se consideran los tickets posteriores a él
+     * @return Los primeros tickets según el orden
+     */
+    private List<Ticket> seleccionar(int cantidad, Comparator<Ticket> orden, ClaveCronologica cursor) {
+        // La cima del montículo es el peor de los conservados, el primero en salir
+        PriorityQueue<Ticket> mejores = new PriorityQueue<>(Math.min(cantidad, 1024) + 1, orden.reversed());
+        recorrer(ticket -> {
+            if (cursor == null || cursor.compararCon(ticket) < 0) {
+                mejores.add(ticket);
+                if (mejores.size() > cantidad) {
+                    mejores.poll();
+                }
+            }
+        });
+        List<Ticket> seleccionados = new ArrayList<>(mejores);
+        seleccionados.sort(orden);
+        return seleccionados;
+    }
+
+    /**
+     * Sincroniza con el disco el registro de un ticket si la durabilidad es SINCRONA.
+     *
+     * @param idTicket ID del ticket modificado
+     */
+    private void sincronizar(String idTicket) {
+        if (EscritorPersistencia.getInstancia().getModoDurabilidad() == ModoDurabilidad.SINCRONA) {
+            mapeado.sincronizar(idTicket);
+        }
+    }
+}
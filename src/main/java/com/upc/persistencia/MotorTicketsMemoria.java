@@ -0,0 +1,493 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Clase MotorTicketsMemoria
+ * Motor de tickets que los guarda solo en memoria (modo {@link ModoAlmacenamientoTickets#MEMORIA}).
+ *
+ * <p>Junto al mapa mantiene un {@link IndiceTickets} por cédula, por placa y por fecha,
+ * de modo que las búsquedas por pasajero, vehículo y fecha no recorren ni ordenan el
+ * historial. No lee ni escribe archivos, por lo que sirve para pruebas y mediciones, y
+ * como base de los motores que cargan los tickets en el mapa: como en
+ * {@link MotorMemoria}, estos solo redefinen cómo se persiste cada cambio
+ * ({@code persistir*}) y cómo se espera la escritura ({@link #esperar(CompletableFuture)}).</p>
+ *
+ * <p>Los métodos {@code persistir*} se invocan con el bloqueo del motor y el mapa ya
+ * modificado; la espera de la escritura ocurre fuera del bloqueo para que otras ventas
+ * compartan el lote.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorTicketsMemoria extends MotorTicketsBase {
+
+    /**
+     * Escritura ya completada, devuelta cuando no hay nada que persistir
+     */
+    protected static final CompletableFuture<Void> SIN_ESCRITURA = CompletableFuture.completedFuture(null);
+
+    /**
+     * Tickets en memoria (IdTicket -> Ticket). Las modificaciones se hacen con el
+     * bloqueo del motor; el mapa es concurrente para que las lecturas no lo necesiten.
+     */
+    protected final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    /**
+     * Índices por cédula, por placa y por fecha de los tickets del mapa (protegidos por el bloqueo del motor)
+     */
+    protected final IndiceTickets indice = new IndiceTickets();
+
+    @Override
+    public ModoAlmacenamientoTickets getModo() {
+        return ModoAlmacenamientoTickets.MEMORIA;
+    }
+
+    @Override
+    public Ticket buscar(String idTicket) {
+        return tickets.get(idTicket);
+    }
+
+    @Override
+    public boolean contiene(String idTicket) {
+        return buscar(idTicket) != null;
+    }
+
+    @Override
+    public void recorrer(Consumer<? super Ticket> visitante) {
+        for (Ticket ticket : tickets.values()) {
+            visitante.accept(ticket);
+        }
+    }
+
+    @Override
+    public int contar() {
+        return tickets.size();
+    }
+
+    @Override
+    public long contarIndexados() {
+        return tickets.size();
+    }
+
+    @Override
+    public boolean insertar(Ticket ticket) {
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            ubicar(ticket);
+            if (tickets.containsKey(ticket.getIdTicket())) {
+                return false; // Ya existe
+            }
+            tickets.put(ticket.getIdTicket(), ticket);
+            indice.agregar(ticket);
+            try {
+                escritura = persistirInsercion(ticket);
+            } catch (RuntimeException e) {
+                // La cola rechazó la escritura: el cambio no debe quedar solo en memoria
+                tickets.remove(ticket.getIdTicket());
+                indice.quitar(ticket);
+                throw e;
+            }
+            proyectar(ticket);
+        }
+        // Esperar el disco fuera del bloqueo para que otras ventas compartan el lote
+        esperar(escritura);
+        return true;
+    }
+
+    @Override
+    public List<Ticket> insertarTodos(Collection<Ticket> lote) {
+        List<Ticket> existentes = new ArrayList<>();
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            List<Ticket> insertados = new ArrayList<>(lote.size());
+            try {
+                for (Ticket ticket : lote) {
+                    if (tickets.putIfAbsent(ticket.getIdTicket(), ticket) == null) {
+                        indice.agregar(ticket);
+                        insertados.add(ticket);
+                    } else {
+                        existentes.add(ticket);
+                    }
+                }
+                escritura = persistirInserciones(insertados);
+            } catch (RuntimeException e) {
+                for (Ticket ticket : insertados) {
+                    tickets.remove(ticket.getIdTicket());
+                    indice.quitar(ticket);
+                }
+                throw e;
+            }
+            proyectarGuardados(insertados, Collections.emptyList());
+        }
+        esperar(escritura);
+        return existentes;
+    }
+
+    @Override
+    public boolean reemplazar(Ticket ticket) {
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            if (!tickets.containsKey(ticket.getIdTicket())) {
+                return false; // No existe
+            }
+            verificarUbicacion(ticket);
+            Ticket anterior = tickets.put(ticket.getIdTicket(), ticket);
+            indice.reemplazar(anterior, ticket);
+            try {
+                escritura = persistirActualizacion(ticket);
+            } catch (RuntimeException e) {
+                tickets.put(ticket.getIdTicket(), anterior);
+                indice.reemplazar(ticket, anterior);
+                throw e;
+            }
+            proyectar(ticket);
+        }
+        esperar(escritura);
+        return true;
+    }
+
+    @Override
+    public boolean eliminar(String idTicket) {
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            Ticket eliminado = idTicket == null ? null : tickets.remove(idTicket);
+            if (eliminado == null) {
+                return false;
+            }
+            indice.quitar(eliminado);
+            try {
+                escritura = persistirEliminacion(idTicket);
+            } catch (RuntimeException e) {
+                tickets.put(idTicket, eliminado);
+                indice.agregar(eliminado);
+                throw e;
+            }
+            quitarProyeccion(idTicket);
+        }
+        esperar(escritura);
+        return true;
+    }
+
+    @Override
+    public void limpiar() {
+        CompletableFuture<Void> escritura;
+        synchronized (this) {
+            Map<String, Ticket> anteriores = new HashMap<>(tickets);
+            int contadorAnterior = contadorId;
+            tickets.clear();
+            indice.limpiar();
+            contadorId = 1;
+            try {
+                escritura = persistirLimpieza();
+            } catch (RuntimeException e) {
+                tickets.putAll(anteriores);
+                indice.reconstruir(anteriores.values());
+                contadorId = contadorAnterior;
+                throw e;
+            }
+            limpiarProyeccion();
+        }
+        esperar(escritura);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Los tickets se obtienen con el índice por cédula, sin recorrer el historial.</p>
+     */
+    @Override
+    public List<Ticket> buscarPorCedula(String cedula) {
+        List<Ticket> encontrados = new ArrayList<>();
+        if (cedula != null) {
+            synchronized (this) {
+                agregarPorId(indice.buscarPorCedula(cedula), encontrados);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Los tickets se obtienen con el índice por placa, sin recorrer el historial.</p>
+     */
+    @Override
+    public List<Ticket> buscarPorPlaca(String placa) {
+        List<Ticket> encontrados = new ArrayList<>();
+        if (placa != null) {
+            synchronized (this) {
+                agregarPorId(indice.buscarPorPlaca(placa), encontrados);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Los tickets se toman del índice por fecha, ya ordenados.</p>
+     */
+    @Override
+    public List<Ticket> buscarEnRango(LocalDateTime desde, LocalDateTime hasta) {
+        return new ArrayList<>(indice.buscarEnRango(desde, hasta));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Los tickets se toman del final del índice por fecha.</p>
+     */
+    @Override
+    public List<Ticket> buscarUltimos(int cantidad) {
+        List<Ticket> ultimos = new ArrayList<>(Math.min(cantidad, 1024));
+        tomar(indice.recientes(), cantidad, ultimos);
+        return ultimos;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Cada página empieza en el índice por fecha donde terminó la anterior, sin
+     * recorrer las previas.</p>
+     */
+    @Override
+    public List<Ticket> buscarPosterioresA(ClaveCronologica cursor, int cantidad) {
+        List<Ticket> pagina = new ArrayList<>(Math.min(cantidad, 1024));
+        tomar(indice.posterioresA(cursor), cantidad, pagina);
+        return pagina;
+    }
+
+    @Override
+    public List<Ticket> buscarPorIds(List<String> ids) {
+        List<Ticket> encontrados = new ArrayList<>(ids.size());
+        synchronized (this) {
+            for (String id : ids) {
+                Ticket ticket = tickets.get(id);
+                if (ticket != null) {
+                    encontrados.add(ticket);
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>La cédula y la placa cuentan los IDs del índice; el rango de fechas, la
+     * fracción del período cubierto por el índice por fecha que queda dentro de él.</p>
+     */
+    @Override
+    protected long estimarIndice(PlanConsulta.Acceso acceso, ConsultaTickets consulta, long total) {
+        switch (acceso) {
+            case INDICE_CEDULA:
+                synchronized (this) {
+                    return indice.buscarPorCedula(consulta.getCedula()).size();
+                }
+            case INDICE_PLACA:
+                synchronized (this) {
+                    return indice.buscarPorPlaca(consulta.getPlaca()).size();
+                }
+            case INDICE_FECHA:
+                return (long) Math.ceil(total * fraccionEnRango(consulta));
+            default:
+                return total;
+        }
+    }
+
+    @Override
+    public Stream<Ticket> candidatos(PlanConsulta.Acceso acceso, ConsultaTickets consulta) {
+        List<String> ids;
+        switch (acceso) {
+            case INDICE_CEDULA:
+                synchronized (this) {
+                    ids = new ArrayList<>(indice.buscarPorCedula(consulta.getCedula()));
+                }
+                return delMapa(ids);
+            case INDICE_PLACA:
+                synchronized (this) {
+                    ids = new ArrayList<>(indice.buscarPorPlaca(consulta.getPlaca()));
+                }
+                return delMapa(ids);
+            case INDICE_RUTA:
+                return delMapa(getTablaColumnar().idsDeRuta(consulta.getIdOrigen(), consulta.getIdDestino()));
+            case INDICE_FECHA:
+                return indice.cronologico(consulta.getDesde(), consulta.getHasta(), consulta.getCursor(),
+                        consulta.getOrden() == ConsultaTickets.Orden.FECHA_DESCENDENTE).stream();
+            default:
+                return tickets.values().stream();
+        }
+    }
+
+    /**
+     * Prepara la ubicación de un ticket nuevo antes de agregarlo al mapa. Se invoca con
+     * el bloqueo del motor; en memoria no hay nada que preparar.
+     *
+     * @param ticket Ticket a insertar
+     * @throws IllegalStateException si el ticket no puede agregarse al mapa
+     */
+    protected void ubicar(Ticket ticket) {
+    }
+
+    /**
+     * Verifica que un ticket existente pueda reemplazarse con los datos indicados. Se
+     * invoca con el bloqueo del motor; en memoria siempre puede.
+     *
+     * @param ticket Ticket con los datos actualizados
+     * @throws IllegalStateException si el ticket no puede reemplazarse
+     */
+    protected void verificarUbicacion(Ticket ticket) {
+    }
+
+    /**
+     * Reconstruye los índices de los tickets cargados en el mapa y avanza el contador
+     * de IDs más allá del mayor de ellos. Se invoca al terminar la carga.
+     */
+    protected void indexarCargados() {
+        indice.reconstruir(tickets.values());
+        int maxId = maxNumeroId(tickets.values());
+        if (maxId > 0) {
+            contadorId = maxId + 1;
+        }
+    }
+
+    /**
+     * Persiste la inserción de un ticket.
+     *
+     * @param ticket Ticket insertado
+     * @return Futuro que se completa cuando el cambio está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirInsercion(Ticket ticket) {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Persiste la inserción de varios tickets con una sola escritura.
+     *
+     * @param insertados Tickets insertados
+     * @return Futuro que se completa cuando los cambios están en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirInserciones(List<Ticket> insertados) {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Persiste la actualización de un ticket.
+     *
+     * @param ticket Ticket con los datos actualizados
+     * @return Futuro que se completa cuando el cambio está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirActualizacion(Ticket ticket) {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Persiste la eliminación de un ticket.
+     *
+     * @param idTicket ID del ticket eliminado
+     * @return Futuro que se completa cuando el cambio está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirEliminacion(String idTicket) {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Persiste la eliminación de todos los tickets.
+     *
+     * @return Futuro que se completa cuando el cambio está en disco
+     * @throws IllegalStateException si la cola de escritura rechaza la operación
+     */
+    protected CompletableFuture<Void> persistirLimpieza() {
+        return SIN_ESCRITURA;
+    }
+
+    /**
+     * Espera una escritura según la durabilidad configurada.
+     * En memoria no hay nada que esperar.
+     *
+     * @param escritura Futuro devuelto por un método {@code persistir*}
+     * @throws RuntimeException si la escritura falló y había que esperarla
+     */
+    protected void esperar(CompletableFuture<Void> escritura) {
+    }
+
+    /**
+     * Calcula qué fracción del período cubierto por el índice por fecha queda dentro del
+     * rango y del cursor de la consulta, suponiendo las ventas repartidas por igual.
+     */
+    private double fraccionEnRango(ConsultaTickets consulta) {
+        if (!consulta.limitaFechas()) {
+            return 1;
+        }
+        ClaveCronologica[] extremos = indice.extremos();
+        if (extremos == null) {
+            return 0;
+        }
+        long primero = CodecFecha.aEpochMilis(extremos[0].getFecha());
+        long ultimo = CodecFecha.aEpochMilis(extremos[1].getFecha()) + 1;
+        long desde = primero;
+        long hasta = ultimo;
+        if (consulta.getDesde() != null) {
+            desde = Math.max(desde, CodecFecha.aEpochMilis(consulta.getDesde()));
+        }
+        if (consulta.getHasta() != null) {
+            hasta = Math.min(hasta, CodecFecha.aEpochMilis(consulta.getHasta()));
+        }
+        if (consulta.getCursor() != null) {
+            long cursor = CodecFecha.aEpochMilis(consulta.getCursor().getFecha());
+            if (consulta.getOrden() == ConsultaTickets.Orden.FECHA_DESCENDENTE) {
+                hasta = Math.min(hasta, cursor + 1);
+            } else {
+                desde = Math.max(desde, cursor);
+            }
+        }
+        return hasta <= desde ? 0 : (double) (hasta - desde) / (ultimo - primero);
+    }
+
+    /**
+     * Obtiene del mapa los tickets con los IDs indicados, omitiendo los que ya no están.
+     */
+    private Stream<Ticket> delMapa(List<String> ids) {
+        return ids.stream().map(tickets::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * Agrega a la lista los tickets del mapa con los IDs indicados.
+     * Debe llamarse con el bloqueo del motor, el mismo que protege al índice.
+     */
+    private void agregarPorId(Collection<String> ids, List<Ticket> destino) {
+        for (String id : ids) {
+            destino.add(tickets.get(id));
+        }
+    }
+
+    /**
+     * Agrega a la lista los tickets de una colección ordenada hasta completar la cantidad.
+     */
+    protected static void tomar(Collection<Ticket> ordenados, int cantidad, List<Ticket> destino) {
+        for (Ticket ticket : ordenados) {
+            if (destino.size() >= cantidad) {
+                return;
+            }
+            destino.add(ticket);
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Clase MotorTicketsParticionado
+ * Motor de tickets que guarda un archivo por período de fecha (modo
+ * {@link ModoAlmacenamientoTickets#PARTICIONADO}).
+ *
+ * <p>El mapa y los índices heredados contienen solo la partición abierta de
+ * {@link ParticionesTickets}, que es la única que se reescribe. Las particiones
+ * selladas se leen cuando una consulta las necesita, y las búsquedas por fecha abren
+ * únicamente las que se solapan con el rango pedido. Los tickets de particiones
+ * selladas no se pueden modificar.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class MotorTicketsParticionado extends MotorTicketsMemoria {
+
+    /**
+     * Directorio de las particiones por fecha
+     */
+    private static final String DIRECTORIO_PARTICIONES = "data/tickets";
+
+    /**
+     * Cola de escritura de los tickets
+     */
+    private final ColaEscritura cola;
+
+    /**
+     * Particiones por fecha
+     */
+    private final ParticionesTickets particiones;
+
+    /**
+     * Constructor del motor. Abre las particiones y carga la partición abierta.
+     *
+     * Si el directorio de particiones aún no existe, se reparten una única vez los
+     * tickets del archivo CSV o binario actual. Como los IDs crecen con la fecha, el
+     * contador se toma de la partición abierta o, si está vacía, de la sellada más reciente.
+     *
+     * @param formato Formato de los archivos de las particiones
+     * @param cola Cola de escritura de los tickets
+     * @throws RuntimeException si ocurre un error al leer o importar los datos
+     */
+    public MotorTicketsParticionado(FormatoArchivo formato, ColaEscritura cola) {
+        this.cola = cola;
+        boolean existia = new File(DIRECTORIO_PARTICIONES).isDirectory();
+        this.particiones = new ParticionesTickets(DIRECTORIO_PARTICIONES, GranularidadParticion.desdeConfiguracion(),
+                formato, cola);
+
+        if (!existia) {
+            MotorTicketsCsv.cargarArchivo(formato, tickets, null);
+            particiones.importar(tickets.values());
+            tickets.clear();
+        }
+
+        VehiculoDAO vehiculoDAO = VehiculoDAO.getInstancia();
+        PasajeroDAO pasajeroDAO = PasajeroDAO.getInstancia();
+        particiones.cargarAbierta(tickets, vehiculoDAO, pasajeroDAO);
+        indice.reconstruir(tickets.values());
+
+        int maxId = maxNumeroId(tickets.values());
+        List<String> selladas = particiones.getSelladas();
+        for (int i = selladas.size() - 1; i >= 0 && maxId == 0; i--) {
+            maxId = particiones.mayorNumeroId(selladas.get(i), vehiculoDAO, pasajeroDAO);
+        }
+        contadorId = maxId + 1;
+    }
+
+    @Override
+    public ModoAlmacenamientoTickets getModo() {
+        return ModoAlmacenamientoTickets.PARTICIONADO;
+    }
+
+    @Override
+    public RuntimeException getErrorSegundoPlano() {
+        return particiones.getErrorCompresion();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Si no está en la partición abierta, se busca en las selladas.</p>
+     */
+    @Override
+    public Ticket buscar(String idTicket) {
+        Ticket ticket = super.buscar(idTicket);
+        if (ticket == null && idTicket != null) {
+            return buscarEnSelladas(idTicket);
+        }
+        return ticket;
+    }
+
+    @Override
+    public int contar() {
+        return super.contar() + particiones.contarSelladas();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Las particiones selladas se leen de a una, de la más antigua a la más
+     * reciente, y al final se recorre la abierta.</p>
+     */
+    @Override
+    public void recorrer(Consumer<? super Ticket> visitante) {
+        recorrerSelladas(visitante);
+        super.recorrer(visitante);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Los tickets de períodos anteriores a la partición abierta se agregan a su
+     * partición sellada, que se reescribe una vez por llamada; los de períodos
+     * posteriores abren particiones nuevas como en {@link #insertar(Ticket)}.</p>
+     */
+    @Override
+    public List<Ticket> insertarTodos(Collection<Ticket> lote) {
+        List<Ticket> actuales = new ArrayList<>(lote.size());
+        Map<String, List<Ticket>> historicos = new TreeMap<>();
+        for (Ticket ticket : lote) {
+            String clave = particiones.claveParticion(ticket.getFecha());
+            if (clave.compareTo(particiones.getAbierta()) < 0) {
+                historicos.computeIfAbsent(clave, k -> new ArrayList<>()).add(ticket);
+            } else {
+                actuales.add(ticket);
+            }
+        }
+
+        List<Ticket> existentes = new ArrayList<>();
+        List<CompletableFuture<Void>> escrituras = new ArrayList<>();
+        synchronized (this) {
+            // En orden de fecha, cada partición nueva se abre una sola vez
+            actuales.sort(Comparator.comparing(Ticket::getFecha));
+            List<Ticket> insertados = new ArrayList<>(actuales.size());
+            List<Ticket> sinEscribir = new ArrayList<>();
+            try {
+                for (Ticket ticket : actuales) {
+                    if (particiones.claveParticion(ticket.getFecha()).compareTo(particiones.getAbierta()) > 0) {
+                        // La partición abierta se sella: su contenido final debe quedar encolado
+                        escrituras.add(escribirAbierta());
+                        sinEscribir.clear();
+                        ubicar(ticket);
+                    }
+                    if (tickets.putIfAbsent(ticket.getIdTicket(), ticket) == null) {
+                        indice.agregar(ticket);
+                        insertados.add(ticket);
+                        sinEscribir.add(ticket);
+                    } else {
+                        existentes.add(ticket);
+                    }
+                }
+                escrituras.add(escribirAbierta());
+            } catch (RuntimeException e) {
+                for (Ticket ticket : sinEscribir) {
+                    tickets.remove(ticket.getIdTicket());
+                    indice.quitar(ticket);
+                }
+                // Los descartados son los últimos insertados, después de la última escritura
+                proyectarGuardados(insertados.subList(0, insertados.size() - sinEscribir.size()),
+                        Collections.emptyList());
+                throw e;
+            }
+            proyectarGuardados(insertados, Collections.emptyList());
+        }
+        for (CompletableFuture<Void> escritura : escrituras) {
+            esperar(escritura);
+        }
+
+        for (Map.Entry<String, List<Ticket>> particion : historicos.entrySet()) {
+            List<Ticket> nuevos = new ArrayList<>();
+            for (Ticket ticket : particion.getValue()) {
+                if (tickets.containsKey(ticket.getIdTicket())) {
+                    existentes.add(ticket);
+                } else {
+                    nuevos.add(ticket);
+                }
+            }
+            List<Ticket> repetidos = particiones.agregarASellada(particion.getKey(), nuevos);
+            existentes.addAll(repetidos);
+            synchronized (this) {
+                proyectarGuardados(nuevos, repetidos);
+            }
+        }
+        return existentes;
+    }
+
+    @Override
+    public boolean reemplazar(Ticket ticket) {
+        if (super.reemplazar(ticket)) {
+            return true;
+        }
+        verificarNoSellado(ticket.getIdTicket());
+        return false;
+    }
+
+    @Override
+    public boolean eliminar(String idTicket) {
+        if (super.eliminar(idTicket)) {
+            return true;
+        }
+        verificarNoSellado(idTicket);
+        return false;
+    }
+
+    @Override
+    public void limpiar() {
+        super.limpiar();
+        // Las particiones selladas solo se eliminan cuando nada pendiente puede recrearlas
+        EscritorPersistencia.getInstancia().sincronizar();
+        particiones.eliminarSelladas();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Las particiones selladas se siguen recorriendo.</p>
+     */
+    @Override
+    public List<Ticket> buscarPorCedula(String cedula) {
+        List<Ticket> encontrados = new ArrayList<>();
+        if (cedula != null) {
+            recorrerSelladas(ticket -> {
+                if (cedula.equals(ticket.getCedula())) {
+                    encontrados.add(ticket);
+                }
+            });
+            encontrados.addAll(super.buscarPorCedula(cedula));
+        }
+        return encontrados;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Las particiones selladas se siguen recorriendo.</p>
+     */
+    @Override
+    public List<Ticket> buscarPorPlaca(String placa) {
+        List<Ticket> encontrados = new ArrayList<>();
+        if (placa != null) {
+            recorrerSelladas(ticket -> {
+                if (placa.equals(ticket.getPlaca())) {
+                    encontrados.add(ticket);
+                }
+            });
+            encontrados.addAll(super.buscarPorPlaca(placa));
+        }
+        return encontrados;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Solo se leen las particiones selladas que se solapan con el rango.</p>
+     */
+    @Override
+    public List<Ticket> buscarEnRango(LocalDateTime desde, LocalDateTime hasta) {
+        // Las particiones no se solapan: basta con ordenar cada una por separado
+        List<Ticket> enRango = new ArrayList<>();
+        VehiculoDAO vehiculoDAO = VehiculoDAO.getInstancia();
+        PasajeroDAO pasajeroDAO = PasajeroDAO.getInstancia();
+        for (String clave : particiones.clavesEntre(desde, hasta)) {
+            if (clave.equals(particiones.getAbierta())) {
+                enRango.addAll(super.buscarEnRango(desde, hasta));
+            } else {
+                List<Ticket> parte = new ArrayList<>();
+                agregarEnRango(particiones.leerSelladaEnRango(clave, desde, hasta, vehiculoDAO, pasajeroDAO),
+                        desde, hasta, parte);
+                parte.sort(ClaveCronologica.ORDEN_TICKETS);
+                enRango.addAll(parte);
+            }
+        }
+        return enRango;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Se completan con las particiones selladas, de la más reciente hacia atrás,
+     * solo mientras falten.</p>
+     */
+    @Override
+    public List<Ticket> buscarUltimos(int cantidad) {
+        List<Ticket> ultimos = super.buscarUltimos(cantidad);
+        List<String> selladas = particiones.getSelladas();
+        for (int i = selladas.size() - 1; i >= 0 && ultimos.size() < cantidad; i--) {
+            List<Ticket> parte = particiones.leerSellada(selladas.get(i), VehiculoDAO.getInstancia(),
+                    PasajeroDAO.getInstancia());
+            for (int j = parte.size() - 1; j >= 0 && ultimos.size() < cantidad; j--) {
+                ultimos.add(parte.get(j));
+            }
+        }
+        return ultimos;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Las particiones selladas anteriores al cursor se omiten y en la primera se
+     * busca el cursor por bisección.</p>
+     */
+    @Override
+    public List<Ticket> buscarPosterioresA(ClaveCronologica cursor, int cantidad) {
+        List<Ticket> pagina = new ArrayList<>(Math.min(cantidad, 1024));
+        String primera = cursor == null ? null : particiones.claveParticion(cursor.getFecha());
+        for (String clave : particiones.getSelladas()) {
+            if (pagina.size() == cantidad) {
+                break;
+            }
+            if (primera != null && clave.compareTo(primera) < 0) {
+                continue;
+            }
+            List<Ticket> parte = particiones.leerSellada(clave, VehiculoDAO.getInstancia(),
+                    PasajeroDAO.getInstancia());
+            tomar(parte.subList(primeraPosterior(parte, cursor), parte.size()), cantidad, pagina);
+        }
+        tomar(indice.posterioresA(cursor), cantidad, pagina);
+        return pagina;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Los que no están en la partición abierta se buscan en las selladas, que se
+     * recorren una sola vez para todos ellos.</p>
+     */
+    @Override
+    public List<Ticket> buscarPorIds(List<String> ids) {
+        List<Ticket> encontrados = new ArrayList<>(ids.size());
+        List<Ticket> abiertos = new ArrayList<>(ids.size());
+        Set<String> enSelladas = new HashSet<>();
+        synchronized (this) {
+            for (String id : ids) {
+                Ticket ticket = tickets.get(id);
+                if (ticket != null) {
+                    abiertos.add(ticket);
+                } else {
+                    enSelladas.add(id);
+                }
+            }
+        }
+        if (!enSelladas.isEmpty()) {
+            recorrerSelladas(ticket -> {
+                if (enSelladas.contains(ticket.getIdTicket())) {
+                    encontrados.add(ticket);
+                }
+            });
+        }
+        encontrados.addAll(abiertos);
+        return encontrados;
+    }
+
+    @Override
+    public int contarSelladas(ConsultaTickets consulta) {
+        return selladasDe(consulta).size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Cada partición se lee cuando el flujo llega a ella y se ordena por separado,
+     * porque los períodos de las particiones no se solapan.</p>
+     */
+    @Override
+    public Stream<Ticket> flujoSelladas(ConsultaTickets consulta) {
+        VehiculoDAO vehiculoDAO = VehiculoDAO.getInstancia();
+        PasajeroDAO pasajeroDAO = PasajeroDAO.getInstancia();
+        Comparator<Ticket> orden = consulta.comparador();
+        return selladasDe(consulta).stream().flatMap(clave -> {
+            List<Ticket> parte;
+            if (consulta.getDesde() == null && consulta.getHasta() == null) {
+                parte = particiones.leerSellada(clave, vehiculoDAO, pasajeroDAO);
+            } else {
+                LocalDateTime inicio = GranularidadParticion.inicio(clave).atStartOfDay();
+                LocalDateTime fin = GranularidadParticion.fin(clave).atStartOfDay();
+                LocalDateTime desde = consulta.getDesde();
+                LocalDateTime hasta = consulta.getHasta();
+                parte = particiones.leerSelladaEnRango(clave,
+                        desde == null || desde.isBefore(inicio) ? inicio : desde,
+                        hasta == null || hasta.isAfter(fin) ? fin : hasta, vehiculoDAO, pasajeroDAO);
+            }
+            Stream<Ticket> coincidentes = parte.stream().filter(consulta::coincide);
+            return orden == null ? coincidentes : coincidentes.sorted(orden);
+        });
+    }
+
+    /**
+     * Ubica un ticket nuevo en la partición abierta, abriendo una posterior si su fecha
+     * lo requiere.
+     *
+     * @throws IllegalStateException si la fecha del ticket corresponde a una partición sellada
+     */
+    @Override
+    protected void ubicar(Ticket ticket) {
+        String clave = particiones.claveParticion(ticket.getFecha());
+        int comparacion = clave.compareTo(particiones.getAbierta());
+        if (comparacion < 0) {
+            throw new IllegalStateException(
+                "La partición " + clave + " está sellada: no se pueden agregar tickets con fecha " + ticket.getFecha()
+            );
+        }
+        if (comparacion > 0) {
+            particiones.abrir(clave, tickets.values());
+            tickets.clear();
+            indice.limpiar();
+        }
+    }
+
+    /**
+     * Verifica que el ticket actualizado siga en la partición abierta.
+     *
+     * @throws IllegalStateException si la nueva fecha corresponde a otra partición
+     */
+    @Override
+    protected void verificarUbicacion(Ticket ticket) {
+        if (!particiones.claveParticion(ticket.getFecha()).equals(particiones.getAbierta())) {
+            throw new IllegalStateException(
+                "El ticket " + ticket.getIdTicket() + " no puede moverse a la partición sellada "
+                + particiones.claveParticion(ticket.getFecha())
+            );
+        }
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInsercion(Ticket ticket) {
+        return escribirAbierta();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirInserciones(List<Ticket> insertados) {
+        return escribirAbierta();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirActualizacion(Ticket ticket) {
+        return escribirAbierta();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirEliminacion(String idTicket) {
+        return escribirAbierta();
+    }
+
+    @Override
+    protected CompletableFuture<Void> persistirLimpieza() {
+        return escribirAbierta();
+    }
+
+    @Override
+    protected void esperar(CompletableFuture<Void> escritura) {
+        cola.completar(escritura);
+    }
+
+    /**
+     * Encola la reescritura de la partición abierta con el contenido actual del mapa.
+     * Debe invocarse con el bloqueo del motor.
+     *
+     * @return Futuro que se completa cuando el archivo está en disco
+     */
+    private CompletableFuture<Void> escribirAbierta() {
+        return particiones.escribirAbierta(new ArrayList<>(tickets.values()));
+    }
+
+    /**
+     * Entrega a un visitante los tickets de las particiones selladas, de la más antigua
+     * a la más reciente.
+     *
+     * @param visitante Función que recibe cada ticket
+     * @throws RuntimeException si ocurre un error al leer una partición
+     */
+    private void recorrerSelladas(Consumer<? super Ticket> visitante) {
+        VehiculoDAO vehiculoDAO = VehiculoDAO.getInstancia();
+        PasajeroDAO pasajeroDAO = PasajeroDAO.getInstancia();
+        for (String clave : particiones.getSelladas()) {
+            particiones.recorrerSellada(clave, visitante, vehiculoDAO, pasajeroDAO);
+        }
+    }
+
+    /**
+     * Lanza una excepción si el ticket existe en una partición sellada.
+     *
+     * @param idTicket ID del ticket
+     * @throws IllegalStateException si el ticket pertenece a una partición sellada
+     */
+    private void verificarNoSellado(String idTicket) {
+        if (idTicket != null && buscarEnSelladas(idTicket) != null) {
+            throw new IllegalStateException(
+                "El ticket " + idTicket + " pertenece a una partición sellada y no puede modificarse"
+            );
+        }
+    }
+
+    /**
+     * Busca un ticket en las particiones selladas, de la más reciente a la más antigua.
+     *
+     * @param idTicket ID del ticket
+     * @return Ticket encontrado o null si no existe
+     */
+    private Ticket buscarEnSelladas(String idTicket) {
+        List<String> selladas = particiones.getSelladas();
+        for (int i = selladas.size() - 1; i >= 0; i--) {
+            Ticket ticket = particiones.buscarEnSellada(selladas.get(i), idTicket, VehiculoDAO.getInstancia(),
+                    PasajeroDAO.getInstancia());
+            if (ticket != null) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene las particiones selladas que pueden tener tickets de la consulta, en el
+     * orden en que deben recorrerse. Se descartan por su período, sin abrirlas.
+     */
+    private List<String> selladasDe(ConsultaTickets consulta) {
+        LocalDateTime desde = consulta.getDesde();
+        LocalDateTime hasta = consulta.getHasta();
+        ClaveCronologica cursor = consulta.getCursor();
+        boolean inverso = consulta.getOrden() == ConsultaTickets.Orden.FECHA_DESCENDENTE;
+        List<String> claves = new ArrayList<>();
+        for (String clave : particiones.getSelladas()) {
+            LocalDateTime inicio = GranularidadParticion.inicio(clave).atStartOfDay();
+            LocalDateTime fin = GranularidadParticion.fin(clave).atStartOfDay();
+            if ((desde != null && !fin.isAfter(desde)) || (hasta != null && !inicio.isBefore(hasta))) {
+                continue;
+            }
+            if (cursor != null && (inverso ? inicio.isAfter(cursor.getFecha()) : !fin.isAfter(cursor.getFecha()))) {
+                continue;
+            }
+            claves.add(clave);
+        }
+        if (inverso) {
+            Collections.reverse(claves);
+        }
+        return claves;
+    }
+
+    /**
+     * Obtiene por bisección la posición del primer ticket posterior al cursor en una
+     * lista en orden cronológico.
+     */
+    private static int primeraPosterior(List<Ticket> ordenados, ClaveCronologica cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        int bajo = 0;
+        int alto = ordenados.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (cursor.compararCon(ordenados.get(medio)) < 0) {
+                alto = medio;
+            } else {
+                bajo = medio + 1;
+            }
+        }
+        return bajo;
+    }
+}
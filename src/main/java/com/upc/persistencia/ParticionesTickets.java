@@ -0,0 +1,906 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Ticket;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Clase ParticionesTickets
+ * Almacena los tickets en un archivo por período de fecha (modo
+ * {@link ModoAlmacenamientoTickets#PARTICIONADO}).
+ *
+ * <p>Cada ticket va a la partición de su {@link Ticket#getFecha()}, por ejemplo
+ * {@code data/tickets/2025-11.txt}. Solo la partición del período actual (la
+ * "abierta") se mantiene en memoria y se reescribe; las anteriores quedan selladas:
+ * nunca se vuelven a escribir, se leen solo cuando una consulta las necesita y,
+ * como son inmutables, su contenido se conserva en caché sin invalidación. El costo
+ * de arrancar y de cada venta depende del período actual y no del historial.</p>
+ *
+ * <p>Cuando llega un ticket de un período posterior, la partición abierta se sella
+ * y se abre la nueva.</p>
+ *
+ * <p>En segundo plano, cada partición sellada se reescribe como
+ * {@link SegmentoComprimido} ({@code 2025-10.tkz}) y se elimina su archivo original.
+ * La lectura es transparente: una búsqueda por ID o por rango de fechas en una
+ * partición comprimida solo descomprime los bloques que pueden contener el
+ * resultado. La propiedad {@code barceloneta.tickets.particion.comprimir=false}
+ * conserva las particiones selladas sin comprimir.</p>
+ *
+ * <p>La cantidad de tickets y el rango de IDs de cada partición sellada se guardan en
+ * {@code particiones.meta}, junto con el tamaño del archivo del que se tomaron. Contar
+ * los tickets no lee ninguna partición sellada y una búsqueda por ID solo abre las que
+ * pueden contenerlo. Si el archivo de una partición no coincide con sus metadatos (por
+ * ejemplo, tras una interrupción), estos se vuelven a calcular al necesitarlos.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class ParticionesTickets {
+
+    /**
+     * Propiedad del sistema que habilita la compresión de las particiones selladas
+     */
+    public static final String PROPIEDAD_COMPRIMIR = "barceloneta.tickets.particion.comprimir";
+
+    /**
+     * Archivo con los metadatos de las particiones selladas, dentro del directorio
+     */
+    private static final String ARCHIVO_METADATOS = "particiones.meta";
+
+    private final File directorio;
+    private final GranularidadParticion granularidad;
+    private final FormatoArchivo formato;
+    private final ColaEscritura cola;
+
+    /**
+     * Claves de las particiones existentes, en orden cronológico
+     */
+    private final TreeSet<String> claves;
+
+    /**
+     * Contenido de las particiones selladas ya leídas. Las referencias suaves permiten
+     * que la JVM libere las menos usadas si falta memoria; se vuelven a leer del disco.
+     */
+    private final Map<String, SoftReference<List<Ticket>>> selladas;
+
+    /**
+     * Índices de los segmentos comprimidos ya abiertos
+     */
+    private final Map<String, SegmentoComprimido> comprimidas;
+
+    /**
+     * Cantidad de tickets y rango de IDs de las particiones selladas ya resumidas
+     */
+    private final Map<String, Metadatos> metadatos;
+
+    /**
+     * Impide eliminar el archivo original de una partición mientras se está leyendo
+     */
+    private final ReentrantReadWriteLock bloqueoArchivos;
+
+    /**
+     * Hilo que comprime las particiones selladas (null si la compresión está deshabilitada)
+     */
+    private final ExecutorService compresor;
+
+    /**
+     * Clave de la partición abierta
+     */
+    private volatile String abierta;
+
+    /**
+     * Error de la última compresión que falló, o null
+     */
+    private volatile RuntimeException errorCompresion;
+
+    /**
+     * Constructor de las particiones.
+     *
+     * @param rutaDirectorio Directorio de las particiones (se crea si no existe)
+     * @param granularidad Período que cubre cada partición nueva
+     * @param formato Formato de los archivos de partición
+     * @param cola Cola de escritura de la partición abierta
+     * @throws RuntimeException si existe el archivo de metadatos y no se puede leer
+     */
+    public ParticionesTickets(String rutaDirectorio, GranularidadParticion granularidad,
+                              FormatoArchivo formato, ColaEscritura cola) {
+        this.directorio = new File(rutaDirectorio);
+        this.granularidad = granularidad;
+        this.formato = formato;
+        this.cola = cola;
+        this.claves = new TreeSet<>();
+        this.selladas = new ConcurrentHashMap<>();
+        this.comprimidas = new ConcurrentHashMap<>();
+        this.metadatos = new ConcurrentHashMap<>();
+        this.bloqueoArchivos = new ReentrantReadWriteLock();
+        directorio.mkdirs();
+
+        String extension = formato.ruta("");
+        File[] archivos = directorio.listFiles();
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                String nombre = archivo.getName();
+                String sufijo = nombre.endsWith(extension) ? extension
+                        : nombre.endsWith(SegmentoComprimido.EXTENSION) ? SegmentoComprimido.EXTENSION : null;
+                if (sufijo == null) {
+                    continue;
+                }
+                String clave = nombre.substring(0, nombre.length() - sufijo.length());
+                try {
+                    GranularidadParticion.inicio(clave);
+                    claves.add(clave);
+                } catch (IllegalArgumentException e) {
+                    // No es una partición (por ejemplo un archivo temporal)
+                }
+            }
+        }
+
+        // Si el reloj retrocedió, la partición más reciente sigue siendo la abierta
+        String actual = granularidad.claveParticion(LocalDateTime.now());
+        this.abierta = claves.isEmpty() || actual.compareTo(claves.last()) > 0 ? actual : claves.last();
+        cargarMetadatos();
+
+        if (Boolean.parseBoolean(System.getProperty(PROPIEDAD_COMPRIMIR, "true"))) {
+            this.compresor = Executors.newSingleThreadExecutor(r -> {
+                Thread hilo = new Thread(r, "compresor-particiones");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            programarCompresion();
+        } else {
+            this.compresor = null;
+        }
+    }
+
+    /**
+     * Obtiene la clave de la partición a la que pertenece una fecha.
+     *
+     * @param fecha Fecha del ticket
+     * @return Clave de la partición según la granularidad configurada
+     */
+    public String claveParticion(LocalDateTime fecha) {
+        return granularidad.claveParticion(fecha);
+    }
+
+    /**
+     * Obtiene la clave de la partición abierta.
+     *
+     * @return Clave de la partición abierta
+     */
+    public String getAbierta() {
+        return abierta;
+    }
+
+    /**
+     * Obtiene el error de la última compresión de una partición sellada que falló.
+     *
+     * @return Último error, o null si ninguna compresión falló
+     */
+    public RuntimeException getErrorCompresion() {
+        return errorCompresion;
+    }
+
+    /**
+     * Obtiene las claves de las particiones selladas, de la más antigua a la más reciente.
+     *
+     * @return Copia de las claves selladas
+     */
+    public synchronized List<String> getSelladas() {
+        return new ArrayList<>(claves.headSet(abierta, false));
+    }
+
+    /**
+     * Obtiene las claves de las particiones que se solapan con un rango de fechas,
+     * incluida la abierta si corresponde, en orden cronológico.
+     *
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido)
+     * @return Claves de las particiones a consultar
+     */
+    public synchronized List<String> clavesEntre(LocalDateTime desde, LocalDateTime hasta) {
+        TreeSet<String> candidatas = new TreeSet<>(claves);
+        candidatas.add(abierta);
+        List<String> resultado = new ArrayList<>();
+        for (String clave : candidatas) {
+            if (GranularidadParticion.inicio(clave).atStartOfDay().isBefore(hasta)
+                    && GranularidadParticion.fin(clave).atStartOfDay().isAfter(desde)) {
+                resultado.add(clave);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Cuenta los tickets de las particiones selladas a partir de sus metadatos.
+     *
+     * @return Número de tickets sellados
+     * @throws RuntimeException si hay que resumir una partición y ocurre un error al leerla
+     */
+    public int contarSelladas() {
+        int total = 0;
+        for (String clave : getSelladas()) {
+            total += metadatos(clave).tickets;
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el mayor número de ID de una partición sellada. Solo se lee la partición
+     * si contiene IDs no canónicos.
+     *
+     * @param clave Clave de la partición
+     * @param vehiculoDAO DAO para resolver vehículos
+     * @param pasajeroDAO DAO para resolver pasajeros
+     * @return Mayor número de ID, o 0 si la partición está vacía
+     * @throws RuntimeException si ocurre un error al leer la partición
+     */
+    public int mayorNumeroId(String clave, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        Metadatos resumen = metadatos(clave);
+        if (resumen.idMax != Long.MAX_VALUE) {
+            return (int) Math.max(resumen.idMax, 0);
+        }
+        int mayor = 0;
+        for (Ticket ticket : leerSellada(clave, vehiculoDAO, pasajeroDAO)) {
+            mayor = Math.max(mayor, MotorTicketsBase.extraerNumeroId(ticket.getIdTicket()));
+        }
+        return mayor;
+    }
+
+    /**
+     * Carga la partición abierta en un mapa.
+     *
+     * @param destino Mapa donde se agregan los tickets
+     * @param vehiculoDAO DAO para resolver vehículos
+     * @param pasajeroDAO DAO para resolver pasajeros
+     * @throws RuntimeException si ocurre un error al leer la partición
+     */
+    public void cargarAbierta(Map<String, Ticket> destino, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        if (archivo(abierta).exists() || comprimido(abierta).exists()) {
+            leer(abierta, destino, vehiculoDAO, pasajeroDAO);
+        }
+    }
+
+    /**
+     * Obtiene los tickets de una partición sellada, leyéndola si no está en caché.
+     * Como la partición ya no cambia, se ordena una sola vez al leerla: las consultas
+     * cronológicas la recorren o buscan en ella sin volver a ordenarla.
+     *
+     * @param clave Clave de la partición
+     * @param vehiculoDAO DAO para resolver vehículos
+     * @param pasajeroDAO DAO para resolver pasajeros
+     * @return Tickets de la partición en el orden de {@link ClaveCronologica#ORDEN_TICKETS}
+     *         (lista no modificable)
+     * @throws RuntimeException si ocurre un error al leer la partición
+     */
+    public List<Ticket> leerSellada(String clave, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        List<Ticket> contenido = enCache(clave);
+        if (contenido == null) {
+            Map<String, Ticket> leidos = new LinkedHashMap<>();
+            leer(clave, leidos, vehiculoDAO, pasajeroDAO);
+            contenido = ordenada(leidos.values());
+            selladas.put(clave, new SoftReference<>(contenido));
+        }
+        return contenido;
+    }
+
+    /**
+     * Entrega los tickets de una partición sellada a un visitante. Si la partición está
+     * en caché se recorre esa lista; si no, se lee sin guardarla en la caché, para que
+     * recorrer todo el historial no retenga más de una partición en memoria.
+     *
+     * @param clave Clave de la partición
+     * @param visitante Función que recibe cada ticket
+     * @param vehiculoDAO DAO para resolver vehículos
+     * @param pasajeroDAO DAO para resolver pasajeros
+     * @throws RuntimeException si ocurre un error al leer la partición
+     */
+    public void recorrerSellada(String clave, Consumer<? super Ticket> visitante, VehiculoDAO vehiculoDAO,
+                                PasajeroDAO pasajeroDAO) {
+        List<Ticket> contenido = enCache(clave);
+        if (contenido != null) {
+            for (Ticket ticket : contenido) {
+                visitante.accept(ticket);
+            }
+            return;
+        }
+        List<TicketSinResolver> pendientes;
+        bloqueoArchivos.readLock().lock();
+        try {
+            SegmentoComprimido segmento = segmento(clave);
+            if (segmento != null) {
+                pendientes = segmento.leerTodos();
+            } else if (archivo(clave).exists()) {
+                pendientes = leerSinResolver(clave);
+            } else {
+                return;
+            }
+        } finally {
+            bloqueoArchivos.readLock().unlock();
+        }
+        for (TicketSinResolver pendiente : pendientes) {
+            visitante.accept(pendiente.resolver(vehiculoDAO, pasajeroDAO));
+        }
+    }
+
+    /**
+     * Busca un ticket en una partición sellada. Si el ID está fuera del rango de la
+     * partición no se lee; si no está en caché y ya está comprimida, solo se descomprimen
+     * los bloques cuyo rango de IDs lo contiene.
+     *
+     * @param clave Clave de la partición
+     * @param idTicket ID del ticket
+     * @param vehiculoDAO DAO para resolver vehículos
+     * @param pasajeroDAO DAO para resolver pasajeros
+     * @return Ticket encontrado o null si no está en la partición
+     * @throws RuntimeException si ocurre un error al leer la partición
+     */
+    public Ticket buscarEnSellada(String clave, String idTicket, VehiculoDAO vehiculoDAO,
+                                  PasajeroDAO pasajeroDAO) {
+        if (!metadatos(clave).puedeContener(idTicket)) {
+            return null;
+        }
+        SegmentoComprimido segmento = enCache(clave) == null ? segmento(clave) : null;
+        if (segmento != null) {
+            TicketSinResolver ticket = segmento.buscarPorId(idTicket);
+            return ticket == null ? null : ticket.resolver(vehiculoDAO, pasajeroDAO);
+        }
+        for (Ticket ticket : leerSellada(clave, vehiculoDAO, pasajeroDAO)) {
+            if (ticket.getIdTicket().equals(idTicket)) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene los tickets de una partición sellada que pueden estar en un rango de fechas.
+     * Si la partición no está en caché y ya está comprimida, solo se descomprimen los
+     * bloques que se solapan con el rango; el resultado puede incluir tickets cercanos
+     * fuera de él.
+     *
+     * @param clave Clave de la partición
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido)
+     * @param vehiculoDAO DAO para resolver vehículos
+     * @param pasajeroDAO DAO para resolver pasajeros
+     * @return Tickets candidatos
+     * @throws RuntimeException si ocurre un error al leer la partición
+     */
+    public List<Ticket> leerSelladaEnRango(String clave, LocalDateTime desde, LocalDateTime hasta,
+                                           VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        SegmentoComprimido segmento = enCache(clave) == null ? segmento(clave) : null;
+        if (segmento == null) {
+            return leerSellada(clave, vehiculoDAO, pasajeroDAO);
+        }
+        List<Ticket> candidatos = new ArrayList<>();
+        for (TicketSinResolver ticket : segmento.leerRango(CodecFecha.aEpochMilis(desde),
+                CodecFecha.aEpochMilis(hasta))) {
+            candidatos.add(ticket.resolver(vehiculoDAO, pasajeroDAO));
+        }
+        return candidatos;
+    }
+
+    /**
+     * Sella la partición abierta y abre una posterior.
+     * El archivo de la partición sellada ya quedó encolado con su contenido final.
+     *
+     * @param nueva Clave de la nueva partición abierta
+     * @param contenidoSellado Tickets de la partición que se sella
+     * @throws IllegalArgumentException si la nueva partición no es posterior a la abierta
+     */
+    public synchronized void abrir(String nueva, Collection<Ticket> contenidoSellado) {
+        if (nueva.compareTo(abierta) <= 0) {
+            throw new IllegalArgumentException("La partición " + nueva + " no es posterior a " + abierta);
+        }
+        if (!contenidoSellado.isEmpty()) {
+            selladas.put(abierta, new SoftReference<>(ordenada(contenidoSellado)));
+            Metadatos resumen = new Metadatos();
+            for (Ticket ticket : contenidoSellado) {
+                resumen.agregar(ticket.getIdTicket());
+            }
+            metadatos.put(abierta, resumen);
+        }
+        abierta = nueva;
+        guardarMetadatos();
+        programarCompresion();
+    }
+
+    /**
+     * Encola la reescritura de la partición abierta.
+     *
+     * @param copia Copia de los tickets de la partición abierta
+     * @return Futuro que se completa cuando el archivo está en disco
+     * @throws IllegalStateException si la cola está llena y la política es FALLAR
+     */
+    public CompletableFuture<Void> escribirAbierta(List<Ticket> copia) {
+        String clave;
+        synchronized (this) {
+            clave = abierta;
+            claves.add(clave);
+        }
+        File archivo = archivo(clave);
+        if (formato == FormatoArchivo.BINARIO) {
+            return cola.encolarReescritura(archivo, salida -> MotorTicketsCsv.escribirBinario(salida, copia, 0));
+        }
+        return cola.encolarReescritura(archivo, copia, SerializadorTicket::serializar);
+    }
+
+    /**
+     * Reparte tickets existentes en particiones y las escribe de inmediato.
+     * Se usa una sola vez, al migrar desde el archivo único de tickets.
+     *
+     * @param contenido Tickets a repartir
+     * @throws RuntimeException si ocurre un error al escribir las particiones
+     */
+    public synchronized void importar(Collection<Ticket> contenido) {
+        Map<String, List<Ticket>> porParticion = new TreeMap<>();
+        for (Ticket ticket : contenido) {
+            porParticion.computeIfAbsent(claveParticion(ticket.getFecha()), k -> new ArrayList<>()).add(ticket);
+        }
+        for (Map.Entry<String, List<Ticket>> particion : porParticion.entrySet()) {
+            List<Ticket> tickets = particion.getValue();
+            File archivo = archivo(particion.getKey());
+            Metadatos resumen = new Metadatos();
+            for (Ticket ticket : tickets) {
+                resumen.agregar(ticket.getIdTicket());
+            }
+            try {
+                if (formato == FormatoArchivo.BINARIO) {
+                    EscritorPersistencia.reemplazarArchivo(archivo,
+                            salida -> MotorTicketsCsv.escribirBinario(salida, tickets, 0));
+                } else {
+                    EscritorPersistencia.reemplazarArchivo(archivo, salida -> {
+                        for (Ticket ticket : tickets) {
+                            EscritorPersistencia.escribirLinea(salida, SerializadorTicket.serializar(ticket));
+                        }
+                    });
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error al escribir la partición de tickets: " + archivo.getPath(), e);
+            }
+            claves.add(particion.getKey());
+            metadatos.put(particion.getKey(), resumen);
+        }
+        if (!claves.isEmpty() && claves.last().compareTo(abierta) > 0) {
+            abierta = claves.last();
+        }
+        guardarMetadatos();
+        programarCompresion();
+    }
+
+    /**
+     * Agrega tickets a una partición anterior a la abierta (sellada o todavía sin
+     * archivo) y la reescribe de inmediato. Se usa al importar tickets históricos.
+     *
+     * La reescritura se ejecuta en el hilo compresor, de modo que no se cruza con la
+     * compresión de la misma partición; si ya estaba comprimida, se reescribe sin
+     * comprimir y se vuelve a comprimir después.
+     *
+     * @param clave Clave de la partición
+     * @param nuevos Tickets cuya fecha corresponde a la partición
+     * @return Tickets que no se agregaron porque la partición ya tenía uno con el mismo ID
+     *         (incluido uno anterior de la misma lista)
+     * @throws IllegalArgumentException si la partición no es anterior a la abierta
+     * @throws RuntimeException si ocurre un error al leer o escribir la partición
+     */
+    public List<Ticket> agregarASellada(String clave, List<Ticket> nuevos) {
+        if (clave.compareTo(abierta) >= 0) {
+            throw new IllegalArgumentException("La partición " + clave + " no es anterior a " + abierta);
+        }
+        if (compresor == null) {
+            return reescribirSellada(clave, nuevos);
+        }
+        try {
+            return compresor.submit(() -> reescribirSellada(clave, nuevos)).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new RuntimeException("Error al agregar tickets a la partición " + clave, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido al agregar tickets a la partición " + clave, e);
+        }
+    }
+
+    /**
+     * Reescribe una partición sellada con su contenido actual más los tickets nuevos.
+     */
+    private List<Ticket> reescribirSellada(String clave, List<Ticket> nuevos) {
+        // La última reescritura de la partición debe estar en disco antes de leerla
+        EscritorPersistencia.getInstancia().sincronizar();
+
+        SegmentoComprimido segmento = segmento(clave);
+        List<TicketSinResolver> actuales = segmento != null ? segmento.leerTodos()
+                : archivo(clave).exists() ? leerSinResolver(clave) : Collections.emptyList();
+        Set<String> ids = new HashSet<>();
+        Metadatos resumen = new Metadatos();
+        for (TicketSinResolver ticket : actuales) {
+            ids.add(ticket.getIdTicket());
+            resumen.agregar(ticket.getIdTicket());
+        }
+        List<Ticket> agregados = new ArrayList<>(nuevos.size());
+        List<Ticket> existentes = new ArrayList<>();
+        for (Ticket ticket : nuevos) {
+            if (ids.add(ticket.getIdTicket())) {
+                agregados.add(ticket);
+                resumen.agregar(ticket.getIdTicket());
+            } else {
+                existentes.add(ticket);
+            }
+        }
+        if (agregados.isEmpty()) {
+            return existentes;
+        }
+
+        File archivo = archivo(clave);
+        try {
+            if (formato == FormatoArchivo.BINARIO) {
+                EscritorPersistencia.reemplazarArchivo(archivo, salida -> {
+                    CodecBinario.Salida binaria = new CodecBinario.Salida(salida, CodecBinario.TIPO_TICKETS, 0);
+                    for (TicketSinResolver t : actuales) {
+                        SerializadorBinarioTicket.serializarCampos(binaria, t.getIdTicket(), t.getPlaca(),
+                                t.getCedula(), t.getOrigen(), t.getDestino(), t.getFecha(), t.getDistanciaKm());
+                    }
+                    for (Ticket ticket : agregados) {
+                        SerializadorBinarioTicket.serializar(binaria, ticket);
+                    }
+                });
+            } else {
+                EscritorPersistencia.reemplazarArchivo(archivo, salida -> {
+                    for (TicketSinResolver ticket : actuales) {
+                        EscritorPersistencia.escribirLinea(salida, ticket.aCsv());
+                    }
+                    for (Ticket ticket : agregados) {
+                        EscritorPersistencia.escribirLinea(salida, SerializadorTicket.serializar(ticket));
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al escribir la partición de tickets: " + archivo.getPath(), e);
+        }
+
+        bloqueoArchivos.writeLock().lock();
+        try {
+            File comprimido = comprimido(clave);
+            if (comprimido.exists() && !comprimido.delete()) {
+                throw new RuntimeException("No se pudo eliminar la partición comprimida: " + comprimido.getPath());
+            }
+            comprimidas.remove(clave);
+            selladas.remove(clave);
+            metadatos.put(clave, resumen);
+        } finally {
+            bloqueoArchivos.writeLock().unlock();
+        }
+        synchronized (this) {
+            claves.add(clave);
+        }
+        guardarMetadatos();
+        programarCompresion();
+        return existentes;
+    }
+
+    /**
+     * Elimina los archivos de todas las particiones selladas.
+     * Las escrituras pendientes deben haberse sincronizado antes.
+     *
+     * @throws RuntimeException si algún archivo no se pudo eliminar
+     */
+    public synchronized void eliminarSelladas() {
+        for (String clave : getSelladas()) {
+            for (File archivo : new File[] {archivo(clave), comprimido(clave)}) {
+                if (archivo.exists() && !archivo.delete()) {
+                    throw new RuntimeException("No se pudo eliminar la partición de tickets: " + archivo.getPath());
+                }
+            }
+            claves.remove(clave);
+            selladas.remove(clave);
+            comprimidas.remove(clave);
+            metadatos.remove(clave);
+        }
+        guardarMetadatos();
+    }
+
+    /**
+     * Comprime las particiones selladas que aún no lo están.
+     * Se ejecuta en el hilo compresor; un error deja la partición sin comprimir (o, si
+     * no se pudo eliminar el original, con ambos archivos) y queda en
+     * {@link #getErrorCompresion()}.
+     */
+    private void comprimirSelladas() {
+        boolean comprimio = false;
+        for (String clave : getSelladas()) {
+            File original = archivo(clave);
+            File destino = comprimido(clave);
+            if (destino.exists() || !original.exists()) {
+                continue;
+            }
+            try {
+                // La última reescritura de la partición debe estar en disco antes de leerla
+                EscritorPersistencia.getInstancia().sincronizar();
+            } catch (IllegalStateException e) {
+                return; // La aplicación está terminando: se retoma en el próximo arranque
+            }
+            try {
+                SegmentoComprimido.escribir(destino, leerSinResolver(clave));
+                bloqueoArchivos.writeLock().lock();
+                try {
+                    if (!original.delete()) {
+                        errorCompresion = new RuntimeException(
+                                "No se pudo eliminar la partición ya comprimida: " + original.getPath());
+                    }
+                } finally {
+                    bloqueoArchivos.writeLock().unlock();
+                }
+                comprimio = true;
+            } catch (IOException | RuntimeException e) {
+                destino.delete();
+                errorCompresion = new RuntimeException("Error al comprimir la partición de tickets " + clave + ": "
+                        + e.getMessage(), e);
+            }
+        }
+        if (comprimio) {
+            guardarMetadatos(); // Los metadatos no cambian, pero sí el tamaño del archivo
+        }
+    }
+
+    /**
+     * Encola la compresión de las particiones selladas, si está habilitada.
+     */
+    private void programarCompresion() {
+        if (compresor != null) {
+            compresor.execute(this::comprimirSelladas);
+        }
+    }
+
+    /**
+     * Lee una partición sin comprimir sin resolver sus referencias.
+     */
+    private List<TicketSinResolver> leerSinResolver(String clave) {
+        File archivo = archivo(clave);
+        List<TicketSinResolver> pendientes = new ArrayList<>();
+        if (formato == FormatoArchivo.BINARIO) {
+            MotorTicketsCsv.leerArchivoBinario(archivo, archivo.getPath(), pendientes);
+            return pendientes;
+        }
+        try (BufferedReader lector = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (!TokenizadorCsv.esVacia(linea)) {
+                    pendientes.add(SerializadorTicket.deserializarSinResolver(linea));
+                }
+            }
+            return pendientes;
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer la partición de tickets: " + archivo.getPath(), e);
+        }
+    }
+
+    /**
+     * Lee una partición, comprimida o no, y agrega sus tickets al mapa.
+     */
+    private void leer(String clave, Map<String, Ticket> destino, VehiculoDAO vehiculoDAO,
+                      PasajeroDAO pasajeroDAO) {
+        bloqueoArchivos.readLock().lock();
+        try {
+            SegmentoComprimido segmento = segmento(clave);
+            File archivo = archivo(clave);
+            if (segmento != null) {
+                MotorTicketsCsv.resolverPendientes(segmento.leerTodos(), destino, vehiculoDAO, pasajeroDAO);
+            } else if (!archivo.exists()) {
+                return;
+            } else if (formato == FormatoArchivo.BINARIO) {
+                List<TicketSinResolver> pendientes = new ArrayList<>();
+                MotorTicketsCsv.leerArchivoBinario(archivo, archivo.getPath(), pendientes);
+                MotorTicketsCsv.resolverPendientes(pendientes, destino, vehiculoDAO, pasajeroDAO);
+            } else {
+                new CargadorParaleloTickets(archivo, archivo.getPath()).cargar(destino, vehiculoDAO, pasajeroDAO);
+            }
+        } finally {
+            bloqueoArchivos.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los metadatos de una partición sellada, resumiéndola si aún no los tiene.
+     */
+    private Metadatos metadatos(String clave) {
+        Metadatos resumen = metadatos.get(clave);
+        if (resumen == null) {
+            resumen = resumir(clave);
+            metadatos.put(clave, resumen);
+            guardarMetadatos();
+        }
+        return resumen;
+    }
+
+    /**
+     * Calcula los metadatos de una partición sellada. Una partición comprimida se
+     * resume con el índice de sus bloques, sin descomprimirla.
+     */
+    private Metadatos resumir(String clave) {
+        Metadatos resumen = new Metadatos();
+        List<Ticket> contenido = enCache(clave);
+        if (contenido != null) {
+            for (Ticket ticket : contenido) {
+                resumen.agregar(ticket.getIdTicket());
+            }
+            return resumen;
+        }
+        bloqueoArchivos.readLock().lock();
+        try {
+            SegmentoComprimido segmento = segmento(clave);
+            if (segmento != null) {
+                return new Metadatos(segmento.contar(), segmento.getIdMin(), segmento.getIdMax());
+            }
+            if (archivo(clave).exists()) {
+                for (TicketSinResolver ticket : leerSinResolver(clave)) {
+                    resumen.agregar(ticket.getIdTicket());
+                }
+            }
+            return resumen;
+        } finally {
+            bloqueoArchivos.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lee los metadatos guardados, descartando los de particiones inexistentes, los de
+     * la abierta y los que no corresponden al archivo actual de la partición.
+     *
+     * @throws RuntimeException si el archivo existe y no se puede leer
+     */
+    private void cargarMetadatos() {
+        File archivo = new File(directorio, ARCHIVO_METADATOS);
+        if (!archivo.exists()) {
+            return;
+        }
+        try (BufferedReader lector = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                String[] campos = linea.split(",");
+                if (campos.length != 5 || !claves.contains(campos[0]) || campos[0].compareTo(abierta) >= 0) {
+                    continue;
+                }
+                try {
+                    if (Long.parseLong(campos[4]) == tamanoEnDisco(campos[0])) {
+                        metadatos.put(campos[0], new Metadatos(Integer.parseInt(campos[1]),
+                                Long.parseLong(campos[2]), Long.parseLong(campos[3])));
+                    }
+                } catch (NumberFormatException e) {
+                    // Línea dañada: la partición se vuelve a resumir al necesitarla
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer los metadatos de las particiones: " + archivo.getPath(), e);
+        }
+    }
+
+    /**
+     * Encola la reescritura de los metadatos de las particiones selladas.
+     *
+     * El tamaño de cada partición se toma al escribir: como la cola es FIFO, para
+     * entonces ya están en disco las particiones encoladas antes. Si la escritura no se
+     * puede encolar, las particiones afectadas se vuelven a resumir en el próximo arranque.
+     */
+    private synchronized void guardarMetadatos() {
+        Map<String, Metadatos> copia = new TreeMap<>(metadatos);
+        copia.keySet().removeIf(clave -> clave.compareTo(abierta) >= 0);
+        try {
+            cola.encolarReescritura(new File(directorio, ARCHIVO_METADATOS), salida -> {
+                for (Map.Entry<String, Metadatos> entrada : copia.entrySet()) {
+                    Metadatos resumen = entrada.getValue();
+                    EscritorPersistencia.escribirLinea(salida, entrada.getKey() + "," + resumen.tickets + ","
+                            + resumen.idMin + "," + resumen.idMax + "," + tamanoEnDisco(entrada.getKey()));
+                }
+            });
+        } catch (IllegalStateException e) {
+            // Cola llena o cerrada: los metadatos son recalculables
+        }
+    }
+
+    /**
+     * Obtiene el tamaño del archivo actual de una partición (comprimido o no).
+     */
+    private long tamanoEnDisco(String clave) {
+        bloqueoArchivos.readLock().lock();
+        try {
+            File comprimido = comprimido(clave);
+            return comprimido.exists() ? comprimido.length() : archivo(clave).length();
+        } finally {
+            bloqueoArchivos.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene el índice del segmento comprimido de una partición.
+     *
+     * @return Segmento abierto, o null si la partición no está comprimida
+     */
+    private SegmentoComprimido segmento(String clave) {
+        SegmentoComprimido segmento = comprimidas.get(clave);
+        if (segmento == null && comprimido(clave).exists()) {
+            segmento = new SegmentoComprimido(comprimido(clave));
+            comprimidas.put(clave, segmento);
+        }
+        return segmento;
+    }
+
+    /**
+     * Copia el contenido de una partición sellada, en orden cronológico, para la caché.
+     */
+    private static List<Ticket> ordenada(Collection<Ticket> contenido) {
+        List<Ticket> ordenados = new ArrayList<>(contenido);
+        ordenados.sort(ClaveCronologica.ORDEN_TICKETS);
+        return Collections.unmodifiableList(ordenados);
+    }
+
+    private List<Ticket> enCache(String clave) {
+        SoftReference<List<Ticket>> referencia = selladas.get(clave);
+        return referencia != null ? referencia.get() : null;
+    }
+
+    private File archivo(String clave) {
+        return new File(directorio, formato.ruta(clave));
+    }
+
+    private File comprimido(String clave) {
+        return new File(directorio, clave + SegmentoComprimido.EXTENSION);
+    }
+
+    /**
+     * Cantidad de tickets y rango de números de ID de una partición sellada.
+     * Como en {@link SegmentoComprimido}, un ID no canónico hace que el rango cubra
+     * cualquier ID.
+     */
+    private static final class Metadatos {
+
+        private int tickets;
+        private long idMin;
+        private long idMax;
+
+        Metadatos() {
+            this(0, Long.MAX_VALUE, Long.MIN_VALUE);
+        }
+
+        Metadatos(int tickets, long idMin, long idMax) {
+            this.tickets = tickets;
+            this.idMin = idMin;
+            this.idMax = idMax;
+        }
+
+        void agregar(String idTicket) {
+            long numero = SerializadorBinarioTicket.numeroCanonico(idTicket);
+            idMin = Math.min(idMin, numero > 0 ? numero : 0);
+            idMax = Math.max(idMax, numero > 0 ? numero : Long.MAX_VALUE);
+            tickets++;
+        }
+
+        boolean puedeContener(String idTicket) {
+            long numero = SerializadorBinarioTicket.numeroCanonico(idTicket);
+            long id = numero > 0 ? numero : Long.MAX_VALUE;
+            return idMin <= id && id <= idMax;
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package com.upc.persistencia;
 
 import com.upc.modelo.Pasajero;
-import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Clase PasajeroDAO (Data Access Object)
@@ -15,8 +16,15 @@ import java.util.Map;
  * <p>Esta clase implementa el patrón DAO para separar la lógica de acceso a datos
  * de la lógica de negocio. En Fase 2 usa archivos CSV con codificación UTF-8.</p>
  *
- * <p>Los datos se mantienen en memoria (HashMap) para eficiencia y se sincronizan
- * automáticamente con el archivo de texto en cada operación CRUD.</p>
+ * <p>Los datos se guardan en un {@link MotorAlmacenamiento}, seleccionado al iniciar con
+ * la propiedad {@code barceloneta.persistencia.motor}: en memoria, en un archivo
+ * CSV que se reescribe en cada operación CRUD, en una bitácora de solo anexado que
+ * se compacta periódicamente (por defecto) o en una base de datos embebida. El DAO
+ * valida las operaciones y las delega al motor.</p>
+ *
+ * <p>Para buscar pasajeros por nombre se mantiene un {@link IndiceNombres} por prefijo
+ * y con tolerancia a errores de escritura. Se construye en la primera búsqueda y desde
+ * entonces se actualiza en cada operación, dentro del bloqueo del DAO.</p>
  *
  * <p><b>Patrón de diseño:</b> Data Access Object (DAO) + Singleton</p>
  *
@@ -27,9 +35,14 @@ import java.util.Map;
 public class PasajeroDAO {
 
     /**
-     * Almacenamiento en memoria de pasajeros (Cédula -> Pasajero)
+     * Ruta base de los archivos de persistencia (sin extensión)
      */
-    private Map<String, Pasajero> pasajeros;
+    private static final String RUTA_PASAJEROS = "data/pasajeros";
+
+    /**
+     * Motor que almacena los pasajeros (Cédula -> Pasajero)
+     */
+    private final MotorAlmacenamiento<Pasajero> motor;
 
     /**
      * Instancia única del DAO (patrón Singleton)
@@ -37,17 +50,16 @@ public class PasajeroDAO {
     private static PasajeroDAO instancia;
 
     /**
-     * Ruta del archivo de persistencia
+     * Índice por nombre; null hasta la primera búsqueda por nombre
      */
-    private static final String ARCHIVO_PASAJEROS = "data/pasajeros.txt";
+    private volatile IndiceNombres indiceNombres;
 
     /**
      * Constructor privado para implementar Singleton.
      * Carga automáticamente los datos desde el archivo al inicializar.
      */
     private PasajeroDAO() {
-        this.pasajeros = new HashMap<>();
-        cargarDesdeArchivo();
+        this.motor = TipoMotorAlmacenamiento.desdeConfiguracion().crear(esquema(RUTA_PASAJEROS));
     }
 
     /**
@@ -55,13 +67,26 @@ public class PasajeroDAO {
      *
      * @return Instancia de PasajeroDAO
      */
-    public static PasajeroDAO getInstancia() {
+    public static synchronized PasajeroDAO getInstancia() {
         if (instancia == null) {
             instancia = new PasajeroDAO();
         }
         return instancia;
     }
 
+    /**
+     * Describe cómo se identifican, serializan y ubican en disco los pasajeros.
+     *
+     * @param rutaBase Ruta de los archivos sin extensión
+     * @return Esquema de la entidad Pasajero
+     */
+    public static EsquemaEntidad<Pasajero> esquema(String rutaBase) {
+        return new EsquemaEntidad<>("pasajeros", rutaBase,
+                FormatoArchivo.desdeConfiguracion(FormatoArchivo.PROPIEDAD_PASAJEROS), Pasajero::getCedula,
+                SerializadorPasajero::serializar, SerializadorPasajero::deserializar, CodecBinario.TIPO_PASAJEROS,
+                SerializadorBinarioPasajero::serializar, SerializadorBinarioPasajero::deserializar);
+    }
+
     /**
      * Guarda un pasajero en el almacenamiento.
      * Sincroniza automáticamente con el archivo de persistencia.
@@ -74,12 +99,37 @@ public class PasajeroDAO {
         if (pasajero == null || pasajero.getCedula() == null) {
             return false;
         }
-        if (pasajeros.containsKey(pasajero.getCedula())) {
-            return false; // Ya existe
+        synchronized (this) {
+            boolean guardado = motor.insertar(pasajero);
+            if (guardado && indiceNombres != null) {
+                indiceNombres.agregar(pasajero);
+            }
+            return guardado;
+        }
+    }
+
+    /**
+     * Guarda varios pasajeros y persiste el cambio una sola vez.
+     * Se usa en las importaciones masivas.
+     *
+     * @param pasajeros Pasajeros a guardar (sin elementos null)
+     * @return Pasajeros que no se guardaron porque ya existía uno con la misma cédula
+     * @throws RuntimeException si ocurre un error al guardar en el archivo; no se guarda ninguno
+     */
+    public List<Pasajero> guardarTodos(Collection<Pasajero> pasajeros) {
+        synchronized (this) {
+            List<Pasajero> existentes = motor.insertarTodos(pasajeros);
+            if (indiceNombres != null) {
+                Set<Pasajero> rechazados = Collections.newSetFromMap(new IdentityHashMap<>());
+                rechazados.addAll(existentes);
+                for (Pasajero pasajero : pasajeros) {
+                    if (!rechazados.contains(pasajero)) {
+                        indiceNombres.agregar(pasajero);
+                    }
+                }
+            }
+            return existentes;
         }
-        pasajeros.put(pasajero.getCedula(), pasajero);
-        guardarEnArchivo();
-        return true;
     }
 
     /**
@@ -89,7 +139,49 @@ public class PasajeroDAO {
      * @return Pasajero encontrado o null si no existe
      */
     public Pasajero buscarPorCedula(String cedula) {
-        return pasajeros.get(cedula);
+        return motor.buscar(cedula);
+    }
+
+    /**
+     * Busca pasajeros por su nombre o parte de él, sin distinguir tildes ni mayúsculas y
+     * tolerando errores de escritura. Cada palabra escrita debe coincidir con una palabra
+     * del nombre: completa, como prefijo ("mar gonz") o con uno o dos errores ("gonzales").
+     *
+     * @param texto Palabras o prefijos del nombre, en cualquier orden
+     * @param limite Cantidad máxima de pasajeros
+     * @return Pasajeros de la mejor coincidencia a la peor: primero las palabras completas,
+     *         luego los prefijos y por último las coincidencias con errores
+     */
+    public List<Pasajero> buscarPorNombre(String texto, int limite) {
+        List<Pasajero> encontrados = new ArrayList<>();
+        for (String cedula : getIndiceNombres().buscar(texto, limite)) {
+            Pasajero pasajero = motor.buscar(cedula);
+            if (pasajero != null) { // Puede haberse eliminado después de la búsqueda
+                encontrados.add(pasajero);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Obtiene el índice por nombre. Se construye en la primera llamada recorriendo los
+     * pasajeros, y desde entonces se actualiza con cada operación.
+     *
+     * @return Índice por nombre con todos los pasajeros
+     */
+    private IndiceNombres getIndiceNombres() {
+        IndiceNombres indice = indiceNombres;
+        if (indice == null) {
+            synchronized (this) {
+                if (indiceNombres == null) {
+                    IndiceNombres nuevo = new IndiceNombres();
+                    motor.recorrer(nuevo::agregar);
+                    indiceNombres = nuevo;
+                }
+                indice = indiceNombres;
+            }
+        }
+        return indice;
     }
 
     /**
@@ -98,7 +190,16 @@ public class PasajeroDAO {
      * @return Lista de todos los pasajeros
      */
     public List<Pasajero> obtenerTodos() {
-        return new ArrayList<>(pasajeros.values());
+        return motor.todos();
+    }
+
+    /**
+     * Entrega cada pasajero registrado a un visitante, sin copiarlos a una lista.
+     *
+     * @param visitante Función que recibe cada pasajero
+     */
+    public void recorrer(Consumer<? super Pasajero> visitante) {
+        motor.recorrer(visitante);
     }
 
     /**
@@ -113,12 +214,13 @@ public class PasajeroDAO {
         if (pasajero == null || pasajero.getCedula() == null) {
             return false;
         }
-        if (!pasajeros.containsKey(pasajero.getCedula())) {
-            return false; // No existe
+        synchronized (this) {
+            boolean actualizado = motor.reemplazar(pasajero);
+            if (actualizado && indiceNombres != null) {
+                indiceNombres.agregar(pasajero); // Reemplaza las palabras del nombre anterior
+            }
+            return actualizado;
         }
-        pasajeros.put(pasajero.getCedula(), pasajero);
-        guardarEnArchivo();
-        return true;
     }
 
     /**
@@ -130,11 +232,13 @@ public class PasajeroDAO {
      * @throws RuntimeException si ocurre un error al guardar en el archivo
      */
     public boolean eliminar(String cedula) {
-        boolean eliminado = pasajeros.remove(cedula) != null;
-        if (eliminado) {
-            guardarEnArchivo();
+        synchronized (this) {
+            boolean eliminado = motor.eliminar(cedula);
+            if (eliminado && indiceNombres != null) {
+                indiceNombres.quitar(cedula);
+            }
+            return eliminado;
         }
-        return eliminado;
     }
 
     /**
@@ -144,7 +248,7 @@ public class PasajeroDAO {
      * @return true si existe, false si no
      */
     public boolean existe(String cedula) {
-        return pasajeros.containsKey(cedula);
+        return motor.contiene(cedula);
     }
 
     /**
@@ -153,99 +257,40 @@ public class PasajeroDAO {
      * @return Número de pasajeros
      */
     public int contarPasajeros() {
-        return pasajeros.size();
+        return motor.contar();
     }
 
     /**
-     * Limpia todos los pasajeros del almacenamiento.
-     * Sincroniza automáticamente con el archivo de persistencia.
-     * Útil para pruebas.
+     * Obtiene el tipo de motor de almacenamiento en uso.
      *
-     * @throws RuntimeException si ocurre un error al guardar en el archivo
+     * @return Tipo de motor
      */
-    public void limpiar() {
-        pasajeros.clear();
-        guardarEnArchivo();
+    public TipoMotorAlmacenamiento getTipoMotor() {
+        return motor.getTipo();
     }
 
     /**
-     * Carga los pasajeros desde el archivo de texto.
-     * Este método se ejecuta automáticamente al inicializar el DAO.
+     * Obtiene el registro incompleto que se descartó al cargar la bitácora de pasajeros.
      *
-     * Si el archivo no existe, se crea vacío.
-     * Si el archivo está corrupto, se lanza una excepción.
-     *
-     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
+     * @return Error con la línea descartada y su causa, o null si no se descartó ninguna
      */
-    private void cargarDesdeArchivo() {
-        File archivo = new File(ARCHIVO_PASAJEROS);
-
-        // Si el archivo no existe, crearlo
-        if (!archivo.exists()) {
-            try {
-                archivo.getParentFile().mkdirs();
-                archivo.createNewFile();
-                return;
-            } catch (IOException e) {
-                throw new RuntimeException("Error al crear el archivo de pasajeros: " + ARCHIVO_PASAJEROS, e);
-            }
-        }
-
-        // Leer el archivo línea por línea
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
-
-            String linea;
-            int numeroLinea = 0;
-            pasajeros.clear();
-
-            while ((linea = reader.readLine()) != null) {
-                numeroLinea++;
-                linea = linea.trim();
-
-                // Saltar líneas vacías
-                if (linea.isEmpty()) {
-                    continue;
-                }
-
-                try {
-                    Pasajero pasajero = SerializadorPasajero.deserializar(linea);
-                    pasajeros.put(pasajero.getCedula(), pasajero);
-                } catch (IllegalArgumentException e) {
-                    throw new RuntimeException(
-                        "Error al parsear línea " + numeroLinea + " del archivo " + ARCHIVO_PASAJEROS + ": " + linea, e
-                    );
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error al leer el archivo de pasajeros: " + ARCHIVO_PASAJEROS, e);
-        }
+    public RuntimeException getRegistroDescartado() {
+        return motor.getRegistroDescartado();
     }
 
     /**
-     * Guarda todos los pasajeros en el archivo de texto.
-     * Este método se ejecuta automáticamente después de cada operación CRUD.
+     * Limpia todos los pasajeros del almacenamiento.
+     * Sincroniza automáticamente con el archivo de persistencia.
+     * Útil para pruebas.
      *
-     * @throws RuntimeException si ocurre un error al escribir en el archivo
+     * @throws RuntimeException si ocurre un error al guardar en el archivo
      */
-    private void guardarEnArchivo() {
-        File archivo = new File(ARCHIVO_PASAJEROS);
-
-        // Crear directorio si no existe
-        if (!archivo.getParentFile().exists()) {
-            archivo.getParentFile().mkdirs();
-        }
-
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(archivo), StandardCharsets.UTF_8))) {
-
-            for (Pasajero pasajero : pasajeros.values()) {
-                String lineaCSV = SerializadorPasajero.serializar(pasajero);
-                writer.write(lineaCSV);
-                writer.newLine();
+    public void limpiar() {
+        synchronized (this) {
+            motor.limpiar();
+            if (indiceNombres != null) {
+                indiceNombres.limpiar();
             }
-        } catch (IOException e) {
-            throw new RuntimeException("Error al escribir en el archivo de pasajeros: " + ARCHIVO_PASAJEROS, e);
         }
     }
 }
@@ -0,0 +1,87 @@
+package com.upc.persistencia;
+
+/**
+ * Clase PlanConsulta
+ * Estrategia elegida por {@link TicketDAO#planificar(ConsultaTickets)} para resolver
+ * una {@link ConsultaTickets}.
+ *
+ * <p>Indica desde qué índice se obtienen los candidatos, cuántos se estima leer, si
+ * hace falta ordenarlos en memoria y, en modo PARTICIONADO, cuántas particiones
+ * selladas se recorren además de la abierta. Sirve para explicar una consulta lenta.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public final class PlanConsulta {
+
+    /**
+     * Punto de partida de la consulta
+     */
+    public enum Acceso {
+        INDICE_CEDULA("índice por cédula"),
+        INDICE_PLACA("índice por placa"),
+        INDICE_RUTA("índice de rutas"),
+        INDICE_FECHA("índice por fecha"),
+        RECORRIDO("recorrido completo");
+
+        private final String descripcion;
+
+        Acceso(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    private final Acceso acceso;
+    private final long filasEstimadas;
+    private final boolean ordenar;
+    private final int particionesSelladas;
+
+    /**
+     * Constructor del plan.
+     *
+     * @param acceso Índice o recorrido del que salen los candidatos
+     * @param filasEstimadas Candidatos que se estima leer
+     * @param ordenar true si los candidatos deben ordenarse en memoria
+     * @param particionesSelladas Particiones selladas que se recorren
+     */
+    PlanConsulta(Acceso acceso, long filasEstimadas, boolean ordenar, int particionesSelladas) {
+        this.acceso = acceso;
+        this.filasEstimadas = filasEstimadas;
+        this.ordenar = ordenar;
+        this.particionesSelladas = particionesSelladas;
+    }
+
+    public Acceso getAcceso() {
+        return acceso;
+    }
+
+    public long getFilasEstimadas() {
+        return filasEstimadas;
+    }
+
+    public boolean isOrdenar() {
+        return ordenar;
+    }
+
+    public int getParticionesSelladas() {
+        return particionesSelladas;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(acceso.getDescripcion())
+                .append(" (~").append(filasEstimadas).append(" candidatos)");
+        if (ordenar) {
+            sb.append(", ordenar en memoria");
+        }
+        if (particionesSelladas > 0) {
+            sb.append(", ").append(particionesSelladas).append(" particiones selladas");
+        }
+        return sb.toString();
+    }
+}
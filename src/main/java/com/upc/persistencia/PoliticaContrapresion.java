@@ -0,0 +1,91 @@
+package com.upc.persistencia;
+
+/**
+ * Enumeración PoliticaContrapresion
+ * Define qué ocurre cuando una cola de escritura de un DAO está llena.
+ *
+ * La política se selecciona mediante la propiedad del sistema
+ * {@code barceloneta.persistencia.cola.politica}, y puede cambiarse para una cola
+ * concreta con {@code barceloneta.persistencia.cola.<nombre>.politica}.
+ * Si no se especifica, se usa BLOQUEAR.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public enum PoliticaContrapresion {
+    /**
+     * La operación espera hasta que la cola tenga espacio
+     */
+    BLOQUEAR("bloquear", "Espera a que la cola tenga espacio"),
+
+    /**
+     * La operación se rechaza de inmediato y el cambio en memoria se revierte
+     */
+    FALLAR("fallar", "Rechaza la operación"),
+
+    /**
+     * La operación se encola fuera del límite y espera su escritura en disco
+     */
+    SINCRONA("sincrona", "Escribe de forma síncrona");
+
+    /**
+     * Nombre de la propiedad del sistema que selecciona la política
+     */
+    public static final String PROPIEDAD = "barceloneta.persistencia.cola.politica";
+
+    private final String clave;
+    private final String descripcion;
+
+    /**
+     * Constructor del enum PoliticaContrapresion.
+     *
+     * @param clave Clave usada en la configuración
+     * @param descripcion Descripción de la política
+     */
+    PoliticaContrapresion(String clave, String descripcion) {
+        this.clave = clave;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Obtiene la política configurada para una cola.
+     *
+     * @param nombreCola Nombre de la cola (por ejemplo "tickets")
+     * @return Política de la cola, la general si la cola no define una, o BLOQUEAR
+     * @throws IllegalArgumentException si el valor configurado es desconocido
+     */
+    public static PoliticaContrapresion desdeConfiguracion(String nombreCola) {
+        String general = System.getProperty(PROPIEDAD, BLOQUEAR.clave);
+        String clave = System.getProperty("barceloneta.persistencia.cola." + nombreCola + ".politica", general);
+        for (PoliticaContrapresion politica : values()) {
+            if (politica.clave.equalsIgnoreCase(clave.trim())) {
+                return politica;
+            }
+        }
+        throw new IllegalArgumentException("Política de contrapresión desconocida: " + clave);
+    }
+
+    /**
+     * Obtiene la clave de configuración de la política.
+     *
+     * @return Clave de la política
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * Obtiene la descripción de la política.
+     *
+     * @return Descripción de la política
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,184 @@
+package com.upc.persistencia;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Clase RegistroBitacora
+ * Marco de los registros de las bitácoras ({@link BitacoraTickets} y {@link MotorBitacora}).
+ *
+ * <p>Cada registro ocupa una línea con su longitud en bytes UTF-8 y su CRC32:</p>
+ * <pre>
+ *   #&lt;longitud&gt;:&lt;crc32 en 8 dígitos hexadecimales&gt; &lt;registro&gt;
+ * </pre>
+ *
+ * <p>Al reproducir, una línea cuyo marco no coincide con su contenido (longitud distinta
+ * o encabezado cortado) es una escritura interrumpida: solo se tolera en la última línea
+ * del archivo, que se descarta y se informa a quien reproduce. Un CRC que no coincide, un marco roto
+ * antes de la última línea o un registro íntegro que no se puede aplicar son corrupción y
+ * detienen la carga. Las líneas sin marco, escritas por versiones anteriores, se aplican
+ * como antes: sin verificación y tolerando solo una última línea inválida.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+final class RegistroBitacora {
+
+    /**
+     * Primer carácter de una línea con marco
+     */
+    private static final char MARCA = '#';
+
+    /**
+     * Dígitos hexadecimales del CRC32
+     */
+    private static final int DIGITOS_CRC = 8;
+
+    private RegistroBitacora() {
+    }
+
+    /**
+     * Agrega a un registro su longitud y su CRC32.
+     *
+     * @param registro Registro sin marco
+     * @return Línea a anexar a la bitácora
+     */
+    static String enmarcar(String registro) {
+        byte[] bytes = registro.getBytes(StandardCharsets.UTF_8);
+        StringBuilder linea = new StringBuilder(registro.length() + 20)
+                .append(MARCA).append(bytes.length).append(':');
+        String crc = Long.toHexString(crc(bytes));
+        for (int i = crc.length(); i < DIGITOS_CRC; i++) {
+            linea.append('0');
+        }
+        return linea.append(crc).append(' ').append(registro).toString();
+    }
+
+    /**
+     * Reproduce un archivo de bitácora, entregando cada registro verificado en orden.
+     *
+     * @param archivo Archivo de la bitácora
+     * @param aplicar Aplica un registro; lanza IllegalArgumentException si es inválido
+     * @param alDescartar Recibe el error de la última línea cortada, si se descarta
+     * @return Registros aplicados, o {@code -(aplicados + 1)} si el archivo no termina en
+     *         un registro completo (se descartó una última línea cortada o falta el fin
+     *         de línea), en cuyo caso no se debe seguir anexando a ese archivo
+     * @throws RuntimeException si ocurre un error de lectura o los datos están corruptos
+     */
+    static int reproducir(File archivo, Consumer<String> aplicar, Consumer<RuntimeException> alDescartar) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
+
+            String linea;
+            int numeroLinea = 0;
+            int aplicados = 0;
+            RuntimeException cortada = null;
+
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+
+                // Una línea cortada solo es tolerable si es la última
+                if (cortada != null) {
+                    throw cortada;
+                }
+                if (linea.trim().isEmpty()) {
+                    continue;
+                }
+
+                boolean enmarcada = linea.charAt(0) == MARCA;
+                String registro;
+                try {
+                    registro = enmarcada ? desenmarcar(linea) : linea.trim();
+                } catch (IllegalArgumentException e) {
+                    cortada = error(archivo, numeroLinea, linea, e);
+                    continue;
+                } catch (IllegalStateException e) {
+                    throw error(archivo, numeroLinea, linea, e);
+                }
+
+                try {
+                    aplicar.accept(registro);
+                    aplicados++;
+                } catch (IllegalArgumentException e) {
+                    if (enmarcada) {
+                        throw error(archivo, numeroLinea, linea, e); // El CRC coincide: se escribió así
+                    }
+                    cortada = error(archivo, numeroLinea, linea, e);
+                }
+            }
+
+            if (cortada != null) {
+                alDescartar.accept(cortada);
+                return -aplicados - 1;
+            }
+            return terminaEnLinea(archivo) ? aplicados : -aplicados - 1;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer la bitácora: " + archivo.getPath(), e);
+        }
+    }
+
+    /**
+     * Extrae el registro de una línea con marco.
+     *
+     * @throws IllegalArgumentException si el marco no coincide con el contenido (línea cortada)
+     * @throws IllegalStateException si el CRC no coincide (contenido alterado)
+     */
+    private static String desenmarcar(String linea) {
+        int dosPuntos = linea.indexOf(':');
+        int espacio = dosPuntos + 1 + DIGITOS_CRC;
+        if (dosPuntos < 2 || linea.length() <= espacio || linea.charAt(espacio) != ' ') {
+            throw new IllegalArgumentException("Marco de registro incompleto");
+        }
+        int longitud;
+        long crc;
+        try {
+            longitud = Integer.parseInt(linea.substring(1, dosPuntos));
+            crc = Long.parseLong(linea.substring(dosPuntos + 1, espacio), 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Marco de registro inválido", e);
+        }
+        String registro = linea.substring(espacio + 1);
+        byte[] bytes = registro.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length != longitud) {
+            throw new IllegalArgumentException("El registro tiene " + bytes.length
+                    + " bytes y el marco indica " + longitud);
+        }
+        if (crc(bytes) != crc) {
+            throw new IllegalStateException("El CRC32 del registro no coincide con el del marco");
+        }
+        return registro;
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Indica si el archivo está vacío o termina en fin de línea.
+     */
+    private static boolean terminaEnLinea(File archivo) throws IOException {
+        try (RandomAccessFile acceso = new RandomAccessFile(archivo, "r")) {
+            if (acceso.length() == 0) {
+                return true;
+            }
+            acceso.seek(acceso.length() - 1);
+            return acceso.read() == '\n';
+        }
+    }
+
+    private static RuntimeException error(File archivo, int numeroLinea, String linea, RuntimeException causa) {
+        return new RuntimeException("Error al reproducir línea " + numeroLinea + " de la bitácora "
+                + archivo.getPath() + ": " + linea, causa);
+    }
+}
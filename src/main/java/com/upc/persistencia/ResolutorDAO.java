@@ -0,0 +1,81 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Pasajero;
+import com.upc.modelo.ResolutorReferencias;
+import com.upc.modelo.Vehiculo;
+
+/**
+ * Clase ResolutorDAO
+ * Resuelve las referencias de los tickets con VehiculoDAO y PasajeroDAO.
+ *
+ * El resolutor compartido ({@link #getInstancia()}) obtiene los DAOs recién al
+ * resolver la primera referencia, de modo que los tickets pueden leerse mientras
+ * los vehículos y pasajeros todavía están cargando. Las búsquedas en los DAOs son
+ * consultas a un mapa en memoria, y cada ticket conserva el objeto resuelto.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class ResolutorDAO implements ResolutorReferencias {
+
+    /**
+     * Resolutor compartido que usa las instancias únicas de los DAOs
+     */
+    private static final ResolutorDAO INSTANCIA = new ResolutorDAO(null, null);
+
+    /**
+     * Último resolutor creado para un par de DAOs explícito
+     */
+    private static volatile ResolutorDAO ultimo;
+
+    private final VehiculoDAO vehiculoDAO;
+    private final PasajeroDAO pasajeroDAO;
+
+    /**
+     * Constructor del resolutor.
+     *
+     * @param vehiculoDAO DAO de vehículos, o null para usar su instancia única
+     * @param pasajeroDAO DAO de pasajeros, o null para usar su instancia única
+     */
+    private ResolutorDAO(VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        this.vehiculoDAO = vehiculoDAO;
+        this.pasajeroDAO = pasajeroDAO;
+    }
+
+    /**
+     * Obtiene el resolutor compartido.
+     *
+     * @return Resolutor que usa las instancias únicas de los DAOs
+     */
+    public static ResolutorDAO getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Obtiene un resolutor para un par de DAOs. Reutiliza el último creado si los
+     * DAOs coinciden, para que los tickets de una misma carga lo compartan.
+     *
+     * @param vehiculoDAO DAO de vehículos
+     * @param pasajeroDAO DAO de pasajeros
+     * @return Resolutor para esos DAOs
+     */
+    public static ResolutorDAO de(VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        ResolutorDAO actual = ultimo;
+        if (actual == null || actual.vehiculoDAO != vehiculoDAO || actual.pasajeroDAO != pasajeroDAO) {
+            actual = new ResolutorDAO(vehiculoDAO, pasajeroDAO);
+            ultimo = actual;
+        }
+        return actual;
+    }
+
+    @Override
+    public Vehiculo buscarVehiculo(String placa) {
+        return (vehiculoDAO != null ? vehiculoDAO : VehiculoDAO.getInstancia()).buscarPorPlaca(placa);
+    }
+
+    @Override
+    public Pasajero buscarPasajero(String cedula) {
+        return (pasajeroDAO != null ? pasajeroDAO : PasajeroDAO.getInstancia()).buscarPorCedula(cedula);
+    }
+}
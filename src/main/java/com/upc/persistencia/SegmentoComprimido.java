@@ -0,0 +1,369 @@
+package com.upc.persistencia;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Clase SegmentoComprimido
+ * Archivo de solo lectura con los tickets de una partición sellada, comprimido por
+ * bloques con {@link Deflater}.
+ *
+ * <p>Los tickets se ordenan por fecha y se agrupan en bloques de unos
+ * {@value #TAMANO_BLOQUE} bytes de líneas CSV, que se comprimen por separado. Al
+ * final del archivo un índice guarda, por bloque, su posición, su tamaño y el rango
+ * de fechas y de IDs que contiene. Así una búsqueda por ID o por fecha solo lee y
+ * descomprime los bloques que pueden contener el resultado.</p>
+ *
+ * <p>Estructura del archivo:</p>
+ * <pre>
+ *   'B' 'R' 'C' 'Z' versión(1 byte)
+ *   bloque*: datos comprimidos (deflate)
+ *   índice:  bloques(int) y por bloque
+ *            posición(long) comprimido(int) original(int) tickets(int)
+ *            fechaMinMs(long) fechaMaxMs(long) idMin(long) idMax(long)
+ *   pie:     posiciónÍndice(long) 'B' 'R' 'C' 'Z'
+ * </pre>
+ *
+ * <p>Los IDs se indexan por su número ("TK-00042" es 42); un bloque con IDs de otro
+ * formato cubre todo el rango de IDs.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class SegmentoComprimido {
+
+    /**
+     * Extensión de los archivos comprimidos
+     */
+    public static final String EXTENSION = ".tkz";
+
+    /**
+     * Tamaño aproximado del texto de cada bloque antes de comprimir
+     */
+    public static final int TAMANO_BLOQUE = 64 * 1024;
+
+    private static final byte[] MAGIA = {'B', 'R', 'C', 'Z'};
+    private static final int VERSION = 1;
+    private static final int TAMANO_ENTRADA_INDICE = 8 + 4 + 4 + 4 + 8 + 8 + 8 + 8;
+    private static final int TAMANO_PIE = 8 + MAGIA.length;
+
+    private final File archivo;
+    private final long[] posiciones;
+    private final int[] comprimidos;
+    private final int[] originales;
+    private final int[] cantidades;
+    private final long[] fechasMin;
+    private final long[] fechasMax;
+    private final long[] idsMin;
+    private final long[] idsMax;
+
+    /**
+     * Abre un segmento y lee su índice de bloques.
+     *
+     * @param archivo Archivo comprimido
+     * @throws RuntimeException si el archivo no se puede leer o no es un segmento válido
+     */
+    public SegmentoComprimido(File archivo) {
+        this.archivo = archivo;
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < MAGIA.length + 1 + 4 + TAMANO_PIE) {
+                throw new RuntimeException("Segmento comprimido truncado: " + archivo.getPath());
+            }
+            ByteBuffer pie = leer(canal, tamano - TAMANO_PIE, TAMANO_PIE);
+            long posicionIndice = pie.getLong();
+            ByteBuffer encabezado = leer(canal, 0, MAGIA.length + 1);
+            if (!tieneMagia(pie) || !tieneMagia(encabezado) || encabezado.get() != VERSION
+                    || posicionIndice < MAGIA.length + 1 || posicionIndice > tamano - TAMANO_PIE - 4) {
+                throw new RuntimeException("Segmento comprimido inválido: " + archivo.getPath());
+            }
+
+            ByteBuffer indice = leer(canal, posicionIndice, (int) (tamano - TAMANO_PIE - posicionIndice));
+            int bloques = indice.getInt();
+            if (bloques < 0 || indice.remaining() != (long) bloques * TAMANO_ENTRADA_INDICE) {
+                throw new RuntimeException("Índice de segmento comprimido inválido: " + archivo.getPath());
+            }
+            posiciones = new long[bloques];
+            comprimidos = new int[bloques];
+            originales = new int[bloques];
+            cantidades = new int[bloques];
+            fechasMin = new long[bloques];
+            fechasMax = new long[bloques];
+            idsMin = new long[bloques];
+            idsMax = new long[bloques];
+            for (int i = 0; i < bloques; i++) {
+                posiciones[i] = indice.getLong();
+                comprimidos[i] = indice.getInt();
+                originales[i] = indice.getInt();
+                cantidades[i] = indice.getInt();
+                fechasMin[i] = indice.getLong();
+                fechasMax[i] = indice.getLong();
+                idsMin[i] = indice.getLong();
+                idsMax[i] = indice.getLong();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el segmento comprimido: " + archivo.getPath(), e);
+        }
+    }
+
+    /**
+     * Escribe un segmento comprimido de forma atómica.
+     *
+     * @param archivo Archivo destino
+     * @param tickets Tickets de la partición (se ordenan por fecha)
+     * @throws IOException si ocurre un error de escritura
+     */
+    public static void escribir(File archivo, List<TicketSinResolver> tickets) throws IOException {
+        List<TicketSinResolver> ordenados = new ArrayList<>(tickets);
+        ordenados.sort(Comparator.comparing(TicketSinResolver::getFecha));
+
+        EscritorPersistencia.reemplazarArchivo(archivo, salida -> {
+            DataOutputStream datos = new DataOutputStream(salida);
+            datos.write(MAGIA);
+            datos.writeByte(VERSION);
+
+            ByteBuffer indice = ByteBuffer.allocate(4 + bloquesEstimados(ordenados) * TAMANO_ENTRADA_INDICE);
+            int bloques = 0;
+            Deflater compresor = new Deflater(Deflater.BEST_COMPRESSION);
+            byte[] comprimido = new byte[TAMANO_BLOQUE + TAMANO_BLOQUE / 2];
+            StringBuilder texto = new StringBuilder(TAMANO_BLOQUE + 256);
+            try {
+                indice.putInt(0); // Se corrige al terminar
+                int i = 0;
+                while (i < ordenados.size()) {
+                    texto.setLength(0);
+                    long fechaMin = Long.MAX_VALUE;
+                    long fechaMax = Long.MIN_VALUE;
+                    long idMin = Long.MAX_VALUE;
+                    long idMax = Long.MIN_VALUE;
+                    int cantidad = 0;
+                    while (i < ordenados.size() && texto.length() < TAMANO_BLOQUE) {
+                        TicketSinResolver ticket = ordenados.get(i++);
+                        texto.append(ticket.aCsv()).append('\n');
+                        long fecha = CodecFecha.aEpochMilis(ticket.getFecha());
+                        long id = SerializadorBinarioTicket.numeroCanonico(ticket.getIdTicket());
+                        fechaMin = Math.min(fechaMin, fecha);
+                        fechaMax = Math.max(fechaMax, fecha);
+                        // Un ID no canónico obliga a revisar el bloque en cualquier búsqueda por ID
+                        idMin = Math.min(idMin, id > 0 ? id : 0);
+                        idMax = Math.max(idMax, id > 0 ? id : Long.MAX_VALUE);
+                        cantidad++;
+                    }
+
+                    byte[] original = texto.toString().getBytes(StandardCharsets.UTF_8);
+                    compresor.reset();
+                    compresor.setInput(original);
+                    compresor.finish();
+                    int longitud = 0;
+                    while (!compresor.finished()) {
+                        if (longitud == comprimido.length) {
+                            comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+                        }
+                        longitud += compresor.deflate(comprimido, longitud, comprimido.length - longitud);
+                    }
+
+                    if (indice.remaining() < TAMANO_ENTRADA_INDICE) {
+                        ByteBuffer mayor = ByteBuffer.allocate(indice.capacity() * 2);
+                        indice.flip();
+                        mayor.put(indice);
+                        indice = mayor;
+                    }
+                    indice.putLong(datos.size()).putInt(longitud).putInt(original.length).putInt(cantidad)
+                            .putLong(fechaMin).putLong(fechaMax).putLong(idMin).putLong(idMax);
+                    datos.write(comprimido, 0, longitud);
+                    bloques++;
+                }
+            } finally {
+                compresor.end();
+            }
+
+            long posicionIndice = datos.size();
+            indice.putInt(0, bloques);
+            datos.write(indice.array(), 0, indice.position());
+            datos.writeLong(posicionIndice);
+            datos.write(MAGIA);
+            datos.flush();
+        });
+    }
+
+    /**
+     * Lee todos los tickets del segmento.
+     *
+     * @return Tickets sin resolver, ordenados por fecha
+     * @throws RuntimeException si ocurre un error de lectura o los datos están corruptos
+     */
+    public List<TicketSinResolver> leerTodos() {
+        return leerBloques(Long.MIN_VALUE, Long.MAX_VALUE, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Lee los tickets de los bloques que se solapan con un rango de fechas.
+     * El resultado puede incluir tickets cercanos fuera del rango.
+     *
+     * @param desdeMs Inicio del rango en milisegundos (incluido)
+     * @param hastaMs Fin del rango en milisegundos (excluido)
+     * @return Tickets sin resolver de los bloques candidatos
+     * @throws RuntimeException si ocurre un error de lectura o los datos están corruptos
+     */
+    public List<TicketSinResolver> leerRango(long desdeMs, long hastaMs) {
+        return leerBloques(desdeMs, hastaMs, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Busca un ticket descomprimiendo solo los bloques cuyo rango de IDs lo contiene.
+     *
+     * @param idTicket ID del ticket
+     * @return Ticket sin resolver, o null si no está en el segmento
+     * @throws RuntimeException si ocurre un error de lectura o los datos están corruptos
+     */
+    public TicketSinResolver buscarPorId(String idTicket) {
+        long numero = SerializadorBinarioTicket.numeroCanonico(idTicket);
+        long id = numero > 0 ? numero : Long.MAX_VALUE;
+        for (TicketSinResolver ticket : leerBloques(Long.MIN_VALUE, Long.MAX_VALUE, id, id)) {
+            if (ticket.getIdTicket().equals(idTicket)) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene la cantidad de bloques del segmento.
+     *
+     * @return Número de bloques
+     */
+    public int getBloques() {
+        return posiciones.length;
+    }
+
+    /**
+     * Obtiene la cantidad de tickets del segmento sin descomprimirlo.
+     *
+     * @return Número de tickets
+     */
+    public int contar() {
+        int total = 0;
+        for (int cantidad : cantidades) {
+            total += cantidad;
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el menor número de ID del segmento según su índice.
+     *
+     * @return Menor número de ID, 0 si hay IDs no canónicos o {@link Long#MAX_VALUE} si está vacío
+     */
+    public long getIdMin() {
+        long minimo = Long.MAX_VALUE;
+        for (long id : idsMin) {
+            minimo = Math.min(minimo, id);
+        }
+        return minimo;
+    }
+
+    /**
+     * Obtiene el mayor número de ID del segmento según su índice.
+     *
+     * @return Mayor número de ID, {@link Long#MAX_VALUE} si hay IDs no canónicos o
+     *         {@link Long#MIN_VALUE} si está vacío
+     */
+    public long getIdMax() {
+        long maximo = Long.MIN_VALUE;
+        for (long id : idsMax) {
+            maximo = Math.max(maximo, id);
+        }
+        return maximo;
+    }
+
+    /**
+     * Lee y descomprime los bloques que se solapan con los rangos de fecha e ID.
+     */
+    private List<TicketSinResolver> leerBloques(long desdeMs, long hastaMs, long idDesde, long idHasta) {
+        List<TicketSinResolver> tickets = new ArrayList<>();
+        Inflater descompresor = new Inflater();
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            for (int b = 0; b < posiciones.length; b++) {
+                if (fechasMax[b] < desdeMs || fechasMin[b] >= hastaMs || idsMax[b] < idDesde || idsMin[b] > idHasta) {
+                    continue;
+                }
+                ByteBuffer comprimido = leer(canal, posiciones[b], comprimidos[b]);
+                byte[] original = new byte[originales[b]];
+                descompresor.reset();
+                descompresor.setInput(comprimido.array(), 0, comprimidos[b]);
+                int longitud = 0;
+                while (longitud < original.length && !descompresor.finished()) {
+                    int leidos = descompresor.inflate(original, longitud, original.length - longitud);
+                    if (leidos == 0 && (descompresor.needsInput() || descompresor.needsDictionary())) {
+                        break;
+                    }
+                    longitud += leidos;
+                }
+                if (longitud != original.length) {
+                    throw new RuntimeException("Bloque " + b + " truncado en el segmento " + archivo.getPath());
+                }
+                agregarLineas(new String(original, StandardCharsets.UTF_8), tickets, b);
+            }
+            return tickets;
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Bloque corrupto en el segmento " + archivo.getPath(), e);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el segmento comprimido: " + archivo.getPath(), e);
+        } finally {
+            descompresor.end();
+        }
+    }
+
+    private void agregarLineas(String texto, List<TicketSinResolver> destino, int bloque) {
+        int inicio = 0;
+        while (inicio < texto.length()) {
+            int fin = texto.indexOf('\n', inicio);
+            if (fin < 0) {
+                fin = texto.length();
+            }
+            try {
+                destino.add(SerializadorTicket.deserializarSinResolver(texto.substring(inicio, fin)));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Error al parsear el bloque " + bloque + " del segmento " + archivo.getPath(), e);
+            }
+            inicio = fin + 1;
+        }
+    }
+
+    private static int bloquesEstimados(List<TicketSinResolver> tickets) {
+        return Math.max(1, tickets.size() / 512);
+    }
+
+    private static boolean tieneMagia(ByteBuffer buffer) {
+        for (byte b : MAGIA) {
+            if (buffer.get() != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer leer(FileChannel canal, long posicion, int longitud) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(longitud);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("Fin de archivo inesperado");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,55 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Pasajero;
+import com.upc.modelo.TipoPasajero;
+import java.io.IOException;
+
+/**
+ * Clase SerializadorBinarioPasajero
+ * Responsable de convertir objetos Pasajero al formato binario y viceversa.
+ *
+ * Registro: cedula(texto) nombre(texto) tipoPasajero(byte con el ordinal)
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class SerializadorBinarioPasajero {
+
+    /**
+     * Escribe un pasajero como registro binario.
+     *
+     * @param salida Escritor binario
+     * @param pasajero Pasajero a serializar
+     * @throws IOException si ocurre un error de escritura
+     * @throws IllegalArgumentException si el pasajero es null
+     */
+    public static void serializar(CodecBinario.Salida salida, Pasajero pasajero) throws IOException {
+        if (pasajero == null) {
+            throw new IllegalArgumentException("El pasajero no puede ser null");
+        }
+        salida.escribirTexto(pasajero.getCedula());
+        salida.escribirTexto(pasajero.getNombre());
+        salida.escribirByte(pasajero.getTipoPasajero().ordinal());
+        salida.terminarRegistro();
+    }
+
+    /**
+     * Lee el registro actual como objeto Pasajero.
+     *
+     * @param entrada Lector binario posicionado en un registro
+     * @return Objeto Pasajero
+     * @throws IllegalArgumentException si el registro es inválido o el tipo es desconocido
+     */
+    public static Pasajero deserializar(CodecBinario.Entrada entrada) {
+        String cedula = entrada.leerTexto();
+        String nombre = entrada.leerTexto();
+        int ordinal = entrada.leerByte();
+
+        TipoPasajero[] tipos = TipoPasajero.values();
+        if (ordinal >= tipos.length) {
+            throw new IllegalArgumentException("Tipo de pasajero desconocido: " + ordinal);
+        }
+        return new Pasajero(cedula, nombre, tipos[ordinal]);
+    }
+}
@@ -0,0 +1,168 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.DiccionarioCiudades;
+import com.upc.modelo.Ticket;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Clase SerializadorBinarioTicket
+ * Responsable de convertir objetos Ticket al formato binario y viceversa.
+ *
+ * Registro: id(varint) placa(cadena) cedula(cadena) origen(cadena) destino(cadena)
+ * fechaSegundos(long) fechaNanos(int) distanciaKm(double)
+ *
+ * El id se guarda como el número de "TK-00001" más uno; un id con otro formato se
+ * guarda como varint 0 seguido del texto. La fecha se guarda como segundos desde la
+ * época (UTC) más nanosegundos, de modo que la conversión es exacta.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class SerializadorBinarioTicket {
+
+    /**
+     * Escribe un ticket como registro binario.
+     *
+     * @param salida Escritor binario
+     * @param ticket Ticket a serializar
+     * @throws IOException si ocurre un error de escritura
+     * @throws IllegalArgumentException si el ticket es null o falta información requerida
+     */
+    public static void serializar(CodecBinario.Salida salida, Ticket ticket) throws IOException {
+        if (ticket == null) {
+            throw new IllegalArgumentException("El ticket no puede ser null");
+        }
+        if (ticket.getPlaca() == null || ticket.getCedula() == null) {
+            throw new IllegalArgumentException("El ticket debe tener vehículo y pasajero asignados");
+        }
+        serializarCampos(salida, ticket.getIdTicket(), ticket.getPlaca(),
+                ticket.getCedula(), ticket.getOrigen(), ticket.getDestino(),
+                ticket.getFecha(), ticket.getDistanciaKm());
+    }
+
+    /**
+     * Escribe los campos de un ticket como registro binario sin resolver sus referencias.
+     * Se usa en la conversión directa desde CSV.
+     *
+     * @param salida Escritor binario
+     * @param idTicket ID del ticket
+     * @param placa Placa del vehículo
+     * @param cedula Cédula del pasajero
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @param fecha Fecha de emisión
+     * @param distanciaKm Distancia en kilómetros
+     * @throws IOException si ocurre un error de escritura
+     */
+    public static void serializarCampos(CodecBinario.Salida salida, String idTicket, String placa,
+                                        String cedula, String origen, String destino,
+                                        LocalDateTime fecha, double distanciaKm) throws IOException {
+        long numeroId = numeroCanonico(idTicket);
+        if (numeroId > 0) {
+            salida.escribirVarint(numeroId + 1);
+        } else {
+            salida.escribirVarint(0);
+            salida.escribirTexto(idTicket);
+        }
+        salida.escribirCadena(placa);
+        salida.escribirCadena(cedula);
+        salida.escribirCadena(origen);
+        salida.escribirCadena(destino);
+        salida.escribirLong(fecha.toEpochSecond(ZoneOffset.UTC));
+        salida.escribirInt(fecha.getNano());
+        salida.escribirDouble(distanciaKm);
+        salida.terminarRegistro();
+    }
+
+    /**
+     * Lee el registro actual como objeto Ticket.
+     *
+     * El vehículo y el pasajero se buscan en los DAOs la primera vez que se piden.
+     *
+     * @param entrada Lector binario posicionado en un registro
+     * @param vehiculoDAO DAO de vehículos para buscar el vehículo por placa
+     * @param pasajeroDAO DAO de pasajeros para buscar el pasajero por cédula
+     * @return Objeto Ticket
+     * @throws IllegalArgumentException si el registro es inválido
+     */
+    public static Ticket deserializar(CodecBinario.Entrada entrada, VehiculoDAO vehiculoDAO,
+                                      PasajeroDAO pasajeroDAO) {
+        return deserializarSinResolver(entrada).resolver(vehiculoDAO, pasajeroDAO);
+    }
+
+    /**
+     * Lee el registro actual y lo devuelve en formato CSV, sin resolver referencias.
+     * Se usa en la conversión directa hacia CSV.
+     *
+     * @param entrada Lector binario posicionado en un registro
+     * @return Línea CSV equivalente a {@link SerializadorTicket#serializar(Ticket)}
+     * @throws IllegalArgumentException si el registro es inválido
+     */
+    public static String deserializarComoCsv(CodecBinario.Entrada entrada) {
+        return deserializarSinResolver(entrada).aCsv();
+    }
+
+    /**
+     * Lee el registro actual sin resolver el vehículo ni el pasajero.
+     *
+     * @param entrada Lector binario posicionado en un registro
+     * @return Ticket con sus referencias pendientes
+     * @throws IllegalArgumentException si el registro es inválido
+     */
+    public static TicketSinResolver deserializarSinResolver(CodecBinario.Entrada entrada) {
+        long numeroId = entrada.leerVarint();
+        String idTicket = numeroId == 0 ? entrada.leerTexto() : formatearId(numeroId - 1);
+        String placa = entrada.leerCadena();
+        String cedula = entrada.leerCadena();
+        int origen = DiccionarioCiudades.id(entrada.leerCadena());
+        int destino = DiccionarioCiudades.id(entrada.leerCadena());
+        long segundos = entrada.leerLong();
+        int nanos = entrada.leerInt();
+        double distanciaKm = entrada.leerDouble();
+        LocalDateTime fecha;
+        try {
+            fecha = LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+        } catch (java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Fecha inválida en el registro binario", e);
+        }
+        return new TicketSinResolver(idTicket, placa, cedula, origen, destino, fecha, distanciaKm);
+    }
+
+    /**
+     * Obtiene el número de un ID con formato canónico "TK-00001".
+     *
+     * @param idTicket ID del ticket
+     * @return Número del ID, o 0 si el ID no tiene formato canónico
+     */
+    static long numeroCanonico(String idTicket) {
+        if (idTicket.startsWith("TK-") && idTicket.length() <= 13) {
+            try {
+                long numero = Long.parseLong(idTicket.substring(3));
+                if (numero > 0 && formatearId(numero).equals(idTicket)) {
+                    return numero;
+                }
+            } catch (NumberFormatException e) {
+                // No es un ID canónico
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Construye un ID con formato "TK-00001" sin pasar por String.format.
+     *
+     * @param numero Número del ID
+     * @return ID formateado
+     */
+    static String formatearId(long numero) {
+        String digitos = Long.toString(numero);
+        if (digitos.length() >= 5) {
+            return "TK-" + digitos;
+        }
+        return "TK-" + "00000".substring(digitos.length()) + digitos;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Bus;
+import com.upc.modelo.Buseta;
+import com.upc.modelo.MicroBus;
+import com.upc.modelo.Vehiculo;
+import java.io.IOException;
+
+/**
+ * Clase SerializadorBinarioVehiculo
+ * Responsable de convertir objetos Vehiculo al formato binario y viceversa.
+ *
+ * Registro: tipo(byte: 0 Buseta, 1 MicroBus, 2 Bus) placa(texto) capacidad(varint)
+ * modelo(texto) tarifaBase(double)
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class SerializadorBinarioVehiculo {
+
+    /**
+     * Código de tipo: Buseta
+     */
+    private static final int TIPO_BUSETA = 0;
+
+    /**
+     * Código de tipo: MicroBus
+     */
+    private static final int TIPO_MICROBUS = 1;
+
+    /**
+     * Código de tipo: Bus
+     */
+    private static final int TIPO_BUS = 2;
+
+    /**
+     * Escribe un vehículo como registro binario.
+     *
+     * @param salida Escritor binario
+     * @param vehiculo Vehículo a serializar
+     * @throws IOException si ocurre un error de escritura
+     * @throws IllegalArgumentException si el vehículo es null o de un tipo desconocido
+     */
+    public static void serializar(CodecBinario.Salida salida, Vehiculo vehiculo) throws IOException {
+        if (vehiculo == null) {
+            throw new IllegalArgumentException("El vehículo no puede ser null");
+        }
+
+        int tipo;
+        if (vehiculo instanceof Buseta) {
+            tipo = TIPO_BUSETA;
+        } else if (vehiculo instanceof MicroBus) {
+            tipo = TIPO_MICROBUS;
+        } else if (vehiculo instanceof Bus) {
+            tipo = TIPO_BUS;
+        } else {
+            throw new IllegalArgumentException("Tipo de vehículo desconocido: " + vehiculo.getTipoVehiculo());
+        }
+
+        salida.escribirByte(tipo);
+        salida.escribirTexto(vehiculo.getPlaca());
+        salida.escribirVarint(Math.max(0, vehiculo.getCapacidad()));
+        salida.escribirTexto(vehiculo.getModelo());
+        salida.escribirDouble(vehiculo.getTarifaBase());
+        salida.terminarRegistro();
+    }
+
+    /**
+     * Lee el registro actual como objeto Vehiculo.
+     *
+     * @param entrada Lector binario posicionado en un registro
+     * @return Objeto Vehiculo (Buseta, MicroBus o Bus)
+     * @throws IllegalArgumentException si el registro es inválido o el tipo es desconocido
+     */
+    public static Vehiculo deserializar(CodecBinario.Entrada entrada) {
+        int tipo = entrada.leerByte();
+        String placa = entrada.leerTexto();
+        int capacidad = (int) entrada.leerVarint();
+        String modelo = entrada.leerTexto();
+        double tarifaBase = entrada.leerDouble();
+
+        switch (tipo) {
+            case TIPO_BUSETA:
+                return new Buseta(placa, capacidad, modelo, tarifaBase);
+            case TIPO_MICROBUS:
+                return new MicroBus(placa, capacidad, modelo, tarifaBase);
+            case TIPO_BUS:
+                return new Bus(placa, capacidad, modelo, tarifaBase);
+            default:
+                throw new IllegalArgumentException("Tipo de vehículo desconocido: " + tipo);
+        }
+    }
+}
@@ -22,7 +22,12 @@ public class SerializadorPasajero {
     /**
      * Separador CSV (coma)
      */
-    private static final String SEPARADOR = ",";
+    private static final char SEPARADOR = TokenizadorCsv.SEPARADOR;
+
+    /**
+     * Tipos de pasajero, para comparar sin crear cadenas
+     */
+    private static final TipoPasajero[] TIPOS = TipoPasajero.values();
 
     /**
      * Convierte un objeto Pasajero a formato CSV.
@@ -37,8 +42,8 @@ public class SerializadorPasajero {
         }
 
         StringBuilder sb = new StringBuilder();
-        sb.append(pasajero.getCedula()).append(SEPARADOR);
-        sb.append(pasajero.getNombre()).append(SEPARADOR);
+        TokenizadorCsv.agregarCampo(sb, pasajero.getCedula()).append(SEPARADOR);
+        TokenizadorCsv.agregarCampo(sb, pasajero.getNombre()).append(SEPARADOR);
         sb.append(pasajero.getTipoPasajero().name());
 
         return sb.toString();
@@ -52,39 +57,30 @@ public class SerializadorPasajero {
      * @throws IllegalArgumentException si la línea es inválida o el tipo es desconocido
      */
     public static Pasajero deserializar(String lineaCSV) {
-        if (lineaCSV == null || lineaCSV.trim().isEmpty()) {
+        if (TokenizadorCsv.esVacia(lineaCSV)) {
             throw new IllegalArgumentException("La línea CSV no puede ser null o vacía");
         }
 
-        String[] partes = lineaCSV.split(SEPARADOR);
-
-        if (partes.length != 3) {
-            throw new IllegalArgumentException(
-                "Formato CSV inválido. Se esperaban 3 campos, se encontraron " + partes.length
-            );
-        }
+        TokenizadorCsv campos = TokenizadorCsv.delHiloActual().reiniciar(lineaCSV).exigirCampos(3);
 
-        try {
-            String cedula = partes[0].trim();
-            String nombre = partes[1].trim();
-            String tipoStr = partes[2].trim();
+        String cedula = campos.texto(0);
+        String nombre = campos.texto(1);
 
-            // Convertir el string a enum TipoPasajero
-            TipoPasajero tipoPasajero;
-            try {
-                tipoPasajero = TipoPasajero.valueOf(tipoStr);
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException(
-                    "Tipo de pasajero desconocido: " + tipoStr +
-                    ". Valores válidos: REGULAR, ESTUDIANTE, ADULTO_MAYOR"
-                );
+        // Convertir el campo a enum TipoPasajero
+        TipoPasajero tipoPasajero = null;
+        for (TipoPasajero tipo : TIPOS) {
+            if (campos.esIgual(2, tipo.name())) {
+                tipoPasajero = tipo;
+                break;
             }
-
-            return new Pasajero(cedula, nombre, tipoPasajero);
-        } catch (ArrayIndexOutOfBoundsException e) {
+        }
+        if (tipoPasajero == null) {
             throw new IllegalArgumentException(
-                "Error al parsear la línea CSV: " + lineaCSV, e
+                "Tipo de pasajero desconocido: " + campos.texto(2) +
+                ". Valores válidos: REGULAR, ESTUDIANTE, ADULTO_MAYOR"
             );
         }
+
+        return new Pasajero(cedula, nombre, tipoPasajero);
     }
 }
@@ -1,10 +1,7 @@
 package com.upc.persistencia;
 
-import com.upc.modelo.Pasajero;
 import com.upc.modelo.Ticket;
-import com.upc.modelo.Vehiculo;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Clase SerializadorTicket
@@ -13,6 +10,12 @@ import java.time.format.DateTimeFormatter;
  * Formato CSV: idTicket,placaVehiculo,cedulaPasajero,origen,destino,fecha,distanciaKm
  * Ejemplo: TK-00001,ABC123,1000000002,Valledupar,Barranquilla,2025-11-08T10:30:45,200.0
  *
+ * Con la propiedad {@code barceloneta.tickets.fecha.epochMs=true} se agrega una
+ * octava columna {@code fechaEpochMs} (milisegundos desde la época, UTC). Al leer,
+ * si la columna está presente se usa en lugar del texto ISO, por lo que la fecha
+ * queda con precisión de milisegundos. La lectura acepta ambas variantes sin
+ * importar la propiedad.
+ *
  * Esta clase maneja la serialización y deserialización de tickets, incluyendo
  * referencias a vehículos y pasajeros mediante sus identificadores únicos.
  *
@@ -25,12 +28,17 @@ public class SerializadorTicket {
     /**
      * Separador CSV (coma)
      */
-    private static final String SEPARADOR = ",";
+    private static final char SEPARADOR = TokenizadorCsv.SEPARADOR;
+
+    /**
+     * Nombre de la propiedad del sistema que activa la columna fechaEpochMs
+     */
+    public static final String PROPIEDAD_FECHA_EPOCH = "barceloneta.tickets.fecha.epochMs";
 
     /**
-     * Formateador de fechas ISO 8601
+     * Indica si se escribe la columna fechaEpochMs
      */
-    private static final DateTimeFormatter FORMATTER_FECHA = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final boolean ESCRIBIR_FECHA_EPOCH = Boolean.getBoolean(PROPIEDAD_FECHA_EPOCH);
 
     /**
      * Convierte un objeto Ticket a formato CSV.
@@ -40,104 +48,149 @@ public class SerializadorTicket {
      * @throws IllegalArgumentException si el ticket es null o falta información requerida
      */
     public static String serializar(Ticket ticket) {
+        return escribir(new StringBuilder(96), ticket).toString();
+    }
+
+    /**
+     * Agrega la línea CSV de un ticket (sin salto de línea) al final de un StringBuilder.
+     * Permite reutilizar el mismo StringBuilder al escribir muchos tickets.
+     *
+     * @param sb Destino
+     * @param ticket Ticket a serializar
+     * @return El mismo StringBuilder, para encadenar llamadas
+     * @throws IllegalArgumentException si el ticket es null o falta información requerida
+     */
+    public static StringBuilder escribir(StringBuilder sb, Ticket ticket) {
         if (ticket == null) {
             throw new IllegalArgumentException("El ticket no puede ser null");
         }
 
-        if (ticket.getVehiculo() == null || ticket.getPasajero() == null) {
+        if (ticket.getPlaca() == null || ticket.getCedula() == null) {
             throw new IllegalArgumentException("El ticket debe tener vehículo y pasajero asignados");
         }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(ticket.getIdTicket()).append(SEPARADOR);
-        sb.append(ticket.getVehiculo().getPlaca()).append(SEPARADOR);
-        sb.append(ticket.getPasajero().getCedula()).append(SEPARADOR);
-        sb.append(ticket.getOrigen()).append(SEPARADOR);
-        sb.append(ticket.getDestino()).append(SEPARADOR);
-        sb.append(ticket.getFecha().format(FORMATTER_FECHA)).append(SEPARADOR);
-        sb.append(ticket.getDistanciaKm());
+        return escribirCampos(sb, ticket.getIdTicket(), ticket.getPlaca(),
+                ticket.getCedula(), ticket.getOrigen(), ticket.getDestino(),
+                ticket.getFecha(), ticket.getDistanciaKm());
+    }
 
-        return sb.toString();
+    /**
+     * Construye la línea CSV de un ticket a partir de sus campos.
+     * Los campos de texto con comas o comillas se escriben entre comillas.
+     *
+     * @param idTicket ID del ticket
+     * @param placa Placa del vehículo
+     * @param cedula Cédula del pasajero
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @param fecha Fecha de compra
+     * @param distanciaKm Distancia en kilómetros
+     * @return String en formato CSV
+     */
+    public static String serializarCampos(String idTicket, String placa, String cedula, String origen,
+                                          String destino, LocalDateTime fecha, double distanciaKm) {
+        return escribirCampos(new StringBuilder(96), idTicket, placa, cedula, origen, destino, fecha,
+                distanciaKm).toString();
+    }
+
+    /**
+     * Agrega la línea CSV de los campos de un ticket al final de un StringBuilder.
+     */
+    private static StringBuilder escribirCampos(StringBuilder sb, String idTicket, String placa, String cedula,
+                                                String origen, String destino, LocalDateTime fecha,
+                                                double distanciaKm) {
+        TokenizadorCsv.agregarCampo(sb, idTicket).append(SEPARADOR);
+        TokenizadorCsv.agregarCampo(sb, placa).append(SEPARADOR);
+        TokenizadorCsv.agregarCampo(sb, cedula).append(SEPARADOR);
+        TokenizadorCsv.agregarCampo(sb, origen).append(SEPARADOR);
+        TokenizadorCsv.agregarCampo(sb, destino).append(SEPARADOR);
+        CodecFecha.escribir(sb, fecha).append(SEPARADOR);
+        sb.append(distanciaKm);
+        if (ESCRIBIR_FECHA_EPOCH) {
+            sb.append(SEPARADOR).append(CodecFecha.aEpochMilis(fecha));
+        }
+        return sb;
     }
 
     /**
      * Convierte una línea CSV a un objeto Ticket.
      *
-     * Este método requiere que los vehículos y pasajeros referenciados ya existan
-     * en sus respectivos DAOs.
+     * El vehículo y el pasajero se buscan en los DAOs la primera vez que se piden,
+     * por lo que no necesitan estar cargados al leer la línea.
      *
      * @param lineaCSV Línea en formato CSV
      * @param vehiculoDAO DAO de vehículos para buscar el vehículo por placa
      * @param pasajeroDAO DAO de pasajeros para buscar el pasajero por cédula
      * @return Objeto Ticket
-     * @throws IllegalArgumentException si la línea es inválida, faltan datos, o no se encuentran referencias
+     * @throws IllegalArgumentException si la línea es inválida o faltan datos
      */
     public static Ticket deserializar(String lineaCSV, VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
-        if (lineaCSV == null || lineaCSV.trim().isEmpty()) {
-            throw new IllegalArgumentException("La línea CSV no puede ser null o vacía");
-        }
-
         if (vehiculoDAO == null || pasajeroDAO == null) {
             throw new IllegalArgumentException("Los DAOs no pueden ser null");
         }
 
-        String[] partes = lineaCSV.split(SEPARADOR);
+        return deserializarSinResolver(lineaCSV).resolver(vehiculoDAO, pasajeroDAO);
+    }
 
-        if (partes.length != 7) {
-            throw new IllegalArgumentException(
-                "Formato CSV inválido. Se esperaban 7 campos, se encontraron " + partes.length
-            );
-        }
+    /**
+     * Convierte una línea CSV a un objeto Ticket cuyas referencias se resuelven con
+     * las instancias únicas de los DAOs, obtenidas recién al pedir el vehículo o el pasajero.
+     *
+     * @param lineaCSV Línea en formato CSV
+     * @return Objeto Ticket
+     * @throws IllegalArgumentException si la línea es inválida o faltan datos
+     */
+    public static Ticket deserializar(String lineaCSV) {
+        return deserializarSinResolver(lineaCSV).resolver(ResolutorDAO.getInstancia());
+    }
 
-        try {
-            String idTicket = partes[0].trim();
-            String placaVehiculo = partes[1].trim();
-            String cedulaPasajero = partes[2].trim();
-            String origen = partes[3].trim();
-            String destino = partes[4].trim();
-            String fechaStr = partes[5].trim();
-            double distanciaKm = Double.parseDouble(partes[6].trim());
-
-            // Buscar vehículo por placa
-            Vehiculo vehiculo = vehiculoDAO.buscarPorPlaca(placaVehiculo);
-            if (vehiculo == null) {
-                throw new IllegalArgumentException(
-                    "No se encontró el vehículo con placa: " + placaVehiculo
-                );
-            }
+    /**
+     * Convierte una línea CSV a un ticket con referencias pendientes.
+     *
+     * No consulta VehiculoDAO ni PasajeroDAO, por lo que puede usarse mientras
+     * esos DAOs todavía están cargando.
+     *
+     * @param lineaCSV Línea en formato CSV
+     * @return Ticket sin resolver
+     * @throws IllegalArgumentException si la línea es inválida o faltan datos
+     */
+    public static TicketSinResolver deserializarSinResolver(String lineaCSV) {
+        if (TokenizadorCsv.esVacia(lineaCSV)) {
+            throw new IllegalArgumentException("La línea CSV no puede ser null o vacía");
+        }
 
-            // Buscar pasajero por cédula
-            Pasajero pasajero = pasajeroDAO.buscarPorCedula(cedulaPasajero);
-            if (pasajero == null) {
-                throw new IllegalArgumentException(
-                    "No se encontró el pasajero con cédula: " + cedulaPasajero
-                );
-            }
+        TokenizadorCsv campos = TokenizadorCsv.delHiloActual().reiniciar(lineaCSV);
+        if (campos.getNumeroCampos() != 8) {
+            campos.exigirCampos(7);
+        }
 
-            // Parsear fecha
+        try {
+            String idTicket = campos.texto(0);
+            String placaVehiculo = campos.texto(1);
+            String cedulaPasajero = campos.texto(2);
+            int origen = campos.ciudad(3);
+            int destino = campos.ciudad(4);
+            double distanciaKm = campos.decimal(6);
+
+            // Parsear fecha: la columna epoch, si existe, evita leer el texto ISO
             LocalDateTime fecha;
             try {
-                fecha = LocalDateTime.parse(fechaStr, FORMATTER_FECHA);
-            } catch (Exception e) {
+                fecha = campos.getNumeroCampos() == 8
+                        ? CodecFecha.desdeEpochMilis(campos.largo(7))
+                        : campos.fecha(5);
+            } catch (IllegalArgumentException | java.time.DateTimeException e) {
                 throw new IllegalArgumentException(
-                    "Formato de fecha inválido: " + fechaStr + ". Se esperaba formato ISO (yyyy-MM-dd'T'HH:mm:ss)"
+                    "Formato de fecha inválido: " + campos.texto(5) + ". Se esperaba formato ISO (yyyy-MM-dd'T'HH:mm:ss)"
                 );
             }
 
-            // Crear el ticket
-            Ticket ticket = new Ticket(idTicket, vehiculo, pasajero, origen, destino, distanciaKm);
-            ticket.setFecha(fecha);
-
-            return ticket;
+            return new TicketSinResolver(idTicket, placaVehiculo, cedulaPasajero, origen, destino,
+                    fecha, distanciaKm);
 
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException(
                 "Error al parsear números en la línea CSV: " + lineaCSV, e
             );
-        } catch (ArrayIndexOutOfBoundsException e) {
-            throw new IllegalArgumentException(
-                "Error al parsear la línea CSV: " + lineaCSV, e
-            );
         }
     }
 }
@@ -26,7 +26,7 @@ public class SerializadorVehiculo {
     /**
      * Separador CSV (coma)
      */
-    private static final String SEPARADOR = ",";
+    private static final char SEPARADOR = TokenizadorCsv.SEPARADOR;
 
     /**
      * Convierte un objeto Vehiculo a formato CSV.
@@ -42,9 +42,9 @@ public class SerializadorVehiculo {
 
         StringBuilder sb = new StringBuilder();
         sb.append(vehiculo.getTipoVehiculo()).append(SEPARADOR);
-        sb.append(vehiculo.getPlaca()).append(SEPARADOR);
+        TokenizadorCsv.agregarCampo(sb, vehiculo.getPlaca()).append(SEPARADOR);
         sb.append(vehiculo.getCapacidad()).append(SEPARADOR);
-        sb.append(vehiculo.getModelo()).append(SEPARADOR);
+        TokenizadorCsv.agregarCampo(sb, vehiculo.getModelo()).append(SEPARADOR);
         sb.append(vehiculo.getTarifaBase());
 
         return sb.toString();
@@ -58,38 +58,29 @@ public class SerializadorVehiculo {
      * @throws IllegalArgumentException si la línea es inválida o el tipo es desconocido
      */
     public static Vehiculo deserializar(String lineaCSV) {
-        if (lineaCSV == null || lineaCSV.trim().isEmpty()) {
+        if (TokenizadorCsv.esVacia(lineaCSV)) {
             throw new IllegalArgumentException("La línea CSV no puede ser null o vacía");
         }
 
-        String[] partes = lineaCSV.split(SEPARADOR);
-
-        if (partes.length != 5) {
-            throw new IllegalArgumentException(
-                "Formato CSV inválido. Se esperaban 5 campos, se encontraron " + partes.length
-            );
-        }
+        TokenizadorCsv campos = TokenizadorCsv.delHiloActual().reiniciar(lineaCSV).exigirCampos(5);
 
         try {
-            String tipoVehiculo = partes[0].trim();
-            String placa = partes[1].trim();
-            int capacidad = Integer.parseInt(partes[2].trim());
-            String modelo = partes[3].trim();
-            double tarifaBase = Double.parseDouble(partes[4].trim());
+            String placa = campos.texto(1);
+            int capacidad = campos.entero(2);
+            String modelo = campos.texto(3);
+            double tarifaBase = campos.decimal(4);
 
             // Crear el vehículo según su tipo
-            switch (tipoVehiculo) {
-                case "Buseta":
-                    return new Buseta(placa, capacidad, modelo, tarifaBase);
-                case "MicroBus":
-                    return new MicroBus(placa, capacidad, modelo, tarifaBase);
-                case "Bus":
-                    return new Bus(placa, capacidad, modelo, tarifaBase);
-                default:
-                    throw new IllegalArgumentException(
-                        "Tipo de vehículo desconocido: " + tipoVehiculo
-                    );
+            if (campos.esIgual(0, "Buseta")) {
+                return new Buseta(placa, capacidad, modelo, tarifaBase);
+            } else if (campos.esIgual(0, "MicroBus")) {
+                return new MicroBus(placa, capacidad, modelo, tarifaBase);
+            } else if (campos.esIgual(0, "Bus")) {
+                return new Bus(placa, capacidad, modelo, tarifaBase);
             }
+            throw new IllegalArgumentException(
+                "Tipo de vehículo desconocido: " + campos.texto(0)
+            );
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException(
                 "Error al parsear números en la línea CSV: " + lineaCSV, e
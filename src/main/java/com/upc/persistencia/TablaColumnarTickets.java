@@ -0,0 +1,507 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.Pasajero;
+import com.upc.modelo.Ticket;
+import com.upc.modelo.TipoPasajero;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Clase TablaColumnarTickets
+ * Proyección de los tickets en columnas de tipos primitivos para reportes.
+ *
+ * <p>Cada ticket ocupa una fila y cada campo una columna: distancia, índice del
+ * vehículo, tipo de pasajero, ciudades (identificadores de
+ * {@link com.upc.modelo.DiccionarioCiudades}), fecha en milisegundos y precio final.
+ * El precio se calcula una sola vez, al registrar el ticket, así que los totales y
+ * promedios son recorridos secuenciales sobre arreglos, sin seguir referencias a
+ * Vehiculo o Pasajero ni llamadas virtuales a {@code calcularTarifaFinal}.</p>
+ *
+ * <p>{@link MotorTicketsBase} mantiene la tabla al guardar, actualizar y eliminar tickets.
+ * Una fila eliminada queda marcada como inactiva y se reutiliza al compactar.</p>
+ *
+ * <p>Junto con las filas mantiene un {@link IndiceRutas}: al reemplazar o eliminar una
+ * fila resta el ticket de la ruta y el precio con que fue registrado, que la fila aún
+ * conserva, y al registrarlo lo suma a la nueva. Las consultas por ruta leen esos
+ * contadores en lugar de recorrer las columnas.</p>
+ *
+ * <p>Con más de {@link #FILAS_POR_TAREA} filas las agregaciones se reparten entre los
+ * hilos del pool común, salvo que la propiedad
+ * {@code barceloneta.tickets.analitica.paralela} sea {@code false}.</p>
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class TablaColumnarTickets {
+
+    /**
+     * Propiedad del sistema que habilita las agregaciones en paralelo
+     */
+    public static final String PROPIEDAD_PARALELA = "barceloneta.tickets.analitica.paralela";
+
+    /**
+     * Filas que procesa cada tarea de una agregación en paralelo
+     */
+    public static final int FILAS_POR_TAREA = 1 << 16;
+
+    /**
+     * Valor de la columna de tipo de pasajero cuando el ticket no tiene pasajero
+     */
+    private static final byte SIN_TIPO = -1;
+
+    private final boolean paralela;
+    private final ReentrantReadWriteLock bloqueo;
+
+    /**
+     * Fila de cada ticket (IdTicket -> fila)
+     */
+    private final Map<String, Integer> filas;
+
+    /**
+     * Índice de cada placa en la columna de vehículos
+     */
+    private final Map<String, Integer> indiceVehiculos;
+    private final List<String> placas;
+
+    /**
+     * Tickets y contadores de cada ruta
+     */
+    private final IndiceRutas rutas;
+
+    private int numeroFilas;
+    private int inactivas;
+    private String[] ids;
+    private boolean[] activas;
+    private double[] distancias;
+    private int[] vehiculos;
+    private byte[] tiposPasajero;
+    private int[] origenes;
+    private int[] destinos;
+    private long[] fechasMs;
+    private double[] precios;
+
+    /**
+     * Constructor de una tabla vacía.
+     */
+    public TablaColumnarTickets() {
+        this.paralela = Boolean.parseBoolean(System.getProperty(PROPIEDAD_PARALELA, "true"));
+        this.bloqueo = new ReentrantReadWriteLock();
+        this.filas = new HashMap<>();
+        this.indiceVehiculos = new HashMap<>();
+        this.placas = new ArrayList<>();
+        this.rutas = new IndiceRutas();
+        reservar(1024);
+    }
+
+    /**
+     * Construye una tabla con los tickets indicados.
+     *
+     * @param tickets Tickets a proyectar
+     * @return Tabla con una fila por ticket
+     */
+    public static TablaColumnarTickets desde(Iterable<Ticket> tickets) {
+        TablaColumnarTickets tabla = new TablaColumnarTickets();
+        for (Ticket ticket : tickets) {
+            tabla.registrar(ticket);
+        }
+        return tabla;
+    }
+
+    /**
+     * Agrega un ticket o reemplaza su fila si ya estaba registrado.
+     *
+     * @param ticket Ticket guardado o actualizado
+     */
+    public void registrar(Ticket ticket) {
+        bloqueo.writeLock().lock();
+        try {
+            Integer existente = filas.get(ticket.getIdTicket());
+            int fila;
+            if (existente != null) {
+                fila = existente;
+                rutas.quitar(ids[fila], origenes[fila], destinos[fila], precios[fila], distancias[fila]);
+            } else {
+                if (numeroFilas == ids.length) {
+                    reservar(ids.length * 2);
+                }
+                fila = numeroFilas++;
+                filas.put(ticket.getIdTicket(), fila);
+            }
+            ids[fila] = ticket.getIdTicket();
+            activas[fila] = true;
+            distancias[fila] = ticket.getDistanciaKm();
+            vehiculos[fila] = ticket.getPlaca() == null ? -1 : indiceVehiculo(ticket.getPlaca());
+            Pasajero pasajero = ticket.getPasajero();
+            tiposPasajero[fila] = pasajero == null || pasajero.getTipoPasajero() == null
+                    ? SIN_TIPO
+                    : (byte) pasajero.getTipoPasajero().ordinal();
+            origenes[fila] = ticket.getIdOrigen();
+            destinos[fila] = ticket.getIdDestino();
+            fechasMs[fila] = CodecFecha.aEpochMilis(ticket.getFecha());
+            precios[fila] = ticket.getVehiculo() == null ? 0 : ticket.calcularPrecioFinal();
+            rutas.agregar(ids[fila], origenes[fila], destinos[fila], precios[fila], distancias[fila]);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marca como inactiva la fila de un ticket eliminado.
+     *
+     * @param idTicket ID del ticket
+     */
+    public void eliminar(String idTicket) {
+        bloqueo.writeLock().lock();
+        try {
+            Integer fila = filas.remove(idTicket);
+            if (fila == null) {
+                return;
+            }
+            rutas.quitar(idTicket, origenes[fila], destinos[fila], precios[fila], distancias[fila]);
+            activas[fila] = false;
+            ids[fila] = null;
+            inactivas++;
+            if (inactivas > 1024 && inactivas * 2 > numeroFilas) {
+                compactar();
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina todas las filas.
+     */
+    public void limpiar() {
+        bloqueo.writeLock().lock();
+        try {
+            filas.clear();
+            rutas.limpiar();
+            numeroFilas = 0;
+            inactivas = 0;
+            reservar(1024);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resume todos los tickets.
+     *
+     * @return Cantidad, ingresos y distancia total
+     */
+    public Resumen resumir() {
+        return resumir(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Resume los tickets emitidos en un rango de fechas.
+     *
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido)
+     * @return Cantidad, ingresos y distancia total del rango
+     */
+    public Resumen resumir(LocalDateTime desde, LocalDateTime hasta) {
+        return resumir(CodecFecha.aEpochMilis(desde), CodecFecha.aEpochMilis(hasta));
+    }
+
+    /**
+     * Suma los ingresos de cada tipo de pasajero.
+     *
+     * @return Ingresos indexados por {@link TipoPasajero#ordinal()}
+     */
+    public double[] ingresosPorTipoPasajero() {
+        int tipos = TipoPasajero.values().length;
+        bloqueo.readLock().lock();
+        try {
+            return agregar(() -> new double[tipos], (parcial, desde, hasta) -> {
+                for (int i = desde; i < hasta; i++) {
+                    if (activas[i] && tiposPasajero[i] != SIN_TIPO) {
+                        parcial[tiposPasajero[i]] += precios[i];
+                    }
+                }
+            }, (a, b) -> {
+                for (int i = 0; i < tipos; i++) {
+                    a[i] += b[i];
+                }
+                return a;
+            });
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suma los ingresos de cada vehículo.
+     *
+     * @return Ingresos por placa
+     */
+    public Map<String, Double> ingresosPorVehiculo() {
+        bloqueo.readLock().lock();
+        try {
+            int cantidadVehiculos = placas.size();
+            double[] ingresos = agregar(() -> new double[cantidadVehiculos], (parcial, desde, hasta) -> {
+                for (int i = desde; i < hasta; i++) {
+                    if (activas[i] && vehiculos[i] >= 0) {
+                        parcial[vehiculos[i]] += precios[i];
+                    }
+                }
+            }, (a, b) -> {
+                for (int i = 0; i < cantidadVehiculos; i++) {
+                    a[i] += b[i];
+                }
+                return a;
+            });
+            Map<String, Double> porPlaca = new HashMap<>();
+            for (int i = 0; i < cantidadVehiculos; i++) {
+                if (ingresos[i] != 0) {
+                    porPlaca.put(placas.get(i), ingresos[i]);
+                }
+            }
+            return porPlaca;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de tickets, los ingresos y la distancia de una ruta.
+     *
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @return Estadística de la ruta, con cantidad 0 si no tiene tickets
+     */
+    public EstadisticaRuta estadisticaRuta(int idOrigen, int idDestino) {
+        bloqueo.readLock().lock();
+        try {
+            return rutas.estadistica(idOrigen, idDestino);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas de todas las rutas con tickets.
+     *
+     * @return Estadísticas de las rutas, de la más concurrida a la menos
+     */
+    public List<EstadisticaRuta> rutas() {
+        bloqueo.readLock().lock();
+        try {
+            return rutas.todas();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene las rutas con más tickets vendidos.
+     *
+     * @param cantidad Cantidad máxima de rutas
+     * @return Estadísticas de las rutas, de la más concurrida a la menos
+     */
+    public List<EstadisticaRuta> rutasMasConcurridas(int cantidad) {
+        bloqueo.readLock().lock();
+        try {
+            return rutas.masConcurridas(cantidad);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los IDs de los tickets de una ruta.
+     *
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @return Copia de los IDs en orden de registro
+     */
+    public List<String> idsDeRuta(int idOrigen, int idDestino) {
+        bloqueo.readLock().lock();
+        try {
+            return rutas.ids(idOrigen, idDestino);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de tickets registrados.
+     *
+     * @return Filas activas
+     */
+    public int contar() {
+        bloqueo.readLock().lock();
+        try {
+            return numeroFilas - inactivas;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    private Resumen resumir(long desdeMs, long hastaMs) {
+        bloqueo.readLock().lock();
+        try {
+            return agregar(Resumen::new, (parcial, desde, hasta) -> {
+                int cantidad = 0;
+                double ingresos = 0;
+                double distancia = 0;
+                for (int i = desde; i < hasta; i++) {
+                    long fecha = fechasMs[i];
+                    if (activas[i] && fecha >= desdeMs && fecha < hastaMs) {
+                        cantidad++;
+                        ingresos += precios[i];
+                        distancia += distancias[i];
+                    }
+                }
+                parcial.cantidad += cantidad;
+                parcial.ingresos += ingresos;
+                parcial.distanciaTotal += distancia;
+            }, Resumen::combinar);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre las filas en bloques, en paralelo si la tabla es grande, y combina
+     * los resultados parciales. Debe llamarse con el bloqueo de lectura.
+     */
+    private <R> R agregar(Supplier<R> inicial, Acumulador<R> acumulador,
+                          BinaryOperator<R> combinar) {
+        int total = numeroFilas;
+        if (!paralela || total <= FILAS_POR_TAREA) {
+            R resultado = inicial.get();
+            acumulador.acumular(resultado, 0, total);
+            return resultado;
+        }
+        int bloques = (total + FILAS_POR_TAREA - 1) / FILAS_POR_TAREA;
+        return IntStream.range(0, bloques).parallel().mapToObj(b -> {
+            R parcial = inicial.get();
+            acumulador.acumular(parcial, b * FILAS_POR_TAREA, Math.min(total, (b + 1) * FILAS_POR_TAREA));
+            return parcial;
+        }).reduce(combinar).orElseGet(inicial);
+    }
+
+    private int indiceVehiculo(String placa) {
+        Integer indice = indiceVehiculos.get(placa);
+        if (indice == null) {
+            indice = placas.size();
+            placas.add(placa);
+            indiceVehiculos.put(placa, indice);
+        }
+        return indice;
+    }
+
+    /**
+     * Mueve las filas activas al principio y descarta las inactivas.
+     */
+    private void compactar() {
+        int destino = 0;
+        for (int i = 0; i < numeroFilas; i++) {
+            if (!activas[i]) {
+                continue;
+            }
+            if (destino != i) {
+                ids[destino] = ids[i];
+                activas[destino] = true;
+                distancias[destino] = distancias[i];
+                vehiculos[destino] = vehiculos[i];
+                tiposPasajero[destino] = tiposPasajero[i];
+                origenes[destino] = origenes[i];
+                destinos[destino] = destinos[i];
+                fechasMs[destino] = fechasMs[i];
+                precios[destino] = precios[i];
+                filas.put(ids[destino], destino);
+            }
+            destino++;
+        }
+        Arrays.fill(activas, destino, numeroFilas, false);
+        Arrays.fill(ids, destino, numeroFilas, null);
+        numeroFilas = destino;
+        inactivas = 0;
+    }
+
+    /**
+     * Ajusta la capacidad de todas las columnas conservando las filas existentes.
+     */
+    private void reservar(int capacidad) {
+        ids = ids == null ? new String[capacidad] : Arrays.copyOf(ids, capacidad);
+        activas = activas == null ? new boolean[capacidad] : Arrays.copyOf(activas, capacidad);
+        distancias = distancias == null ? new double[capacidad] : Arrays.copyOf(distancias, capacidad);
+        vehiculos = vehiculos == null ? new int[capacidad] : Arrays.copyOf(vehiculos, capacidad);
+        tiposPasajero = tiposPasajero == null ? new byte[capacidad] : Arrays.copyOf(tiposPasajero, capacidad);
+        origenes = origenes == null ? new int[capacidad] : Arrays.copyOf(origenes, capacidad);
+        destinos = destinos == null ? new int[capacidad] : Arrays.copyOf(destinos, capacidad);
+        fechasMs = fechasMs == null ? new long[capacidad] : Arrays.copyOf(fechasMs, capacidad);
+        precios = precios == null ? new double[capacidad] : Arrays.copyOf(precios, capacidad);
+    }
+
+    /**
+     * Recorrido de un bloque de filas que acumula en un resultado parcial.
+     */
+    private interface Acumulador<R> {
+        void acumular(R parcial, int desde, int hasta);
+    }
+
+    /**
+     * Clase Resumen
+     * Resultado de resumir un conjunto de tickets.
+     */
+    public static class Resumen {
+        private int cantidad;
+        private double ingresos;
+        private double distanciaTotal;
+
+        Resumen() {
+        }
+
+        Resumen(int cantidad, double ingresos, double distanciaTotal) {
+            this.cantidad = cantidad;
+            this.ingresos = ingresos;
+            this.distanciaTotal = distanciaTotal;
+        }
+
+        private Resumen combinar(Resumen otro) {
+            cantidad += otro.cantidad;
+            ingresos += otro.ingresos;
+            distanciaTotal += otro.distanciaTotal;
+            return this;
+        }
+
+        public int getCantidad() {
+            return cantidad;
+        }
+
+        public double getIngresos() {
+            return ingresos;
+        }
+
+        public double getDistanciaTotal() {
+            return distanciaTotal;
+        }
+
+        /**
+         * @return Precio final promedio, o 0 si no hay tickets
+         */
+        public double getPrecioPromedio() {
+            return cantidad == 0 ? 0 : ingresos / cantidad;
+        }
+
+        /**
+         * @return Distancia promedio en kilómetros, o 0 si no hay tickets
+         */
+        public double getDistanciaPromedio() {
+            return cantidad == 0 ? 0 : distanciaTotal / cantidad;
+        }
+    }
+}
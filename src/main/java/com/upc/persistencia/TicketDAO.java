@@ -1,12 +1,12 @@
 package com.upc.persistencia;
 
 import com.upc.modelo.Ticket;
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Clase TicketDAO (Data Access Object)
@@ -15,8 +15,27 @@ import java.util.Map;
  * <p>Esta clase implementa el patrón DAO para separar la lógica de acceso a datos
  * de la lógica de negocio. En Fase 2 usa archivos CSV con codificación UTF-8.</p>
  *
- * <p>Los datos se mantienen en memoria (HashMap) para eficiencia y se sincronizan
- * automáticamente con el archivo de texto en cada operación CRUD.</p>
+ * <p>Los tickets se guardan en un {@link MotorTickets}, seleccionado al iniciar con la
+ * propiedad {@code barceloneta.tickets.modo} ({@link ModoAlmacenamientoTickets}); el DAO
+ * valida las operaciones y las delega al motor:</p>
+ * <ul>
+ *   <li>{@link MotorTicketsMemoria}: solo en memoria, sin archivos (pruebas y mediciones).</li>
+ *   <li>{@link MotorTicketsCsv}: reescribe el archivo completo en cada operación CRUD.</li>
+ *   <li>{@link MotorTicketsBitacora}: anexa un registro por operación a una bitácora
+ *       que se compacta periódicamente o con {@link #compactar()}.</li>
+ *   <li>{@link MotorTicketsMapeado}: registros de tamaño fijo en un archivo mapeado en
+ *       memoria, construidos solo al consultarlos.</li>
+ *   <li>{@link MotorTicketsParticionado}: un archivo por período; solo la partición
+ *       abierta está en memoria y los tickets de las selladas no se pueden modificar.</li>
+ *   <li>{@link MotorTicketsJdbc}: una tabla con índices en la base de datos embebida.</li>
+ * </ul>
+ *
+ * <p>Las búsquedas por pasajero, vehículo y fecha usan los índices del motor en lugar de
+ * recorrer el historial. Las consultas por ruta ({@link #estadisticaRuta},
+ * {@link #rutasMasConcurridas}, {@link #buscarPorRuta}) usan los contadores por ruta de la
+ * tabla columnar en todos los modos. Las consultas que combinan varios filtros se arman
+ * con {@link ConsultaTickets} y se resuelven con {@link #consultar}, que elige el índice
+ * más selectivo ({@link #planificar}) y entrega el resultado como un flujo perezoso.</p>
  *
  * <p><b>Patrón de diseño:</b> Data Access Object (DAO) + Singleton</p>
  *
@@ -27,33 +46,39 @@ import java.util.Map;
 public class TicketDAO {
 
     /**
-     * Almacenamiento en memoria de tickets (IdTicket -> Ticket)
+     * Motor que almacena los tickets (IdTicket -> Ticket)
      */
-    private Map<String, Ticket> tickets;
+    private final MotorTickets motor;
 
     /**
-     * Contador para generar IDs únicos de tickets
+     * Instancia única del DAO (patrón Singleton)
      */
-    private int contadorId;
+    private static TicketDAO instancia;
 
     /**
-     * Instancia única del DAO (patrón Singleton)
+     * Accesos candidatos de una consulta ordenada, en orden de preferencia a igual estimación
      */
-    private static TicketDAO instancia;
+    private static final PlanConsulta.Acceso[] ACCESOS_ORDENADOS = {
+        PlanConsulta.Acceso.INDICE_CEDULA, PlanConsulta.Acceso.INDICE_PLACA, PlanConsulta.Acceso.INDICE_RUTA,
+        PlanConsulta.Acceso.INDICE_FECHA, PlanConsulta.Acceso.RECORRIDO
+    };
 
     /**
-     * Ruta del archivo de persistencia
+     * Accesos candidatos de una consulta sin orden, en orden de preferencia a igual estimación
      */
-    private static final String ARCHIVO_TICKETS = "data/tickets.txt";
+    private static final PlanConsulta.Acceso[] ACCESOS_SIN_ORDEN = {
+        PlanConsulta.Acceso.INDICE_CEDULA, PlanConsulta.Acceso.INDICE_PLACA, PlanConsulta.Acceso.INDICE_RUTA,
+        PlanConsulta.Acceso.RECORRIDO, PlanConsulta.Acceso.INDICE_FECHA
+    };
 
     /**
      * Constructor privado para implementar Singleton.
      * Carga automáticamente los datos desde el archivo al inicializar.
      */
     private TicketDAO() {
-        this.tickets = new HashMap<>();
-        this.contadorId = 1;
-        cargarDesdeArchivo();
+        this.motor = ModoAlmacenamientoTickets.desdeConfiguracion().crear(
+                FormatoArchivo.desdeConfiguracion(FormatoArchivo.PROPIEDAD_TICKETS),
+                EscritorPersistencia.getInstancia().getCola("tickets"));
     }
 
     /**
@@ -61,7 +86,7 @@ public class TicketDAO {
      *
      * @return Instancia de TicketDAO
      */
-    public static TicketDAO getInstancia() {
+    public static synchronized TicketDAO getInstancia() {
         if (instancia == null) {
             instancia = new TicketDAO();
         }
@@ -74,7 +99,7 @@ public class TicketDAO {
      * @return ID generado en formato "TK-00001"
      */
     public String generarId() {
-        return String.format("TK-%05d", contadorId++);
+        return motor.generarId();
     }
 
     /**
@@ -83,18 +108,34 @@ public class TicketDAO {
      *
      * @param ticket Ticket a guardar
      * @return true si se guardó exitosamente, false si ya existía
+     * @throws IllegalStateException si la fecha del ticket corresponde a una partición sellada
      * @throws RuntimeException si ocurre un error al guardar en el archivo
      */
     public boolean guardar(Ticket ticket) {
         if (ticket == null || ticket.getIdTicket() == null) {
             return false;
         }
-        if (tickets.containsKey(ticket.getIdTicket())) {
-            return false; // Ya existe
-        }
-        tickets.put(ticket.getIdTicket(), ticket);
-        guardarEnArchivo();
-        return true;
+        return motor.insertar(ticket);
+    }
+
+    /**
+     * Guarda varios tickets y persiste el cambio una sola vez, en lugar de una vez por
+     * ticket. Se usa en las importaciones masivas de tickets históricos.
+     *
+     * En modo PARTICIONADO los tickets de períodos anteriores a la partición abierta se
+     * agregan a su partición sellada, que se reescribe una vez por llamada; los de
+     * períodos posteriores abren particiones nuevas como en {@link #guardar(Ticket)}.
+     * El contador avanza más allá del mayor ID guardado.
+     *
+     * @param lote Tickets a guardar (sin elementos null ni IDs null)
+     * @return Tickets que no se guardaron porque ya existía uno con el mismo ID
+     *         (incluido uno anterior del mismo lote)
+     * @throws IllegalArgumentException en modo MAPEADO, si un ticket no cabe en el registro
+     * @throws RuntimeException si ocurre un error al persistir; los tickets aún no
+     *         escritos quedan sin guardar
+     */
+    public List<Ticket> guardarTodos(Collection<Ticket> lote) {
+        return motor.insertarTodos(lote);
     }
 
     /**
@@ -104,50 +145,114 @@ public class TicketDAO {
      * @return Ticket encontrado o null si no existe
      */
     public Ticket buscarPorId(String idTicket) {
-        return tickets.get(idTicket);
+        return motor.buscar(idTicket);
     }
 
     /**
      * Obtiene todos los tickets registrados.
+     * Copia el historial completo en una lista; para exportarlo o listarlo conviene
+     * {@link #recorrer(Consumer)}.
      *
      * @return Lista de todos los tickets
      */
     public List<Ticket> obtenerTodos() {
-        return new ArrayList<>(tickets.values());
+        return motor.todos();
+    }
+
+    /**
+     * Entrega cada ticket a un visitante sin copiar el historial a una lista.
+     *
+     * En modo PARTICIONADO las particiones selladas se leen de a una, de la más
+     * antigua a la más reciente, y al final se recorre la abierta; en modo MAPEADO cada
+     * ticket se construye al entregarlo; en modo JDBC la tabla se lee por páginas. Así
+     * la memoria usada no depende del tamaño del historial. El recorrido no detiene las
+     * ventas: puede incluir o no los cambios hechos mientras se ejecuta.
+     *
+     * @param visitante Función que recibe cada ticket
+     * @throws RuntimeException si ocurre un error al leer una partición o la base de datos
+     */
+    public void recorrer(Consumer<? super Ticket> visitante) {
+        motor.recorrer(visitante);
+    }
+
+    /**
+     * Busca los tickets emitidos dentro de un rango de fechas, en orden cronológico.
+     * Los tickets en memoria se toman del índice por fecha, ya ordenados; en modo
+     * PARTICIONADO solo se leen las particiones selladas que se solapan con el rango, y
+     * en modo JDBC se consulta el índice por fecha. En modo MAPEADO, que no tiene índice
+     * en memoria, se recorre el archivo y se ordena solo el resultado.
+     *
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido)
+     * @return Lista de tickets del rango, ordenada por fecha e ID
+     */
+    public List<Ticket> buscarPorRangoFechas(LocalDateTime desde, LocalDateTime hasta) {
+        if (!desde.isBefore(hasta)) {
+            return new ArrayList<>();
+        }
+        return motor.buscarEnRango(desde, hasta);
+    }
+
+    /**
+     * Busca los tickets más recientes.
+     * Los tickets en memoria se toman del final del índice por fecha; en modo
+     * PARTICIONADO se completan con las particiones selladas, de la más reciente hacia
+     * atrás, solo mientras falten. En modo JDBC se lee el índice por fecha desde el
+     * final; en modo MAPEADO se recorre el archivo conservando los {@code cantidad} más
+     * recientes.
+     *
+     * @param cantidad Cantidad máxima de tickets
+     * @return Tickets del más reciente al más antiguo
+     */
+    public List<Ticket> buscarUltimos(int cantidad) {
+        if (cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        return motor.buscarUltimos(cantidad);
+    }
+
+    /**
+     * Busca los tickets que siguen a una posición del orden cronológico; sirve para
+     * listar el historial por páginas. Cada página empieza donde terminó la anterior
+     * sin recorrer las previas: los tickets en memoria se toman del índice por fecha y,
+     * en modo PARTICIONADO, las particiones selladas anteriores al cursor se omiten y
+     * en la primera se busca el cursor por bisección. En modo JDBC se pagina por clave
+     * sobre el índice por fecha; en modo MAPEADO se recorre el archivo conservando los
+     * {@code cantidad} primeros posteriores al cursor.
+     *
+     * @param cursor Clave del último ticket ya entregado, o null para empezar por el más antiguo
+     * @param cantidad Cantidad máxima de tickets
+     * @return Tickets posteriores al cursor, en orden cronológico
+     */
+    public List<Ticket> buscarPosterioresA(ClaveCronologica cursor, int cantidad) {
+        if (cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        return motor.buscarPosterioresA(cursor, cantidad);
     }
 
     /**
      * Busca tickets por cédula del pasajero.
+     * Los tickets en memoria se obtienen con el índice por cédula, sin recorrer el
+     * historial; en modo PARTICIONADO las particiones selladas se siguen recorriendo.
      *
      * @param cedula Cédula del pasajero
      * @return Lista de tickets del pasajero
      */
     public List<Ticket> buscarPorPasajero(String cedula) {
-        List<Ticket> ticketsPasajero = new ArrayList<>();
-        for (Ticket ticket : tickets.values()) {
-            if (ticket.getPasajero() != null &&
-                ticket.getPasajero().getCedula().equals(cedula)) {
-                ticketsPasajero.add(ticket);
-            }
-        }
-        return ticketsPasajero;
+        return motor.buscarPorCedula(cedula);
     }
 
     /**
      * Busca tickets por placa del vehículo.
+     * Los tickets en memoria se obtienen con el índice por placa, sin recorrer el
+     * historial; en modo PARTICIONADO las particiones selladas se siguen recorriendo.
      *
      * @param placa Placa del vehículo
      * @return Lista de tickets del vehículo
      */
     public List<Ticket> buscarPorVehiculo(String placa) {
-        List<Ticket> ticketsVehiculo = new ArrayList<>();
-        for (Ticket ticket : tickets.values()) {
-            if (ticket.getVehiculo() != null &&
-                ticket.getVehiculo().getPlaca().equals(placa)) {
-                ticketsVehiculo.add(ticket);
-            }
-        }
-        return ticketsVehiculo;
+        return motor.buscarPorPlaca(placa);
     }
 
     /**
@@ -156,18 +261,14 @@ public class TicketDAO {
      *
      * @param ticket Ticket con datos actualizados
      * @return true si se actualizó, false si no existe
+     * @throws IllegalStateException si el ticket pertenece a una partición sellada
      * @throws RuntimeException si ocurre un error al guardar en el archivo
      */
     public boolean actualizar(Ticket ticket) {
         if (ticket == null || ticket.getIdTicket() == null) {
             return false;
         }
-        if (!tickets.containsKey(ticket.getIdTicket())) {
-            return false; // No existe
-        }
-        tickets.put(ticket.getIdTicket(), ticket);
-        guardarEnArchivo();
-        return true;
+        return motor.reemplazar(ticket);
     }
 
     /**
@@ -176,14 +277,11 @@ public class TicketDAO {
      *
      * @param idTicket ID del ticket a eliminar
      * @return true si se eliminó, false si no existía
+     * @throws IllegalStateException si el ticket pertenece a una partición sellada
      * @throws RuntimeException si ocurre un error al guardar en el archivo
      */
     public boolean eliminar(String idTicket) {
-        boolean eliminado = tickets.remove(idTicket) != null;
-        if (eliminado) {
-            guardarEnArchivo();
-        }
-        return eliminado;
+        return motor.eliminar(idTicket);
     }
 
     /**
@@ -193,7 +291,7 @@ public class TicketDAO {
      * @return true si existe, false si no
      */
     public boolean existe(String idTicket) {
-        return tickets.containsKey(idTicket);
+        return motor.contiene(idTicket);
     }
 
     /**
@@ -202,7 +300,7 @@ public class TicketDAO {
      * @return Número de tickets
      */
     public int contarTickets() {
-        return tickets.size();
+        return motor.contar();
     }
 
     /**
@@ -213,113 +311,230 @@ public class TicketDAO {
      * @throws RuntimeException si ocurre un error al guardar en el archivo
      */
     public void limpiar() {
-        tickets.clear();
-        contadorId = 1;
-        guardarEnArchivo();
+        motor.limpiar();
     }
 
     /**
-     * Carga los tickets desde el archivo de texto.
-     * Este método se ejecuta automáticamente al inicializar el DAO.
+     * Obtiene la proyección columnar de los tickets para reportes y totales.
+     * Se construye en la primera llamada y desde entonces se actualiza con cada
+     * operación, de modo que los modos que no cargan todo el historial solo lo leen
+     * si se piden reportes.
      *
-     * Si el archivo no existe, se crea vacío.
-     * Si el archivo está corrupto, se lanza una excepción.
+     * @return Tabla columnar con todos los tickets
+     */
+    public TablaColumnarTickets getTablaColumnar() {
+        return motor.getTablaColumnar();
+    }
+
+    /**
+     * Resume todos los tickets: cantidad, ingresos y distancia total.
+     * En modo JDBC se calcula con una consulta de agregación; en los demás modos,
+     * con la tabla columnar.
      *
-     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
+     * @return Resumen de los tickets
      */
-    private void cargarDesdeArchivo() {
-        File archivo = new File(ARCHIVO_TICKETS);
+    public TablaColumnarTickets.Resumen resumir() {
+        return motor.resumir();
+    }
 
-        // Si el archivo no existe, crearlo
-        if (!archivo.exists()) {
-            try {
-                archivo.getParentFile().mkdirs();
-                archivo.createNewFile();
-                return;
-            } catch (IOException e) {
-                throw new RuntimeException("Error al crear el archivo de tickets: " + ARCHIVO_TICKETS, e);
-            }
-        }
+    /**
+     * Suma los ingresos de cada tipo de pasajero.
+     * En modo JDBC se calcula con una consulta de agregación; en los demás modos,
+     * con la tabla columnar.
+     *
+     * @return Ingresos indexados por {@link com.upc.modelo.TipoPasajero#ordinal()}
+     */
+    public double[] ingresosPorTipoPasajero() {
+        return motor.ingresosPorTipoPasajero();
+    }
 
-        // Obtener instancias de los DAOs necesarios para deserialización
-        VehiculoDAO vehiculoDAO = VehiculoDAO.getInstancia();
-        PasajeroDAO pasajeroDAO = PasajeroDAO.getInstancia();
-
-        // Leer el archivo línea por línea
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
-
-            String linea;
-            int numeroLinea = 0;
-            tickets.clear();
-            int maxId = 0;
-
-            while ((linea = reader.readLine()) != null) {
-                numeroLinea++;
-                linea = linea.trim();
-
-                // Saltar líneas vacías
-                if (linea.isEmpty()) {
-                    continue;
-                }
-
-                try {
-                    Ticket ticket = SerializadorTicket.deserializar(linea, vehiculoDAO, pasajeroDAO);
-                    tickets.put(ticket.getIdTicket(), ticket);
-
-                    // Extraer el número del ID para actualizar el contador
-                    String id = ticket.getIdTicket();
-                    if (id.startsWith("TK-")) {
-                        try {
-                            int numeroId = Integer.parseInt(id.substring(3));
-                            if (numeroId > maxId) {
-                                maxId = numeroId;
-                            }
-                        } catch (NumberFormatException e) {
-                            // Si no se puede parsear, ignorar
-                        }
-                    }
-                } catch (IllegalArgumentException e) {
-                    throw new RuntimeException(
-                        "Error al parsear línea " + numeroLinea + " del archivo " + ARCHIVO_TICKETS + ": " + linea, e
-                    );
-                }
-            }
+    /**
+     * Obtiene la cantidad de tickets, los ingresos y la distancia de una ruta.
+     * Se responde con los contadores de la tabla columnar también en modo JDBC, cuya
+     * tabla no separa el origen y el destino en columnas.
+     *
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @return Estadística de la ruta, con cantidad 0 si no tiene tickets
+     */
+    public EstadisticaRuta estadisticaRuta(int idOrigen, int idDestino) {
+        return getTablaColumnar().estadisticaRuta(idOrigen, idDestino);
+    }
+
+    /**
+     * Obtiene las estadísticas de todas las rutas con tickets.
+     *
+     * @return Estadísticas de las rutas, de la más concurrida a la menos
+     */
+    public List<EstadisticaRuta> rutas() {
+        return getTablaColumnar().rutas();
+    }
+
+    /**
+     * Obtiene las rutas con más tickets vendidos.
+     *
+     * @param cantidad Cantidad máxima de rutas
+     * @return Estadísticas de las rutas, de la más concurrida a la menos
+     */
+    public List<EstadisticaRuta> rutasMasConcurridas(int cantidad) {
+        return getTablaColumnar().rutasMasConcurridas(cantidad);
+    }
+
+    /**
+     * Busca los tickets de una ruta.
+     * Los IDs salen del índice de rutas de la tabla columnar; cada ticket se obtiene
+     * por su ID. En modo PARTICIONADO los que no están en la partición abierta se
+     * buscan en las selladas, que se recorren una sola vez para todos ellos.
+     *
+     * @param idOrigen Identificador de la ciudad de origen
+     * @param idDestino Identificador de la ciudad de destino
+     * @return Lista de tickets de la ruta
+     */
+    public List<Ticket> buscarPorRuta(int idOrigen, int idDestino) {
+        return motor.buscarPorIds(getTablaColumnar().idsDeRuta(idOrigen, idDestino));
+    }
 
-            // Actualizar el contador para que el próximo ID sea único
-            if (maxId > 0) {
-                contadorId = maxId + 1;
+    /**
+     * Elige cómo resolver una consulta compuesta: desde qué índice se obtienen los
+     * candidatos, cuántos se estima leer y si hay que ordenarlos en memoria.
+     *
+     * <p>Cada filtro con índice propone un acceso con su estimación de candidatos
+     * ({@link MotorTickets#estimar}). La cédula y la placa cuentan los IDs del índice en
+     * memoria; en modos MAPEADO y JDBC, sin ese índice en el heap, se supone que los
+     * tickets se reparten por igual entre pasajeros o vehículos. La ruta usa el contador
+     * de la tabla columnar, y el rango de fechas la fracción del período que cubre el
+     * índice por fecha (en JDBC, un tercio de la tabla). Si la consulta pide orden por
+     * fecha y tiene límite, el índice por fecha entrega los tickets ya ordenados y deja
+     * de leer al completarlo: se estima que lee el límite dividido por la selectividad de
+     * los demás filtros con índice. Gana la estimación menor; a igualdad, si la consulta
+     * pide orden se prefiere el índice por fecha.</p>
+     *
+     * @param consulta Consulta a planificar
+     * @return Plan elegido
+     */
+    public PlanConsulta planificar(ConsultaTickets consulta) {
+        long total = motor.contarIndexados();
+        boolean ordenada = consulta.getOrden() != ConsultaTickets.Orden.NINGUNO;
+        long[] estimaciones = new long[PlanConsulta.Acceso.values().length];
+        double selectividad = 1;
+        for (PlanConsulta.Acceso acceso : PlanConsulta.Acceso.values()) {
+            estimaciones[acceso.ordinal()] = motor.estimar(acceso, consulta, total);
+            if (acceso != PlanConsulta.Acceso.INDICE_FECHA && acceso != PlanConsulta.Acceso.RECORRIDO
+                    && estimaciones[acceso.ordinal()] >= 0 && total > 0) {
+                selectividad *= (double) estimaciones[acceso.ordinal()] / total;
             }
+        }
+        int fecha = PlanConsulta.Acceso.INDICE_FECHA.ordinal();
+        if (ordenada && consulta.getLimite() < Long.MAX_VALUE && estimaciones[fecha] > 0 && selectividad > 0) {
+            // En orden de fecha se deja de leer al completar el límite con los demás filtros
+            double necesarios = Math.ceil((consulta.getDesplazamiento() + consulta.getLimite()) / selectividad);
+            estimaciones[fecha] = (long) Math.min(estimaciones[fecha], necesarios);
+        }
+        PlanConsulta.Acceso elegido = null;
+        long menor = Long.MAX_VALUE;
+        for (PlanConsulta.Acceso acceso : ordenada ? ACCESOS_ORDENADOS : ACCESOS_SIN_ORDEN) {
+            long estimacion = estimaciones[acceso.ordinal()];
+            if (estimacion >= 0 && estimacion < menor) {
+                elegido = acceso;
+                menor = estimacion;
+            }
+        }
+        return new PlanConsulta(elegido, menor, ordenada && elegido != PlanConsulta.Acceso.INDICE_FECHA,
+                motor.contarSelladas(consulta));
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Error al leer el archivo de tickets: " + ARCHIVO_TICKETS, e);
+    /**
+     * Resuelve una consulta compuesta como un flujo perezoso, según el plan de
+     * {@link #planificar(ConsultaTickets)}.
+     *
+     * <p>Los candidatos salen del índice elegido ({@link MotorTickets#candidatos}) y se
+     * filtran con {@link ConsultaTickets#coincide(Ticket)}; solo se ordenan en memoria si
+     * el índice no los entrega en el orden pedido. Cuando el acceso es por fecha, el
+     * límite corta la lectura: en modo JDBC la tabla se lee por páginas bajo demanda y en
+     * los demás modos se avanza sobre el índice por fecha, así que pedir los 20 más
+     * recientes no recorre el historial. En modo PARTICIONADO se agregan las particiones
+     * selladas que se solapan con el rango y el cursor, leídas de a una cuando el flujo
+     * llega a ellas; esas particiones no tienen índices propios y se filtran completas.</p>
+     *
+     * <p>Los IDs de los índices en memoria se copian al armar el flujo; los tickets se
+     * resuelven al consumirlo y los eliminados entretanto se omiten. En modo JDBC el orden
+     * por fecha es el de la tabla, con precisión de milisegundos.</p>
+     *
+     * @param consulta Consulta a resolver
+     * @return Flujo con los tickets del resultado
+     * @throws RuntimeException si ocurre un error al leer una partición o la base de datos
+     */
+    public Stream<Ticket> consultar(ConsultaTickets consulta) {
+        PlanConsulta plan = planificar(consulta);
+        Stream<Ticket> resultado = motor.candidatos(plan.getAcceso(), consulta).filter(consulta::coincide);
+        if (plan.isOrdenar()) {
+            resultado = resultado.sorted(consulta.comparador());
+        }
+        if (plan.getParticionesSelladas() > 0) {
+            // La partición abierta es la más reciente: va al final salvo en orden inverso
+            Stream<Ticket> selladas = motor.flujoSelladas(consulta);
+            resultado = consulta.getOrden() == ConsultaTickets.Orden.FECHA_DESCENDENTE
+                    ? Stream.concat(resultado, selladas)
+                    : Stream.concat(selladas, resultado);
         }
+        if (consulta.getDesplazamiento() > 0) {
+            resultado = resultado.skip(consulta.getDesplazamiento());
+        }
+        if (consulta.getLimite() < Long.MAX_VALUE) {
+            resultado = resultado.limit(consulta.getLimite());
+        }
+        return resultado;
     }
 
     /**
-     * Guarda todos los tickets en el archivo de texto.
-     * Este método se ejecuta automáticamente después de cada operación CRUD.
+     * Compacta el almacenamiento de tickets (solo en modo BITACORA).
+     *
+     * Rota la bitácora a un segmento nuevo, escribe una instantánea de todos los tickets
+     * en el archivo base y elimina los segmentos cubiertos por ella; las ventas solo se
+     * detienen durante la rotación.
      *
-     * @throws RuntimeException si ocurre un error al escribir en el archivo
+     * @return Duración de la compactación en milisegundos, o 0 si el modo no usa bitácora
+     * @throws RuntimeException si ocurre un error al escribir la instantánea
      */
-    private void guardarEnArchivo() {
-        File archivo = new File(ARCHIVO_TICKETS);
+    public long compactar() {
+        return motor.compactar();
+    }
 
-        // Crear directorio si no existe
-        if (!archivo.getParentFile().exists()) {
-            archivo.getParentFile().mkdirs();
-        }
+    /**
+     * Obtiene la duración de la última compactación.
+     *
+     * @return Duración en milisegundos, o -1 si aún no se ha compactado
+     */
+    public long getDuracionUltimaCompactacionMs() {
+        return motor.getDuracionUltimaCompactacionMs();
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(archivo), StandardCharsets.UTF_8))) {
+    /**
+     * Obtiene el error de la última tarea en segundo plano del motor que falló, como la
+     * compactación automática, la compresión de particiones o la confirmación de un lote
+     * en la base de datos.
+     *
+     * @return Último error, o null si ninguna falló
+     */
+    public RuntimeException getErrorSegundoPlano() {
+        return motor.getErrorSegundoPlano();
+    }
 
-            for (Ticket ticket : tickets.values()) {
-                String lineaCSV = SerializadorTicket.serializar(ticket);
-                writer.write(lineaCSV);
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error al escribir en el archivo de tickets: " + ARCHIVO_TICKETS, e);
-        }
+    /**
+     * Obtiene el registro incompleto que se descartó al cargar la bitácora de tickets.
+     *
+     * @return Error con la línea descartada y su causa, o null si no se descartó ninguna
+     */
+    public RuntimeException getRegistroDescartado() {
+        return motor.getRegistroDescartado();
+    }
+
+    /**
+     * Obtiene el modo de almacenamiento en uso.
+     *
+     * @return Modo de almacenamiento configurado
+     */
+    public ModoAlmacenamientoTickets getModo() {
+        return motor.getModo();
     }
 }
@@ -0,0 +1,123 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.DiccionarioCiudades;
+import com.upc.modelo.ResolutorReferencias;
+import com.upc.modelo.Ticket;
+import java.time.LocalDateTime;
+
+/**
+ * Clase TicketSinResolver
+ * Representa un ticket leído del almacenamiento cuyas referencias al vehículo y
+ * al pasajero todavía son solo la placa y la cédula.
+ *
+ * Permite interpretar el archivo de tickets mientras VehiculoDAO y PasajeroDAO
+ * siguen cargando. El {@link Ticket} construido conserva las claves y busca el
+ * vehículo y el pasajero solo cuando se piden, por lo que una referencia eliminada
+ * no impide cargar los demás tickets.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class TicketSinResolver {
+
+    private final String idTicket;
+    private final String placa;
+    private final String cedula;
+    private final int idOrigen;
+    private final int idDestino;
+    private final LocalDateTime fecha;
+    private final double distanciaKm;
+
+    /**
+     * Constructor con todos los campos del ticket.
+     *
+     * @param idTicket Identificador del ticket
+     * @param placa Placa del vehículo referenciado
+     * @param cedula Cédula del pasajero referenciado
+     * @param idOrigen Ciudad de origen, como identificador de {@link DiccionarioCiudades}
+     * @param idDestino Ciudad de destino, como identificador de {@link DiccionarioCiudades}
+     * @param fecha Fecha de compra
+     * @param distanciaKm Distancia del viaje en kilómetros
+     */
+    public TicketSinResolver(String idTicket, String placa, String cedula, int idOrigen,
+                             int idDestino, LocalDateTime fecha, double distanciaKm) {
+        this.idTicket = idTicket;
+        this.placa = placa;
+        this.cedula = cedula;
+        this.idOrigen = idOrigen;
+        this.idDestino = idDestino;
+        this.fecha = fecha;
+        this.distanciaKm = distanciaKm;
+    }
+
+    /**
+     * Construye el ticket con referencias diferidas: el vehículo y el pasajero se
+     * buscan en los DAOs indicados la primera vez que se piden.
+     *
+     * @param vehiculoDAO DAO de vehículos para buscar el vehículo por placa
+     * @param pasajeroDAO DAO de pasajeros para buscar el pasajero por cédula
+     * @return Ticket con referencias por clave
+     */
+    public Ticket resolver(VehiculoDAO vehiculoDAO, PasajeroDAO pasajeroDAO) {
+        return resolver(ResolutorDAO.de(vehiculoDAO, pasajeroDAO));
+    }
+
+    /**
+     * Construye el ticket con referencias diferidas resueltas por el resolutor indicado.
+     *
+     * @param resolutor Resolutor de la placa y la cédula
+     * @return Ticket con referencias por clave
+     */
+    public Ticket resolver(ResolutorReferencias resolutor) {
+        return new Ticket(idTicket, placa, cedula, idOrigen, idDestino, fecha, distanciaKm, resolutor);
+    }
+
+    /**
+     * Convierte el ticket a una línea en formato CSV.
+     *
+     * @return Línea CSV equivalente
+     */
+    public String aCsv() {
+        return SerializadorTicket.serializarCampos(idTicket, placa, cedula, getOrigen(), getDestino(),
+                fecha, distanciaKm);
+    }
+
+    // Getters
+
+    public String getIdTicket() {
+        return idTicket;
+    }
+
+    public String getPlaca() {
+        return placa;
+    }
+
+    public String getCedula() {
+        return cedula;
+    }
+
+    public String getOrigen() {
+        return DiccionarioCiudades.nombre(idOrigen);
+    }
+
+    public String getDestino() {
+        return DiccionarioCiudades.nombre(idDestino);
+    }
+
+    public int getIdOrigen() {
+        return idOrigen;
+    }
+
+    public int getIdDestino() {
+        return idDestino;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public double getDistanciaKm() {
+        return distanciaKm;
+    }
+}
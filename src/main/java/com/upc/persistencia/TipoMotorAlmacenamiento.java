@@ -0,0 +1,128 @@
+package com.upc.persistencia;
+
+/**
+ * Enumeración TipoMotorAlmacenamiento
+ * Define los motores de almacenamiento disponibles para los DAOs.
+ *
+ * El motor se selecciona al iniciar la aplicación mediante la propiedad del sistema
+ * {@code barceloneta.persistencia.motor}. Si no se especifica, se usa BITACORA, de
+ * modo que registrar un vehículo o un pasajero no reescribe el archivo completo.
+ *
+ * VehiculoDAO y PasajeroDAO usan el motor directamente. TicketDAO tiene sus propios
+ * modos ({@link ModoAlmacenamientoTickets}); si {@code barceloneta.tickets.modo} no
+ * se especifica y el motor sí, usa el modo equivalente al motor configurado.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public enum TipoMotorAlmacenamiento {
+    /**
+     * Solo en memoria, sin archivos (pruebas y mediciones)
+     */
+    MEMORIA("memoria", "En memoria"),
+
+    /**
+     * Reescribe el archivo completo en cada operación CRUD
+     */
+    CSV("csv", "Archivo completo"),
+
+    /**
+     * Anexa un registro por operación y compacta al iniciar
+     */
+    BITACORA("bitacora", "Bitácora de solo anexado"),
+
+    /**
+     * Tablas en una base de datos SQL embebida ({@link BaseDatosEmbebida})
+     */
+    JDBC("jdbc", "Base de datos embebida");
+
+    /**
+     * Nombre de la propiedad del sistema que selecciona el motor
+     */
+    public static final String PROPIEDAD = "barceloneta.persistencia.motor";
+
+    private final String clave;
+    private final String descripcion;
+
+    /**
+     * Constructor del enum TipoMotorAlmacenamiento.
+     *
+     * @param clave Clave usada en la configuración
+     * @param descripcion Descripción del motor
+     */
+    TipoMotorAlmacenamiento(String clave, String descripcion) {
+        this.clave = clave;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Obtiene el motor configurado mediante la propiedad del sistema.
+     *
+     * @return Motor configurado, o BITACORA si no se especificó ninguno
+     * @throws IllegalArgumentException si el valor configurado es desconocido
+     */
+    public static TipoMotorAlmacenamiento desdeConfiguracion() {
+        return desdeClave(System.getProperty(PROPIEDAD, BITACORA.clave));
+    }
+
+    /**
+     * Convierte una clave de configuración en el motor correspondiente.
+     *
+     * @param clave Clave del motor (sin distinguir mayúsculas)
+     * @return Motor correspondiente
+     * @throws IllegalArgumentException si la clave es desconocida
+     */
+    public static TipoMotorAlmacenamiento desdeClave(String clave) {
+        for (TipoMotorAlmacenamiento tipo : values()) {
+            if (tipo.clave.equalsIgnoreCase(clave.trim())) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Motor de almacenamiento desconocido: " + clave);
+    }
+
+    /**
+     * Crea un motor de este tipo para una entidad y carga sus datos existentes.
+     *
+     * @param esquema Descripción de la entidad y de sus archivos
+     * @param <T> Tipo de entidad
+     * @return Motor listo para usar
+     * @throws RuntimeException si ocurre un error al leer los archivos
+     */
+    public <T> MotorAlmacenamiento<T> crear(EsquemaEntidad<T> esquema) {
+        switch (this) {
+            case MEMORIA:
+                return new MotorMemoria<>(esquema);
+            case BITACORA:
+                return new MotorBitacora<>(esquema);
+            case JDBC:
+                return new MotorJdbc<>(esquema);
+            default:
+                return new MotorCsv<>(esquema);
+        }
+    }
+
+    /**
+     * Obtiene la clave de configuración del motor.
+     *
+     * @return Clave del motor
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * Obtiene la descripción del motor.
+     *
+     * @return Descripción del motor
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,479 @@
+package com.upc.persistencia;
+
+import com.upc.modelo.DiccionarioCiudades;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Clase TokenizadorCsv
+ * Divide una línea CSV en campos sin crear cadenas intermedias.
+ *
+ * Al reiniciarse con una línea, el tokenizador recorre los caracteres una sola vez
+ * y guarda los límites de cada campo en arreglos reutilizables. Los campos se leen
+ * después por posición: como texto (solo se crea la cadena pedida), como número
+ * entero o decimal (sin pasar por String) o comparándolos contra un literal.
+ *
+ * Los campos sin comillas se recortan como {@link String#trim()}. Un campo entre
+ * comillas dobles puede contener comas, y una comilla dentro del campo se escribe
+ * duplicada ({@code ""}), como en RFC 4180. {@link #agregarCampo} aplica las
+ * comillas al serializar solo cuando el valor las necesita, así que los archivos
+ * existentes no cambian.
+ *
+ * Una instancia no es segura entre hilos; {@link #delHiloActual()} entrega una
+ * instancia reutilizable por hilo.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+public class TokenizadorCsv {
+
+    /**
+     * Separador de campos
+     */
+    public static final char SEPARADOR = ',';
+
+    /**
+     * Carácter de comillas para campos con separadores
+     */
+    public static final char COMILLA = '"';
+
+    /**
+     * Potencias de 10 representables exactamente como double
+     */
+    private static final double[] POTENCIAS_DIEZ = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Mayor mantisa que un double representa sin pérdida (2^53)
+     */
+    private static final long MANTISA_EXACTA = 1L << 53;
+
+    private static final ThreadLocal<TokenizadorCsv> POR_HILO = ThreadLocal.withInitial(TokenizadorCsv::new);
+
+    private CharSequence linea;
+    private int numeroCampos;
+    private int[] inicios = new int[8];
+    private int[] fines = new int[8];
+    private boolean[] conEscapes = new boolean[8];
+
+    /**
+     * Obtiene la instancia del tokenizador asociada al hilo actual.
+     *
+     * @return Tokenizador reutilizable del hilo
+     */
+    public static TokenizadorCsv delHiloActual() {
+        return POR_HILO.get();
+    }
+
+    /**
+     * Indica si una línea es nula o solo contiene espacios, sin recortarla.
+     *
+     * @param linea Línea a revisar
+     * @return true si no tiene contenido
+     */
+    public static boolean esVacia(CharSequence linea) {
+        if (linea == null) {
+            return true;
+        }
+        for (int i = 0; i < linea.length(); i++) {
+            if (linea.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Agrega un campo de texto a una línea CSV, entre comillas solo si contiene
+     * separadores, comillas, saltos de línea o espacios en los extremos.
+     *
+     * @param sb Línea en construcción
+     * @param valor Valor del campo
+     * @return El mismo StringBuilder, para encadenar llamadas
+     */
+    public static StringBuilder agregarCampo(StringBuilder sb, String valor) {
+        if (!requiereComillas(valor)) {
+            return sb.append(valor);
+        }
+        sb.append(COMILLA);
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == COMILLA) {
+                sb.append(COMILLA);
+            }
+            sb.append(c);
+        }
+        return sb.append(COMILLA);
+    }
+
+    /**
+     * Indica si un valor debe escribirse entre comillas.
+     */
+    private static boolean requiereComillas(String valor) {
+        int longitud = valor.length();
+        if (longitud == 0) {
+            return false;
+        }
+        if (valor.charAt(0) <= ' ' || valor.charAt(longitud - 1) <= ' ') {
+            return true;
+        }
+        for (int i = 0; i < longitud; i++) {
+            char c = valor.charAt(i);
+            if (c == SEPARADOR || c == COMILLA || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prepara el tokenizador para una nueva línea y ubica sus campos.
+     * La línea no se copia: los campos son vistas sobre ella.
+     *
+     * @param linea Línea CSV (String, CharBuffer, StringBuilder...)
+     * @return Este tokenizador
+     * @throws IllegalArgumentException si un campo entre comillas no se cierra
+     */
+    public TokenizadorCsv reiniciar(CharSequence linea) {
+        this.linea = linea;
+        this.numeroCampos = 0;
+
+        int longitud = linea.length();
+        int posicion = 0;
+        while (true) {
+            // Saltar espacios iniciales del campo
+            while (posicion < longitud && linea.charAt(posicion) <= ' ') {
+                posicion++;
+            }
+
+            int inicio;
+            int fin;
+            boolean escapes = false;
+            if (posicion < longitud && linea.charAt(posicion) == COMILLA) {
+                inicio = ++posicion;
+                while (true) {
+                    if (posicion >= longitud) {
+                        throw new IllegalArgumentException("Campo entre comillas sin cerrar en la línea CSV");
+                    }
+                    if (linea.charAt(posicion) == COMILLA) {
+                        if (posicion + 1 < longitud && linea.charAt(posicion + 1) == COMILLA) {
+                            escapes = true;
+                            posicion += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    posicion++;
+                }
+                fin = posicion++;
+                // Solo se admiten espacios entre la comilla de cierre y el separador
+                while (posicion < longitud && linea.charAt(posicion) != SEPARADOR) {
+                    if (linea.charAt(posicion) > ' ') {
+                        throw new IllegalArgumentException("Caracteres después de las comillas en la línea CSV");
+                    }
+                    posicion++;
+                }
+            } else {
+                inicio = posicion;
+                while (posicion < longitud && linea.charAt(posicion) != SEPARADOR) {
+                    posicion++;
+                }
+                fin = posicion;
+                while (fin > inicio && linea.charAt(fin - 1) <= ' ') {
+                    fin--;
+                }
+            }
+
+            agregarLimites(inicio, fin, escapes);
+            if (posicion >= longitud) {
+                break;
+            }
+            posicion++; // Saltar el separador
+        }
+        return this;
+    }
+
+    private void agregarLimites(int inicio, int fin, boolean escapes) {
+        if (numeroCampos == inicios.length) {
+            int nuevo = inicios.length * 2;
+            inicios = Arrays.copyOf(inicios, nuevo);
+            fines = Arrays.copyOf(fines, nuevo);
+            conEscapes = Arrays.copyOf(conEscapes, nuevo);
+        }
+        inicios[numeroCampos] = inicio;
+        fines[numeroCampos] = fin;
+        conEscapes[numeroCampos] = escapes;
+        numeroCampos++;
+    }
+
+    /**
+     * Verifica que la línea tenga exactamente la cantidad de campos esperada.
+     *
+     * @param esperados Cantidad de campos esperada
+     * @return Este tokenizador
+     * @throws IllegalArgumentException si la cantidad no coincide
+     */
+    public TokenizadorCsv exigirCampos(int esperados) {
+        if (numeroCampos != esperados) {
+            throw new IllegalArgumentException(
+                "Formato CSV inválido. Se esperaban " + esperados + " campos, se encontraron " + numeroCampos
+            );
+        }
+        return this;
+    }
+
+    /**
+     * @return Cantidad de campos de la línea actual
+     */
+    public int getNumeroCampos() {
+        return numeroCampos;
+    }
+
+    /**
+     * @param campo Posición del campo
+     * @return Longitud del campo, sin comillas ni espacios exteriores
+     */
+    public int longitud(int campo) {
+        return fines[campo] - inicios[campo];
+    }
+
+    /**
+     * Obtiene un campo como texto. Es la única lectura que crea una cadena.
+     *
+     * @param campo Posición del campo
+     * @return Valor del campo
+     */
+    public String texto(int campo) {
+        int inicio = inicios[campo];
+        int fin = fines[campo];
+        if (!conEscapes[campo]) {
+            return linea.subSequence(inicio, fin).toString();
+        }
+        StringBuilder sb = new StringBuilder(fin - inicio);
+        for (int i = inicio; i < fin; i++) {
+            char c = linea.charAt(i);
+            sb.append(c);
+            if (c == COMILLA) {
+                i++; // La comilla duplicada representa una sola
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Obtiene el identificador de la ciudad escrita en un campo. Solo se crea una
+     * cadena si la ciudad no está en el {@link DiccionarioCiudades} o el campo tiene escapes.
+     *
+     * @param campo Posición del campo
+     * @return Identificador de la ciudad
+     */
+    public int ciudad(int campo) {
+        if (conEscapes[campo]) {
+            return DiccionarioCiudades.id(texto(campo));
+        }
+        return DiccionarioCiudades.id(linea, inicios[campo], fines[campo]);
+    }
+
+    /**
+     * Compara un campo con un literal sin crear cadenas.
+     *
+     * @param campo Posición del campo
+     * @param valor Literal a comparar
+     * @return true si el campo es igual al literal
+     */
+    public boolean esIgual(int campo, String valor) {
+        int inicio = inicios[campo];
+        int longitud = fines[campo] - inicio;
+        if (conEscapes[campo] || longitud != valor.length()) {
+            return conEscapes[campo] && texto(campo).equals(valor);
+        }
+        for (int i = 0; i < longitud; i++) {
+            if (linea.charAt(inicio + i) != valor.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene un campo como entero sin crear cadenas.
+     *
+     * @param campo Posición del campo
+     * @return Valor entero
+     * @throws NumberFormatException si el campo no es un entero válido
+     */
+    public int entero(int campo) {
+        long valor = largo(campo);
+        if (valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Entero fuera de rango: " + texto(campo));
+        }
+        return (int) valor;
+    }
+
+    /**
+     * Obtiene un campo como entero largo sin crear cadenas.
+     *
+     * @param campo Posición del campo
+     * @return Valor entero
+     * @throws NumberFormatException si el campo no es un entero válido
+     */
+    public long largo(int campo) {
+        int posicion = inicios[campo];
+        int fin = fines[campo];
+        if (posicion >= fin) {
+            throw new NumberFormatException("Campo numérico vacío");
+        }
+        boolean negativo = false;
+        char signo = linea.charAt(posicion);
+        if (signo == '-' || signo == '+') {
+            negativo = signo == '-';
+            if (++posicion >= fin) {
+                throw new NumberFormatException("Entero inválido: " + texto(campo));
+            }
+        }
+        long valor = 0;
+        for (; posicion < fin; posicion++) {
+            int digito = linea.charAt(posicion) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new NumberFormatException("Entero inválido: " + texto(campo));
+            }
+            if (valor < (Long.MIN_VALUE + digito) / 10) {
+                throw new NumberFormatException("Entero fuera de rango: " + texto(campo));
+            }
+            // Se acumula en negativo para admitir Long.MIN_VALUE
+            valor = valor * 10 - digito;
+        }
+        if (!negativo) {
+            if (valor == Long.MIN_VALUE) {
+                throw new NumberFormatException("Entero fuera de rango: " + texto(campo));
+            }
+            return -valor;
+        }
+        return valor;
+    }
+
+    /**
+     * Obtiene un campo como número decimal.
+     *
+     * Los valores con hasta 15 dígitos significativos y exponente pequeño, como
+     * los que escribe {@link Double#toString(double)} para distancias y tarifas,
+     * se convierten sin crear cadenas y con el mismo redondeo que
+     * {@link Double#parseDouble(String)}. Los demás casos usan parseDouble.
+     *
+     * @param campo Posición del campo
+     * @return Valor decimal
+     * @throws NumberFormatException si el campo no es un número válido
+     */
+    public double decimal(int campo) {
+        int posicion = inicios[campo];
+        int fin = fines[campo];
+        if (posicion >= fin) {
+            throw new NumberFormatException("Campo numérico vacío");
+        }
+
+        boolean negativo = false;
+        char signo = linea.charAt(posicion);
+        if (signo == '-' || signo == '+') {
+            negativo = signo == '-';
+            posicion++;
+        }
+
+        long mantisa = 0;
+        int digitos = 0;
+        int exponente = 0;
+        boolean hayDigitos = false;
+        boolean punto = false;
+        for (; posicion < fin; posicion++) {
+            char c = linea.charAt(posicion);
+            if (c >= '0' && c <= '9') {
+                hayDigitos = true;
+                if (mantisa == 0 && c == '0') {
+                    // Los ceros a la izquierda no cuentan como dígitos significativos
+                    if (punto) {
+                        exponente--;
+                    }
+                    continue;
+                }
+                if (digitos >= 18) {
+                    return Double.parseDouble(texto(campo));
+                }
+                mantisa = mantisa * 10 + (c - '0');
+                digitos++;
+                if (punto) {
+                    exponente--;
+                }
+            } else if (c == '.' && !punto) {
+                punto = true;
+            } else if ((c == 'e' || c == 'E') && hayDigitos) {
+                exponente += exponenteDecimal(campo, posicion + 1, fin);
+                posicion = fin;
+                break;
+            } else {
+                // NaN, Infinity, sufijos 'd'/'f' y formatos hexadecimales
+                return Double.parseDouble(texto(campo));
+            }
+        }
+        if (!hayDigitos) {
+            throw new NumberFormatException("Número inválido: " + texto(campo));
+        }
+
+        double valor;
+        if (mantisa == 0) {
+            valor = 0.0;
+        } else if (mantisa < MANTISA_EXACTA && exponente >= -22 && exponente <= 22) {
+            // Ambos operandos son exactos, así que una sola operación redondea correctamente
+            valor = exponente >= 0 ? mantisa * POTENCIAS_DIEZ[exponente] : mantisa / POTENCIAS_DIEZ[-exponente];
+        } else {
+            return Double.parseDouble(texto(campo));
+        }
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Lee el exponente de una notación científica.
+     */
+    private int exponenteDecimal(int campo, int posicion, int fin) {
+        boolean negativo = false;
+        if (posicion < fin && (linea.charAt(posicion) == '-' || linea.charAt(posicion) == '+')) {
+            negativo = linea.charAt(posicion) == '-';
+            posicion++;
+        }
+        if (posicion >= fin) {
+            throw new NumberFormatException("Número inválido: " + texto(campo));
+        }
+        int valor = 0;
+        for (; posicion < fin; posicion++) {
+            int digito = linea.charAt(posicion) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new NumberFormatException("Número inválido: " + texto(campo));
+            }
+            // Exponentes enormes se saturan; el caso lento los resuelve
+            valor = Math.min(valor * 10 + digito, 100000);
+        }
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Obtiene un campo como fecha ISO sin crear cadenas.
+     *
+     * @param campo Posición del campo
+     * @return Fecha leída con {@link CodecFecha}
+     * @throws IllegalArgumentException si el campo no es una fecha válida
+     */
+    public LocalDateTime fecha(int campo) {
+        if (conEscapes[campo]) {
+            return CodecFecha.leer(texto(campo));
+        }
+        return CodecFecha.leer(linea, inicios[campo], fines[campo]);
+    }
+
+    /**
+     * @return Línea actual completa
+     */
+    public CharSequence getLinea() {
+        return linea;
+    }
+}
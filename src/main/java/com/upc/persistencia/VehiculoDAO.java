@@ -1,12 +1,9 @@
 package com.upc.persistencia;
 
 import com.upc.modelo.Vehiculo;
-import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Clase VehiculoDAO (Data Access Object)
@@ -15,8 +12,11 @@ import java.util.Map;
  * Esta clase implementa el patrón DAO para separar la lógica de acceso a datos
  * de la lógica de negocio. En Fase 2 usa archivos CSV con codificación UTF-8.
  *
- * Los datos se mantienen en memoria (HashMap) para eficiencia y se sincronizan
- * automáticamente con el archivo de texto en cada operación CRUD.
+ * Los datos se guardan en un {@link MotorAlmacenamiento}, seleccionado al iniciar con
+ * la propiedad {@code barceloneta.persistencia.motor}: en memoria, en un archivo
+ * CSV que se reescribe en cada operación CRUD, en una bitácora de solo anexado que
+ * se compacta periódicamente (por defecto) o en una base de datos embebida. El DAO
+ * valida las operaciones y las delega al motor.
  *
  * Patrón de diseño: Data Access Object (DAO) + Singleton
  *
@@ -27,27 +27,26 @@ import java.util.Map;
 public class VehiculoDAO {
 
     /**
-     * Almacenamiento en memoria de vehículos (Placa -> Vehiculo)
+     * Ruta base de los archivos de persistencia (sin extensión)
      */
-    private Map<String, Vehiculo> vehiculos;
+    private static final String RUTA_VEHICULOS = "data/vehiculos";
 
     /**
-     * Instancia única del DAO (patrón Singleton)
+     * Motor que almacena los vehículos (Placa -> Vehiculo)
      */
-    private static VehiculoDAO instancia;
+    private final MotorAlmacenamiento<Vehiculo> motor;
 
     /**
-     * Ruta del archivo de persistencia
+     * Instancia única del DAO (patrón Singleton)
      */
-    private static final String ARCHIVO_VEHICULOS = "data/vehiculos.txt";
+    private static VehiculoDAO instancia;
 
     /**
      * Constructor privado para implementar Singleton.
      * Carga automáticamente los datos desde el archivo al inicializar.
      */
     private VehiculoDAO() {
-        this.vehiculos = new HashMap<>();
-        cargarDesdeArchivo();
+        this.motor = TipoMotorAlmacenamiento.desdeConfiguracion().crear(esquema(RUTA_VEHICULOS));
     }
 
     /**
@@ -55,13 +54,26 @@ public class VehiculoDAO {
      *
      * @return Instancia de VehiculoDAO
      */
-    public static VehiculoDAO getInstancia() {
+    public static synchronized VehiculoDAO getInstancia() {
         if (instancia == null) {
             instancia = new VehiculoDAO();
         }
         return instancia;
     }
 
+    /**
+     * Describe cómo se identifican, serializan y ubican en disco los vehículos.
+     *
+     * @param rutaBase Ruta de los archivos sin extensión
+     * @return Esquema de la entidad Vehiculo
+     */
+    public static EsquemaEntidad<Vehiculo> esquema(String rutaBase) {
+        return new EsquemaEntidad<>("vehiculos", rutaBase,
+                FormatoArchivo.desdeConfiguracion(FormatoArchivo.PROPIEDAD_VEHICULOS), Vehiculo::getPlaca,
+                SerializadorVehiculo::serializar, SerializadorVehiculo::deserializar, CodecBinario.TIPO_VEHICULOS,
+                SerializadorBinarioVehiculo::serializar, SerializadorBinarioVehiculo::deserializar);
+    }
+
     /**
      * Guarda un vehículo en el almacenamiento.
      * Sincroniza automáticamente con el archivo de persistencia.
@@ -74,12 +86,19 @@ public class VehiculoDAO {
         if (vehiculo == null || vehiculo.getPlaca() == null) {
             return false;
         }
-        if (vehiculos.containsKey(vehiculo.getPlaca())) {
-            return false; // Ya existe
-        }
-        vehiculos.put(vehiculo.getPlaca(), vehiculo);
-        guardarEnArchivo();
-        return true;
+        return motor.insertar(vehiculo);
+    }
+
+    /**
+     * Guarda varios vehículos y persiste el cambio una sola vez.
+     * Se usa en las importaciones masivas.
+     *
+     * @param vehiculos Vehículos a guardar (sin elementos null)
+     * @return Vehículos que no se guardaron porque ya existía uno con la misma placa
+     * @throws RuntimeException si ocurre un error al guardar en el archivo; no se guarda ninguno
+     */
+    public List<Vehiculo> guardarTodos(Collection<Vehiculo> vehiculos) {
+        return motor.insertarTodos(vehiculos);
     }
 
     /**
@@ -89,7 +108,7 @@ public class VehiculoDAO {
      * @return Vehículo encontrado o null si no existe
      */
     public Vehiculo buscarPorPlaca(String placa) {
-        return vehiculos.get(placa);
+        return motor.buscar(placa);
     }
 
     /**
@@ -98,7 +117,16 @@ public class VehiculoDAO {
      * @return Lista de todos los vehículos
      */
     public List<Vehiculo> obtenerTodos() {
-        return new ArrayList<>(vehiculos.values());
+        return motor.todos();
+    }
+
+    /**
+     * Entrega cada vehiculo registrado a un visitante, sin copiarlos a una lista.
+     *
+     * @param visitante Función que recibe cada vehiculo
+     */
+    public void recorrer(Consumer<? super Vehiculo> visitante) {
+        motor.recorrer(visitante);
     }
 
     /**
@@ -113,12 +141,7 @@ public class VehiculoDAO {
         if (vehiculo == null || vehiculo.getPlaca() == null) {
             return false;
         }
-        if (!vehiculos.containsKey(vehiculo.getPlaca())) {
-            return false; // No existe
-        }
-        vehiculos.put(vehiculo.getPlaca(), vehiculo);
-        guardarEnArchivo();
-        return true;
+        return motor.reemplazar(vehiculo);
     }
 
     /**
@@ -130,11 +153,7 @@ public class VehiculoDAO {
      * @throws RuntimeException si ocurre un error al guardar en el archivo
      */
     public boolean eliminar(String placa) {
-        boolean eliminado = vehiculos.remove(placa) != null;
-        if (eliminado) {
-            guardarEnArchivo();
-        }
-        return eliminado;
+        return motor.eliminar(placa);
     }
 
     /**
@@ -144,7 +163,7 @@ public class VehiculoDAO {
      * @return true si existe, false si no
      */
     public boolean existe(String placa) {
-        return vehiculos.containsKey(placa);
+        return motor.contiene(placa);
     }
 
     /**
@@ -153,99 +172,35 @@ public class VehiculoDAO {
      * @return Número de vehículos
      */
     public int contarVehiculos() {
-        return vehiculos.size();
+        return motor.contar();
     }
 
     /**
-     * Limpia todos los vehículos del almacenamiento.
-     * Sincroniza automáticamente con el archivo de persistencia.
-     * Útil para pruebas.
+     * Obtiene el tipo de motor de almacenamiento en uso.
      *
-     * @throws RuntimeException si ocurre un error al guardar en el archivo
+     * @return Tipo de motor
      */
-    public void limpiar() {
-        vehiculos.clear();
-        guardarEnArchivo();
+    public TipoMotorAlmacenamiento getTipoMotor() {
+        return motor.getTipo();
     }
 
     /**
-     * Carga los vehículos desde el archivo de texto.
-     * Este método se ejecuta automáticamente al inicializar el DAO.
+     * Obtiene el registro incompleto que se descartó al cargar la bitácora de vehículos.
      *
-     * Si el archivo no existe, se crea vacío.
-     * Si el archivo está corrupto, se lanza una excepción.
-     *
-     * @throws RuntimeException si ocurre un error al leer el archivo o si los datos están corruptos
-     */
-    private void cargarDesdeArchivo() {
-        File archivo = new File(ARCHIVO_VEHICULOS);
-
-        // Si el archivo no existe, crearlo
-        if (!archivo.exists()) {
-            try {
-                archivo.getParentFile().mkdirs();
-                archivo.createNewFile();
-                return;
-            } catch (IOException e) {
-                throw new RuntimeException("Error al crear el archivo de vehículos: " + ARCHIVO_VEHICULOS, e);
-            }
-        }
-
-        // Leer el archivo línea por línea
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
-
-            String linea;
-            int numeroLinea = 0;
-            vehiculos.clear();
-
-            while ((linea = reader.readLine()) != null) {
-                numeroLinea++;
-                linea = linea.trim();
-
-                // Saltar líneas vacías
-                if (linea.isEmpty()) {
-                    continue;
-                }
-
-                try {
-                    Vehiculo vehiculo = SerializadorVehiculo.deserializar(linea);
-                    vehiculos.put(vehiculo.getPlaca(), vehiculo);
-                } catch (IllegalArgumentException e) {
-                    throw new RuntimeException(
-                        "Error al parsear línea " + numeroLinea + " del archivo " + ARCHIVO_VEHICULOS + ": " + linea, e
-                    );
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error al leer el archivo de vehículos: " + ARCHIVO_VEHICULOS, e);
-        }
+     * @return Error con la línea descartada y su causa, o null si no se descartó ninguna
+     */
+    public RuntimeException getRegistroDescartado() {
+        return motor.getRegistroDescartado();
     }
 
     /**
-     * Guarda todos los vehículos en el archivo de texto.
-     * Este método se ejecuta automáticamente después de cada operación CRUD.
+     * Limpia todos los vehículos del almacenamiento.
+     * Sincroniza automáticamente con el archivo de persistencia.
+     * Útil para pruebas.
      *
-     * @throws RuntimeException si ocurre un error al escribir en el archivo
+     * @throws RuntimeException si ocurre un error al guardar en el archivo
      */
-    private void guardarEnArchivo() {
-        File archivo = new File(ARCHIVO_VEHICULOS);
-
-        // Crear directorio si no existe
-        if (!archivo.getParentFile().exists()) {
-            archivo.getParentFile().mkdirs();
-        }
-
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(archivo), StandardCharsets.UTF_8))) {
-
-            for (Vehiculo vehiculo : vehiculos.values()) {
-                String lineaCSV = SerializadorVehiculo.serializar(vehiculo);
-                writer.write(lineaCSV);
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error al escribir en el archivo de vehículos: " + ARCHIVO_VEHICULOS, e);
-        }
+    public void limpiar() {
+        motor.limpiar();
     }
 }
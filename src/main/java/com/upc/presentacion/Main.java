@@ -1,9 +1,20 @@
 package com.upc.presentacion;
 
+import com.upc.logica.FormatoExportacion;
 import com.upc.logica.GestorTickets;
+import com.upc.logica.PaginaTickets;
+import com.upc.logica.ResultadoImportacion;
 import com.upc.modelo.*;
+import com.upc.persistencia.ClaveCronologica;
+import com.upc.persistencia.ConsultaTickets;
+import com.upc.persistencia.EstadisticaRuta;
+import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Clase Main - Punto de entrada de la aplicación
@@ -23,6 +34,11 @@ public class Main {
     private static GestorTickets gestor = new GestorTickets();
     private static Scanner scanner = new Scanner(System.in);
 
+    /**
+     * Pasajeros que se muestran en una búsqueda por nombre
+     */
+    private static final int RESULTADOS_BUSQUEDA_NOMBRE = 10;
+
     /**
      * Método principal de la aplicación.
      *
@@ -57,6 +73,9 @@ public class Main {
             System.out.println("3. Venta de Tickets");
             System.out.println("4. Consultas y Reportes");
             System.out.println("5. Estadísticas");
+            System.out.println("6. Compactar Almacenamiento");
+            System.out.println("7. Estado de Persistencia");
+            System.out.println("8. Importar Datos desde CSV");
             System.out.println("0. Salir");
             System.out.println("════════════════════════════════");
             System.out.print("Seleccione una opción: ");
@@ -79,6 +98,15 @@ public class Main {
                 case 5:
                     mostrarEstadisticas();
                     break;
+                case 6:
+                    compactarAlmacenamiento();
+                    break;
+                case 7:
+                    mostrarEstadoPersistencia();
+                    break;
+                case 8:
+                    importarDatos();
+                    break;
                 case 0:
                     System.out.println("\n¡Gracias por usar el sistema Barceloneta!");
                     break;
@@ -209,6 +237,7 @@ public class Main {
             System.out.println("1. Registrar Pasajero");
             System.out.println("2. Listar Pasajeros");
             System.out.println("3. Buscar Pasajero");
+            System.out.println("4. Buscar Pasajero por Nombre");
             System.out.println("0. Volver");
             System.out.print("Seleccione una opción: ");
 
@@ -224,6 +253,9 @@ public class Main {
                 case 3:
                     buscarPasajero();
                     break;
+                case 4:
+                    buscarPasajeroPorNombre();
+                    break;
                 case 0:
                     break;
                 default:
@@ -302,6 +334,23 @@ public class Main {
         }
     }
 
+    /**
+     * Busca pasajeros por nombre o parte de él, aunque tenga errores o le falten tildes.
+     */
+    private static void buscarPasajeroPorNombre() {
+        System.out.print("\nNombre o parte del nombre: ");
+        String texto = scanner.nextLine();
+        List<Pasajero> pasajeros = gestor.buscarPasajerosPorNombre(texto, RESULTADOS_BUSQUEDA_NOMBRE);
+        if (pasajeros.isEmpty()) {
+            System.out.println("✗ No se encontraron pasajeros con ese nombre.");
+            return;
+        }
+        System.out.println("\n--- Pasajeros Encontrados ---");
+        for (Pasajero p : pasajeros) {
+            System.out.println(p);
+        }
+    }
+
     // ========== MENÚ DE VENTA DE TICKETS ==========
 
     /**
@@ -342,6 +391,13 @@ public class Main {
             System.out.println("2. Tickets por Pasajero");
             System.out.println("3. Tickets por Vehículo");
             System.out.println("4. Buscar Ticket por ID");
+            System.out.println("5. Tickets por Rango de Fechas");
+            System.out.println("6. Exportar Tickets");
+            System.out.println("7. Últimos Tickets Vendidos");
+            System.out.println("8. Historial por Páginas");
+            System.out.println("9. Tickets por Ruta");
+            System.out.println("10. Rutas Más Concurridas");
+            System.out.println("11. Búsqueda Avanzada");
             System.out.println("0. Volver");
             System.out.print("Seleccione una opción: ");
 
@@ -360,6 +416,27 @@ public class Main {
                 case 4:
                     buscarTicketPorId();
                     break;
+                case 5:
+                    listarTicketsPorFecha();
+                    break;
+                case 6:
+                    exportarTickets();
+                    break;
+                case 7:
+                    listarUltimosTickets();
+                    break;
+                case 8:
+                    listarHistorialPorPaginas();
+                    break;
+                case 9:
+                    listarTicketsPorRuta();
+                    break;
+                case 10:
+                    listarRutasMasConcurridas();
+                    break;
+                case 11:
+                    busquedaAvanzada();
+                    break;
                 case 0:
                     break;
                 default:
@@ -369,17 +446,17 @@ public class Main {
     }
 
     /**
-     * Lista todos los tickets vendidos.
+     * Lista todos los tickets vendidos, imprimiéndolos a medida que se recorren.
      */
     private static void listarTodosTickets() {
         System.out.println("\n--- Lista de Tickets ---");
-        List<Ticket> tickets = gestor.listarTickets();
-        if (tickets.isEmpty()) {
+        long[] mostrados = new long[1];
+        gestor.recorrerTickets(t -> {
+            System.out.println(t.imprimir());
+            mostrados[0]++;
+        });
+        if (mostrados[0] == 0) {
             System.out.println("No hay tickets vendidos.");
-        } else {
-            for (Ticket t : tickets) {
-                System.out.println(t.imprimir());
-            }
         }
     }
 
@@ -424,10 +501,226 @@ public class Main {
         System.out.print("\nIngrese el ID del ticket: ");
         String id = scanner.nextLine();
         Ticket ticket = gestor.buscarTicket(id);
-        if (ticket != null) {
+        if (ticket == null) {
+            System.out.println("✗ Ticket no encontrado.");
+            return;
+        }
+        try {
             System.out.println(ticket.generarRecibo());
+        } catch (IllegalStateException e) {
+            System.out.println("✗ " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lista los tickets emitidos entre dos fechas.
+     */
+    private static void listarTicketsPorFecha() {
+        LocalDate desde;
+        LocalDate hasta;
+        try {
+            System.out.print("\nFecha inicial (AAAA-MM-DD): ");
+            desde = LocalDate.parse(scanner.nextLine().trim());
+            System.out.print("Fecha final (AAAA-MM-DD): ");
+            hasta = LocalDate.parse(scanner.nextLine().trim());
+        } catch (DateTimeParseException e) {
+            System.out.println("✗ Fecha inválida.");
+            return;
+        }
+        List<Ticket> tickets = gestor.listarTicketsPorFecha(desde, hasta);
+        if (tickets.isEmpty()) {
+            System.out.println("No hay tickets en ese rango de fechas.");
         } else {
-            System.out.println("✗ Ticket no encontrado.");
+            System.out.println("\n--- Tickets del " + desde + " al " + hasta + " ---");
+            for (Ticket t : tickets) {
+                System.out.println(t.imprimir());
+            }
+        }
+    }
+
+    /**
+     * Lista los tickets vendidos más recientemente.
+     */
+    private static void listarUltimosTickets() {
+        System.out.print("\nCantidad de tickets: ");
+        int cantidad = leerEntero();
+        List<Ticket> tickets = gestor.listarUltimosTickets(cantidad);
+        if (tickets.isEmpty()) {
+            System.out.println("No hay tickets vendidos.");
+        } else {
+            System.out.println("\n--- Últimos " + tickets.size() + " Tickets ---");
+            for (Ticket t : tickets) {
+                System.out.println(t.imprimir());
+            }
+        }
+    }
+
+    /**
+     * Muestra el historial de tickets en orden cronológico, una página a la vez.
+     */
+    private static void listarHistorialPorPaginas() {
+        System.out.print("\nTickets por página: ");
+        int tamano = leerEntero();
+        if (tamano <= 0) {
+            System.out.println("✗ El tamaño de página debe ser positivo.");
+            return;
+        }
+        ClaveCronologica cursor = null;
+        int numero = 1;
+        while (true) {
+            PaginaTickets pagina = gestor.listarPaginaTickets(cursor, tamano);
+            if (pagina.getTickets().isEmpty()) {
+                System.out.println("No hay tickets vendidos.");
+                return;
+            }
+            System.out.println("\n--- Página " + numero + " ---");
+            for (Ticket t : pagina.getTickets()) {
+                System.out.println(t.imprimir());
+            }
+            if (!pagina.hayMas()) {
+                System.out.println("--- Fin del historial ---");
+                return;
+            }
+            System.out.print("Enter para la siguiente página, 0 para terminar: ");
+            if (scanner.nextLine().trim().equals("0")) {
+                return;
+            }
+            cursor = pagina.getSiguiente();
+            numero++;
+        }
+    }
+
+    /**
+     * Lista los tickets de una ruta con su cantidad e ingresos.
+     */
+    private static void listarTicketsPorRuta() {
+        System.out.print("\nCiudad de origen: ");
+        String origen = scanner.nextLine().trim();
+        System.out.print("Ciudad de destino: ");
+        String destino = scanner.nextLine().trim();
+        List<Ticket> tickets = gestor.listarTicketsPorRuta(origen, destino);
+        if (tickets.isEmpty()) {
+            System.out.println("No hay tickets para esta ruta.");
+            return;
+        }
+        System.out.println("\n--- Tickets de " + origen + " a " + destino + " ---");
+        for (Ticket t : tickets) {
+            System.out.println(t.imprimir());
+        }
+        EstadisticaRuta ruta = gestor.obtenerEstadisticaRuta(origen, destino);
+        System.out.println("Total: " + ruta.getCantidad() + " tickets, ingresos $"
+                + String.format("%.2f", ruta.getIngresos()));
+    }
+
+    /**
+     * Muestra las rutas con más tickets vendidos y sus ingresos.
+     */
+    private static void listarRutasMasConcurridas() {
+        System.out.print("\nCantidad de rutas: ");
+        int cantidad = leerEntero();
+        List<EstadisticaRuta> rutas = gestor.listarRutasMasConcurridas(cantidad);
+        if (rutas.isEmpty()) {
+            System.out.println("No hay tickets vendidos.");
+            return;
+        }
+        System.out.println("\n--- Rutas Más Concurridas ---");
+        int posicion = 1;
+        for (EstadisticaRuta ruta : rutas) {
+            System.out.println(posicion++ + ". " + ruta);
+        }
+    }
+
+    /**
+     * Busca tickets combinando filtros opcionales; cada dato se omite con Enter.
+     */
+    private static void busquedaAvanzada() {
+        ConsultaTickets consulta = new ConsultaTickets();
+        try {
+            System.out.println("\n(Deje en blanco los filtros que no necesite)");
+            String cedula = leerOpcional("Cédula del pasajero: ");
+            if (cedula != null) {
+                consulta.porPasajero(cedula);
+            }
+            String placa = leerOpcional("Placa del vehículo: ");
+            if (placa != null) {
+                consulta.porVehiculo(placa);
+            }
+            String tipoVehiculo = leerOpcional("Tipo de vehículo (Bus/Buseta/MicroBus): ");
+            if (tipoVehiculo != null) {
+                consulta.porTipoVehiculo(tipoVehiculo);
+            }
+            String tipoPasajero = leerOpcional("Tipo de pasajero (REGULAR/ESTUDIANTE/ADULTO_MAYOR): ");
+            if (tipoPasajero != null) {
+                consulta.porTipoPasajero(TipoPasajero.valueOf(tipoPasajero.toUpperCase()));
+            }
+            String origen = leerOpcional("Ciudad de origen: ");
+            String destino = origen == null ? null : leerOpcional("Ciudad de destino: ");
+            if (destino != null) {
+                consulta.porRuta(origen, destino);
+            }
+            String desde = leerOpcional("Fecha inicial (AAAA-MM-DD): ");
+            String hasta = leerOpcional("Fecha final (AAAA-MM-DD): ");
+            consulta.entre(desde == null ? null : LocalDate.parse(desde).atStartOfDay(),
+                    hasta == null ? null : LocalDate.parse(hasta).plusDays(1).atStartOfDay());
+            String orden = leerOpcional("Orden (1 = más antiguos primero, 2 = más recientes primero): ");
+            if ("1".equals(orden)) {
+                consulta.ordenarPor(ConsultaTickets.Orden.FECHA_ASCENDENTE);
+            } else if ("2".equals(orden)) {
+                consulta.ordenarPor(ConsultaTickets.Orden.FECHA_DESCENDENTE);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.out.println("✗ Filtro inválido: " + e.getMessage());
+            return;
+        }
+        System.out.print("Cantidad máxima de tickets: ");
+        int cantidad = leerEntero();
+        if (cantidad <= 0) {
+            System.out.println("✗ La cantidad debe ser positiva.");
+            return;
+        }
+        consulta.limitar(cantidad);
+
+        System.out.println("\nPlan: " + gestor.explicarConsulta(consulta));
+        List<Ticket> tickets;
+        try (Stream<Ticket> resultado = gestor.consultarTickets(consulta)) {
+            tickets = resultado.collect(Collectors.toList());
+        }
+        if (tickets.isEmpty()) {
+            System.out.println("No hay tickets que cumplan los filtros.");
+            return;
+        }
+        System.out.println("\n--- " + tickets.size() + " Tickets Encontrados ---");
+        for (Ticket t : tickets) {
+            System.out.println(t.imprimir());
+        }
+    }
+
+    /**
+     * Exporta todos los tickets a un archivo CSV o JSON Lines.
+     */
+    private static void exportarTickets() {
+        System.out.print("\nFormato (csv/jsonl): ");
+        FormatoExportacion formato;
+        try {
+            formato = FormatoExportacion.desdeClave(scanner.nextLine());
+        } catch (IllegalArgumentException e) {
+            System.out.println("✗ " + e.getMessage());
+            return;
+        }
+        String predeterminada = "tickets" + formato.getExtension();
+        System.out.print("Ruta del archivo destino [" + predeterminada + "]: ");
+        String ruta = scanner.nextLine().trim();
+        if (ruta.isEmpty()) {
+            ruta = predeterminada;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            long exportados = gestor.exportarTickets(new File(ruta), formato);
+            System.out.println("✓ " + exportados + " tickets exportados a " + ruta + " en "
+                    + (System.nanoTime() - inicio) / 1_000_000 + " ms.");
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
 
@@ -440,8 +733,85 @@ public class Main {
         System.out.println(gestor.obtenerEstadisticas());
     }
 
+    /**
+     * Compacta el almacenamiento de tickets y muestra cuánto tardó.
+     */
+    private static void compactarAlmacenamiento() {
+        long anterior = gestor.obtenerDuracionUltimaCompactacion();
+        if (anterior >= 0) {
+            System.out.println("Última compactación: " + anterior + " ms");
+        }
+        long duracion = gestor.compactarAlmacenamiento();
+        System.out.println("✓ Compactación completada en " + duracion + " ms.");
+    }
+
+    /**
+     * Muestra la profundidad y la latencia de las colas de escritura.
+     */
+    private static void mostrarEstadoPersistencia() {
+        System.out.println(gestor.obtenerEstadoPersistencia());
+    }
+
+    /**
+     * Importa vehículos, pasajeros o tickets desde un archivo CSV y muestra el resultado.
+     */
+    private static void importarDatos() {
+        System.out.println("\n--- IMPORTAR DATOS DESDE CSV ---");
+        System.out.println("1. Vehículos");
+        System.out.println("2. Pasajeros");
+        System.out.println("3. Tickets históricos");
+        System.out.print("Seleccione qué importar: ");
+        int tipo = leerEntero();
+        if (tipo < 1 || tipo > 3) {
+            System.out.println("Opción inválida.");
+            return;
+        }
+
+        System.out.print("Ruta del archivo CSV: ");
+        File archivo = new File(scanner.nextLine().trim());
+        if (!archivo.isFile()) {
+            System.out.println("Error: El archivo no existe.");
+            return;
+        }
+
+        ResultadoImportacion resultado;
+        try {
+            if (tipo == 1) {
+                resultado = gestor.importarVehiculos(archivo);
+            } else if (tipo == 2) {
+                resultado = gestor.importarPasajeros(archivo);
+            } else {
+                resultado = gestor.importarTickets(archivo);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
+
+        System.out.println("✓ " + resultado);
+        List<ResultadoImportacion.Rechazo> rechazos = resultado.getRechazos();
+        for (int i = 0; i < Math.min(10, rechazos.size()); i++) {
+            System.out.println("  " + rechazos.get(i));
+        }
+        if (resultado.getRechazadas() > 10) {
+            System.out.println("  ... y " + (resultado.getRechazadas() - 10) + " rechazos más.");
+        }
+    }
+
     // ========== MÉTODOS AUXILIARES ==========
 
+    /**
+     * Lee un dato opcional.
+     *
+     * @param mensaje Texto que se muestra antes de leer
+     * @return Texto ingresado sin espacios en los extremos, o null si quedó en blanco
+     */
+    private static String leerOpcional(String mensaje) {
+        System.out.print(mensaje);
+        String valor = scanner.nextLine().trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
     /**
      * Lee un número entero de forma segura.
      *
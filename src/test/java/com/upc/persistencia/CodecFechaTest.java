@@ -0,0 +1,87 @@
+package com.upc.persistencia;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link CodecFecha}: el texto debe ser el mismo de
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} y la conversión a milisegundos debe
+ * ir y volver sin cambiar la fecha.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+class CodecFechaTest {
+
+    /**
+     * Nanosegundos que se escriben con 0, 3, 6 y 9 dígitos de fracción
+     */
+    private static final int[] NANOS = {0, 123_000_000, 123_456_000, 123_456_789};
+
+    @Test
+    void formatearCoincideConIso() {
+        for (int nanos : NANOS) {
+            LocalDateTime fecha = LocalDateTime.of(2025, 11, 8, 10, 30, 45, nanos);
+            Assertions.assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(fecha),
+                    CodecFecha.formatear(fecha));
+        }
+    }
+
+    @Test
+    void formatearQuitaCerosFinalesComoIso() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 100_000_000);
+        Assertions.assertEquals("2025-01-02T03:04:05.1", CodecFecha.formatear(fecha));
+        Assertions.assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(fecha), CodecFecha.formatear(fecha));
+    }
+
+    @Test
+    void leerCoincideConIso() {
+        for (int nanos : NANOS) {
+            LocalDateTime fecha = LocalDateTime.of(2025, 11, 8, 10, 30, 45, nanos);
+            String texto = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(fecha);
+            Assertions.assertEquals(LocalDateTime.parse(texto, DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    CodecFecha.leer(texto));
+            // toString rellena la fracción hasta 3, 6 o 9 dígitos
+            Assertions.assertEquals(fecha, CodecFecha.leer(fecha.toString()));
+        }
+    }
+
+    @Test
+    void leerAceptaFechaSinSegundos() {
+        Assertions.assertEquals(LocalDateTime.of(2025, 11, 8, 10, 30), CodecFecha.leer("2025-11-08T10:30"));
+    }
+
+    @Test
+    void leerRechazaFechaInvalida() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CodecFecha.leer("2025-13-08T10:30:45"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CodecFecha.leer("2025-11-08T10:30:4x"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CodecFecha.leer("2025-11-08T10:30:45."));
+    }
+
+    @Test
+    void epochMilisIdaYVuelta() {
+        LocalDateTime[] fechas = {
+            LocalDateTime.of(1970, 1, 1, 0, 0),
+            LocalDateTime.of(2025, 11, 8, 10, 30, 45, 123_000_000),
+            LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000),
+            LocalDateTime.of(1900, 2, 28, 12, 0, 0, 1_000_000)
+        };
+        for (LocalDateTime fecha : fechas) {
+            Assertions.assertEquals(fecha, CodecFecha.desdeEpochMilis(CodecFecha.aEpochMilis(fecha)));
+        }
+        long[] milis = {0, 1, -1, -999, -1000, -1001, 1_762_597_845_123L, -2_208_988_800_000L};
+        for (long m : milis) {
+            Assertions.assertEquals(m, CodecFecha.aEpochMilis(CodecFecha.desdeEpochMilis(m)));
+        }
+    }
+
+    @Test
+    void aEpochMilisDescartaNanosegundosMenoresAlMilisegundo() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 11, 8, 10, 30, 45, 123_456_789);
+        Assertions.assertEquals(LocalDateTime.of(2025, 11, 8, 10, 30, 45, 123_000_000),
+                CodecFecha.desdeEpochMilis(CodecFecha.aEpochMilis(fecha)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.upc.persistencia;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de {@link SerializadorTicket} con las dos variantes del formato CSV: siete
+ * columnas, y ocho con la columna {@code fechaEpochMs}.
+ *
+ * @author Universidad Popular del Cesar
+ * @version 1.0 - Fase 2
+ * @since 2025-11-08
+ */
+class SerializadorTicketTest {
+
+    @Test
+    void leeLineaDeSieteColumnas() {
+        TicketSinResolver ticket = SerializadorTicket.deserializarSinResolver(
+                "TK-00001,ABC123,1000000002,Valledupar,Barranquilla,2025-11-08T10:30:45.123456789,200.0");
+
+        Assertions.assertEquals("TK-00001", ticket.getIdTicket());
+        Assertions.assertEquals("ABC123", ticket.getPlaca());
+        Assertions.assertEquals("1000000002", ticket.getCedula());
+        Assertions.assertEquals("Valledupar", ticket.getOrigen());
+        Assertions.assertEquals("Barranquilla", ticket.getDestino());
+        Assertions.assertEquals(LocalDateTime.of(2025, 11, 8, 10, 30, 45, 123_456_789), ticket.getFecha());
+        Assertions.assertEquals(200.0, ticket.getDistanciaKm());
+    }
+
+    @Test
+    void leeLineaDeOchoColumnasConLaFechaEpoch() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 11, 8, 10, 30, 45, 123_000_000);
+        // La columna epoch manda sobre el texto ISO, que aquí tiene otra fecha
+        TicketSinResolver ticket = SerializadorTicket.deserializarSinResolver(
+                "TK-00002,ABC123,1000000002,Valledupar,Barranquilla,2000-01-01T00:00:00,150.5,"
+                        + CodecFecha.aEpochMilis(fecha));
+
+        Assertions.assertEquals("TK-00002", ticket.getIdTicket());
+        Assertions.assertEquals("Barranquilla", ticket.getDestino());
+        Assertions.assertEquals(fecha, ticket.getFecha());
+        Assertions.assertEquals(150.5, ticket.getDistanciaKm());
+    }
+
+    @Test
+    void escribeSieteColumnasSinLaPropiedad() {
+        Assertions.assertFalse(Boolean.getBoolean(SerializadorTicket.PROPIEDAD_FECHA_EPOCH));
+        LocalDateTime fecha = LocalDateTime.of(2025, 11, 8, 10, 30, 45, 500_000_000);
+        String linea = SerializadorTicket.serializarCampos("TK-00003", "XYZ987", "1000000003",
+                "Bosconia", "Valledupar", fecha, 80.0);
+
+        Assertions.assertEquals("TK-00003,XYZ987,1000000003,Bosconia,Valledupar,2025-11-08T10:30:45.5,80.0", linea);
+        TicketSinResolver leido = SerializadorTicket.deserializarSinResolver(linea);
+        Assertions.assertEquals(fecha, leido.getFecha());
+        Assertions.assertEquals(linea, leido.aCsv());
+    }
+
+    @Test
+    void rechazaOtraCantidadDeColumnas() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SerializadorTicket.deserializarSinResolver(
+                "TK-00004,ABC123,1000000002,Valledupar,Barranquilla,2025-11-08T10:30:45"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SerializadorTicket.deserializarSinResolver(
+                "TK-00004,ABC123,1000000002,Valledupar,Barranquilla,2025-11-08T10:30:45,1.0,0,extra"));
+    }
+
+    @Test
+    void rechazaFechaInvalida() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SerializadorTicket.deserializarSinResolver(
+                "TK-00005,ABC123,1000000002,Valledupar,Barranquilla,08/11/2025,1.0"));
+    }
+}